@@ -0,0 +1,99 @@
+package Benchmarks;
+
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * The benchmarks of walking through a backpack and computing its value and weight, for
+ * nested backpacks of varying depth and width.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class BackpackBenchmarks {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private BackpackBenchmarks(){
+	}
+
+	/**
+	 * The depths of the generated backpacks.
+	 */
+	private static final int[] DEPTHS = {1, 4, 16};
+
+	/**
+	 * The widths of the generated backpacks.
+	 */
+	private static final int[] WIDTHS = {1, 8, 32};
+
+	/**
+	 * Return the benchmarks of this suite.
+	 */
+	public static List<Benchmark> create(){
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (int depth: DEPTHS){
+			for (int width: WIDTHS){
+				benchmarks.add(new BackpackBenchmark("backpackIteration", depth, width){
+					@Override
+					public long operation(){
+						long count = 0;
+						Enumeration<Object> enumeration = backpack.getBackpackIterator();
+						while (enumeration.hasMoreElements()){
+							enumeration.nextElement();
+							count++;
+						}
+						return count;
+					}
+				});
+				benchmarks.add(new BackpackBenchmark("backpackValue", depth, width){
+					@Override
+					public long operation(){
+						return backpack.getValue().getValue();
+					}
+				});
+				benchmarks.add(new BackpackBenchmark("backpackTotalWeight", depth, width){
+					@Override
+					public long operation(){
+						return Double.doubleToRawLongBits(backpack.getTotalWeight(Unit.KG));
+					}
+				});
+			}
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * A class of benchmarks on a generated nested backpack.
+	 */
+	private static abstract class BackpackBenchmark extends Benchmark {
+
+		BackpackBenchmark(String name, int depth, int width){
+			super(name, "depth=" + depth + ",width=" + width);
+			this.depth = depth;
+			this.width = width;
+		}
+
+		/**
+		 * Variable registering the depth of the backpack.
+		 */
+		private final int depth;
+
+		/**
+		 * Variable registering the width of the backpack.
+		 */
+		private final int width;
+
+		/**
+		 * Variable referencing the generated backpack.
+		 */
+		Backpack backpack;
+
+		@Override
+		public void setUp(){
+			backpack = InventoryGenerator.nestedBackpack(new World(), depth, width);
+		}
+	}
+}
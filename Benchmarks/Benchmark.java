@@ -0,0 +1,86 @@
+package Benchmarks;
+
+/**
+ * A class of benchmarks, each one measuring a single operation with fixed parameters.
+ *
+ * A benchmark is set up once before it is measured. If the operation changes its state
+ * so that it can't simply be repeated, the benchmark prepares a fresh state before
+ * every operation; that preparation is not measured.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public abstract class Benchmark {
+
+	/**
+	 * Initialize this new benchmark.
+	 *
+	 * @param 	name
+	 * 			The name of this benchmark.
+	 * @param 	parameters
+	 * 			The parameters of this benchmark as text, or an empty string.
+	 */
+	protected Benchmark(String name, String parameters){
+		this.name = name;
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Variable referencing the name of this benchmark.
+	 */
+	private final String name;
+
+	/**
+	 * Variable referencing the parameters of this benchmark as text.
+	 */
+	private final String parameters;
+
+	/**
+	 * Return the name of this benchmark.
+	 */
+	public String getName(){
+		return this.name;
+	}
+
+	/**
+	 * Return the parameters of this benchmark as text.
+	 */
+	public String getParameters(){
+		return this.parameters;
+	}
+
+	/**
+	 * Return the name and the parameters of this benchmark.
+	 */
+	public String getKey(){
+		return parameters.isEmpty() ? name : name + "[" + parameters + "]";
+	}
+
+	/**
+	 * Set up the state of this benchmark before it is measured.
+	 */
+	public void setUp(){
+	}
+
+	/**
+	 * Return whether a fresh state must be prepared before every operation.
+	 */
+	public boolean isPreparedPerOperation(){
+		return false;
+	}
+
+	/**
+	 * Prepare a fresh state for the next operation. Only called if this benchmark is
+	 * prepared per operation.
+	 */
+	public void prepare(){
+	}
+
+	/**
+	 * Execute the measured operation once.
+	 *
+	 * @return	A number that depends on the result of the operation, so that the
+	 * 			operation can't be optimized away.
+	 */
+	public abstract long operation();
+}
@@ -0,0 +1,210 @@
+package Benchmarks;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * A program that runs the benchmarks of all suites, writes the results as JSON and
+ * optionally compares them to a baseline.
+ *
+ * Every benchmark is first warmed up, then measured for a number of iterations of fixed
+ * length. The result is the mean number of operations per second over the iterations,
+ * with the standard deviation as error. A benchmark that is prepared per operation is
+ * timed per operation, so its preparation is not counted.
+ *
+ * Usage: BenchmarkRunner [--warmup ms] [--iteration ms] [--iterations n] [--filter text]
+ *                        [--out file] [--baseline file] [--tolerance percent]
+ *
+ * With a baseline, the program exits with status 1 if a benchmark is more than the
+ * tolerance (default 20 percent) slower than in the baseline.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The pattern of one result line in a JSON results file.
+	 */
+	private static final Pattern RESULT_LINE = Pattern.compile(
+			"\\{\"benchmark\": \"([^\"]*)\", \"parameters\": \"([^\"]*)\", \"opsPerSecond\": ([0-9.Ee+-]+), \"error\": ([0-9.Ee+-]+)\\}");
+
+	/**
+	 * Variable holding the result of the operations, so they can't be optimized away.
+	 */
+	static long sink;
+
+	public static void main(String [] args) throws IOException {
+		long warmup = 2000;
+		long iteration = 1000;
+		int iterations = 5;
+		String filter = null;
+		String out = null;
+		String baseline = null;
+		double tolerance = 20;
+		for (int i = 0; i < args.length; i += 2){
+			if (i + 1 >= args.length){
+				throw new IllegalArgumentException("Missing value for " + args[i]);
+			}
+			String value = args[i + 1];
+			switch (args[i]){
+				case "--warmup": warmup = Long.parseLong(value); break;
+				case "--iteration": iteration = Long.parseLong(value); break;
+				case "--iterations": iterations = Integer.parseInt(value); break;
+				case "--filter": filter = value; break;
+				case "--out": out = value; break;
+				case "--baseline": baseline = value; break;
+				case "--tolerance": tolerance = Double.parseDouble(value); break;
+				default: throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.addAll(OwnableBenchmarks.create());
+		benchmarks.addAll(CombatBenchmarks.create());
+		benchmarks.addAll(BackpackBenchmarks.create());
+		benchmarks.addAll(DucatBenchmarks.create());
+
+		List<String> lines = new ArrayList<String>();
+		Map<String, double[]> results = new LinkedHashMap<String, double[]>();
+		for (Benchmark benchmark: benchmarks){
+			if ((filter != null) && !benchmark.getKey().contains(filter)){
+				continue;
+			}
+			double[] result = run(benchmark, warmup, iteration, iterations);
+			results.put(benchmark.getKey(), result);
+			lines.add(toJson(benchmark, result));
+			System.out.println(String.format(Locale.ROOT, "%-55s %14.1f ops/s +- %.1f",
+					benchmark.getKey(), result[0], result[1]));
+		}
+
+		if (out != null){
+			Files.write(Paths.get(out), toJsonArray(lines).getBytes(StandardCharsets.UTF_8));
+		}
+		if (baseline != null){
+			int regressions = compare(readResults(baseline), results, tolerance);
+			if (regressions > 0){
+				System.out.println(regressions + " regression(s) of more than " + tolerance + "%");
+				System.exit(1);
+			}
+			System.out.println("No regressions of more than " + tolerance + "%");
+		}
+	}
+
+	/**
+	 * Warm up and measure the given benchmark, and return its mean number of operations
+	 * per second and the standard deviation over the iterations.
+	 */
+	private static double[] run(Benchmark benchmark, long warmup, long iteration, int iterations){
+		benchmark.setUp();
+		measure(benchmark, warmup);
+		double[] scores = new double[iterations];
+		for (int i = 0; i < iterations; i++){
+			scores[i] = measure(benchmark, iteration);
+		}
+		double mean = 0;
+		for (double score: scores){
+			mean += score;
+		}
+		mean /= iterations;
+		double variance = 0;
+		for (double score: scores){
+			variance += (score - mean) * (score - mean);
+		}
+		double error = (iterations > 1) ? Math.sqrt(variance / (iterations - 1)) : 0;
+		return new double[]{mean, error};
+	}
+
+	/**
+	 * Execute the operation of the given benchmark for about the given number of
+	 * milliseconds and return the number of operations per second.
+	 */
+	private static double measure(Benchmark benchmark, long milliseconds){
+		long budget = milliseconds * 1000000L;
+		long operations = 0;
+		long measured = 0;
+		if (benchmark.isPreparedPerOperation()){
+			// The preparation is not measured, but it still may not take forever.
+			long deadline = System.nanoTime() + 5 * budget;
+			while ((measured < budget) && (System.nanoTime() < deadline)){
+				benchmark.prepare();
+				long start = System.nanoTime();
+				sink += benchmark.operation();
+				measured += System.nanoTime() - start;
+				operations++;
+			}
+		}
+		else {
+			long start = System.nanoTime();
+			while (measured < budget){
+				for (int i = 0; i < 64; i++){
+					sink += benchmark.operation();
+				}
+				operations += 64;
+				measured = System.nanoTime() - start;
+			}
+		}
+		return operations * 1e9 / Math.max(measured, 1);
+	}
+
+	/**
+	 * Return the given result of the given benchmark as a JSON object on one line.
+	 */
+	private static String toJson(Benchmark benchmark, double[] result){
+		return String.format(Locale.ROOT, "{\"benchmark\": \"%s\", \"parameters\": \"%s\", \"opsPerSecond\": %.1f, \"error\": %.1f}",
+				benchmark.getName(), benchmark.getParameters(), result[0], result[1]);
+	}
+
+	/**
+	 * Return the given JSON objects as a JSON array with one object per line.
+	 */
+	private static String toJsonArray(List<String> lines){
+		StringBuilder builder = new StringBuilder("[\n");
+		for (int i = 0; i < lines.size(); i++){
+			builder.append("  ").append(lines.get(i));
+			builder.append((i < lines.size() - 1) ? ",\n" : "\n");
+		}
+		return builder.append("]\n").toString();
+	}
+
+	/**
+	 * Read the results in the given JSON file, as written by this program.
+	 */
+	private static Map<String, double[]> readResults(String file) throws IOException {
+		Map<String, double[]> results = new LinkedHashMap<String, double[]>();
+		for (String line: Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)){
+			Matcher matcher = RESULT_LINE.matcher(line);
+			if (matcher.find()){
+				String key = matcher.group(2).isEmpty() ? matcher.group(1) : matcher.group(1) + "[" + matcher.group(2) + "]";
+				results.put(key, new double[]{Double.parseDouble(matcher.group(3)), Double.parseDouble(matcher.group(4))});
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Print the change of every result against the baseline and return the number of
+	 * results that are more than the given tolerance slower.
+	 */
+	private static int compare(Map<String, double[]> baseline, Map<String, double[]> results, double tolerance){
+		int regressions = 0;
+		for (Map.Entry<String, double[]> entry: results.entrySet()){
+			double[] base = baseline.get(entry.getKey());
+			if (base == null){
+				System.out.println(String.format(Locale.ROOT, "%-55s not in baseline", entry.getKey()));
+				continue;
+			}
+			double change = 100 * (entry.getValue()[0] - base[0]) / base[0];
+			boolean regression = (change < -tolerance);
+			if (regression){
+				regressions++;
+			}
+			System.out.println(String.format(Locale.ROOT, "%-55s %+7.1f%%%s", entry.getKey(), change,
+					regression ? "  REGRESSION" : ""));
+		}
+		return regressions;
+	}
+}
@@ -0,0 +1,299 @@
+package Benchmarks;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * The benchmarks of fights: a single hit, a full duel as in the main program, the same
+ * duel with a loot resolver, a duel between heavily armored monsters fought hit by hit
+ * and fast-forwarded, the exact solution of the duel of the main program and the two
+ * ways the winner takes the possessions of the loser, for a hero also with a large hoard
+ * and both loot strategies, the choice of the best loadout out of a full backpack and one
+ * round of a battle between a hundred thousand monsters, and a round robin between monsters
+ * on one thread and on one thread for every processor.
+ * Hero.addTreasure and
+ * Monster.collectTreasures are not public, so they are called through reflection.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class CombatBenchmarks {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private CombatBenchmarks(){
+	}
+
+	/**
+	 * Return the benchmarks of this suite.
+	 */
+	public static List<Benchmark> create(){
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new Benchmark("hit", ""){
+			private Hero hero;
+			private Monster monster;
+
+			@Override
+			public long operation(){
+				// A new pair is made when one of them died; that cost is included.
+				if ((hero == null) || hero.getKilled() || monster.getKilled()){
+					World world = new World();
+					hero = InventoryGenerator.hero(world);
+					monster = InventoryGenerator.monster(world);
+				}
+				monster.hit(hero);
+				return hero.getHitpoints();
+			}
+		});
+		benchmarks.add(new FightBenchmark("duel"){
+			@Override
+			public long operation(){
+				boolean heroTurn = true;
+				while (!hero.getKilled() && !monster.getKilled()){
+					if (heroTurn){
+						hero.hit(monster);
+					}
+					else {
+						monster.hit(hero);
+					}
+					heroTurn = !heroTurn;
+				}
+				return hero.getHitpoints() + monster.getHitpoints();
+			}
+		});
+		benchmarks.add(new FightBenchmark("duelAsyncLoot"){
+			// The deathblow is left to the resolver; a full queue falls back to the duel itself.
+			private final LootResolver resolver = new LootResolver();
+
+			@Override
+			public void prepare(){
+				super.prepare();
+				hero.getWorld().setLootResolver(resolver);
+			}
+
+			@Override
+			public long operation(){
+				boolean heroTurn = true;
+				while (!hero.getKilled() && !monster.getKilled()){
+					if (heroTurn){
+						hero.hit(monster);
+					}
+					else {
+						monster.hit(hero);
+					}
+					heroTurn = !heroTurn;
+				}
+				return hero.getHitpoints() + monster.getHitpoints();
+			}
+		});
+		for (final boolean fastForward: new boolean[]{false, true}){
+			benchmarks.add(new Benchmark(fastForward ? "armoredDuelFastForward" : "armoredDuel", "protection=95"){
+				private Duel duel;
+
+				@Override
+				public boolean isPreparedPerOperation(){
+					return true;
+				}
+
+				@Override
+				public void prepare(){
+					World world = new World();
+					duel = new Duel(InventoryGenerator.armoredMonster(world, "Boemkool", 95),
+							InventoryGenerator.armoredMonster(world, "Bloemkool", 95));
+				}
+
+				@Override
+				public long operation(){
+					Creature winner = fastForward ? duel.fastForward() : duel.fight();
+					return winner.getHitpoints() + duel.getNumberOfRounds();
+				}
+			});
+		}
+		benchmarks.add(new FightBenchmark("duelSolve"){
+			@Override
+			public long operation(){
+				DuelSolver solver = new DuelSolver(hero, monster);
+				return Math.round(solver.getWinProbability() * 1000000);
+			}
+		});
+		final Method addTreasure = getMethod(Hero.class, "addTreasure", Object.class, Creature.class);
+		benchmarks.add(new FightBenchmark("heroAddTreasure"){
+			@Override
+			public long operation(){
+				invoke(addTreasure, hero, null, monster);
+				return hero.getNumberOfArmors();
+			}
+		});
+		for (final boolean knapsack: new boolean[]{false, true}){
+			benchmarks.add(new Benchmark(knapsack ? "heroAddTreasureHoardKnapsack" : "heroAddTreasureHoard", "weapons=450"){
+				private Hero hero;
+				private Monster monster;
+
+				@Override
+				public boolean isPreparedPerOperation(){
+					return true;
+				}
+
+				@Override
+				public void prepare(){
+					World world = new World();
+					hero = InventoryGenerator.hero(world);
+					monster = InventoryGenerator.hoardMonster(world, 150);
+					if (knapsack){
+						hero.setLootStrategy(new KnapsackLootStrategy());
+					}
+				}
+
+				@Override
+				public long operation(){
+					invoke(addTreasure, hero, null, monster);
+					return Math.round(hero.getUsedCapacity(Unit.GRAM));
+				}
+			});
+		}
+		benchmarks.add(new FightBenchmark("heroEquipBestLoadout", "weapons=400"){
+			@Override
+			public void prepare(){
+				super.prepare();
+				Backpack backpack = (Backpack) hero.getAnchors().get("Back");
+				for (int i = 0; i < 400; i++){
+					backpack.addToStorage(new Weapon(hero.getWorld(), 100 * (1 + (i * 7) % 5), Unit.GRAM, 7 * (1 + (i * 5) % 14)));
+				}
+			}
+
+			@Override
+			public long operation(){
+				return Math.round(new LoadoutOptimizer().equipBest(hero, monster).getExpectedDamage() * 1000);
+			}
+		});
+		benchmarks.add(new Benchmark("battleRound", "participants=100000"){
+			private Battle battle;
+
+			@Override
+			public boolean isPreparedPerOperation(){
+				return true;
+			}
+
+			@Override
+			public void prepare(){
+				World world = new World();
+				ArrayList<Monster> participants = new ArrayList<Monster>();
+				for (int i = 0; i < 100000; i++){
+					participants.add(InventoryGenerator.armoredMonster(world, "Boemkool", 1 + (i % 95)));
+				}
+				battle = new Battle(participants);
+			}
+
+			@Override
+			public long operation(){
+				battle.fightRound();
+				return battle.getNumberOfAlive();
+			}
+		});
+		final List<TournamentEntrant> entrants = new ArrayList<TournamentEntrant>();
+		for (int i = 0; i < 40; i++){
+			final String name = "Boemkool " + i;
+			final int protection = 50 + i;
+			entrants.add(new TournamentEntrant(){
+				@Override
+				public String getName(){
+					return name;
+				}
+
+				@Override
+				public Creature createCreature(World world){
+					return InventoryGenerator.armoredMonster(world, "Boemkool", protection);
+				}
+			});
+		}
+		int processors = Runtime.getRuntime().availableProcessors();
+		for (final int threads: (processors > 1) ? new int[]{1, processors} : new int[]{1}){
+			benchmarks.add(new Benchmark("tournamentRoundRobin", "entrants=40,threads=" + threads){
+				@Override
+				public long operation(){
+					Tournament tournament = new Tournament(entrants, threads, 4 * threads);
+					try {
+						return tournament.playRoundRobin().get(0).getPoints();
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			});
+		}
+		final Method collectTreasures = getMethod(Monster.class, "collectTreasures", Creature.class);
+		benchmarks.add(new FightBenchmark("monsterCollectTreasures"){
+			@Override
+			public long operation(){
+				invoke(collectTreasures, monster, hero);
+				return monster.getNumberOfArmors();
+			}
+		});
+		return benchmarks;
+	}
+
+	/**
+	 * A class of benchmarks that need a fresh hero and monster for every operation.
+	 */
+	private static abstract class FightBenchmark extends Benchmark {
+
+		FightBenchmark(String name){
+			this(name, "");
+		}
+
+		FightBenchmark(String name, String parameters){
+			super(name, parameters);
+		}
+
+		/**
+		 * Variable referencing the hero of the next operation.
+		 */
+		Hero hero;
+
+		/**
+		 * Variable referencing the monster of the next operation.
+		 */
+		Monster monster;
+
+		@Override
+		public boolean isPreparedPerOperation(){
+			return true;
+		}
+
+		@Override
+		public void prepare(){
+			World world = new World();
+			hero = InventoryGenerator.hero(world);
+			monster = InventoryGenerator.monster(world);
+		}
+	}
+
+	/**
+	 * Return the declared method of the given class with the given name and parameter
+	 * types, made accessible.
+	 */
+	private static Method getMethod(Class<?> declaringClass, String name, Class<?>... parameterTypes){
+		try {
+			Method method = declaringClass.getDeclaredMethod(name, parameterTypes);
+			method.setAccessible(true);
+			return method;
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Invoke the given method on the given object with the given arguments.
+	 */
+	private static void invoke(Method method, Object object, Object... arguments){
+		try {
+			method.invoke(object, arguments);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * The benchmarks of the arithmetic of ducats and ducat ledgers.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class DucatBenchmarks {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private DucatBenchmarks(){
+	}
+
+	/**
+	 * Return the benchmarks of this suite.
+	 */
+	public static List<Benchmark> create(){
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new Benchmark("ducatAddCached", ""){
+			private int i;
+
+			@Override
+			public long operation(){
+				i = (i + 1) & 511;
+				return Ducat.valueOf(i).add(Ducat.valueOf(512 - i)).getValue();
+			}
+		});
+		benchmarks.add(new Benchmark("ducatAddLarge", ""){
+			private int i;
+
+			@Override
+			public long operation(){
+				i = (i + 1) & 65535;
+				return Ducat.valueOf(100000 + i).add(Ducat.valueOf(i)).getValue();
+			}
+		});
+		benchmarks.add(new Benchmark("ducatSubtract", ""){
+			private int i;
+
+			@Override
+			public long operation(){
+				i = (i + 1) & 65535;
+				return Ducat.valueOf(100000 + i).subtract(Ducat.valueOf(i)).getValue();
+			}
+		});
+		benchmarks.add(new Benchmark("ducatLedgerSum", ""){
+			private final Ducat[] ducats = new Ducat[64];
+
+			@Override
+			public void setUp(){
+				for (int i = 0; i < ducats.length; i++){
+					ducats[i] = Ducat.valueOf(1000 * i + 7);
+				}
+			}
+
+			@Override
+			public long operation(){
+				DucatLedger ledger = DucatLedger.EMPTY;
+				for (Ducat ducat: ducats){
+					ledger = ledger.add(ducat);
+				}
+				return ledger.getValue();
+			}
+		});
+		return benchmarks;
+	}
+}
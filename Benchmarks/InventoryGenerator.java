@@ -0,0 +1,125 @@
+package Benchmarks;
+
+import java.math.*;
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * A class of generators of inventories and creatures for benchmarks. Everything is made
+ * in the given world, so benchmarks don't influence each other.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class InventoryGenerator {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private InventoryGenerator(){
+	}
+
+	/**
+	 * Return a chain of nested backpacks: the returned backpack holds the next one, and so
+	 * on, until the given depth is reached. Every backpack holds the given number of
+	 * weapons, a purse with ducats and some loose ducats.
+	 *
+	 * @param 	world
+	 * 			The world to make the backpacks in.
+	 * @param 	depth
+	 * 			The number of nested backpacks, at least 1. Identifications of backpacks
+	 * 			get expensive quickly, so it should stay below 20.
+	 * @param 	width
+	 * 			The number of weapons in every backpack.
+	 */
+	public static Backpack nestedBackpack(World world, int depth, int width){
+		Backpack outer = null;
+		for (int level = 0; level < depth; level++){
+			Backpack backpack = new Backpack(world, new Ducat(10), 1000000, 1, Unit.KG);
+			for (int i = 0; i < width; i++){
+				backpack.addToStorage(new Weapon(world, 100, Unit.GRAM, 7 * (1 + i % 14)));
+			}
+			Purse purse = new Purse(world, 100, Unit.GRAM, 1000);
+			purse.addToStorage(new Ducat(10 + level));
+			backpack.addToStorage(purse);
+			backpack.addToStorage(new Ducat(level + 1));
+			if (outer != null){
+				backpack.addToStorage(outer);
+			}
+			outer = backpack;
+		}
+		return outer;
+	}
+
+	/**
+	 * Return a hero that is equipped like the hero of the main program.
+	 *
+	 * @param 	world
+	 * 			The world to make the hero in.
+	 */
+	public static Hero hero(World world){
+		Purse geldbeurs = new Purse(world, 222, Unit.GRAM, 5000);
+		geldbeurs.addToStorage(new Ducat(47));
+		Backpack rugzak = new Backpack(world, new Ducat(132), 261, 1, Unit.KG);
+		return new Hero(world, "Eend", new BigDecimal("264.15"), 237,
+				new ArrayList<Object>(Arrays.asList(new Weapon(world, 2, Unit.KG, 70),
+						new Weapon(world, 1063, Unit.GRAM, 42), rugzak,
+						new Armor(world, 2477, 84, new Ducat(752), 73, Unit.KG), geldbeurs)));
+	}
+
+	/**
+	 * Return a monster that is equipped like the monster of the main program.
+	 *
+	 * @param 	world
+	 * 			The world to make the monster in.
+	 */
+	public static Monster monster(World world){
+		Backpack rugzak = new Backpack(world, new Ducat(104), 541, 2, Unit.KG);
+		rugzak.addToStorage(new Weapon(world, 20, Unit.KG, 56));
+		ArrayList<String> anchors = new ArrayList<String>(Arrays.asList("Hand 1", "Hand 2", "Hand 3", "Hand 4", "Tail", "Horns"));
+		ArrayList<Object> anchorObjects = new ArrayList<Object>(Arrays.asList(new Weapon(world, 361, Unit.GRAM, 49),
+				new Armor(world, 65, 62, new Ducat(457), 68, Unit.KG), rugzak, Ducat.ONE_DUCAT));
+		return new Monster(world, "Boemkool", new BigDecimal(312.48), 698, anchors, anchorObjects, 35, 72);
+	}
+
+	/**
+	 * Return a monster like the monster of the main program, without possessions and
+	 * with the given protection.
+	 *
+	 * @param 	world
+	 * 			The world to make the monster in.
+	 * @param 	name
+	 * 			The name of the monster.
+	 * @param 	protection
+	 * 			The protection of the monster.
+	 */
+	public static Monster armoredMonster(World world, String name, int protection){
+		ArrayList<String> anchors = new ArrayList<String>(Arrays.asList("Hand 1", "Hand 2"));
+		return new Monster(world, name, new BigDecimal(312.48), 698, anchors, new ArrayList<Object>(), 35, protection);
+	}
+
+	/**
+	 * Return a monster like the monster of the main program that carries a hoard: three
+	 * backpacks of 300 kilogram, each one with the given number of weapons of 0.5 up to
+	 * 2.9 kilogram and some loose ducats.
+	 *
+	 * @param 	world
+	 * 			The world to make the monster in.
+	 * @param 	weaponsPerBackpack
+	 * 			The number of weapons in every backpack, at most 150.
+	 */
+	public static Monster hoardMonster(World world, int weaponsPerBackpack){
+		ArrayList<Object> anchorObjects = new ArrayList<Object>();
+		for (int b = 0; b < 3; b++){
+			Backpack backpack = new Backpack(world, new Ducat(10), 300, 1, Unit.KG);
+			for (int i = 0; i < weaponsPerBackpack; i++){
+				backpack.addToStorage(new Weapon(world, 100 * (5 + (i * 7 + b) % 25), Unit.GRAM, 7 * (1 + (i * 5 + b) % 14)));
+			}
+			backpack.addToStorage(new Ducat(20 + b));
+			anchorObjects.add(backpack);
+		}
+		ArrayList<String> anchors = new ArrayList<String>(Arrays.asList("Hand 1", "Hand 2", "Hand 3", "Hand 4", "Tail", "Horns"));
+		return new Monster(world, "Boemkool", new BigDecimal(312.48), 698, anchors, anchorObjects, 35, 72);
+	}
+}
@@ -0,0 +1,109 @@
+package Benchmarks;
+
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * The benchmarks of the identification allocation of every class of ownables. Every
+ * operation makes one new ownable. The world is replaced after a fixed number of
+ * operations, so the registries of identifications stay small; the cost of the new
+ * world is included in the measurement.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class OwnableBenchmarks {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private OwnableBenchmarks(){
+	}
+
+	/**
+	 * Return the benchmarks of this suite.
+	 */
+	public static List<Benchmark> create(){
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new AllocationBenchmark("weaponIdentification", 1000){
+			@Override
+			long make(World world){
+				return new Weapon(world, 1, Unit.KG, 14).getIdentification();
+			}
+		});
+		benchmarks.add(new AllocationBenchmark("armorIdentification", 1000){
+			@Override
+			long make(World world){
+				return new Armor(world, 2, 84, new Ducat(752), 10, Unit.KG).getIdentification();
+			}
+		});
+		benchmarks.add(new AllocationBenchmark("backpackIdentification", 16){
+			@Override
+			long make(World world){
+				return new Backpack(world, new Ducat(10), 100, 1, Unit.KG).getIdentification();
+			}
+		});
+		benchmarks.add(new AllocationBenchmark("purseIdentification", 1000){
+			@Override
+			long make(World world){
+				return new Purse(world, 100, Unit.GRAM, 1000).getIdentification();
+			}
+		});
+		return benchmarks;
+	}
+
+	/**
+	 * A class of benchmarks that make a new ownable in every operation.
+	 */
+	private static abstract class AllocationBenchmark extends Benchmark {
+
+		/**
+		 * Initialize this new benchmark.
+		 *
+		 * @param 	name
+		 * 			The name of this benchmark.
+		 * @param 	ownablesPerWorld
+		 * 			The number of ownables made in a world before it is replaced.
+		 */
+		AllocationBenchmark(String name, int ownablesPerWorld){
+			super(name, "ownablesPerWorld=" + ownablesPerWorld);
+			this.ownablesPerWorld = ownablesPerWorld;
+		}
+
+		/**
+		 * Variable registering the number of ownables made in a world before it is replaced.
+		 */
+		private final int ownablesPerWorld;
+
+		/**
+		 * Variable referencing the current world.
+		 */
+		private World world;
+
+		/**
+		 * Variable registering the number of ownables made in the current world.
+		 */
+		private int made;
+
+		@Override
+		public void setUp(){
+			world = new World();
+			made = 0;
+		}
+
+		@Override
+		public long operation(){
+			if (made == ownablesPerWorld){
+				setUp();
+			}
+			made++;
+			return make(world);
+		}
+
+		/**
+		 * Make a new ownable in the given world and return its identification.
+		 */
+		abstract long make(World world);
+	}
+}
@@ -6,6 +6,9 @@ import heroes_and_monsters.*;
 
 /**
  * A class for signaling illegal attempts to let a creature do something when it's dead.
+ *
+ * These exceptions are thrown from basic inspectors, so they don't record a stack
+ * trace or suppressed exceptions; a single exception per creature can be reused.
  */
 public class CreatureIsDeadException extends RuntimeException {
 
@@ -26,6 +29,7 @@ public class CreatureIsDeadException extends RuntimeException {
 	 */
 	@Raw
 	public CreatureIsDeadException(Creature creature) {
+		super(null, null, false, false);
 		this.creature = creature;
 	}
 	
@@ -6,6 +6,9 @@ import heroes_and_monsters.*;
 
 /**
  * A class for signaling illegal attempts to let an ownable do something when it's terminated.
+ *
+ * These exceptions are thrown from basic inspectors, so they don't record a stack
+ * trace or suppressed exceptions; a single exception per ownable can be reused.
  */
 public class OwnableIsTerminatedException extends RuntimeException {
 
@@ -26,6 +29,7 @@ public class OwnableIsTerminatedException extends RuntimeException {
 	 */
 	@Raw
 	public OwnableIsTerminatedException(Ownable ownable) {
+		super(null, null, false, false);
 		this.ownable = ownable;
 	}
 	
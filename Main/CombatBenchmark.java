@@ -0,0 +1,70 @@
+package Main;
+
+import java.math.*;
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * A program that measures how many hits per second a fight between a hero and a monster
+ * can handle. Every fight takes place in its own world and lasts until one of the two
+ * creatures is dead. The first part of the run is a warm-up and is not reported.
+ *
+ * Usage: CombatBenchmark [duration in seconds] [warm-up in seconds] [metrics]
+ *
+ * With the third argument "metrics", metrics are enabled and dumped at the end.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public class CombatBenchmark {
+
+	public static void main(String [] args){
+		long duration = (args.length > 0) ? Long.parseLong(args[0]) : 10;
+		long warmUp = (args.length > 1) ? Long.parseLong(args[1]) : 5;
+		if ((args.length > 2) && args[2].equals("metrics")){
+			Metrics.enable();
+		}
+
+		fight(warmUp);
+		long start = System.nanoTime();
+		long[] result = fight(duration);
+		double seconds = (System.nanoTime() - start) / 1000000000d;
+		System.out.println(String.format(Locale.ROOT,
+				"fights=%d hits=%d seconds=%.2f hitsPerSecond=%.0f",
+				result[0], result[1], seconds, result[1] / seconds));
+		if (Metrics.isEnabled()){
+			System.out.print(Metrics.dump());
+		}
+	}
+
+	/**
+	 * Let heroes and monsters fight for the given number of seconds.
+	 *
+	 * @return	The number of fights and the number of hits.
+	 */
+	private static long[] fight(long duration){
+		long end = System.nanoTime() + duration * 1000000000L;
+		long fights = 0;
+		long hits = 0;
+		while (System.nanoTime() < end){
+			World world = new World();
+			Hero hero = new Hero(world, "Eend", new BigDecimal(20), 10007,
+					new ArrayList<Object>(Arrays.asList(new Weapon(world, 1, Unit.KG, 14), null, null,
+							new Armor(world, 2477, 84, new Ducat(752), 10, Unit.KG), null)));
+			Monster monster = new Monster(world, "Boemkool", new BigDecimal(41.23), 10007,
+					new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+					new ArrayList<Object>(), 49, 46);
+			while (!hero.getKilled() && !monster.getKilled()){
+				monster.hit(hero);
+				hits++;
+				if (!hero.getKilled()){
+					hero.hit(monster);
+					hits++;
+				}
+			}
+			fights++;
+		}
+		return new long[] {fights, hits};
+	}
+}
@@ -19,20 +19,7 @@ public class MainProgram {
 		geldbeurs.addToStorage(geld);
 		ArrayList<Object> anchorObjects = new ArrayList<Object>(Arrays.asList(geweer, zwaard, rugzak, harnas, geldbeurs));
 		Hero eend = new Hero("Eend", new BigDecimal("264.15") , 237, anchorObjects);
-		Ducat totaleWaarde1 = new Ducat(0);
-		Iterator<String> iterator1 = eend.getAnchors().keySet().iterator();
-		while (iterator1.hasNext()){
-			String anchor = iterator1.next();
-			Object voorwerp = eend.getAnchors().get(anchor);
-			if (voorwerp != null){
-				if (voorwerp instanceof Ownable){
-					totaleWaarde1.add(((Ownable) voorwerp).getValue());
-				}
-				if (voorwerp instanceof Ducat){
-					totaleWaarde1.add(((Ducat) voorwerp));
-				}
-			}
-		}
+		DucatLedger totaleWaarde1 = eend.getWallet().getTotal();
 		System.out.println("Waarde bezittingen Eend: " + totaleWaarde1.toString());
 		
 		// Monster
@@ -45,20 +32,7 @@ public class MainProgram {
 		ArrayList<String> anchors = new ArrayList<String>(Arrays.asList("Hand 1", "Hand 2", "Hand 3", "Hand 4", "Tail", "Horns"));
 		ArrayList<Object> anchorObjects2 = new ArrayList<Object>(Arrays.asList(mes, harnas2, rugzak2, eenDukaat));
 		Monster boemkool = new Monster("Boemkool", new BigDecimal(312.48), 698, anchors, anchorObjects2, 35, 72);
-		Ducat totaleWaarde2 = new Ducat(0);
-		Iterator<String> iterator2 = boemkool.getAnchors().keySet().iterator();
-		while (iterator2.hasNext()){
-			String anchor = iterator2.next();
-			Object voorwerp = boemkool.getAnchors().get(anchor);
-			if (voorwerp != null){
-				if (voorwerp instanceof Ownable){
-					totaleWaarde2.add(((Ownable) voorwerp).getValue());
-				}
-				if (voorwerp instanceof Ducat){
-					totaleWaarde2.add(((Ducat) voorwerp));
-				}
-			}
-		}
+		DucatLedger totaleWaarde2 = boemkool.getWallet().getTotal();
 		System.out.println("Waarde bezittingen Boemkool: " + totaleWaarde2.toString());
 		
 		// Gevecht
@@ -83,20 +57,7 @@ public class MainProgram {
 			winnaar = boemkool;
 		}
 		System.out.println("De winnaar is " + winnaar.getName() + "!");
-		Ducat totaleWaarde3 = new Ducat(0);
-		Iterator<String> iterator3 = winnaar.getAnchors().keySet().iterator();
-		while (iterator3.hasNext()){
-			String anchor = iterator3.next();
-			Object voorwerp = winnaar.getAnchors().get(anchor);
-			if (voorwerp != null){
-				if (voorwerp instanceof Ownable){
-					totaleWaarde3.add(((Ownable) voorwerp).getValue());
-				}
-				if (voorwerp instanceof Ducat){
-					totaleWaarde3.add(((Ducat) voorwerp));
-				}
-			}
-		}
+		DucatLedger totaleWaarde3 = winnaar.getWallet().getTotal();
 		System.out.println("Nieuwe waarde bezittingen " + winnaar.getName() + ": " + totaleWaarde3);
 		
 	}
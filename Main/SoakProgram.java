@@ -0,0 +1,78 @@
+package Main;
+
+import java.util.*;
+
+import heroes_and_monsters.*;
+
+/**
+ * A long running program that keeps creating and terminating weapons and armors, and
+ * reports the size of the registries and the used memory at a fixed interval.
+ *
+ * Usage: SoakProgram [duration in seconds] [REUSE|RETAIN] [report interval in seconds]
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public class SoakProgram {
+
+	public static void main(String [] args){
+		long duration = (args.length > 0) ? Long.parseLong(args[0]) : 60;
+		ReclaimPolicy policy = (args.length > 1) ? ReclaimPolicy.valueOf(args[1]) : ReclaimPolicy.REUSE;
+		long interval = (args.length > 2) ? Long.parseLong(args[2]) : 10;
+
+		// One long-lived world with a hero that keeps finding and losing equipment.
+		World world = new World();
+		world.setReclaimPolicy(policy);
+		Hero hero = new Hero(world, "Eend", 237, new Armor(world, 2477, 84, new Ducat(752), 10, Unit.KG));
+		Backpack rugzak = new Backpack(world, new Ducat(10), 100, 1, Unit.KG);
+		hero.addToAnchor(rugzak, "Back");
+
+		long start = System.nanoTime();
+		long end = start + duration * 1000000000L;
+		long nextReport = start;
+		long rounds = 0;
+		long worlds = 0;
+		while (System.nanoTime() < end){
+			// Churn the long-lived world.
+			Weapon zwaard = new Weapon(world, 1, Unit.KG, 14);
+			hero.addToAnchor(zwaard, "Left hand");
+			hero.dropFromAnchorAndTerminate(zwaard);
+			for (int i = 0; i < 10; i++){
+				rugzak.addToStorage(new Weapon(world, 100, Unit.GRAM, 7));
+			}
+			rugzak.addToStorage(new Armor(world, 2, 10, new Ducat(10), 500, Unit.GRAM));
+			for (Object object: rugzak.getContent()){
+				if (object instanceof Ownable){
+					rugzak.removeFromStorageAndTerminate(object);
+				}
+			}
+
+			// A short-lived world that is discarded after every round.
+			World tijdelijk = new World();
+			Hero passant = new Hero(tijdelijk, "Passant", 97, new Armor(tijdelijk, 2477, 84, new Ducat(752), 10, Unit.KG));
+			passant.addToAnchor(new Weapon(tijdelijk, 1, Unit.KG, 14), "Right hand");
+			passant.addToAnchor(new Backpack(tijdelijk, new Ducat(10), 100, 1, Unit.KG), "Back");
+			worlds++;
+			rounds++;
+
+			long now = System.nanoTime();
+			if (now >= nextReport){
+				report(world, (now - start) / 1000000000L, rounds, worlds);
+				nextReport = now + interval * 1000000000L;
+			}
+		}
+		report(world, (System.nanoTime() - start) / 1000000000L, rounds, worlds);
+	}
+
+	/**
+	 * Print the registry sizes of the given world and the used heap.
+	 */
+	private static void report(World world, long seconds, long rounds, long worlds){
+		Runtime runtime = Runtime.getRuntime();
+		long usedHeap = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+		System.out.println(String.format(Locale.ROOT,
+				"t=%ds rounds=%d worlds=%d weapons=%d armors=%d backpacks=%d usedHeap=%dMB",
+				seconds, rounds, worlds, world.getNumberOfWeapons(), world.getNumberOfArmors(),
+				world.getNumberOfBackpacks(), usedHeap));
+	}
+}
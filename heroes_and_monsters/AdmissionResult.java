@@ -0,0 +1,82 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of the results of checking whether an object can be added to a
+ * storage or to an anchor of a creature.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public enum AdmissionResult {
+
+	/**
+	 * The object can be added.
+	 */
+	ADMITTED,
+
+	/**
+	 * The world changed since the admission ticket was prepared, so it can't be
+	 * committed any more.
+	 */
+	STALE,
+
+	/**
+	 * The storage or the object is terminated.
+	 */
+	TERMINATED,
+
+	/**
+	 * The creature is dead.
+	 */
+	DEAD,
+
+	/**
+	 * The object belongs to another world.
+	 */
+	OTHER_WORLD,
+
+	/**
+	 * The object can never be put there, for example because it is no ownable or ducat,
+	 * or it is not a ducat for a purse, or a ducat of more than one for an anchor.
+	 */
+	NOT_STORABLE,
+
+	/**
+	 * The object already has a holder.
+	 */
+	ALREADY_HELD,
+
+	/**
+	 * The creature has no such anchor.
+	 */
+	NO_SUCH_ANCHOR,
+
+	/**
+	 * The anchor already holds an object.
+	 */
+	ANCHOR_OCCUPIED,
+
+	/**
+	 * The anchor is reserved for another kind of object.
+	 */
+	WRONG_ANCHOR,
+
+	/**
+	 * A hero would carry too many armors.
+	 */
+	TOO_MANY_ARMORS,
+
+	/**
+	 * The purse is broken.
+	 */
+	BROKEN,
+
+	/**
+	 * The storage, one of the backpacks it is in or the creature carrying it can't carry
+	 * the extra weight.
+	 */
+	OVER_CAPACITY;
+}
@@ -0,0 +1,156 @@
+package heroes_and_monsters;
+
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of admission tickets, each one the outcome of checking once whether an object
+ * can be added to a storage or to an anchor of a creature. An admitted ticket can be
+ * committed without checking again, as long as nothing in the world of the target
+ * changed since the ticket was prepared.
+ *
+ * @invar	The target and the result of each ticket are effective.
+ * 			| getTarget() != null && getResult() != null
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public final class AdmissionTicket {
+
+	/**
+	 * Initialize this new admission ticket.
+	 *
+	 * @param 	target
+	 * 			The storage or creature the object is added to.
+	 * @param 	object
+	 * 			The object to add.
+	 * @param 	anchor
+	 * 			The anchor the object is added to, or null for a storage.
+	 * @param 	result
+	 * 			The result of the check.
+	 * @param 	weight
+	 * 			The weight in kilogram the target gains.
+	 * @param 	ancestors
+	 * 			The backpacks and the creature that carry the target and gain the same
+	 * 			weight.
+	 * @param 	modificationCount
+	 * 			The modification count of the world of the target when the check was made.
+	 */
+	AdmissionTicket(Object target, Object object, String anchor, AdmissionResult result,
+			double weight, List<Object> ancestors, long modificationCount){
+		this.target = target;
+		this.object = object;
+		this.anchor = anchor;
+		this.result = result;
+		this.weight = weight;
+		this.ancestors = Collections.unmodifiableList(ancestors);
+		this.modificationCount = modificationCount;
+	}
+
+	/**
+	 * Variable referencing the storage or creature the object is added to.
+	 */
+	private final Object target;
+
+	/**
+	 * Variable referencing the object to add.
+	 */
+	private final Object object;
+
+	/**
+	 * Variable referencing the anchor the object is added to, or null for a storage.
+	 */
+	private final String anchor;
+
+	/**
+	 * Variable referencing the result of the check.
+	 */
+	private final AdmissionResult result;
+
+	/**
+	 * Variable registering the weight in kilogram the target gains.
+	 */
+	private final double weight;
+
+	/**
+	 * Variable referencing the backpacks and the creature that carry the target.
+	 */
+	private final List<Object> ancestors;
+
+	/**
+	 * Variable registering the modification count of the world when the check was made.
+	 */
+	private final long modificationCount;
+
+	/**
+	 * Return the storage or creature the object is added to.
+	 */
+	@Basic @Immutable
+	public Object getTarget(){
+		return this.target;
+	}
+
+	/**
+	 * Return the object to add.
+	 */
+	@Basic @Immutable
+	public Object getObject(){
+		return this.object;
+	}
+
+	/**
+	 * Return the anchor the object is added to, or null if the target is a storage.
+	 */
+	@Basic @Immutable
+	public String getAnchor(){
+		return this.anchor;
+	}
+
+	/**
+	 * Return the result of the check.
+	 */
+	@Basic @Immutable
+	public AdmissionResult getResult(){
+		return this.result;
+	}
+
+	/**
+	 * Check whether the object was admitted.
+	 *
+	 * @return	True if and only if the result is ADMITTED.
+	 * 			| result == (getResult() == AdmissionResult.ADMITTED)
+	 */
+	public boolean isAdmitted(){
+		return (this.result == AdmissionResult.ADMITTED);
+	}
+
+	/**
+	 * Return the weight the target gains in the given unit.
+	 *
+	 * @param 	unit
+	 * 			The unit to express the weight in.
+	 */
+	@Immutable
+	public double getWeight(Unit unit){
+		return unit.convertFromKilogram(this.weight);
+	}
+
+	/**
+	 * Return the backpacks and the creature that carry the target, in no particular
+	 * order. The list is empty if the target is a creature or a storage on its own.
+	 */
+	@Basic @Immutable
+	public List<Object> getAncestors(){
+		return this.ancestors;
+	}
+
+	/**
+	 * Return the modification count of the world of the target when the check was made.
+	 */
+	@Basic @Immutable
+	public long getModificationCount(){
+		return this.modificationCount;
+	}
+}
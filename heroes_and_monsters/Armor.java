@@ -2,6 +2,8 @@ package heroes_and_monsters;
 
 import be.kuleuven.cs.som.annotate.*;
 
+import java.util.OptionalInt;
+
 import Exceptions.OwnableIsTerminatedException;
 
 /**
@@ -45,7 +47,37 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	@Raw
 	public Armor(long identification, int maxProtection, Ducat maxValue,
 			double weight, Unit unit){
-		super(identification, weight, unit);
+		this(World.getDefaultWorld(), identification, maxProtection, maxValue, weight, unit);
+		}
+	
+	/**
+	 * Initialize this new armor of the given world with an identification, maximum
+	 * protection, maximum value, weight and unit.
+	 * 
+	 * @param	world
+	 * 			The world of this armor.
+	 * @param 	identification
+	 * 			The identification of this armor.
+	 * @param	maxProtection
+	 * 			The maximum protection of this armor.
+	 * @param	maxValue
+	 * 			The maximum value of this armor.
+	 * @param	weight
+	 * 			The weight of this armor.
+	 * @param	unit
+	 * 			The unit in which the weight is set.
+	 * @effect	This armor is initialized as an ownable of the given world with the given
+	 * 			identification, weight and unit. If the given identification is not a correct
+	 * 			identification, the identification is set to a correct identification.
+	 * @post  	If the given value is valid, the maxValue of this armor is set to the given maxValue. 
+	 * @post  	If the given value isn't valid, maxValue is set to the default.
+	 * @post	If the given value is valid, the maxProtection of this armor is set to the given maxProtection.
+	 * @post	If the given value isn't valid, maxProtecion is set to the default.
+	 */
+	@Raw
+	public Armor(World world, long identification, int maxProtection, Ducat maxValue,
+			double weight, Unit unit){
+		super(world, identification, weight, unit);
 		this.setMaxValue(maxValue);
 		this.setMaxProtection(maxProtection);
 		}
@@ -94,11 +126,26 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	@Override
 	public int getCurrentProtection() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		return this.protection;
 	}
 	
+	/**
+	 * Return the current protection of this armor, without throwing if it is terminated.
+	 * 
+	 * @return	An empty optional if this armor is terminated, otherwise its current protection.
+	 * 			| if (getTerminated())
+	 * 			| then	!result.isPresent()
+	 * 			| else	result.getAsInt() == getCurrentProtection()
+	 */
+	public OptionalInt tryGetCurrentProtection(){
+		if (getTerminated()){
+			return OptionalInt.empty();
+		}
+		return OptionalInt.of(this.protection);
+	}
+	
 	/**
 	 * Returns the maximum protection of this particular armor.
 	 * 
@@ -111,7 +158,7 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	@Basic @Immutable @Raw
 	public int getMaxProtection() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		return this.maxProtection;
 	}
@@ -125,6 +172,10 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	 * 		  | canHaveAsProtection(protection)
 	 * @post  The number to which the protection is set is equal to the given number.
 	 * 		  | new.getCurrentProtection().equals(protection) 
+	 * @effect If the protection is changed and this armor has a protection listener, the
+	 * 		   listener is notified.
+	 * 		  | if (getProtectionListener() != null)
+	 * 		  | then getProtectionListener().protectionChanged(this)
 	 * @throws	OwnableIsTerminatedException
 	 * 			This ownable is terminated.
 	 * 			| getTerminated()
@@ -132,13 +183,44 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	@Override
 	public void setCurrentProtection(int protection) throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		if (canHaveAsProtection(protection)){
 			this.protection = protection;
+			if (this.protectionListener != null){
+				this.protectionListener.protectionChanged(this);
+			}
+			getWorld().getEventBus().publish(GameEventType.PROTECTION_CHANGED, this, null, protection);
 		}
 	}
 	
+	/**
+	 * Variable referencing the listener that is notified when the current protection of
+	 * this armor changes.
+	 */
+	private ProtectionListener protectionListener = null;
+	
+	/**
+	 * Return the listener that is notified when the current protection of this armor changes.
+	 */
+	@Basic @Raw
+	ProtectionListener getProtectionListener(){
+		return this.protectionListener;
+	}
+	
+	/**
+	 * Set the listener that is notified when the current protection of this armor changes.
+	 * 
+	 * @param	protectionListener
+	 * 			The new listener, or null to notify nobody.
+	 * @post	The protection listener of this armor is the given listener.
+	 * 			| new.getProtectionListener() == protectionListener
+	 */
+	@Raw
+	void setProtectionListener(ProtectionListener protectionListener){
+		this.protectionListener = protectionListener;
+	}
+	
 	/**
 	 * Sets the maximum protection to the given number.
 	 * 
@@ -181,7 +263,7 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	public void decreaseProtection(int decrease)
 			throws IllegalArgumentException, OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		if (decrease > 0){
 			int decreasedProtection = this.protection - decrease;
@@ -223,7 +305,7 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	public void increaseProtection(int increase)
 			throws IllegalArgumentException, OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		if (increase > 0){
 			int increasedProtection = this.protection + increase;
@@ -272,21 +354,35 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	 *******************************/
 	
 	/**
-	 * Check whether the given identification is valid.
+	 * Check whether the given identification is valid in the default world.
 	 *  
 	 * @param 	identification
 	 * 			The identification to check.
-	 * @return	True if and only if the identification is positive, prime and if it is one
-	 * 			of the first 1000 armors, it must also be unique.
+	 * @return	The identification is valid in the default world.
+	 * 			| result == canHaveAsIdentification(identification, World.getDefaultWorld())
 	 */
 	public static boolean canHaveAsIdentification(long identification){
+		return canHaveAsIdentification(identification, World.getDefaultWorld());
+	}
+	
+	/**
+	 * Check whether the given identification is valid in the given world.
+	 *  
+	 * @param 	identification
+	 * 			The identification to check.
+	 * @param	world
+	 * 			The world to check in.
+	 * @return	True if and only if the identification is positive, prime and if it is one
+	 * 			of the first 1000 armors of the given world, it must also be unique.
+	 */
+	public static boolean canHaveAsIdentification(long identification, World world){
 		for (int i=2; i <= Math.round(Math.sqrt(identification)); i++){
 			if (identification % i == 0){
 				return false;
 			}
 		}
-		return (identification >= 2 && (Ownable.getArmors().size() >= 1000 ||
-				!Ownable.getArmors().contains(identification)));
+		return (identification >= 2 && (world.getNumberOfArmors() >= 1000 ||
+				!world.hasArmor(identification)));
 	}
 	
 	/**
@@ -303,7 +399,7 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	 */
 	@Raw @Override
 	protected void setIdentification(long identification){
-		while (!canHaveAsIdentification(identification)){
+		while (!canHaveAsIdentification(identification, getWorld())){
 			identification++;
 		}
 		super.setIdentification(identification);
@@ -317,7 +413,7 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	/**
 	 * Variable registering the maximum value in ducats of this armor.
 	 */
-	private Ducat maxValue = new Ducat(2);
+	private Ducat maxValue = Ducat.valueOf(2);
 	
 	/**
 	 * Sets the maximum value of the armor to the given ducat 'maxValue'.
@@ -345,7 +441,7 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	 */
 	@Basic @Raw @Immutable
 	public Ducat getMaxValue(){
-		return new Ducat(this.maxValue.getValue());
+		return this.maxValue;
 	}
 	
 	/**
@@ -371,15 +467,15 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	 */
 	@Override
 	public Ducat getValue() {
-		Ducat value = new Ducat((int)Math.floor(this.getMaxValue().getValue()*(this.getCurrentProtection()/this.getMaxProtection())));
-		if (value.compareTo(new Ducat(0)) == 0){
-			return new Ducat(2);
+		Ducat value = Ducat.valueOf((int)Math.floor(this.getMaxValue().getValue()*(this.getCurrentProtection()/this.getMaxProtection())));
+		if (value.getValue() == 0){
+			return Ducat.valueOf(2);
 		}
 		if (this.isValidValue(value)){
 			return value;
 		}
 		else{
-			return value.add(new Ducat(1));
+			return value.add(1);
 		}
 	}
 	
@@ -390,11 +486,23 @@ public class Armor extends Ownable implements Protection, Comparable<Armor>{
 	/**
 	 * Terminate this armor.
 	 * 
+	 * @effect	If this armor is not terminated yet, it is detached from its holder.
+	 * 			| detachFromHolder()
 	 * @effect	Terminated is set to true.
 	 * 			| setTerminate(true)
+	 * @effect	The identification of this armor is released in its world.
+	 * 			| getWorld().releaseArmor(getIdentification())
 	 */
 	protected void terminate(){
+		if (getTerminated()){
+			return;
+		}
+		long identification = getIdentification();
+		detachFromHolder();
 		setTerminate(true);
+		getWorld().releaseArmor(identification);
+		Metrics.count(MetricCounter.TERMINATIONS);
+		getWorld().getEventBus().publish(GameEventType.TERMINATED, this, null, 0);
 	}
 
 	/**********************************
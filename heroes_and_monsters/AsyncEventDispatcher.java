@@ -0,0 +1,295 @@
+package heroes_and_monsters;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of asynchronous event dispatchers. A dispatcher is subscribed to an event bus
+ * like any other listener, but it only puts the events in a ring buffer; one consumer
+ * thread takes them out in order and lets the consumer listener handle them. That way
+ * slow listeners, such as metrics and persistence, don't slow down the game.
+ *
+ * Every publishing thread claims the next sequence number, waits until the consumer
+ * has made room for it, puts the event in its slot and then marks the slot as published
+ * with the sequence number. The consumer follows the sequence numbers one by one and
+ * spins and yields a while when the next slot is not published yet; after that it marks
+ * itself as sleeping and parks until a publishing thread wakes it up, so an idle
+ * dispatcher costs nothing. When the buffer is full, the publishing threads wait for the
+ * consumer. An event the consumer fails to handle is counted and the dispatcher goes on
+ * with the next one.
+ *
+ * @invar	The capacity of each dispatcher is a power of two.
+ * 			| Integer.bitCount(getCapacity()) == 1
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class AsyncEventDispatcher implements GameEventListener {
+
+	/**
+	 * Initialize this new dispatcher and start its consumer thread.
+	 *
+	 * @param 	consumer
+	 * 			The listener that handles the events on the consumer thread.
+	 * @param 	capacity
+	 * 			The number of events the ring buffer can hold.
+	 * @post	The capacity of this new dispatcher is the given capacity.
+	 * 			| new.getCapacity() == capacity
+	 * @throws	IllegalArgumentException
+	 * 			The given consumer is not effective or the capacity is not a power of two.
+	 * 			| consumer == null || Integer.bitCount(capacity) != 1
+	 */
+	public AsyncEventDispatcher(GameEventListener consumer, int capacity)
+			throws IllegalArgumentException {
+		if (consumer == null){
+			throw new IllegalArgumentException("Consumer must be effective.");
+		}
+		if ((capacity < 1) || (Integer.bitCount(capacity) != 1)){
+			throw new IllegalArgumentException("The capacity must be a power of two.");
+		}
+		this.consumer = consumer;
+		this.mask = capacity - 1;
+		this.entries = new GameEvent[capacity];
+		this.published = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++){
+			this.published.set(i, -1);
+		}
+		this.thread = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				consume();
+			}
+		}, "game-event-dispatcher");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Initialize this new dispatcher with a capacity of 1024 events.
+	 *
+	 * @effect	| this(consumer, 1024)
+	 */
+	public AsyncEventDispatcher(GameEventListener consumer) throws IllegalArgumentException {
+		this(consumer, 1024);
+	}
+
+	/**
+	 * Variable referencing the listener that handles the events.
+	 */
+	private final GameEventListener consumer;
+
+	/**
+	 * Variable registering the capacity minus one, used to find the slot of a sequence.
+	 */
+	private final int mask;
+
+	/**
+	 * Variable referencing the slots of the ring buffer.
+	 */
+	private final GameEvent[] entries;
+
+	/**
+	 * Variable referencing for every slot the sequence number of the event that was
+	 * last published in it.
+	 */
+	private final AtomicLongArray published;
+
+	/**
+	 * Variable registering the next sequence number that will be claimed.
+	 */
+	private final AtomicLong claimed = new AtomicLong();
+
+	/**
+	 * Variable registering the sequence number of the last event that was handled.
+	 */
+	private volatile long consumed = -1;
+
+	/**
+	 * Variable registering the number of times the consumer failed to handle an event.
+	 */
+	private final AtomicLong numberOfFailures = new AtomicLong();
+
+	/**
+	 * Variable referencing the first exception the consumer threw.
+	 */
+	private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<RuntimeException>();
+
+	/**
+	 * Variable registering whether this dispatcher is closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Variable registering whether the consumer thread is parked, or about to park,
+	 * until a publishing thread wakes it up.
+	 */
+	private volatile boolean sleeping = false;
+
+	/**
+	 * Variable referencing the consumer thread.
+	 */
+	private final Thread thread;
+
+	/**
+	 * Return the number of events the ring buffer of this dispatcher can hold.
+	 */
+	@Basic @Immutable
+	public int getCapacity(){
+		return this.mask + 1;
+	}
+
+	/**
+	 * Return the number of events that were handled by the consumer.
+	 */
+	public long getNumberOfHandled(){
+		return this.consumed + 1;
+	}
+
+	/**
+	 * Return the number of times the consumer failed to handle an event. These events
+	 * are counted as handled as well.
+	 */
+	public long getNumberOfFailures(){
+		return this.numberOfFailures.get();
+	}
+
+	/**
+	 * Return the first exception the consumer threw, or null if it never failed.
+	 */
+	public RuntimeException getFirstFailure(){
+		return this.firstFailure.get();
+	}
+
+	/**
+	 * Return whether this dispatcher is closed.
+	 */
+	@Basic
+	public boolean isClosed(){
+		return this.closed;
+	}
+
+	/**
+	 * Put the given event in the ring buffer, waiting while it is full.
+	 *
+	 * @param 	event
+	 * 			The event to dispatch.
+	 * @throws	IllegalStateException
+	 * 			This dispatcher is closed.
+	 * 			| isClosed()
+	 */
+	@Override
+	public void handle(GameEvent event) throws IllegalStateException {
+		if (closed){
+			throw new IllegalStateException("The dispatcher is closed.");
+		}
+		long sequence = claimed.getAndIncrement();
+		int idle = 0;
+		while (sequence - consumed > mask + 1){
+			idle = idle(idle);
+		}
+		int slot = (int) (sequence & mask);
+		entries[slot] = event;
+		published.set(slot, sequence);
+		if (sleeping){
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Take the events out of the ring buffer in order and let the consumer handle them,
+	 * until this dispatcher is closed and every claimed event is handled.
+	 */
+	@Model
+	private void consume(){
+		long next = 0;
+		int idle = 0;
+		while (true){
+			int slot = (int) (next & mask);
+			if (published.get(slot) == next){
+				GameEvent event = entries[slot];
+				entries[slot] = null;
+				try {
+					consumer.handle(event);
+				} catch (RuntimeException e) {
+					// A failing consumer must not stop the dispatcher.
+					numberOfFailures.incrementAndGet();
+					firstFailure.compareAndSet(null, e);
+				}
+				consumed = next;
+				next++;
+				idle = 0;
+			}
+			else if (closed && (claimed.get() == next)){
+				return;
+			}
+			else if (idle < SLEEP_AFTER){
+				idle = idle(idle);
+			}
+			else {
+				sleep(slot, next);
+			}
+		}
+	}
+
+	/**
+	 * Park the consumer thread until the given sequence number is published in the given
+	 * slot or this dispatcher is closed.
+	 *
+	 * @note	The consumer announces that it sleeps before it checks the slot for the
+	 * 			last time, and a publishing thread checks whether it sleeps after it
+	 * 			published. Both are volatile, so at least one of them sees the other and
+	 * 			no wake-up is lost.
+	 */
+	@Model
+	private void sleep(int slot, long next){
+		sleeping = true;
+		if ((published.get(slot) != next) && !closed){
+			LockSupport.park(this);
+		}
+		sleeping = false;
+	}
+
+	/**
+	 * Constant registering the number of times the consumer spins or yields before it
+	 * goes to sleep.
+	 */
+	private static final int SLEEP_AFTER = 200;
+
+	/**
+	 * Wait a little, first by spinning, then by yielding and finally by parking.
+	 *
+	 * @param 	idle
+	 * 			The number of times the caller has waited already.
+	 * @return	The number of times the caller has waited, including this time.
+	 */
+	private static int idle(int idle){
+		if (idle < 100){
+			Thread.onSpinWait();
+		}
+		else if (idle < 200){
+			Thread.yield();
+		}
+		else {
+			LockSupport.parkNanos(50000L);
+		}
+		return idle + 1;
+	}
+
+	/**
+	 * Close this dispatcher: no new events are accepted, the events in the ring buffer
+	 * are handled and the consumer thread stops. An event that is published on another
+	 * thread at the very moment this dispatcher closes may be lost.
+	 *
+	 * @post	This dispatcher is closed.
+	 * 			| new.isClosed()
+	 */
+	public void close() throws InterruptedException {
+		this.closed = true;
+		LockSupport.unpark(this.thread);
+		this.thread.join();
+	}
+}
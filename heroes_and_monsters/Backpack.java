@@ -48,7 +48,36 @@ public class Backpack extends Storage{
 	 */
 	@Raw
 	public Backpack(Ducat standardValue, double maxCapacity, double ownWeight, Unit unit){
-		super(calculateValidIdentification(), ownWeight, unit);
+		this(World.getDefaultWorld(), standardValue, maxCapacity, ownWeight, unit);
+	}
+	
+	/**
+	 * Initialize this new backpack of the given world with a standard value, maximum capacity,
+	 * own weight and unit.
+	 * 
+	 * @param	world
+	 * 			The world of this backpack.
+	 * @param	standardValue
+	 * 			The standard value of this backpack.
+	 * @param	maxCapacity
+	 * 			The maximum capacity of this backpack
+	 * @param	ownWeight
+	 * 			The weight of this backpack.
+	 * @param	unit
+	 * 			The unit in which the weight is set.
+	 * @effect	This backpack is initialized as a storage of the given world with a calculated
+	 * 			identification and the given ownWeight and unit.
+	 * 			| super(world, calculateValidIdentification(world), ownWeight, unit)
+	 * @post  	If the given standard value is valid, the standardValue of this backpack
+	 * 			will be set to the given standardValue.
+	 * 			| if this.isValidStandardValue(standardValue)
+	 * 		  	| then new.getStandardValue().equals(standardValue)
+	 * @post	The maximum capacity of this backpack is set to maximumCapacity.
+	 * 			| new.getMaximumCapacity(unit) == maximumCapacity
+	 */
+	@Raw
+	public Backpack(World world, Ducat standardValue, double maxCapacity, double ownWeight, Unit unit){
+		super(world, calculateValidIdentification(world), ownWeight, unit);
 		setStandardValue(standardValue);
 		setMaxCapacity(maxCapacity, unit);
 	}
@@ -78,14 +107,19 @@ public class Backpack extends Storage{
 	 * Calculate a valid identification for a backpack. This is the sum of all the binomial
 	 * coefficients with at the top the amount of backpacks that already exist plus one and
 	 * at the bottom an increasing number from zero to that same number (increased with
-	 * every new term of the sum).
+	 * every new term of the sum). Only the backpacks of the given world are counted.
 	 */
-	private static long calculateValidIdentification(){
-		long n = getBackpacks().size() + 1;
+	private static long calculateValidIdentification(World world) throws IllegalArgumentException {
+		if (world == null){
+			throw new IllegalArgumentException("An ownable must belong to a world.");
+		}
+		long start = Metrics.start();
+		long n = world.getNumberOfBackpacks() + 1;
 		long id = 0;
 		for (int i = 0; i <= n; i++){
 			id += calculateBinomial(n,i);
 		}
+		Metrics.stop(MetricTimer.ID_ALLOCATION, start);
 		return id;
 	}
 	
@@ -151,7 +185,7 @@ public class Backpack extends Storage{
 	@Override @Immutable
 	public double getMaximumCapacity(Unit unit) throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		return unit.convertFromKilogram(maximumCapacity);
 	}
@@ -172,27 +206,43 @@ public class Backpack extends Storage{
 	@Override
 	public double getUsedCapacity(Unit unit) throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
-		double weight = 0;
-		Enumeration<Object> iterator = this.getBackpackIterator();
-		while (iterator.hasMoreElements()){
-			Object object = iterator.nextElement();
-			if (object instanceof Ownable){
-				if (!(((Ownable) object).getTerminated())){
-					if (object instanceof Storage){
-						Storage storage = (Storage) object;
-						weight = weight + storage.getOwnWeight(unit);
-					}
-					else {
-						Ownable ownable = (Ownable) object;
-						weight = weight + ownable.getOwnWeight(unit);
-					}
-				}
+		return this.getContentWeight(unit);
+	}
+	
+	/**
+	 * Return the weight of the content of this backpack and the backpacks in it, without
+	 * the content of the purses in them.
+	 * 
+	 * @param	unit
+	 * 			The unit to get the weight in.
+	 * @return	The sum of the weight of the loose ducats, the own weight of the weapons,
+	 * 			armors, purses and backpacks that aren't terminated and the weight of the
+	 * 			content of those backpacks.
+	 */
+	@Model
+	private double getContentWeight(Unit unit){
+		double weight = this.getLooseDucats().getWeight(unit);
+		weight = weight + getOwnWeight(this.weapons, unit);
+		weight = weight + getOwnWeight(this.armors, unit);
+		weight = weight + getOwnWeight(this.purses, unit);
+		for (Backpack backpack: this.backpacks){
+			if (!backpack.getTerminated()){
+				weight = weight + backpack.getOwnWeight(unit) + backpack.getContentWeight(unit);
 			}
-			else if (object instanceof Ducat){
-				Ducat ducat = (Ducat) object;
-				weight = weight + ducat.getWeight(unit);
+		}
+		return weight;
+	}
+	
+	/**
+	 * Return the sum of the own weight of the given ownables that aren't terminated.
+	 */
+	private static double getOwnWeight(ArrayList<? extends Ownable> ownables, Unit unit){
+		double weight = 0;
+		for (Ownable ownable: ownables){
+			if (!ownable.getTerminated()){
+				weight = weight + ownable.getOwnWeight(unit);
 			}
 		}
 		return weight;
@@ -203,22 +253,237 @@ public class Backpack extends Storage{
 	 *********************************
 	
 	/**
-	 * Variable referencing the content of a backpack.
+	 * Variable referencing the weapons directly in this backpack.
+	 */
+	private final ArrayList<Weapon> weapons = new ArrayList<Weapon>();
+	
+	/**
+	 * Variable referencing the armors directly in this backpack.
+	 */
+	private final ArrayList<Armor> armors = new ArrayList<Armor>();
+	
+	/**
+	 * Variable referencing the purses directly in this backpack.
+	 */
+	private final ArrayList<Purse> purses = new ArrayList<Purse>();
+	
+	/**
+	 * Variable referencing the backpacks directly in this backpack.
+	 */
+	private final ArrayList<Backpack> backpacks = new ArrayList<Backpack>();
+	
+	/**
+	 * Return the number of ownables directly in this backpack.
+	 */
+	private int getNumberOfOwnables(){
+		return this.weapons.size() + this.armors.size() + this.purses.size() + this.backpacks.size();
+	}
+	
+	/**
+	 * Return the ownable at the given index in the content of this backpack, where the
+	 * weapons come first, then the armors, then the purses and then the backpacks.
+	 * 
+	 * @param	index
+	 * 			The index of the ownable.
+	 * @pre		The index is a valid index.
+	 * 			| (index >= 0) && (index < getNumberOfOwnables())
+	 */
+	private Ownable getOwnableAt(int index){
+		if (index < this.weapons.size()){
+			return this.weapons.get(index);
+		}
+		index = index - this.weapons.size();
+		if (index < this.armors.size()){
+			return this.armors.get(index);
+		}
+		index = index - this.armors.size();
+		if (index < this.purses.size()){
+			return this.purses.get(index);
+		}
+		return this.backpacks.get(index - this.purses.size());
+	}
+	
+	/**
+	 * Return all the weapons that are direct or indirect content of this backpack.
+	 * 
+	 * @return	A list with all the weapons in this backpack and in the backpacks in it.
+	 * 			| for all object in getBackpackIterator(){
+	 * 			|	(object instanceof Weapon) == result.contains(object) }
+	 */
+	public ArrayList<Weapon> getAllWeapons(){
+		ArrayList<Weapon> result = new ArrayList<Weapon>();
+		this.collectWeapons(result);
+		return result;
+	}
+	
+	/**
+	 * Add all the weapons that are direct or indirect content of this backpack to the
+	 * given list.
+	 */
+	private void collectWeapons(ArrayList<Weapon> result){
+		result.addAll(this.weapons);
+		for (Backpack backpack: this.backpacks){
+			backpack.collectWeapons(result);
+		}
+	}
+	
+	/**
+	 * Return all the armors that are direct or indirect content of this backpack.
+	 * 
+	 * @return	A list with all the armors in this backpack and in the backpacks in it.
+	 * 			| for all object in getBackpackIterator(){
+	 * 			|	(object instanceof Armor) == result.contains(object) }
+	 */
+	public ArrayList<Armor> getAllArmors(){
+		ArrayList<Armor> result = new ArrayList<Armor>();
+		this.collectArmors(result);
+		return result;
+	}
+	
+	/**
+	 * Add all the armors that are direct or indirect content of this backpack to the
+	 * given list.
+	 */
+	private void collectArmors(ArrayList<Armor> result){
+		result.addAll(this.armors);
+		for (Backpack backpack: this.backpacks){
+			backpack.collectArmors(result);
+		}
+	}
+	
+	/**
+	 * Return the number of weapons that are direct or indirect content of this backpack.
+	 * 
+	 * @return	The number of weapons in this backpack and in the backpacks in it.
+	 * 			| result == getAllWeapons().size()
+	 */
+	public int getNumberOfWeapons(){
+		int result = this.weapons.size();
+		for (Backpack backpack: this.backpacks){
+			result = result + backpack.getNumberOfWeapons();
+		}
+		return result;
+	}
+	
+	/**
+	 * Return the number of armors that are direct or indirect content of this backpack.
+	 * 
+	 * @return	The number of armors in this backpack and in the backpacks in it.
+	 * 			| result == getAllArmors().size()
+	 */
+	public int getNumberOfArmors(){
+		int result = this.armors.size();
+		for (Backpack backpack: this.backpacks){
+			result = result + backpack.getNumberOfArmors();
+		}
+		return result;
+	}
+	
+	/**
+	 * Change the number of armors of the creature that carries this backpack, if any.
+	 * 
+	 * @param	difference
+	 * 			The number of armors that was added to or, if negative, taken out of
+	 * 			this backpack.
+	 * @effect	If the ultimate holder of this backpack is a creature, its number of
+	 * 			armors is changed by the given difference.
+	 * 			| if (getUltimateHolder() instanceof Creature)
+	 * 			| then	getUltimateHolder().changeNumberOfArmors(difference)
+	 */
+	private void changeNumberOfArmorsOfCarrier(int difference){
+		if ((difference != 0) && !getTerminated() && (this.getUltimateHolder() instanceof Creature)){
+			((Creature) this.getUltimateHolder()).changeNumberOfArmors(difference);
+		}
+	}
+	
+	/**
+	 * Add the given ownable to the typed list of content it belongs in.
+	 * 
+	 * @param	ownable
+	 * 			The ownable to add.
+	 * @effect	The creature carrying this backpack, if any, carries the armors of the
+	 * 			given ownable as well.
+	 * 			| changeNumberOfArmorsOfCarrier(Creature.countArmors(ownable))
+	 */
+	private void addToContent(Ownable ownable){
+		this.changeNumberOfArmorsOfCarrier(Creature.countArmors(ownable));
+		if (ownable instanceof Weapon){
+			this.weapons.add((Weapon) ownable);
+		}
+		else if (ownable instanceof Armor){
+			this.armors.add((Armor) ownable);
+		}
+		else if (ownable instanceof Purse){
+			this.purses.add((Purse) ownable);
+		}
+		else if (ownable instanceof Backpack){
+			this.backpacks.add((Backpack) ownable);
+		}
+	}
+	
+	/**
+	 * Remove the given ownable from the typed list of content it is in.
+	 * 
+	 * @param	ownable
+	 * 			The ownable to remove.
+	 * @effect	The creature carrying this backpack, if any, no longer carries the armors
+	 * 			of the given ownable.
+	 * 			| changeNumberOfArmorsOfCarrier(-Creature.countArmors(ownable))
 	 */
-	private ArrayList<Object> content = new ArrayList<Object>();
+	private void removeFromContent(Ownable ownable){
+		this.changeNumberOfArmorsOfCarrier(-Creature.countArmors(ownable));
+		if (ownable instanceof Weapon){
+			this.weapons.remove(ownable);
+		}
+		else if (ownable instanceof Armor){
+			this.armors.remove(ownable);
+		}
+		else if (ownable instanceof Purse){
+			this.purses.remove(ownable);
+		}
+		else if (ownable instanceof Backpack){
+			this.backpacks.remove(ownable);
+		}
+	}
 	
 	/**
-	 * Return the content of this backpack.
+	 * Return the content of this backpack: first the weapons, then the armors, the purses
+	 * and the backpacks, each in the order they were added. The loose ducats in this
+	 * backpack, if there are any, are the last element.
 	 * 
+	 * @return	The ownables in this backpack followed by the loose ducats.
+	 * 			| if (getLooseDucats().getValue() > 0)
+	 * 			| then		result.get(result.size() - 1).equals(getLooseDucats())
 	 * @throws	OwnableIsTerminatedException
 	 * 			This ownable is terminated.
 	 * 			| getTerminated()
 	 */
 	public ArrayList<Object> getContent() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
+		}
+		ArrayList<Object> result = new ArrayList<Object>(this.getNumberOfOwnables() + 1);
+		result.addAll(this.weapons);
+		result.addAll(this.armors);
+		result.addAll(this.purses);
+		result.addAll(this.backpacks);
+		if (this.looseDucats > 0){
+			result.add(Ducat.valueOf(this.looseDucats));
 		}
-		return new ArrayList<Object>(this.content);
+		return result;
+	}
+	
+	/**
+	 * Variable referencing the value of all the loose ducats directly in this backpack.
+	 */
+	private int looseDucats = 0;
+	
+	/**
+	 * Return all the loose ducats directly in this backpack as one amount.
+	 */
+	@Basic
+	public Ducat getLooseDucats(){
+		return Ducat.valueOf(this.looseDucats);
 	}
 	
 	/**
@@ -226,16 +491,16 @@ public class Backpack extends Storage{
 	 * 
 	 * @param 	object
 	 * 			The object to add.
-	 * @post	The object is added to this backpack.
+	 * @post	The object is added to this backpack. A ducat is added to the loose
+	 * 			ducats of this backpack.
 	 * 			| if (object instanceof Ducat)
-	 * 			| then		if one of the objects in content already is a ducat 
-	 * 			|			then (d.add(object))
+	 * 			| then		new.getLooseDucats().equals(this.getLooseDucats().add(object))
 	 * 			| else 		(content.add(object))
 	 * @post	The size of content is increased by 1. Unless there is a ducat added and
-	 * 			there already is a ducat in this backpack, then the value of that ducat is
-	 * 			just increased.
+	 * 			there already were loose ducats in this backpack, then only their value
+	 * 			is increased.
 	 * 			| if (object instanceof Ducat)
-	 * 			| then		if one of the objects in content already is a ducat
+	 * 			| then		if this.getLooseDucats().getValue() > 0
 	 * 			|			then	(this.getContent().size() == new.getContent().size())
 	 * 			| else 		(this.getContent().size() + 1 == new.getContent().size())
 	 * @effect	If the given object is an ownable, its holder is set to this.
@@ -247,33 +512,61 @@ public class Backpack extends Storage{
 	 */
 	@Override
 	public void addToStorage(Object object) throws IllegalArgumentException {
-		if (!canAddToStorage(object)){
-			throw new IllegalArgumentException("The given object can't be added to this backpack.");
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (!canAddToStorage(object)){
+				throw new IllegalArgumentException("The given object can't be added to this backpack.");
+			}
+			this.storeAdmitted(object);
+		} finally {
+			ContainmentLock.release(locks);
 		}
-		else if (object instanceof Ducat){
-			Ducat ducat = (Ducat) object;
-			boolean alreadyDucat = false;
-			for (Object obj: getContent()){
-				if (obj instanceof Ducat){
-					Ducat d = (Ducat) obj;
-					d.add(ducat);
-					alreadyDucat = true;
-				}
+	}
+	
+	/**
+	 * Add the given object to this backpack, without checking whether it can be added.
+	 * 
+	 * @param 	object
+	 * 			The object to add.
+	 * @post	The object is added to this backpack, as in addToStorage(object).
+	 */
+	@Override @Model
+	protected void storeAdmitted(Object object){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (object instanceof Ducat){
+				Ducat ducat = (Ducat) object;
+				this.looseDucats = this.getLooseDucats().add(ducat).getValue();
+				this.propagateLiquidFunds(ducat.getValue());
+			}
+			else if (object instanceof Ownable){
+				Ownable ownable = (Ownable) object;
+				ownable.setHolder(this);
+				ownable.addAllContainersToContainersSet(this);
+				this.addToIdentificationNumbers(ownable);
+				this.addToContent(ownable);
+				this.propagateLiquidFunds(getLiquidFundsOf(ownable));
 			}
-			if (!alreadyDucat){
-				this.content.add(new Ducat(ducat.getValue()));
+			if (object != null){
+				getWorld().markModified();
+				getWorld().getEventBus().publish(GameEventType.STORED, this, object, getDucatValueOf(object));
 			}
-			ducat.subtract(ducat);
-		}
-		else if (object instanceof Ownable){
-			Ownable ownable = (Ownable) object;
-			ownable.setHolder(this);
-			ownable.addAllContainersToContainersSet(this);
-			this.addToIdentificationNumbers(ownable);
-			this.content.add(ownable);
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
+	/**
+	 * Return the number of ducats the given object stands for in a storage event.
+	 * 
+	 * @param	object
+	 * 			The object that is stored or taken out.
+	 * @return	The value of the given object if it is a ducat, zero otherwise.
+	 */
+	private static int getDucatValueOf(Object object){
+		return (object instanceof Ducat) ? ((Ducat) object).getValue() : 0;
+	}
+	
 	/**
 	 * Check whether the given object can be added to this backpack.
 	 * 
@@ -297,52 +590,63 @@ public class Backpack extends Storage{
 	 */
 	@Override
 	public boolean canAddToStorage(Object object){
-		if (!super.canAddToStorage(object)){
-			return false;
+		long start = Metrics.start();
+		boolean result = (getAdmission(object) == AdmissionResult.ADMITTED);
+		Metrics.stop(MetricTimer.CAN_ADD_TO_STORAGE, start);
+		return result;
+	}
+	
+	/**
+	 * Check whether the given object can be added to this backpack and tell why not.
+	 * 
+	 * @param 	object
+	 * 			The object to check.
+	 * @return	The admission of any storage if that is not ADMITTED or the given object is
+	 * 			not effective. Otherwise NOT_STORABLE if the object is not an ownable or a
+	 * 			ducat, ALREADY_HELD if it is an ownable with a holder, OVER_CAPACITY if this
+	 * 			backpack, one of the backpacks it is in or the creature carrying it can't
+	 * 			carry its weight, TOO_MANY_ARMORS if a hero would carry too many armors and
+	 * 			ADMITTED otherwise.
+	 * 			| result == AdmissionResult.ADMITTED iff canAddToStorage(object)
+	 */
+	@Override
+	public AdmissionResult getAdmission(Object object){
+		AdmissionResult result = super.getAdmission(object);
+		if ((result != AdmissionResult.ADMITTED) || (object == null)){
+			return result;
 		}
-		double weight = 0;
 		if (object instanceof Ownable){
-			Ownable ownable = (Ownable) object;
-			if (ownable.getHolder() != null){
-				return false;
-			}
-			if (ownable instanceof Storage){
-				weight = ((Storage)ownable).getTotalWeight(Unit.KG);
-			}
-			else{
-				weight = ownable.getOwnWeight(Unit.KG);
+			if (((Ownable) object).getHolder() != null){
+				return AdmissionResult.ALREADY_HELD;
 			}
 		}
-		else if (object instanceof Ducat){
-			Ducat ducat = (Ducat) object;
-			weight = ducat.getWeight(Unit.KG);
-		}
-		else {
-			return (object == null);
+		else if (!(object instanceof Ducat)){
+			return AdmissionResult.NOT_STORABLE;
 		}
+		double weight = getWeightOf(object);
 		if (this.getUsedCapacity(Unit.KG) + weight > this.getMaximumCapacity(Unit.KG)){
-			return false;
+			return AdmissionResult.OVER_CAPACITY;
 		}
-		if (object instanceof Armor){
-			if (this.getUltimateHolder() instanceof Hero){
-				Hero hero = (Hero) this.getUltimateHolder();
-				if (!hero.canAddArmor(object)){
-					return false;
-				}
+		Object root = this.getUltimateHolder();
+		if ((object instanceof Armor) && (root instanceof Hero)){
+			if (!((Hero) root).canAddArmor(object)){
+				return AdmissionResult.TOO_MANY_ARMORS;
 			}
 		}
 		Iterator<Backpack> iterator = this.getContainersSet().iterator();
 		while (iterator.hasNext()){
 			Backpack backpack = iterator.next();
 			if ((backpack.getUsedCapacity(Unit.KG) + weight) > backpack.getMaximumCapacity(Unit.KG)){
-				return false;
+				return AdmissionResult.OVER_CAPACITY;
 			}
 		}
-		if (this.getUltimateHolder() instanceof Creature){
-			Creature creature = (Creature) this.getUltimateHolder();
-			return ((creature.getUsedCapacity(Unit.KG) + weight) <= creature.getMaximumCapacity(Unit.KG));
+		if (root instanceof Creature){
+			Creature creature = (Creature) root;
+			if ((creature.getUsedCapacity(Unit.KG) + weight) > creature.getMaximumCapacity(Unit.KG)){
+				return AdmissionResult.OVER_CAPACITY;
+			}
 		}
-		return true;
+		return AdmissionResult.ADMITTED;
 	}
 	
 	/**
@@ -360,8 +664,7 @@ public class Backpack extends Storage{
 	 * 			| if (object instanceof Ownable)
 	 * 			| then		result == this.OwnableInBackpack(object)
 	 * 			| else if (object instanceof Ducat)
-	 * 			| then		ducat = total value of ducats in this backpack
-	 * 			|			result == ducat.getValue() >= object.getValue()
+	 * 			| then		result == this.getLiquidFunds() >= object.getValue()
 	 * 			| else (result == false)
 	 */
 	@Override
@@ -375,20 +678,7 @@ public class Backpack extends Storage{
 		}
 		else if (object instanceof Ducat){
 			Ducat ducat = (Ducat) object;
-			Ducat newDucat = new Ducat(0);
-			Enumeration<Object> iterator = this.getBackpackIterator();
-			while (iterator.hasMoreElements()){
-				Object objectInBackpack = iterator.nextElement();
-				if (objectInBackpack instanceof Ducat){
-					Ducat other = (Ducat) objectInBackpack;
-					newDucat = newDucat.add(other);
-				}
-				if (objectInBackpack instanceof Purse){
-					Ducat other = new Ducat(((Purse) objectInBackpack).getValue().getValue());
-					newDucat = newDucat.add(other);
-				}
-			}
-			return (ducat.getValue() <= newDucat.getValue());
+			return (ducat.getValue() <= this.getLiquidFunds());
 		}
 		return false;
 	}
@@ -403,9 +693,7 @@ public class Backpack extends Storage{
 	 * 			direct or indirect in this backpack or a combination of these possibilities.
 	 * 			If it's not, the given object is taken out of its holder.
 	 * 			| if (object instanceof Ducat)
-	 * 			| then		for all ducats and purses:
-	 * 			|				ducat.subtract(object) or purse.takeOutOfStorage(object)
-	 * 			|				(until enough is subtracted)
+	 * 			| then		debit(object.getValue()) in the order of getWithdrawalPolicy()
 	 * 			| else (object.getHolder().content.remove(object))
 	 * @post	If the given object is an ownable, the size of the content of its holder
 	 * 			is decreased by 1.
@@ -420,46 +708,254 @@ public class Backpack extends Storage{
 	 */
 	@Override
 	protected void takeOutOfStorage(Object object) throws IllegalArgumentException {
-		if (!canTakeOutOfStorage(object)){
-			throw new IllegalArgumentException("The given object can't be taken out of this backpack.");
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (!canTakeOutOfStorage(object)){
+				throw new IllegalArgumentException("The given object can't be taken out of this backpack.");
+			}
+			else {
+				if (object instanceof Ownable){
+					Backpack holder = (Backpack) ((Ownable) object).getHolder();
+					holder.propagateLiquidFunds(-getLiquidFundsOf((Ownable) object));
+					holder.removeFromContent((Ownable) object);
+					((Ownable) object).removeAllContainers();
+					this.removeFromIdentificationNumbers((Ownable) object);
+					((Ownable) object).setHolder();
+				}
+				else if (object instanceof Ducat){
+					this.debit(((Ducat) object).getValue());
+				}
+				if (object != null){
+					getWorld().markModified();
+					getWorld().getEventBus().publish(GameEventType.TAKEN_OUT, this, object, getDucatValueOf(object));
+				}
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
-		else {
-			if (object instanceof Ownable){
-				((Backpack)(((Ownable) object).getHolder())).content.remove(object);
-				((Ownable) object).removeAllContainers();
-				this.removeFromIdentificationNumbers((Ownable) object);
-				((Ownable) object).setHolder();
+	}
+	
+	/**
+	 * Take the given amount of ducats out of the ducats and purses that are direct or
+	 * indirect content of this backpack.
+	 * 
+	 * @param	amount
+	 * 			The amount of ducats to take out.
+	 * @post	The funding sources of the withdrawal plan for the given amount are debited:
+	 * 			ducats are taken out of the loose ducats of the backpacks and out of the
+	 * 			purses.
+	 * 			| for all source in planWithdrawal(amount){
+	 * 			|		ducat.subtract(part) or purse.takeOutOfStorage(part) }
+	 * @throws	IllegalArgumentException
+	 * 			There are not enough ducats in this backpack.
+	 * 			| sum of all sources < amount
+	 */
+	@Model
+	private void debit(int amount) throws IllegalArgumentException {
+		Iterator<FundingSource> iterator = planWithdrawal(amount).iterator();
+		while (iterator.hasNext() && (amount > 0)){
+			FundingSource source = iterator.next();
+			int part = Math.min(source.getAmount(), amount);
+			if (source.getPurse() != null){
+				source.getPurse().takeOutOfStorage(Ducat.valueOf(part));
 			}
-			else if (object instanceof Ducat){
-				Ducat ducat = (Ducat) object;
-				Ducat newDucat = new Ducat(0);
-				while (ducat.getValue() != newDucat.getValue()){
-					Enumeration<Object> iterator = this.getBackpackIterator();
-					while (iterator.hasMoreElements()){
-						Object objectInBackpack = iterator.nextElement();
-						if (objectInBackpack instanceof Purse){
-							if ( ((Purse) objectInBackpack).getContent().getValue() >= (ducat.getValue()-newDucat.getValue())){
-								 ((Purse) objectInBackpack).getContent().subtract(ducat).add(newDucat);
-								 newDucat = newDucat.subtract(newDucat).add(ducat);
-							}
-							else {
-								newDucat = newDucat.add( ((Purse) objectInBackpack).getContent());
-								((Purse) objectInBackpack).getContent().subtract( ((Purse) objectInBackpack).getContent());
-							}
-						}
-						else if (objectInBackpack instanceof Ducat){
-							if (((Ducat) objectInBackpack).getValue() >= (ducat.getValue()-newDucat.getValue())){
-								((Ducat) objectInBackpack).subtract(ducat).add(newDucat);
-								newDucat = newDucat.subtract(newDucat).add(ducat);
-							}
-							else {
-								newDucat = newDucat.add(((Ducat) objectInBackpack));
-								((Ducat) objectInBackpack).subtract(((Ducat) objectInBackpack));
-							}
-						}
-					}
+			else {
+				Backpack container = source.getContainer();
+				container.looseDucats = container.looseDucats - part;
+				container.propagateLiquidFunds(-part);
+			}
+			amount = amount - part;
+		}
+	}
+	
+	/**
+	 * Return the funding sources to use when the given amount of ducats is taken out of
+	 * this backpack, in the order of the withdrawal policy of this backpack.
+	 * 
+	 * @param	amount
+	 * 			The amount of ducats to take out.
+	 * @return	The shortest prefix of all the loose ducats and purses that are direct or
+	 * 			indirect content of this backpack, sorted by the withdrawal policy, that holds
+	 * 			at least the given amount. Sources with the same rank keep the order of the content.
+	 * @throws	IllegalArgumentException
+	 * 			There are not enough ducats in this backpack.
+	 * 			| sum of all sources < amount
+	 */
+	ArrayList<FundingSource> planWithdrawal(int amount) throws IllegalArgumentException {
+		ArrayList<FundingSource> sources = new ArrayList<FundingSource>();
+		this.collectFundingSources(sources, 0);
+		Collections.sort(sources, this.getWithdrawalPolicy().getComparator());
+		ArrayList<FundingSource> plan = new ArrayList<FundingSource>();
+		long planned = 0;
+		Iterator<FundingSource> iterator = sources.iterator();
+		while (iterator.hasNext() && (planned < amount)){
+			FundingSource source = iterator.next();
+			plan.add(source);
+			planned = planned + source.getAmount();
+		}
+		if (planned < amount){
+			throw new IllegalArgumentException("There are not enough ducats in this backpack.");
+		}
+		return plan;
+	}
+	
+	/**
+	 * Add all the loose ducats and purses with ducats that are direct or indirect content
+	 * of this backpack to the given list. The loose ducats of a backpack come before the
+	 * purses in it, and those come before the content of the backpacks in it.
+	 * 
+	 * @param	sources
+	 * 			The list to add the funding sources to.
+	 * @param	depth
+	 * 			The number of backpacks between the backpack the withdrawal is made from
+	 * 			and this backpack.
+	 */
+	private void collectFundingSources(ArrayList<FundingSource> sources, int depth){
+		double weight = this.getLooseDucats().getWeight(Unit.KG) + getOwnWeight(this.weapons, Unit.KG)
+				+ getOwnWeight(this.armors, Unit.KG) + getOwnWeight(this.purses, Unit.KG)
+				+ getOwnWeight(this.backpacks, Unit.KG);
+		if (this.looseDucats > 0){
+			sources.add(new FundingSource(this, this.looseDucats, depth, weight));
+		}
+		for (Purse purse: this.purses){
+			if (purse.getContent().getValue() > 0){
+				sources.add(new FundingSource(this, purse, depth, weight));
+			}
+		}
+		for (Backpack backpack: this.backpacks){
+			backpack.collectFundingSources(sources, depth + 1);
+		}
+	}
+	
+	/**
+	 * Variable referencing the withdrawal policy of this backpack.
+	 */
+	private WithdrawalPolicy withdrawalPolicy = WithdrawalPolicy.NEAREST_FIRST;
+	
+	/**
+	 * Return the withdrawal policy of this backpack.
+	 */
+	@Basic
+	public WithdrawalPolicy getWithdrawalPolicy(){
+		return this.withdrawalPolicy;
+	}
+	
+	/**
+	 * Set the withdrawal policy of this backpack to the given policy.
+	 * 
+	 * @param	withdrawalPolicy
+	 * 			The new withdrawal policy.
+	 * @post	The withdrawal policy of this backpack is the given policy.
+	 * 			| new.getWithdrawalPolicy() == withdrawalPolicy
+	 * @throws	IllegalArgumentException
+	 * 			The given policy is not effective.
+	 * 			| withdrawalPolicy == null
+	 */
+	public void setWithdrawalPolicy(WithdrawalPolicy withdrawalPolicy) throws IllegalArgumentException {
+		if (withdrawalPolicy == null){
+			throw new IllegalArgumentException("The withdrawal policy is not effective.");
+		}
+		this.withdrawalPolicy = withdrawalPolicy;
+	}
+	
+	/**
+	 * Variable referencing the sum of all loose ducats and the content of all purses that
+	 * are direct or indirect content of this backpack.
+	 */
+	private long liquidFunds = 0;
+	
+	/**
+	 * Return the sum of all loose ducats and the content of all purses that are direct
+	 * or indirect content of this backpack.
+	 * 
+	 * @return	The sum of the loose ducats and the purse content in this backpack.
+	 * 			| result == sum of { ducat.getValue() | ducat in getBackpackIterator() }
+	 * 			|			+ sum of { purse.getContent().getValue() | purse in getBackpackIterator() }
+	 */
+	@Basic
+	public long getLiquidFunds(){
+		return this.liquidFunds;
+	}
+	
+	/**
+	 * Return the liquid funds that the given ownable brings along into a backpack.
+	 * 
+	 * @param	ownable
+	 * 			The ownable to check.
+	 * @return	The content of the given ownable if it is a purse, the liquid funds of the
+	 * 			given ownable if it is a backpack and zero otherwise.
+	 */
+	private static long getLiquidFundsOf(Ownable ownable){
+		if (ownable instanceof Purse){
+			return ((Purse) ownable).getContent().getValue();
+		}
+		if (ownable instanceof Backpack){
+			return ((Backpack) ownable).getLiquidFunds();
+		}
+		return 0;
+	}
+	
+	/**
+	 * Change the liquid funds of this backpack only by the given difference.
+	 * 
+	 * @param	difference
+	 * 			The amount of ducats that was added to or, if negative, taken out of
+	 * 			the content of this backpack.
+	 * @post	The liquid funds of this backpack are changed by the given difference.
+	 * 			| new.getLiquidFunds() == this.getLiquidFunds() + difference
+	 */
+	void changeLiquidFunds(long difference){
+		this.liquidFunds = this.liquidFunds + difference;
+	}
+	
+	/**
+	 * Change the liquid funds of this backpack and of all the backpacks it is in by the
+	 * given difference.
+	 * 
+	 * @param	difference
+	 * 			The amount of ducats that was added to or, if negative, taken out of
+	 * 			the content of this backpack.
+	 * @effect	The liquid funds of this backpack and its containers are changed.
+	 * 			| this.changeLiquidFunds(difference) &&
+	 * 			| for all container in getContainersSet(){
+	 * 			|		container.changeLiquidFunds(difference) }
+	 */
+	private void propagateLiquidFunds(long difference){
+		if (difference != 0){
+			this.changeLiquidFunds(difference);
+			for (Backpack container: this.getContainersSet()){
+				container.changeLiquidFunds(difference);
+			}
+		}
+	}
+	
+	/**
+	 * Remove the loose ducats with the value of the given ducat from this backpack or from
+	 * a backpack in it.
+	 * 
+	 * @param	ducat
+	 * 			The loose ducats to remove.
+	 * @return	True if and only if this backpack or a backpack direct or indirect in it has
+	 * 			exactly the given amount of loose ducats.
+	 * @post	If this backpack or a backpack in it has exactly the given amount of loose
+	 * 			ducats, the first of those backpacks no longer has loose ducats.
+	 */
+	boolean removeDucat(Ducat ducat){
+		int[] locks = ContainmentLock.acquire(this, null);
+		try {
+			if ((ducat.getValue() > 0) && (this.looseDucats == ducat.getValue())){
+				this.looseDucats = 0;
+				this.propagateLiquidFunds(-ducat.getValue());
+				return true;
+			}
+			for (Backpack backpack: this.backpacks){
+				if (backpack.removeDucat(ducat)){
+					return true;
 				}
 			}
+			return false;
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -474,9 +970,14 @@ public class Backpack extends Storage{
 	 */
 	@Override
 	protected void emptyStorage()throws IllegalArgumentException {
-		Iterator<Object> iterator = getContent().iterator();
-		while (iterator.hasNext()){
-			this.takeOutOfStorage(iterator.next());
+		int[] locks = ContainmentLock.acquire(this, null);
+		try {
+			Iterator<Object> iterator = getContent().iterator();
+			while (iterator.hasNext()){
+				this.takeOutOfStorage(iterator.next());
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -582,10 +1083,12 @@ public class Backpack extends Storage{
 	 *        |								then: !(container.getIdNumber().get(object.getIdentification()).contains(object))
 	 */
 	private void removeFromIdentificationNumbers(Ownable ownable){
-		(this.getIdNumber().get(ownable.getIdentification())).remove(ownable);
 		ArrayList<Ownable> arraylist = this.getIdNumber().get(ownable.getIdentification());
-		if (arraylist.isEmpty()){
-			this.getIdNumber().remove(ownable.getIdentification());
+		if (arraylist != null){
+			arraylist.remove(ownable);
+			if (arraylist.isEmpty()){
+				this.getIdNumber().remove(ownable.getIdentification());
+			}
 		}
 		if (ownable instanceof Backpack){
 			Backpack backpack = (Backpack) ownable;
@@ -618,7 +1121,7 @@ public class Backpack extends Storage{
 	 */
 	public boolean ownableInBackpack(Ownable ownable) throws OwnableIsTerminatedException {
 		if (ownable.getTerminated()){
-			throw new OwnableIsTerminatedException(ownable);
+			throw ownable.getTerminatedException();
 		}
 		long idNumber = ownable.getIdentification();
 		if (this.getIdNumber().get(idNumber) != null){
@@ -639,63 +1142,115 @@ public class Backpack extends Storage{
 	 ***************************/
 	
 	/**
-	 * Return an iterator that iterates over the content of this backpack.
+	 * Return an iterator that iterates over the content of this backpack. The content of a
+	 * backpack in this backpack comes right before that backpack itself, and the loose
+	 * ducats of every backpack come after the rest of its content.
 	 */
 	public Enumeration<Object> getBackpackIterator(){
 		return new Enumeration<Object>(){
 
 			/**
-			 * Variable indexing the current element of this iterator.
+			 * Variable referencing the backpacks that are being iterated over, with the
+			 * innermost one on top.
+			 */
+			private final ArrayDeque<Position> stack = new ArrayDeque<Position>(
+					Collections.singleton(new Position(Backpack.this)));
+			
+			/**
+			 * Variable referencing the element that will be returned next, or null if it
+			 * still has to be looked up.
 			 */
-			private int indexCurrent = 0;
+			private Object next = null;
 			
 			/**
 			 * Check whether the iterator has more elements.
 			 * 
-			 * @return	True if and only if the size of the content of this backpack
-			 * 			minus the current index is greater than zero.
-			 * 			| result == getContent().size() - indexCurrent > 0
+			 * @return	True if and only if not all the content of this backpack and the
+			 * 			backpacks in it has been returned.
 			 */
 			@Override
 			public boolean hasMoreElements() {
-				return getContent().size() - indexCurrent > 0;
+				if (next == null){
+					next = findNext();
+				}
+				return (next != null);
 			}
-
-			/**
-			 * Variable referencing the index of the element in a backpack in this backpack.
-			 */
-			private int indexBackpack = 1;
 			
 			/**
 			 * Return the next element of the content of this backpack.
+			 * 
+			 * @throws	NoSuchElementException
+			 * 			There are no more elements.
+			 * 			| !hasMoreElements()
 			 */
 			@Override
-			public Object nextElement() {
-				Object object = getContent().get(indexCurrent);
-				if (object instanceof Backpack){
-					Backpack backpack = (Backpack) object;
-					Enumeration<Object> iterator = backpack.getBackpackIterator();
-					Object inside = null;
-					for (int i = 0; i < indexBackpack; i++){
-						if (iterator.hasMoreElements()){
-							inside = iterator.nextElement();
+			public Object nextElement() throws NoSuchElementException {
+				if (!hasMoreElements()){
+					throw new NoSuchElementException();
+				}
+				Object result = next;
+				next = null;
+				return result;
+			}
+			
+			/**
+			 * Look up the next element, or return null if there is none.
+			 */
+			private Object findNext(){
+				while (!stack.isEmpty()){
+					Position position = stack.peek();
+					if (position.index < position.backpack.getNumberOfOwnables()){
+						Object object = position.backpack.getOwnableAt(position.index);
+						if ((object instanceof Backpack) && !position.entered){
+							position.entered = true;
+							stack.push(new Position((Backpack) object));
 						}
 						else {
-							indexBackpack = 0;
-							inside = null;
+							position.index++;
+							position.entered = false;
+							return object;
 						}
 					}
-					indexBackpack++;
-					if (inside != null){
-						return inside;
+					else {
+						stack.pop();
+						if (position.backpack.looseDucats > 0){
+							return Ducat.valueOf(position.backpack.looseDucats);
+						}
 					}
 				}
-				indexCurrent++;
-				return object;
+				return null;
 			}
-			
 		};
 	}
+	
+	/**
+	 * A class of positions in the content of a backpack, used by the backpack iterator.
+	 */
+	private static class Position {
+		
+		/**
+		 * Initialize this new position at the start of the content of the given backpack.
+		 */
+		Position(Backpack backpack){
+			this.backpack = backpack;
+		}
+		
+		/**
+		 * Variable referencing the backpack of this position.
+		 */
+		final Backpack backpack;
+		
+		/**
+		 * Variable referencing the index of the current element in the content.
+		 */
+		int index = 0;
+		
+		/**
+		 * Variable registering whether the content of the backpack at the current
+		 * index is already being iterated over.
+		 */
+		boolean entered = false;
+	}
 
 	/***************************
 	 * value
@@ -704,7 +1259,7 @@ public class Backpack extends Storage{
 	/**
 	 * Variable registering the standard value of the backpack in itself.
 	 */
-	private Ducat standardValue = new Ducat(0);
+	private Ducat standardValue = Ducat.NO_DUCATS;
 	
 	/**
 	 * Sets the standard value of the backpack to the given integer 'standardValue'.
@@ -724,7 +1279,7 @@ public class Backpack extends Storage{
 			this.standardValue = standardValue;
 		}
 		else {
-			this.setStandardValue(new Ducat(0));
+			this.setStandardValue(Ducat.NO_DUCATS);
 		}
 	}
 	
@@ -736,7 +1291,7 @@ public class Backpack extends Storage{
 	 */
 	@Basic @Raw
 	public Ducat getStandardValue(){
-		return new Ducat(this.standardValue.getValue());
+		return this.standardValue;
 	}
 	
 	/**
@@ -775,25 +1330,35 @@ public class Backpack extends Storage{
 	 * 
 	 * @return The resulting number must be a valid value
 	 * 		   | isValidValue(result)
+	 * @throws IllegalArgumentException
+	 * 		   The value of the backpack does not fit in a single ducat.
+	 * 		   | (sum of the standard value and the values of the content) > Integer.MAX_VALUE
 	 */
 	@Override
-	public Ducat getValue() {
-		Ducat value = this.getStandardValue();
-		Enumeration<Object> iterator = this.getBackpackIterator();
-		while (iterator.hasMoreElements()){
-			Object object = iterator.nextElement();
-			if (object instanceof Ducat){
-				Ducat ducat = (Ducat) object;
-				value.add(ducat);
-			}
-			else if (object instanceof Backpack){
-				Backpack backpack = (Backpack) object;
-				value.add(backpack.getStandardValue());
-			}
-			else if (object instanceof Ownable){
-				Ownable ownable = (Ownable) object;
-				value.add(ownable.getValue());
-			}
+	public Ducat getValue() throws IllegalArgumentException {
+		return Ducat.valueOf(this.getTotalValue());
+	}
+	
+	/**
+	 * Return the value in ducats of this backpack and its content as a long.
+	 * 
+	 * @return	The sum of the standard value, the loose ducats, the values of the weapons,
+	 * 			armors and purses and the total values of the backpacks in this backpack.
+	 */
+	@Model
+	private long getTotalValue(){
+		long value = (long) this.getStandardValue().getValue() + this.looseDucats;
+		for (Weapon weapon: this.weapons){
+			value = value + weapon.getValue().getValue();
+		}
+		for (Armor armor: this.armors){
+			value = value + armor.getValue().getValue();
+		}
+		for (Purse purse: this.purses){
+			value = value + purse.getValue().getValue();
+		}
+		for (Backpack backpack: this.backpacks){
+			value = value + backpack.getTotalValue();
 		}
 		return value;
 	}
@@ -812,20 +1377,7 @@ public class Backpack extends Storage{
 	 */
 	@Override
 	public double getTotalWeight(Unit unit) {
-		double weight = unit.convertFromKilogram(this.getOwnWeight(unit));
-		Enumeration<Object> iterator = this.getBackpackIterator();
-		while (iterator.hasMoreElements()){
-			Object object = iterator.nextElement();
-			if (object instanceof Ducat){
-				Ducat ducat = (Ducat) object;
-				weight = weight + ducat.getWeight(unit);
-			}
-			else if (object instanceof Ownable){
-				Ownable ownable = (Ownable) object;
-				weight = weight + ownable.getOwnWeight(unit);
-			}
-		}
-		return weight;
+		return unit.convertFromKilogram(this.getOwnWeight(unit)) + this.getContentWeight(unit);
 	}
 	
 	/********************************
@@ -884,7 +1436,7 @@ public class Backpack extends Storage{
 			Object object = iterator.nextElement();
 			if (object instanceof Ownable){
 				Ownable ownable = (Ownable) object;
-				ownable.getContainersSet().removeAll(this.getContainersSet());
+				ownable.removeContainers(this.getContainersSet());
 			}
 		}
 		super.removeAllContainers();
@@ -896,14 +1448,19 @@ public class Backpack extends Storage{
 	
 	/**
 	 * Terminate all the items in the backpack that need to be terminated.
+	 * 
+	 * @effect	All the weapons and armors in this backpack are terminated, which also
+	 * 			takes them out of this backpack.
+	 * 			| for all next in this backpack:
+	 * 			|		if (next instanceof Weapon || next instanceof Armor)
+	 * 			|		then ((Ownable) next).terminate()
 	 */
 	protected void terminate(){
-		Enumeration<Object> iterator = this.getBackpackIterator();
-		while (iterator.hasMoreElements()){
-			Object next = iterator.nextElement();
-			if (next instanceof Weapon || next instanceof Armor){
-				((Ownable) next).terminate();
-			}
+		ArrayList<Ownable> toTerminate = new ArrayList<Ownable>();
+		toTerminate.addAll(this.getAllWeapons());
+		toTerminate.addAll(this.getAllArmors());
+		for (Ownable ownable: toTerminate){
+			ownable.terminate();
 		}
 	}
 }
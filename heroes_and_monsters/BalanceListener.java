@@ -0,0 +1,20 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for objects that want to be told about the result of every cell of a
+ * balance tuner as soon as it is known.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface BalanceListener {
+
+	/**
+	 * Handle the given result. The results of one run are handled one at a time, but
+	 * not necessarily on the thread that started the run, nor in the order of the grid.
+	 *
+	 * @param 	result
+	 * 			The result of a cell.
+	 */
+	void handle(BalanceResult result);
+}
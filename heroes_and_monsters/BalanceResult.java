@@ -0,0 +1,178 @@
+package heroes_and_monsters;
+
+import java.util.Locale;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of balance results, each one the estimated win rate of the heroes for one
+ * cell of the grid of a balance tuner, with a Wilson score interval around it.
+ *
+ * @invar	The number of hero wins is between 0 and the number of duels.
+ * 			| 0 <= getHeroWins() && getHeroWins() <= getNumberOfDuels()
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public final class BalanceResult {
+
+	/**
+	 * Initialize this new result.
+	 *
+	 * @param 	settings
+	 * 			The settings of the cell.
+	 * @param 	numberOfDuels
+	 * 			The number of duels fought.
+	 * @param 	heroWins
+	 * 			The number of duels a hero won.
+	 * @param 	z
+	 * 			The number of standard deviations of the interval.
+	 * @param 	converged
+	 * 			Whether the interval became narrow enough before the maximum number of
+	 * 			duels was reached.
+	 */
+	BalanceResult(BalanceSettings settings, long numberOfDuels, long heroWins, double z, boolean converged){
+		this.settings = settings;
+		this.numberOfDuels = numberOfDuels;
+		this.heroWins = heroWins;
+		this.z = z;
+		this.converged = converged;
+	}
+
+	/**
+	 * Variable referencing the settings of the cell.
+	 */
+	private final BalanceSettings settings;
+
+	/**
+	 * Variable registering the number of duels fought.
+	 */
+	private final long numberOfDuels;
+
+	/**
+	 * Variable registering the number of duels a hero won.
+	 */
+	private final long heroWins;
+
+	/**
+	 * Variable registering the number of standard deviations of the interval.
+	 */
+	private final double z;
+
+	/**
+	 * Variable registering whether the interval became narrow enough.
+	 */
+	private final boolean converged;
+
+	/**
+	 * Return the settings of the cell.
+	 */
+	@Basic @Immutable
+	public BalanceSettings getSettings(){
+		return this.settings;
+	}
+
+	/**
+	 * Return the number of duels fought.
+	 */
+	@Basic @Immutable
+	public long getNumberOfDuels(){
+		return this.numberOfDuels;
+	}
+
+	/**
+	 * Return the number of duels a hero won.
+	 */
+	@Basic @Immutable
+	public long getHeroWins(){
+		return this.heroWins;
+	}
+
+	/**
+	 * Return whether the interval became narrow enough before the maximum number of duels
+	 * was reached.
+	 */
+	@Basic @Immutable
+	public boolean isConverged(){
+		return this.converged;
+	}
+
+	/**
+	 * Return the fraction of the duels a hero won.
+	 *
+	 * @return	| result == (double) getHeroWins() / getNumberOfDuels()
+	 */
+	public double getWinRate(){
+		return (numberOfDuels == 0) ? 0 : (double) heroWins / numberOfDuels;
+	}
+
+	/**
+	 * Return the lower bound of the Wilson score interval of the win rate. The interval
+	 * always contains the win rate; rounding errors are not allowed to say otherwise.
+	 *
+	 * @return	| result <= getWinRate()
+	 */
+	public double getLowerBound(){
+		return Math.min(getWinRate(), getCenter(heroWins, numberOfDuels, z) - getHalfWidth(heroWins, numberOfDuels, z));
+	}
+
+	/**
+	 * Return the upper bound of the Wilson score interval of the win rate.
+	 *
+	 * @return	| result >= getWinRate()
+	 */
+	public double getUpperBound(){
+		return Math.max(getWinRate(), getCenter(heroWins, numberOfDuels, z) + getHalfWidth(heroWins, numberOfDuels, z));
+	}
+
+	/**
+	 * Return the center of the Wilson score interval of the given number of successes.
+	 *
+	 * @param 	successes
+	 * 			The number of successes.
+	 * @param 	trials
+	 * 			The number of trials.
+	 * @param 	z
+	 * 			The number of standard deviations of the interval.
+	 * @return	| result == (p + z^2 / 2n) / (1 + z^2 / n), with p = successes / trials
+	 */
+	static double getCenter(long successes, long trials, double z){
+		if (trials == 0){
+			return 0.5;
+		}
+		double p = (double) successes / trials;
+		double zz = z * z;
+		return (p + zz / (2.0 * trials)) / (1 + zz / trials);
+	}
+
+	/**
+	 * Return the half width of the Wilson score interval of the given number of successes.
+	 *
+	 * @param 	successes
+	 * 			The number of successes.
+	 * @param 	trials
+	 * 			The number of trials.
+	 * @param 	z
+	 * 			The number of standard deviations of the interval.
+	 * @return	| result == z / (1 + z^2 / n) * sqrt(p (1 - p) / n + z^2 / 4n^2)
+	 */
+	static double getHalfWidth(long successes, long trials, double z){
+		if (trials == 0){
+			return 0.5;
+		}
+		double p = (double) successes / trials;
+		double zz = z * z;
+		return z / (1 + zz / trials) * Math.sqrt(p * (1 - p) / trials + zz / (4.0 * trials * trials));
+	}
+
+	/**
+	 * Return this result as a string.
+	 */
+	@Override
+	public String toString(){
+		return String.format(Locale.ROOT, "%s: %.4f [%.4f, %.4f] after %d duels%s", settings,
+				getWinRate(), getLowerBound(), getUpperBound(), numberOfDuels,
+				converged ? "" : " (not converged)");
+	}
+}
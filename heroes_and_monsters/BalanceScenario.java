@@ -0,0 +1,22 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for the scenarios a balance tuner plays in every cell of its grid.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface BalanceScenario {
+
+	/**
+	 * Return a new duel between a hero and a monster in the given world, to which the
+	 * given settings are already applied. This method is called by several threads at
+	 * once, each one with its own world.
+	 *
+	 * @param 	world
+	 * 			The world to make the creatures in.
+	 * @param 	settings
+	 * 			The settings of the cell.
+	 */
+	Duel createDuel(World world, BalanceSettings settings);
+}
@@ -0,0 +1,208 @@
+package heroes_and_monsters;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of balance settings, each one a cell of the grid of game parameters that a
+ * balance tuner explores: the maximum damage of weapons and of monsters, the capacities
+ * of heroes and the strength heroes start with.
+ *
+ * @invar	The maximum damages are at least 1.
+ * 			| getWeaponMaxDamage() >= 1 && getMonsterMaxDamage() >= 1
+ * @invar	The hero capacities are 10 capacities that are not negative.
+ * 			| getHeroCapacities().size() == 10
+ * @invar	The hero strength is effective and not negative.
+ * 			| getHeroStrength() != null && getHeroStrength().signum() >= 0
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public final class BalanceSettings {
+
+	/**
+	 * Initialize these new balance settings.
+	 *
+	 * @param 	weaponMaxDamage
+	 * 			The maximum damage of the weapons.
+	 * @param 	monsterMaxDamage
+	 * 			The maximum damage of the monsters.
+	 * @param 	heroCapacities
+	 * 			The capacities of the heroes with a strength from 11 up to and including 20.
+	 * @param 	heroStrength
+	 * 			The strength heroes start with.
+	 * @post	The settings are the given settings.
+	 * 			| new.getWeaponMaxDamage() == weaponMaxDamage &&
+	 * 			| new.getMonsterMaxDamage() == monsterMaxDamage &&
+	 * 			| new.getHeroCapacities().equals(heroCapacities) &&
+	 * 			| new.getHeroStrength().equals(heroStrength)
+	 * @throws	IllegalArgumentException
+	 * 			One of the maximum damages is smaller than 1, there are not 10 capacities
+	 * 			or one of them is not effective or negative, or the strength is not
+	 * 			effective or negative.
+	 */
+	public BalanceSettings(int weaponMaxDamage, int monsterMaxDamage, List<Integer> heroCapacities,
+			BigDecimal heroStrength) throws IllegalArgumentException {
+		if ((weaponMaxDamage < 1) || (monsterMaxDamage < 1)){
+			throw new IllegalArgumentException("A maximum damage must be at least 1.");
+		}
+		if ((heroCapacities == null) || (heroCapacities.size() != 10)){
+			throw new IllegalArgumentException("There must be 10 capacities.");
+		}
+		for (Integer capacity: heroCapacities){
+			if ((capacity == null) || (capacity < 0)){
+				throw new IllegalArgumentException("A capacity can't be negative.");
+			}
+		}
+		if ((heroStrength == null) || (heroStrength.signum() < 0)){
+			throw new IllegalArgumentException("The strength can't be negative.");
+		}
+		this.weaponMaxDamage = weaponMaxDamage;
+		this.monsterMaxDamage = monsterMaxDamage;
+		this.heroCapacities = Collections.unmodifiableList(new ArrayList<Integer>(heroCapacities));
+		this.heroStrength = heroStrength;
+	}
+
+	/**
+	 * Variable referencing the settings of a new world, with the strength of the hero of
+	 * the main program.
+	 */
+	public static final BalanceSettings DEFAULT = new BalanceSettings(100, 100,
+			Arrays.asList(115, 130, 150, 175, 200, 230, 260, 300, 350, 400), new BigDecimal("264.15"));
+
+	/**
+	 * Variable registering the maximum damage of the weapons.
+	 */
+	private final int weaponMaxDamage;
+
+	/**
+	 * Variable registering the maximum damage of the monsters.
+	 */
+	private final int monsterMaxDamage;
+
+	/**
+	 * Variable referencing the capacities of the heroes.
+	 */
+	private final List<Integer> heroCapacities;
+
+	/**
+	 * Variable referencing the strength heroes start with.
+	 */
+	private final BigDecimal heroStrength;
+
+	/**
+	 * Return the maximum damage of the weapons.
+	 */
+	@Basic @Immutable
+	public int getWeaponMaxDamage(){
+		return this.weaponMaxDamage;
+	}
+
+	/**
+	 * Return the maximum damage of the monsters.
+	 */
+	@Basic @Immutable
+	public int getMonsterMaxDamage(){
+		return this.monsterMaxDamage;
+	}
+
+	/**
+	 * Return the capacities of the heroes with a strength from 11 up to and including 20.
+	 */
+	@Basic @Immutable
+	public List<Integer> getHeroCapacities(){
+		return this.heroCapacities;
+	}
+
+	/**
+	 * Return the strength heroes start with.
+	 */
+	@Basic @Immutable
+	public BigDecimal getHeroStrength(){
+		return this.heroStrength;
+	}
+
+	/**
+	 * Apply these settings to the given world.
+	 *
+	 * @param 	world
+	 * 			The world to apply the settings to.
+	 * @effect	| world.setWeaponMaxDamage(getWeaponMaxDamage())
+	 * @effect	| world.setMonsterMaxDamage(getMonsterMaxDamage())
+	 * @effect	| world.setHeroCapacities(getHeroCapacities())
+	 */
+	public void applyTo(World world){
+		world.setWeaponMaxDamage(getWeaponMaxDamage());
+		world.setMonsterMaxDamage(getMonsterMaxDamage());
+		world.setHeroCapacities(getHeroCapacities());
+	}
+
+	/**
+	 * Return the settings of every combination of the given values, in order: the last
+	 * list varies fastest.
+	 *
+	 * @param 	weaponMaxDamages
+	 * 			The maximum damages of weapons to try.
+	 * @param 	monsterMaxDamages
+	 * 			The maximum damages of monsters to try.
+	 * @param 	heroCapacities
+	 * 			The tables of hero capacities to try.
+	 * @param 	heroStrengths
+	 * 			The hero strengths to try.
+	 * @throws	IllegalArgumentException
+	 * 			One of the combinations is not valid.
+	 */
+	public static List<BalanceSettings> grid(List<Integer> weaponMaxDamages, List<Integer> monsterMaxDamages,
+			List<List<Integer>> heroCapacities, List<BigDecimal> heroStrengths) throws IllegalArgumentException {
+		List<BalanceSettings> grid = new ArrayList<BalanceSettings>();
+		for (int weaponMaxDamage: weaponMaxDamages){
+			for (int monsterMaxDamage: monsterMaxDamages){
+				for (List<Integer> capacities: heroCapacities){
+					for (BigDecimal heroStrength: heroStrengths){
+						grid.add(new BalanceSettings(weaponMaxDamage, monsterMaxDamage, capacities, heroStrength));
+					}
+				}
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Check whether these settings are equal to the given object.
+	 *
+	 * @return	True if and only if the given object are balance settings with the same
+	 * 			values.
+	 */
+	@Override
+	public boolean equals(Object other){
+		if ((other == null) || (this.getClass() != other.getClass())){
+			return false;
+		}
+		BalanceSettings settings = (BalanceSettings) other;
+		return (this.weaponMaxDamage == settings.weaponMaxDamage) &&
+				(this.monsterMaxDamage == settings.monsterMaxDamage) &&
+				this.heroCapacities.equals(settings.heroCapacities) &&
+				(this.heroStrength.compareTo(settings.heroStrength) == 0);
+	}
+
+	/**
+	 * Return the hash code of these settings.
+	 */
+	@Override
+	public int hashCode(){
+		return Objects.hash(weaponMaxDamage, monsterMaxDamage, heroCapacities,
+				heroStrength.stripTrailingZeros());
+	}
+
+	/**
+	 * Return these settings as a string.
+	 */
+	@Override
+	public String toString(){
+		return "weaponMaxDamage=" + weaponMaxDamage + ",monsterMaxDamage=" + monsterMaxDamage +
+				",heroCapacities=" + heroCapacities + ",heroStrength=" + heroStrength.toPlainString();
+	}
+}
@@ -0,0 +1,413 @@
+package heroes_and_monsters;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of balance tuners, estimating the win rate of heroes for every cell of a grid of
+ * balance settings by letting a hero and a monster fight many duels.
+ *
+ * The duels of a cell are fought in batches, each duel in a new world to which the
+ * settings of the cell are applied, because the identifications of backpacks grow with
+ * the number of backpacks in a world. All cells are fought at the same time on a fixed
+ * number of threads: after every batch, the cell goes back to the end of the queue. A
+ * cell stops as soon as the Wilson score interval of its win rate is narrow enough, or
+ * when it reaches the maximum number of duels, and its result is then handed to the
+ * listener right away. The interval is checked after every batch; because it is checked
+ * more than once, its real coverage is somewhat lower than the nominal one, so a
+ * generous number of standard deviations is used by default.
+ *
+ * @invar	The number of threads and the batch size are positive.
+ * 			| getNumberOfThreads() > 0 && getBatchSize() > 0
+ * @invar	The minimum number of duels is at most the maximum number of duels.
+ * 			| getMinimumDuels() <= getMaximumDuels()
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class BalanceTuner {
+
+	/**
+	 * Initialize this new tuner for the given scenario.
+	 *
+	 * @param 	scenario
+	 * 			The scenario to play in every cell.
+	 * @param 	threads
+	 * 			The number of threads that fight the duels.
+	 * @post	The scenario of this new tuner is the given scenario.
+	 * 			| new.getScenario() == scenario
+	 * @post	The number of threads of this new tuner is the given number.
+	 * 			| new.getNumberOfThreads() == threads
+	 * @throws	IllegalArgumentException
+	 * 			The scenario is not effective or the number of threads is not positive.
+	 * 			| scenario == null || threads < 1
+	 */
+	public BalanceTuner(BalanceScenario scenario, int threads) throws IllegalArgumentException {
+		if (scenario == null){
+			throw new IllegalArgumentException("A tuner needs a scenario.");
+		}
+		if (threads < 1){
+			throw new IllegalArgumentException("A tuner needs at least one thread.");
+		}
+		this.scenario = scenario;
+		this.threads = threads;
+	}
+
+	/**
+	 * Initialize this new tuner for the duel of the main program, with one thread for every
+	 * available processor.
+	 *
+	 * @effect	| this(MAIN_PROGRAM, Runtime.getRuntime().availableProcessors())
+	 */
+	public BalanceTuner(){
+		this(MAIN_PROGRAM, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Variable referencing the scenario of the main program: the hero Eend with two
+	 * weapons, an empty backpack, an armor and a purse against the monster Boemkool, who
+	 * hits first half of the time. The damage of the weapons and the monster is rounded
+	 * down to a multiple of 7 that is allowed in the world, and the hero has the strength
+	 * of the settings. The duel is fast-forwarded.
+	 */
+	public static final BalanceScenario MAIN_PROGRAM = new BalanceScenario(){
+		@Override
+		public Duel createDuel(World world, BalanceSettings settings){
+			int weaponMax = world.getWeaponMaxDamage();
+			Purse geldbeurs = new Purse(world, 222, Unit.GRAM, 5000);
+			geldbeurs.addToStorage(new Ducat(47));
+			Backpack rugzak = new Backpack(world, new Ducat(132), 261, 1, Unit.KG);
+			Hero eend = new Hero(world, "Eend", settings.getHeroStrength(), 237,
+					new ArrayList<Object>(Arrays.asList(
+							new Weapon(world, 2, Unit.KG, allowedDamage(70, weaponMax)),
+							new Weapon(world, 1063, Unit.GRAM, allowedDamage(42, weaponMax)), rugzak,
+							new Armor(world, 2477, 84, new Ducat(752), 73, Unit.KG), geldbeurs)));
+			Backpack rugzak2 = new Backpack(world, new Ducat(104), 541, 2, Unit.KG);
+			rugzak2.addToStorage(new Weapon(world, 20, Unit.KG, allowedDamage(56, weaponMax)));
+			ArrayList<String> anchors = new ArrayList<String>(Arrays.asList("Hand 1", "Hand 2", "Hand 3", "Hand 4", "Tail", "Horns"));
+			ArrayList<Object> anchorObjects = new ArrayList<Object>(Arrays.asList(
+					new Weapon(world, 361, Unit.GRAM, allowedDamage(49, weaponMax)),
+					new Armor(world, 65, 62, new Ducat(457), 68, Unit.KG), rugzak2, Ducat.ONE_DUCAT));
+			Monster boemkool = new Monster(world, "Boemkool", new BigDecimal(312.48), 698, anchors,
+					anchorObjects, allowedDamage(35, world.getMonsterMaxDamage()), 72);
+			if (ThreadLocalRandom.current().nextBoolean()){
+				return new Duel(eend, boemkool);
+			}
+			return new Duel(boemkool, eend);
+		}
+	};
+
+	/**
+	 * Return the given damage, rounded down to a multiple of 7 that is at most the given
+	 * maximum, but at least 7.
+	 */
+	private static int allowedDamage(int damage, int maximum){
+		int allowed = Math.min(damage, maximum - maximum % 7);
+		return Math.max(allowed, 7);
+	}
+
+	/**
+	 * Variable referencing the scenario of this tuner.
+	 */
+	private final BalanceScenario scenario;
+
+	/**
+	 * Variable registering the number of threads of this tuner.
+	 */
+	private final int threads;
+
+	/**
+	 * Variable registering the half width of the interval at which a cell stops.
+	 */
+	private double targetHalfWidth = 0.01;
+
+	/**
+	 * Variable registering the number of standard deviations of the interval.
+	 */
+	private double z = 3.0;
+
+	/**
+	 * Variable registering the number of duels in a batch.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * Variable registering the number of duels a cell fights at least.
+	 */
+	private long minimumDuels = 200;
+
+	/**
+	 * Variable registering the number of duels a cell fights at most.
+	 */
+	private long maximumDuels = 100000;
+
+	/**
+	 * Return the scenario of this tuner.
+	 */
+	@Basic @Immutable
+	public BalanceScenario getScenario(){
+		return this.scenario;
+	}
+
+	/**
+	 * Return the number of threads of this tuner.
+	 */
+	@Basic @Immutable
+	public int getNumberOfThreads(){
+		return this.threads;
+	}
+
+	/**
+	 * Return the half width of the interval of the win rate at which a cell stops.
+	 */
+	@Basic
+	public double getTargetHalfWidth(){
+		return this.targetHalfWidth;
+	}
+
+	/**
+	 * Return the number of standard deviations of the interval of the win rate.
+	 */
+	@Basic
+	public double getZ(){
+		return this.z;
+	}
+
+	/**
+	 * Set the precision at which a cell stops.
+	 *
+	 * @param 	targetHalfWidth
+	 * 			The half width of the interval at which a cell stops.
+	 * @param 	z
+	 * 			The number of standard deviations of the interval.
+	 * @post	| new.getTargetHalfWidth() == targetHalfWidth && new.getZ() == z
+	 * @throws	IllegalArgumentException
+	 * 			The half width is not between 0 and 0.5 or z is not positive.
+	 * 			| !(targetHalfWidth > 0 && targetHalfWidth < 0.5) || !(z > 0)
+	 */
+	public void setPrecision(double targetHalfWidth, double z) throws IllegalArgumentException {
+		if (!(targetHalfWidth > 0 && targetHalfWidth < 0.5) || !(z > 0)){
+			throw new IllegalArgumentException("This is not a valid precision.");
+		}
+		this.targetHalfWidth = targetHalfWidth;
+		this.z = z;
+	}
+
+	/**
+	 * Return the number of duels in a batch.
+	 */
+	@Basic
+	public int getBatchSize(){
+		return this.batchSize;
+	}
+
+	/**
+	 * Return the number of duels a cell fights at least.
+	 */
+	@Basic
+	public long getMinimumDuels(){
+		return this.minimumDuels;
+	}
+
+	/**
+	 * Return the number of duels a cell fights at most.
+	 */
+	@Basic
+	public long getMaximumDuels(){
+		return this.maximumDuels;
+	}
+
+	/**
+	 * Set the number of duels of the cells.
+	 *
+	 * @param 	batchSize
+	 * 			The number of duels in a batch.
+	 * @param 	minimumDuels
+	 * 			The number of duels a cell fights at least.
+	 * @param 	maximumDuels
+	 * 			The number of duels a cell fights at most.
+	 * @post	| new.getBatchSize() == batchSize && new.getMinimumDuels() == minimumDuels &&
+	 * 			| new.getMaximumDuels() == maximumDuels
+	 * @throws	IllegalArgumentException
+	 * 			The batch size is not positive, the minimum is negative or the maximum is
+	 * 			smaller than the minimum or not positive.
+	 */
+	public void setDuels(int batchSize, long minimumDuels, long maximumDuels) throws IllegalArgumentException {
+		if ((batchSize < 1) || (minimumDuels < 0) || (maximumDuels < 1) || (maximumDuels < minimumDuels)){
+			throw new IllegalArgumentException("These are not valid numbers of duels.");
+		}
+		this.batchSize = batchSize;
+		this.minimumDuels = minimumDuels;
+		this.maximumDuels = maximumDuels;
+	}
+
+	/**
+	 * A class of cells that are being tuned.
+	 */
+	private static class Cell {
+
+		Cell(BalanceSettings settings, int index){
+			this.settings = settings;
+			this.index = index;
+		}
+
+		/**
+		 * Variable referencing the settings of this cell.
+		 */
+		private final BalanceSettings settings;
+
+		/**
+		 * Variable registering the position of this cell in the grid.
+		 */
+		private final int index;
+
+		/**
+		 * Variable registering the number of duels fought so far.
+		 */
+		private long duels = 0;
+
+		/**
+		 * Variable registering the number of duels a hero won so far.
+		 */
+		private long heroWins = 0;
+	}
+
+	/**
+	 * Estimate the win rate of the heroes for every cell of the given grid.
+	 *
+	 * @param 	grid
+	 * 			The settings to try.
+	 * @param 	listener
+	 * 			The listener that is told about every result as soon as it is known, or null.
+	 * @return	The results of the cells, in the order of the grid.
+	 * @throws	IllegalArgumentException
+	 * 			The grid is not effective or contains a setting that is not effective.
+	 * @throws	IllegalStateException
+	 * 			A duel of the scenario or the listener failed; the exception is the cause.
+	 * @throws	InterruptedException
+	 * 			The current thread was interrupted while waiting for the results.
+	 */
+	public List<BalanceResult> tune(List<BalanceSettings> grid, BalanceListener listener)
+			throws IllegalArgumentException, IllegalStateException, InterruptedException {
+		if (grid == null){
+			throw new IllegalArgumentException("The grid must be effective.");
+		}
+		for (BalanceSettings settings: grid){
+			if (settings == null){
+				throw new IllegalArgumentException("The settings must be effective.");
+			}
+		}
+		final BalanceResult[] results = new BalanceResult[grid.size()];
+		final CountDownLatch done = new CountDownLatch(grid.size());
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final BalanceListener safeListener = listener;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory(){
+			private final AtomicInteger number = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable runnable){
+				Thread thread = new Thread(runnable, "balance-tuner-" + number.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			for (int i = 0; i < grid.size(); i++){
+				final Cell cell = new Cell(grid.get(i), i);
+				executor.execute(new Runnable(){
+					@Override
+					public void run(){
+						boolean finished = true;
+						try {
+							if (failure.get() != null){
+								return;
+							}
+							fightBatch(cell);
+							BalanceResult result = getResult(cell);
+							if (result == null){
+								try {
+									executor.execute(this);
+									finished = false;
+								} catch (RejectedExecutionException e) {
+									// The run was given up while this cell was fighting.
+								}
+								return;
+							}
+							results[cell.index] = result;
+							if (safeListener != null){
+								synchronized (safeListener){
+									safeListener.handle(result);
+								}
+							}
+						} catch (RuntimeException e) {
+							failure.compareAndSet(null, e);
+						} catch (Error e) {
+							failure.compareAndSet(null, e);
+						} finally {
+							if (finished){
+								done.countDown();
+							}
+						}
+					}
+				});
+			}
+			done.await();
+		} finally {
+			executor.shutdownNow();
+		}
+		if (failure.get() != null){
+			throw new IllegalStateException("A duel of the scenario or the listener failed.", failure.get());
+		}
+		return new ArrayList<BalanceResult>(Arrays.asList(results));
+	}
+
+	/**
+	 * Estimate the win rate of the heroes for every cell of the given grid, without listener.
+	 *
+	 * @effect	| tune(grid, null)
+	 */
+	public List<BalanceResult> tune(List<BalanceSettings> grid)
+			throws IllegalArgumentException, IllegalStateException, InterruptedException {
+		return tune(grid, null);
+	}
+
+	/**
+	 * Fight one batch of duels of the given cell, each duel in a new world.
+	 *
+	 * @param 	cell
+	 * 			The cell to fight a batch of.
+	 */
+	@Model
+	private void fightBatch(Cell cell){
+		long batch = Math.min(batchSize, maximumDuels - cell.duels);
+		for (long i = 0; i < batch; i++){
+			World world = new World();
+			cell.settings.applyTo(world);
+			Duel duel = scenario.createDuel(world, cell.settings);
+			if (duel.fastForward() instanceof Hero){
+				cell.heroWins++;
+			}
+			cell.duels++;
+		}
+	}
+
+	/**
+	 * Return the result of the given cell if it can stop, or null if it must fight on.
+	 *
+	 * @param 	cell
+	 * 			The cell to check.
+	 */
+	@Model
+	private BalanceResult getResult(Cell cell){
+		boolean converged = (cell.duels >= minimumDuels) &&
+				(BalanceResult.getHalfWidth(cell.heroWins, cell.duels, z) <= targetHalfWidth);
+		if (converged || (cell.duels >= maximumDuels)){
+			return new BalanceResult(cell.settings, cell.duels, cell.heroWins, z, converged);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,381 @@
+package heroes_and_monsters;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of battles between many heroes and monsters, fought in rounds. In every round,
+ * each participant that is alive at the start of the round hits once, at a random
+ * participant it can hit; a participant that is killed before its turn skips it. The
+ * winner of every killing hit takes its deathblow loot from the victim as in Creature.hit,
+ * also when the world has a loot resolver. A battle is over when nobody is left that can
+ * hit somebody else: when there are no monsters left, or only one participant, or when
+ * nobody had a chance to hit effectively during a whole round.
+ *
+ * The living participants are kept in an array with the position of every participant
+ * in it, so a participant is removed by moving the last living participant in its place,
+ * and a target is drawn in constant time. Heroes only hit monsters, so the living monsters
+ * are kept in such an array too; monsters hit any other participant. If a participant
+ * can't hit the drawn target, the living participants are searched for one it can hit.
+ * The turns of a round are ordered in one batch: the living participants are copied into
+ * a buffer and shuffled. All these arrays are made once, so fighting a round makes no new
+ * arrays, however many participants there are.
+ *
+ * A battle is not meant to be fought by more than one thread at a time.
+ *
+ * @invar	The number of living participants is not greater than the number of participants.
+ * 			| getNumberOfAlive() <= getNumberOfParticipants()
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class Battle {
+
+	/**
+	 * Initialize this new battle between the given creatures.
+	 *
+	 * @param 	participants
+	 * 			The creatures that fight.
+	 * @post	The participants of this battle are the given creatures, in the same order,
+	 * 			and they are all alive.
+	 * 			| new.getNumberOfParticipants() == participants.size() &&
+	 * 			| new.getNumberOfAlive() == participants.size()
+	 * @throws	IllegalArgumentException
+	 * 			The given collection is not effective, has fewer than two creatures, has a
+	 * 			creature that is not effective, dead or in it twice, or has creatures of
+	 * 			different worlds.
+	 */
+	public Battle(Collection<? extends Creature> participants) throws IllegalArgumentException {
+		if ((participants == null) || (participants.size() < 2)){
+			throw new IllegalArgumentException("A battle needs at least two creatures.");
+		}
+		int size = participants.size();
+		this.participants = new Creature[size];
+		this.positions = new int[size];
+		this.monsterPositions = new int[size];
+		this.alive = new int[size];
+		this.monsters = new int[size];
+		this.order = new int[size];
+		IdentityHashMap<Creature, Boolean> seen = new IdentityHashMap<Creature, Boolean>();
+		int index = 0;
+		for (Creature creature: participants){
+			if ((creature == null) || creature.getKilled()){
+				throw new IllegalArgumentException("Every participant must be an effective, living creature.");
+			}
+			if (seen.put(creature, Boolean.TRUE) != null){
+				throw new IllegalArgumentException("A creature can't take part twice.");
+			}
+			if ((index > 0) && !creature.isInSameWorld(this.participants[0])){
+				throw new IllegalArgumentException("All participants must belong to the same world.");
+			}
+			this.participants[index] = creature;
+			this.positions[index] = this.numberOfAlive;
+			this.alive[this.numberOfAlive++] = index;
+			if (creature instanceof Monster){
+				this.monsterPositions[index] = this.numberOfMonsters;
+				this.monsters[this.numberOfMonsters++] = index;
+			}
+			else {
+				this.monsterPositions[index] = -1;
+			}
+			index++;
+		}
+	}
+
+	/**
+	 * Variable referencing the participants.
+	 */
+	private final Creature[] participants;
+
+	/**
+	 * Variable referencing the participants that are alive, by their index, in the first
+	 * numberOfAlive positions.
+	 */
+	private final int[] alive;
+
+	/**
+	 * Variable referencing the position of every participant in alive, or -1 if it's dead.
+	 */
+	private final int[] positions;
+
+	/**
+	 * Variable referencing the monsters that are alive, by their index, in the first
+	 * numberOfMonsters positions.
+	 */
+	private final int[] monsters;
+
+	/**
+	 * Variable referencing the position of every participant in monsters, or -1 if it's
+	 * dead or no monster.
+	 */
+	private final int[] monsterPositions;
+
+	/**
+	 * Variable referencing the buffer with the order of the turns of a round.
+	 */
+	private final int[] order;
+
+	/**
+	 * Variable registering the number of participants that are alive.
+	 */
+	private int numberOfAlive = 0;
+
+	/**
+	 * Variable registering the number of monsters that are alive.
+	 */
+	private int numberOfMonsters = 0;
+
+	/**
+	 * Variable registering the number of rounds fought.
+	 */
+	private long numberOfRounds = 0;
+
+	/**
+	 * Variable registering the number of hits, effective or not.
+	 */
+	private long numberOfHits = 0;
+
+	/**
+	 * Variable registering whether nobody had a chance to hit effectively during the last round.
+	 */
+	private boolean stalemate = false;
+
+	/**
+	 * Return the number of participants of this battle, dead or alive.
+	 */
+	@Basic @Immutable
+	public int getNumberOfParticipants(){
+		return this.participants.length;
+	}
+
+	/**
+	 * Return the participant of this battle at the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the participant, in the order they were given.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNumberOfParticipants()
+	 */
+	@Basic @Immutable
+	public Creature getParticipantAt(int index) throws IndexOutOfBoundsException {
+		return this.participants[index];
+	}
+
+	/**
+	 * Return the number of participants that are still alive.
+	 */
+	@Basic
+	public int getNumberOfAlive(){
+		return this.numberOfAlive;
+	}
+
+	/**
+	 * Return the number of monsters that are still alive.
+	 */
+	@Basic
+	public int getNumberOfMonsters(){
+		return this.numberOfMonsters;
+	}
+
+	/**
+	 * Return the number of rounds fought so far.
+	 */
+	@Basic
+	public long getNumberOfRounds(){
+		return this.numberOfRounds;
+	}
+
+	/**
+	 * Return the number of hits, effective or not, in this battle so far.
+	 */
+	@Basic
+	public long getNumberOfHits(){
+		return this.numberOfHits;
+	}
+
+	/**
+	 * Return the number of participants that were killed in this battle.
+	 *
+	 * @return	| result == getNumberOfParticipants() - getNumberOfAlive()
+	 */
+	public int getNumberOfKills(){
+		return this.participants.length - this.numberOfAlive;
+	}
+
+	/**
+	 * Return whether this battle is over.
+	 *
+	 * @return	True if and only if there are no monsters left, only one participant is
+	 * 			left or nobody had a chance to hit effectively during the last round.
+	 * 			| result == (getNumberOfMonsters() == 0 || getNumberOfAlive() <= 1 || stalemate)
+	 */
+	public boolean isOver(){
+		return (this.numberOfMonsters == 0) || (this.numberOfAlive <= 1) || this.stalemate;
+	}
+
+	/**
+	 * Return the participants that are still alive.
+	 *
+	 * @return	A new list with the participants that are alive, in no particular order.
+	 */
+	public ArrayList<Creature> getSurvivors(){
+		ArrayList<Creature> result = new ArrayList<Creature>(this.numberOfAlive);
+		for (int i = 0; i < this.numberOfAlive; i++){
+			result.add(this.participants[this.alive[i]]);
+		}
+		return result;
+	}
+
+	/**
+	 * Fight rounds until this battle is over.
+	 *
+	 * @return	The participants that are still alive.
+	 * 			| result == getSurvivors()
+	 * @effect	Rounds are fought until the battle is over.
+	 * 			| while (!isOver()) fightRound()
+	 * @effect	If the world has a loot resolver, the deathblows are resolved before the
+	 * 			survivors are returned.
+	 * 			| getLootResolver().drain()
+	 */
+	public ArrayList<Creature> fight(){
+		while (!this.isOver()){
+			this.fightRound();
+		}
+		LootResolver resolver = this.participants[0].getWorld().getLootResolver();
+		if (resolver != null){
+			try {
+				resolver.drain();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return this.getSurvivors();
+	}
+
+	/**
+	 * Fight one round of this battle, if it isn't over yet.
+	 *
+	 * @effect	Every participant that is alive at the start of the round and still alive at
+	 * 			its turn hits a random living participant it can hit, in a random order.
+	 * 			Killed participants are no longer alive in this battle.
+	 * @post	If nobody had a chance to hit effectively, the battle is over.
+	 */
+	public void fightRound(){
+		if (this.isOver()){
+			return;
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int turns = this.numberOfAlive;
+		System.arraycopy(this.alive, 0, this.order, 0, turns);
+		for (int i = turns - 1; i > 0; i--){
+			int j = random.nextInt(i + 1);
+			int swap = this.order[i];
+			this.order[i] = this.order[j];
+			this.order[j] = swap;
+		}
+		boolean effectivePossible = false;
+		for (int turn = 0; (turn < turns) && !this.isOver(); turn++){
+			int attacker = this.order[turn];
+			if (this.positions[attacker] < 0){
+				continue;
+			}
+			Creature creature = this.participants[attacker];
+			if (creature.getKilled()){
+				this.remove(attacker);
+				continue;
+			}
+			int target = this.selectTarget(attacker, random);
+			if (target < 0){
+				continue;
+			}
+			effectivePossible = effectivePossible || (creature.getHitProbability() > 0);
+			creature.hit(this.participants[target]);
+			this.numberOfHits++;
+			if (this.participants[target].getKilled()){
+				this.remove(target);
+			}
+		}
+		this.numberOfRounds++;
+		this.stalemate = !effectivePossible && !this.isOver();
+	}
+
+	/**
+	 * Return the index of a random living participant the given participant can hit, or
+	 * -1 if there is none.
+	 *
+	 * @param 	attacker
+	 * 			The index of a living participant.
+	 * @param 	random
+	 * 			The random generator to use.
+	 */
+	@Model
+	private int selectTarget(int attacker, ThreadLocalRandom random){
+		Creature creature = this.participants[attacker];
+		int target;
+		if (creature instanceof Hero){
+			if (this.numberOfMonsters == 0){
+				return -1;
+			}
+			target = this.monsters[random.nextInt(this.numberOfMonsters)];
+		}
+		else {
+			if (this.numberOfAlive < 2){
+				return -1;
+			}
+			int position = random.nextInt(this.numberOfAlive - 1);
+			if (position >= this.positions[attacker]){
+				position++;
+			}
+			target = this.alive[position];
+		}
+		if (this.canHit(creature, target)){
+			return target;
+		}
+		int start = random.nextInt(this.numberOfAlive);
+		for (int i = 0; i < this.numberOfAlive; i++){
+			int candidate = this.alive[(start + i) % this.numberOfAlive];
+			if ((candidate != attacker) && this.canHit(creature, candidate)){
+				return candidate;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Check whether the given creature can hit the participant with the given index now.
+	 * A participant that was killed outside this battle is removed.
+	 */
+	@Model
+	private boolean canHit(Creature creature, int target){
+		if (this.participants[target].getKilled()){
+			this.remove(target);
+			return false;
+		}
+		return creature.canHitCreature(this.participants[target]);
+	}
+
+	/**
+	 * Remove the participant with the given index from the living participants, by
+	 * moving the last living participant in its place.
+	 *
+	 * @param 	index
+	 * 			The index of a living participant.
+	 */
+	@Model
+	private void remove(int index){
+		int position = this.positions[index];
+		int last = this.alive[--this.numberOfAlive];
+		this.alive[position] = last;
+		this.positions[last] = position;
+		this.positions[index] = -1;
+		int monsterPosition = this.monsterPositions[index];
+		if (monsterPosition >= 0){
+			int lastMonster = this.monsters[--this.numberOfMonsters];
+			this.monsters[monsterPosition] = lastMonster;
+			this.monsterPositions[lastMonster] = monsterPosition;
+			this.monsterPositions[index] = -1;
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package heroes_and_monsters;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import Exceptions.OwnableIsTerminatedException;
+
+/**
+ * A class of striped locks guarding containment trees.
+ *
+ * A containment tree is rooted at a creature or at a storage that has no holder. When
+ * the concurrency mode is enabled, every mutation of a containment tree first acquires
+ * the stripe that belongs to the root of that tree. Operations that involve two trees
+ * (passing along, transferring between storages, hitting) acquire both stripes in
+ * ascending stripe order, so two such operations can never wait for each other in a cycle.
+ * Only the outermost operation of a thread acquires stripes: nested operations are
+ * covered by the stripes that are already held.
+ *
+ * @invar	The number of stripes is a power of two.
+ * 			| Integer.bitCount(getNumberOfStripes()) == 1
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class ContainmentLock {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private ContainmentLock(){
+	}
+
+	/**********************************
+	 * stripes
+	 **********************************/
+
+	/**
+	 * Constant registering the number of stripes.
+	 */
+	private static final int NUMBER_OF_STRIPES = 64;
+
+	/**
+	 * Variable referencing the stripes.
+	 */
+	private static final ReentrantLock[] stripes = new ReentrantLock[NUMBER_OF_STRIPES];
+
+	static {
+		for (int i = 0; i < NUMBER_OF_STRIPES; i++){
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Return the number of stripes.
+	 */
+	public static int getNumberOfStripes(){
+		return NUMBER_OF_STRIPES;
+	}
+
+	/**
+	 * Variable referencing the stripes held by the outermost operation of the current thread.
+	 */
+	private static final ThreadLocal<int[]> held = new ThreadLocal<int[]>();
+
+	/**********************************
+	 * concurrency mode
+	 **********************************/
+
+	/**
+	 * Variable registering whether the concurrency mode is enabled.
+	 */
+	private static volatile boolean enabled = false;
+
+	/**
+	 * Return whether the concurrency mode is enabled.
+	 */
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 * Enable or disable the concurrency mode.
+	 *
+	 * @param	enabled
+	 * 			The new mode.
+	 * @post	The concurrency mode is set to the given mode.
+	 * 			| new.isEnabled() == enabled
+	 * @note	The mode should only be switched while no other thread is mutating
+	 * 			containment trees.
+	 */
+	public static void setEnabled(boolean enabled){
+		ContainmentLock.enabled = enabled;
+	}
+
+	/**********************************
+	 * roots
+	 **********************************/
+
+	/**
+	 * Return the root of the containment tree of the given object.
+	 *
+	 * @param 	object
+	 * 			The object to get the root from.
+	 * @return	The given object if it's a creature, a terminated ownable or an ownable
+	 * 			without holder. The ultimate holder if it's an ownable with a holder.
+	 * 			Null otherwise.
+	 */
+	static Object getRoot(Object object){
+		if (object instanceof Creature){
+			return object;
+		}
+		if (object instanceof Ownable){
+			Ownable ownable = (Ownable) object;
+			if (ownable.getTerminated()){
+				return ownable;
+			}
+			try {
+				Object root = ownable.getUltimateHolder();
+				if (root == null){
+					return ownable;
+				}
+				return root;
+			} catch (OwnableIsTerminatedException e) {
+				return ownable;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Return the stripe of the given root.
+	 *
+	 * @param 	root
+	 * 			The root to get the stripe from.
+	 * @return	-1 if the root is not effective, the index of the stripe otherwise.
+	 */
+	private static int getStripe(Object root){
+		if (root == null){
+			return -1;
+		}
+		int hash = System.identityHashCode(root);
+		hash ^= (hash >>> 16);
+		return hash & (NUMBER_OF_STRIPES - 1);
+	}
+
+	/**********************************
+	 * acquire and release
+	 **********************************/
+
+	/**
+	 * Acquire the stripes of the containment trees of the given objects.
+	 *
+	 * @param 	first
+	 * 			The first object of the operation.
+	 * @param 	second
+	 * 			The second object of the operation, possibly null.
+	 * @return	Null if the concurrency mode is disabled or if the current thread already
+	 * 			holds stripes. Otherwise the acquired stripes, in ascending order. The roots
+	 * 			of both objects are checked again once their stripes are held, so the
+	 * 			stripes still guard the trees of both objects when this method returns.
+	 * @effect	If the current thread holds no stripes, it first waits until the pending
+	 * 			deathblows of the creatures at the roots of both objects are resolved.
+	 * 			| LootResolver.awaitFences(first, second)
+	 */
+	static int[] acquire(Object first, Object second){
+		if (enabled && held.get() != null){
+			return null;
+		}
+		LootResolver.awaitFences(first, second);
+		if (!enabled){
+			return null;
+		}
+		while (true){
+			Object firstRoot = getRoot(first);
+			Object secondRoot = getRoot(second);
+			int low = getStripe(firstRoot);
+			int high = getStripe(secondRoot);
+			if (low > high){
+				int swap = low;
+				low = high;
+				high = swap;
+			}
+			int[] acquired;
+			if (low == -1 || low == high){
+				acquired = (high == -1) ? new int[0] : new int[]{high};
+			}
+			else {
+				acquired = new int[]{low, high};
+			}
+			for (int i = 0; i < acquired.length; i++){
+				stripes[acquired[i]].lock();
+			}
+			if (getRoot(first) == firstRoot && getRoot(second) == secondRoot){
+				held.set(acquired);
+				return acquired;
+			}
+			for (int i = acquired.length - 1; i >= 0; i--){
+				stripes[acquired[i]].unlock();
+			}
+		}
+	}
+
+	/**
+	 * Release the given stripes.
+	 *
+	 * @param 	acquired
+	 * 			The stripes returned by acquire.
+	 * @post	If the given stripes are effective, they are released in descending order.
+	 */
+	static void release(int[] acquired){
+		if (acquired == null){
+			return;
+		}
+		held.remove();
+		for (int i = acquired.length - 1; i >= 0; i--){
+			stripes[acquired[i]].unlock();
+		}
+	}
+}
@@ -3,6 +3,7 @@ package heroes_and_monsters;
 import be.kuleuven.cs.som.annotate.*;
 import java.math.*;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 import Exceptions.*;
 
@@ -72,6 +73,43 @@ public abstract class Creature implements Capacity{
 	protected Creature(String name, BigDecimal strength, int maxHitpoints,
 			ArrayList<String> anchors, ArrayList<Object> anchorObjects)
 			throws IllegalArgumentException {
+		this(World.getDefaultWorld(), name, strength, maxHitpoints, anchors, anchorObjects);
+	}
+	
+	/**
+	 * Initialize this new Creature of the given world with a name, a strength, a maximum
+	 * hitpoints a current hitpoints, anchors and anchorObjects.
+	 * 
+	 * @param	world
+	 * 			The world of this creature.
+	 * @param	name
+	 * 			The name of this creature.
+	 * @param	strength
+	 * 			The strength of this creature.
+	 * @param	maxHitpoints
+	 * 			The maximum and current hitpoints of this creature.
+	 * @param	anchors
+	 * 			The anchors of a creature.
+	 * @param	anchorObjects
+	 * 			The objects that must go in the anchors.
+	 * @pre 	MaxHitpoints must be a valid value for hitpoints when the creature is
+	 * 			not fighting.
+	 * 			| canHaveAsHitpointsNotFighting(maxHitpoints)
+	 * @post	The world of this creature is set to the given world.
+	 * 			| new.getWorld() == world
+	 * @effect	The other properties are initialized as for a creature of the default world.
+	 * @throws	IllegalArgumentException
+	 * 			The given world is not effective.
+	 * 			| world == null
+	 */
+	@Raw @Model
+	protected Creature(World world, String name, BigDecimal strength, int maxHitpoints,
+			ArrayList<String> anchors, ArrayList<Object> anchorObjects)
+			throws IllegalArgumentException {
+		if (world == null){
+			throw new IllegalArgumentException("A creature must belong to a world.");
+		}
+		this.world = world;
 		setName(name);
 		setStrength(strength);
 		setHitpoints(maxHitpoints);
@@ -80,6 +118,44 @@ public abstract class Creature implements Capacity{
 		setAnchorObjects(anchorObjects);
 	}
 	
+	/**********************************
+	 * world
+	 **********************************/
+	
+	/**
+	 * Variable referencing the world of a creature.
+	 */
+	private final World world;
+	
+	/**
+	 * Return the world of this creature.
+	 */
+	@Raw @Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+	
+	/**
+	 * Check whether this creature can interact with the given object.
+	 * 
+	 * @param 	object
+	 * 			The object to check.
+	 * @return	True if and only if the given object is not a creature or an ownable, or
+	 * 			it belongs to the same world as this creature.
+	 * 			| result == !(object instanceof Ownable || object instanceof Creature) ||
+	 * 			|			object.getWorld() == getWorld()
+	 */
+	@Raw
+	public boolean isInSameWorld(Object object){
+		if (object instanceof Ownable){
+			return ((Ownable) object).getWorld() == getWorld();
+		}
+		if (object instanceof Creature){
+			return ((Creature) object).getWorld() == getWorld();
+		}
+		return true;
+	}
+	
 	/**********************************
 	 * name
 	 **********************************
@@ -99,11 +175,26 @@ public abstract class Creature implements Capacity{
 	@Raw @Basic @Immutable
 	public String getName() throws CreatureIsDeadException {
 		if (getKilled()){
-			throw new CreatureIsDeadException(this);
+			throw getDeadException();
 		}
 		return this.name;
 	}
 	
+	/**
+	 * Return the name of this creature, without throwing if it is dead.
+	 * 
+	 * @return	An empty optional if this creature is dead, otherwise its name.
+	 * 			| if (getKilled())
+	 * 			| then	!result.isPresent()
+	 * 			| else	result.get() == getName()
+	 */
+	public Optional<String> tryGetName(){
+		if (getKilled()){
+			return Optional.empty();
+		}
+		return Optional.of(this.name);
+	}
+	
 	/**
 	 * Set the name of this creature to the given name.
 	 * 
@@ -284,11 +375,26 @@ public abstract class Creature implements Capacity{
 	@Raw @Basic
 	public BigDecimal getStrength() throws CreatureIsDeadException {
 		if (getKilled()){
-			throw new CreatureIsDeadException(this);
+			throw getDeadException();
 		}
 		return this.strength;
 	}
 	
+	/**
+	 * Return the strength of this creature, without throwing if it is dead.
+	 * 
+	 * @return	An empty optional if this creature is dead, otherwise its strength.
+	 * 			| if (getKilled())
+	 * 			| then	!result.isPresent()
+	 * 			| else	result.get() == getStrength()
+	 */
+	public Optional<BigDecimal> tryGetStrength(){
+		if (getKilled()){
+			return Optional.empty();
+		}
+		return Optional.of(this.strength);
+	}
+	
 	/**
 	 * Set strength of this creature to the given strength.
 	 * 
@@ -314,6 +420,7 @@ public abstract class Creature implements Capacity{
 			strength = strength.setScale(2, RoundingMode.HALF_UP);
 		}
 		this.strength = strength;
+		getWorld().markModified();
 	}
 	
 	/**
@@ -377,6 +484,20 @@ public abstract class Creature implements Capacity{
 		return new HashMap<String, Object>(this.anchors);
 	}
 	
+	/**
+	 * Return the object in the given anchor of this creature, without copying the anchors.
+	 * 
+	 * @param	anchor
+	 * 			The anchor to look in.
+	 * @return	The object in the given anchor, or null if it is empty or this creature has
+	 * 			no such anchor.
+	 * 			| result == getAnchors().get(anchor)
+	 */
+	@Raw
+	protected Object getAnchorObject(String anchor){
+		return this.anchors.get(anchor);
+	}
+	
 	/**
 	 * Set the anchors for this creature.
 	 * 
@@ -423,6 +544,8 @@ public abstract class Creature implements Capacity{
 	 * @effect	The holder of the given object is set to this (if it is a ownable).
 	 * 			| if (object instanceof Ownable){
 	 * 			|		object.setHolder(this) }
+	 * @effect	If the given object is effective, the change is published.
+	 * 			| getWorld().getEventBus().publish(GameEventType.ANCHOR_FILLED, this, object, 0)
 	 * @throws 	IllegalArgumentException
 	 * 			This object can't be added to this anchor.
 	 * 			| !canAddToAnchor(object, anchor)
@@ -430,16 +553,194 @@ public abstract class Creature implements Capacity{
 	@Raw
 	public void addToAnchor(Object object, String anchor)
 			throws IllegalArgumentException {
-		if (!canAddToAnchor(object, anchor)){
-			throw new IllegalArgumentException("The object can't be added to this anchor.");
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (!canAddToAnchor(object, anchor)){
+				throw new IllegalArgumentException("The object can't be added to this anchor.");
+			}
+			this.attachAdmitted(object, anchor);
+		} finally {
+			ContainmentLock.release(locks);
 		}
-		this.anchors.put(anchor, object);
-		if (object instanceof Ownable){
-			Ownable ownable = (Ownable) object;
-			ownable.setHolder(this);
+	}
+	
+	/**
+	 * Add the given object to the given anchor, without checking whether it can be added.
+	 * 
+	 * @param 	object
+	 * 			The object to add, for which the admission to the anchor is ADMITTED.
+	 * @param 	anchor
+	 * 			The anchor to add it to.
+	 * @post	The object is added to the anchor, as in addToAnchor(object, anchor).
+	 */
+	@Model
+	protected void attachAdmitted(Object object, String anchor){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			this.anchors.put(anchor, object);
+			this.changeNumberOfArmors(countArmors(object));
+			this.anchorChanged(anchor);
+			if (object instanceof Ownable){
+				Ownable ownable = (Ownable) object;
+				ownable.setHolder(this);
+			}
+			if (object != null){
+				getWorld().markModified();
+				getWorld().getEventBus().publish(GameEventType.ANCHOR_FILLED, this, object, 0);
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
+	/**
+	 * Add the given object to the given anchor if that is possible.
+	 * 
+	 * @param 	object
+	 * 			The object to add.
+	 * @param 	anchor
+	 * 			The anchor to add it to.
+	 * @return	True if and only if the object could be added to the given anchor.
+	 * 			| result == canAddToAnchor(object, anchor)
+	 * @effect	If the object can be added, it is added to the given anchor.
+	 * 			| if (canAddToAnchor(object, anchor))
+	 * 			| then	addToAnchor(object, anchor)
+	 */
+	public boolean tryAddToAnchor(Object object, String anchor){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (getAdmission(object, anchor) != AdmissionResult.ADMITTED){
+				return false;
+			}
+			this.attachAdmitted(object, anchor);
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Check once whether the given object can be added to the given anchor and return the
+	 * outcome as a ticket that can be committed later.
+	 * 
+	 * @param 	object
+	 * 			The object to check.
+	 * @param 	anchor
+	 * 			The anchor to check.
+	 * @return	A ticket for this creature, the given object and the given anchor, with the
+	 * 			admission of the object, its weight and the current modification count of
+	 * 			the world.
+	 * 			| result.getTarget() == this && result.getObject() == object &&
+	 * 			| result.getAnchor() == anchor &&
+	 * 			| result.getResult() == getAdmission(object, anchor) &&
+	 * 			| result.getModificationCount() == getWorld().getModificationCount()
+	 */
+	public AdmissionTicket prepareAdd(Object object, String anchor){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			long modificationCount = getWorld().getModificationCount();
+			return new AdmissionTicket(this, object, anchor, getAdmission(object, anchor),
+					Storage.getWeightOf(object), new ArrayList<Object>(), modificationCount);
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Add the object of the given ticket to its anchor without checking it again.
+	 * 
+	 * @param 	ticket
+	 * 			The ticket to commit.
+	 * @return	The result of the ticket if it wasn't admitted, STALE if the world changed
+	 * 			since the ticket was prepared and ADMITTED otherwise.
+	 * @effect	If the result is ADMITTED, the object of the ticket is added to its anchor.
+	 * 			| if (result == AdmissionResult.ADMITTED)
+	 * 			| then	attachAdmitted(ticket.getObject(), ticket.getAnchor())
+	 * @throws	IllegalArgumentException
+	 * 			The given ticket is not effective or is not for this creature.
+	 * 			| ticket == null || ticket.getTarget() != this
+	 */
+	public AdmissionResult commit(AdmissionTicket ticket) throws IllegalArgumentException {
+		if ((ticket == null) || (ticket.getTarget() != this)){
+			throw new IllegalArgumentException("The ticket is not for this creature.");
+		}
+		int[] locks = ContainmentLock.acquire(this, ticket.getObject());
+		try {
+			if (!ticket.isAdmitted()){
+				return ticket.getResult();
+			}
+			if (ticket.getModificationCount() != getWorld().getModificationCount()){
+				return AdmissionResult.STALE;
+			}
+			this.attachAdmitted(ticket.getObject(), ticket.getAnchor());
+			return AdmissionResult.ADMITTED;
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Variable referencing the number of armors this creature carries, on its anchors or
+	 * in the backpacks on them.
+	 */
+	private int numberOfArmors = 0;
+	
+	/**
+	 * Return the number of armors this creature carries, on its anchors or in the
+	 * backpacks on them.
+	 * 
+	 * @return	The number of armors on the anchors plus the number of armors in the
+	 * 			backpacks on the anchors.
+	 * 			| result == count of { object in getAnchors().values() | object instanceof Armor }
+	 * 			|			+ sum of { backpack.getNumberOfArmors() | backpack in getAnchors().values() }
+	 */
+	@Basic
+	public int getNumberOfArmors(){
+		return this.numberOfArmors;
+	}
+	
+	/**
+	 * Change the number of armors this creature carries by the given difference.
+	 * (Used when an armor is added to or taken out of a backpack this creature carries.)
+	 * 
+	 * @param	difference
+	 * 			The number of armors that was added or, if negative, taken away.
+	 * @post	The number of armors is changed by the given difference.
+	 * 			| new.getNumberOfArmors() == this.getNumberOfArmors() + difference
+	 */
+	void changeNumberOfArmors(int difference){
+		this.numberOfArmors = this.numberOfArmors + difference;
+	}
+	
+	/**
+	 * Return the number of armors the given object brings along.
+	 * 
+	 * @param	object
+	 * 			The object to count.
+	 * @return	One for an armor, the number of armors in it for a backpack and zero
+	 * 			otherwise.
+	 */
+	static int countArmors(Object object){
+		if (object instanceof Armor){
+			return 1;
+		}
+		if (object instanceof Backpack){
+			return ((Backpack) object).getNumberOfArmors();
+		}
+		return 0;
+	}
+	
+	/**
+	 * React to a change of the object in the given anchor. Creatures that keep
+	 * information about their anchors up to date can override this method.
+	 * 
+	 * @param	anchor
+	 * 			The anchor that was filled or emptied.
+	 */
+	@Raw
+	protected void anchorChanged(String anchor){
+	}
+	
 	/**
 	 * Check whether the given object can be added to the given anchor.
 	 * 
@@ -450,45 +751,72 @@ public abstract class Creature implements Capacity{
 	 * @return	True if and only if this creature has such anchor, that anchor doesn't
 	 * 			already have another object, this creature is still alive and the object
 	 * 			is an ownable or a ducat. But if it's a ducat and its value is not equal
-	 * 			to one, it is false 'though. And if the object is terminated, it's also
-	 * 			false.
+	 * 			to one, it is false 'though. And if the object is terminated or belongs
+	 * 			to another world, it's also false.
 	 * 			| result == this.getAnchors().keySet().contains(anchor) &&
 	 *			|			this.getAnchors().get(anchor) == null && !getKilled() &&
 	 *			|			((object instanceof Ownable) || (object instanceof Ducat)) &&
 	 *			|			(if (object instanceof Ducat) {
 	 *			|					object.getValue() == 1 } ) &&
 	 *			|			(if (object instanceof Ownable) {
-	 *			|					!object.getTerminated() } )
+	 *			|					!object.getTerminated() } ) &&
+	 *			|			isInSameWorld(object)
+	 * 			| result == (getAdmission(object, anchor) == AdmissionResult.ADMITTED)
 	 */
 	@Raw
 	public boolean canAddToAnchor(Object object, String anchor){
+		return (getAdmission(object, anchor) == AdmissionResult.ADMITTED);
+	}
+	
+	/**
+	 * Check whether the given object can be added to the given anchor and tell why not.
+	 * 
+	 * @param 	object
+	 * 			The object to check.
+	 * @param 	anchor
+	 * 			The anchor to check.
+	 * @return	ADMITTED if the given object is not effective. Otherwise OTHER_WORLD if the
+	 * 			object belongs to another world, NOT_STORABLE if it is no ownable or ducat or
+	 * 			a ducat with a value other than one, TERMINATED if it is terminated,
+	 * 			OVER_CAPACITY if this creature can't carry its weight, NO_SUCH_ANCHOR if this
+	 * 			creature has no such anchor, ANCHOR_OCCUPIED if the anchor already holds an
+	 * 			object, DEAD if this creature is dead and ADMITTED otherwise.
+	 * 			| result == AdmissionResult.ADMITTED iff canAddToAnchor(object, anchor)
+	 */
+	@Raw
+	public AdmissionResult getAdmission(Object object, String anchor){
+		if (object == null){
+			return AdmissionResult.ADMITTED;
+		}
+		if (!isInSameWorld(object)){
+			return AdmissionResult.OTHER_WORLD;
+		}
 		if (object instanceof Ducat){
 			if (((Ducat) object).getValue() != 1){
-				return false;
-			}
-			else if ((((Ducat) object).getWeight(Unit.KG)) + this.getUsedCapacity(Unit.KG) > this.getMaximumCapacity(Unit.KG)){
-				return false;
+				return AdmissionResult.NOT_STORABLE;
 			}
 		}
-		else if (object instanceof Ownable) {
+		else if (object instanceof Ownable){
 			if (((Ownable) object).getTerminated()){
-				return false;
+				return AdmissionResult.TERMINATED;
 			}
 		}
-		if (object instanceof Storage){
-			if ((((Storage) object).getTotalWeight(Unit.KG)) + this.getUsedCapacity(Unit.KG) > this.getMaximumCapacity(Unit.KG)){
-				return false;
-			}
+		else {
+			return AdmissionResult.NOT_STORABLE;
 		}
-		else if (object instanceof Ownable){
-			if ((((Ownable) object).getOwnWeight(Unit.KG)) + this.getUsedCapacity(Unit.KG) > this.getMaximumCapacity(Unit.KG)){
-				return false;
-			}
+		if (Storage.getWeightOf(object) + this.getUsedCapacity(Unit.KG) > this.getMaximumCapacity(Unit.KG)){
+			return AdmissionResult.OVER_CAPACITY;
 		}
-		return ((object == null) || (this.getAnchors().keySet().contains(anchor) &&
-				this.getAnchors().get(anchor) == null && !getKilled()) &&
-				((object instanceof Ownable) || (object instanceof Ducat)));
-		
+		if (!this.anchors.containsKey(anchor)){
+			return AdmissionResult.NO_SUCH_ANCHOR;
+		}
+		if (this.anchors.get(anchor) != null){
+			return AdmissionResult.ANCHOR_OCCUPIED;
+		}
+		if (isInventoryClosed()){
+			return AdmissionResult.DEAD;
+		}
+		return AdmissionResult.ADMITTED;
 	}
 	
 	/**
@@ -501,18 +829,31 @@ public abstract class Creature implements Capacity{
 	 * @effect	The holder of the object in this anchor is set to null.
 	 * 			| if (object instanceof Ownable){
 	 * 			| 		object.setHolder() }
+	 * @effect	If the anchor held an object, the change is published.
+	 * 			| getWorld().getEventBus().publish(GameEventType.ANCHOR_EMPTIED, this, object, 0)
 	 * @throws 	IllegalArgumentException
 	 * 			Anchor cannot be emptied.
 	 * 			| !canEmptyAnchor(anchor)
 	 */
 	protected void emptyAnchor(String anchor) throws IllegalArgumentException {
-		if (!canEmptyAnchor(anchor)){
-			throw new IllegalArgumentException("Anchor cannot be emptied.");
-		}
-		Object object = this.anchors.put(anchor, null);
-		if (object instanceof Ownable){
-			Ownable ownable = (Ownable) object;
-			ownable.setHolder();
+		int[] locks = ContainmentLock.acquire(this, null);
+		try {
+			if (!canEmptyAnchor(anchor)){
+				throw new IllegalArgumentException("Anchor cannot be emptied.");
+			}
+			Object object = this.anchors.put(anchor, null);
+			this.changeNumberOfArmors(-countArmors(object));
+			this.anchorChanged(anchor);
+			if (object instanceof Ownable){
+				Ownable ownable = (Ownable) object;
+				ownable.setHolder();
+			}
+			if (object != null){
+				getWorld().markModified();
+				getWorld().getEventBus().publish(GameEventType.ANCHOR_EMPTIED, this, object, 0);
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -521,11 +862,12 @@ public abstract class Creature implements Capacity{
 	 * 
 	 * @param 	anchor
 	 * 			The anchor to check.
-	 * @return 	True if and only if this creature has such anchor and it is still alive.
-	 * 			| result == getAnchors().keySet().contains(anchor) && !getKilled()
+	 * @return 	True if and only if this creature has such anchor and its inventory
+	 * 			is not closed.
+	 * 			| result == getAnchors().keySet().contains(anchor) && !isInventoryClosed()
 	 */
 	public boolean canEmptyAnchor(String anchor){
-		return (getAnchors().keySet().contains(anchor) && !getKilled());
+		return (getAnchors().keySet().contains(anchor) && !isInventoryClosed());
 	}
 	
 	/**
@@ -533,24 +875,22 @@ public abstract class Creature implements Capacity{
 	 * 
 	 * @param 	object
 	 * 			The object to drop.
-	 * @effect	The anchor from the given object is emptied.
-	 * 			| for all anchors in getAnchors() {
-	 * 			|		if (getAnchors().get(anchor) == object) {
-	 * 			|				emptyAnchor(anchor) } }
+	 * @effect	The first anchor that holds the given object is emptied. A shared ducat
+	 * 			can be on more than one anchor, but only one of them is dropped.
+	 * 			| emptyAnchor(findAnchorOf(object))
 	 * @throws 	IllegalArgumentException
 	 * 			The given object cannot be dropped.
 	 * 			| !canDropFromAnchor(object)
 	 */
 	protected void dropFromAnchor(Object object) throws IllegalArgumentException {
-		if (!canDropFromAnchor(object)){
-			throw new IllegalArgumentException("Object cannot be dropped.");
-		}
-		Iterator<String> iterator = this.getAnchors().keySet().iterator();
-		while (iterator.hasNext()){
-			String anchor = iterator.next();
-			if ( this.getAnchors().get(anchor) == object){
-				this.emptyAnchor(anchor);
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (!canDropFromAnchor(object)){
+				throw new IllegalArgumentException("Object cannot be dropped.");
 			}
+			this.emptyAnchor(this.findAnchorOf(object));
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -559,13 +899,14 @@ public abstract class Creature implements Capacity{
 	 * 
 	 * @param	object
 	 * 			The object to check.
-	 * @return	True if and only if this creature carries this object and the creature is
-	 * 			not dead and if the object is an ownable, it's not terminated.
-	 * 			| getAnchors().containsValue(object) && !getKilled()
+	 * @return	True if and only if this creature carries this object, the inventory of
+	 * 			the creature is not closed and if the object is an ownable, it's not
+	 * 			terminated.
+	 * 			| getAnchors().containsValue(object) && !isInventoryClosed()
 	 */
 	@Raw
 	public boolean canDropFromAnchor(Object object){
-		return (getAnchors().containsValue(object) && !getKilled() &&
+		return (getAnchors().containsValue(object) && !isInventoryClosed() &&
 				(!(object instanceof Ownable) || !((Ownable) object).getTerminated()));
 	}
 	
@@ -595,37 +936,50 @@ public abstract class Creature implements Capacity{
 	 */
 	public void passAlong(Object object, Creature creature, String anchor)
 			throws IllegalArgumentException {
-		String oldAnchor = "";
-		if (this.getAnchors().values().contains(object) && !(object instanceof Ducat)){
-			Iterator<String> iterator1 = this.getAnchors().keySet().iterator();
-			while (iterator1.hasNext()){
-				String next = iterator1.next();
-				if (this.getAnchors().get(next) == object){
-					oldAnchor = next;
-				}
-			}
+		if (!tryPassAlong(object, creature, anchor)){
+			throw new IllegalArgumentException("The object can't be passed along to this anchor.");
 		}
-		this.dropFromAnchor(object);
+	}
+	
+	/**
+	 * Pass along an object from one creature to another if that is possible.
+	 * 
+	 * @param 	object
+	 * 			The object to pass along.
+	 * @param 	creature
+	 * 			The creature to pass it along to.
+	 * @param 	anchor
+	 * 			The anchor from the other creature to put it in.
+	 * @return	False if the given object can't be dropped or can't be added to the given
+	 * 			anchor from the given creature, true otherwise.
+	 * @effect	If the given object can be dropped, it is dropped from this creature.
+	 * 			| if (canDropFromAnchor(object))
+	 * 			| then	this.dropFromAnchor(object)
+	 * @effect	If the given object can then be added to the given anchor, it is added.
+	 * 			| if (creature.canAddToAnchor(object, anchor))
+	 * 			| then	creature.addToAnchor(object, anchor)
+	 * @effect	If the given object can't be added to the given anchor from the given creature, it's
+	 * 			added back to were it was before.
+	 * 			| if (!creature.canAddToAnchor(object, anchor))
+	 * 			| then	restoreToAnchor(object, oldAnchor)
+	 */
+	public boolean tryPassAlong(Object object, Creature creature, String anchor){
+		int[] locks = ContainmentLock.acquire(this, creature);
 		try {
-			creature.addToAnchor(object, anchor);
-		} catch (Exception e) {
-			if (!(object instanceof Ducat)){
-				this.addToAnchor(object, oldAnchor);
+			if (!canDropFromAnchor(object)){
+				return false;
 			}
-			else {
-				Iterator<String> iterator2 = this.getAnchors().keySet().iterator();
-				boolean added = false;
-				while (iterator2.hasNext() && !added){
-					String next = iterator2.next();
-					if (this.canAddToAnchor(object, next)){
-						this.addToAnchor(object, next);
-						added = true;
-					}
-				}
+			String oldAnchor = findAnchorOf(object);
+			this.dropFromAnchor(object);
+			if (creature.getAdmission(object, anchor) != AdmissionResult.ADMITTED){
+				restoreToAnchor(object, oldAnchor);
+				return false;
 			}
-			throw e;
+			creature.attachAdmitted(object, anchor);
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
 		}
-		
 	}
 	
 	/**
@@ -652,37 +1006,125 @@ public abstract class Creature implements Capacity{
 	 */
 	public void passToStorage(Object object, Storage storage)
 			throws IllegalArgumentException {
-		String oldAnchor = "";
-		if (this.getAnchors().values().contains(object)){
+		if (!tryPassToStorage(object, storage)){
+			throw new IllegalArgumentException("The object can't be passed to this storage.");
+		}
+	}
+	
+	/**
+	 * Pass the given object from this creature to the given storage if that is possible.
+	 * 
+	 * @param 	object
+	 * 			The object to pass along.
+	 * @param 	storage
+	 * 			The storage to pass it to.
+	 * @return	False if the given object can't be dropped or can't be added to the given
+	 * 			storage, true otherwise.
+	 * @effect	If the given object can be dropped, it is dropped from this creature.
+	 * 			| if (canDropFromAnchor(object))
+	 * 			| then	this.dropFromAnchor(object)
+	 * @effect	If the given object can then be added to the given storage, it is added.
+	 * 			| if (storage.canAddToStorage(object))
+	 * 			| then	storage.addToStorage(object)
+	 * @effect	If the given object can't be added to the given storage, it's added back to were
+	 * 			it was before.
+	 * 			| if (!storage.canAddToStorage(object))
+	 * 			| then	restoreToAnchor(object, oldAnchor)
+	 */
+	public boolean tryPassToStorage(Object object, Storage storage){
+		int[] locks = ContainmentLock.acquire(this, storage);
+		try {
+			if (!canDropFromAnchor(object)){
+				return false;
+			}
+			String oldAnchor = findAnchorOf(object);
+			this.dropFromAnchor(object);
+			if (storage.getAdmission(object) != AdmissionResult.ADMITTED){
+				restoreToAnchor(object, oldAnchor);
+				return false;
+			}
+			storage.storeAdmitted(object);
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Return the anchor the given object is on.
+	 * 
+	 * @param 	object
+	 * 			The object to look for.
+	 * @return	The first anchor of this creature that holds the given object, or an empty
+	 * 			string if the given object is not on an anchor of this creature.
+	 */
+	@Model
+	private String findAnchorOf(Object object){
+		Iterator<String> iterator = this.anchors.keySet().iterator();
+		while (iterator.hasNext()){
+			String next = iterator.next();
+			if (this.anchors.get(next) == object){
+				return next;
+			}
+		}
+		return "";
+	}
+	
+	/**
+	 * Put the given object back on this creature after it couldn't be passed along.
+	 * 
+	 * @param 	object
+	 * 			The object to put back.
+	 * @param 	oldAnchor
+	 * 			The anchor the object was on.
+	 * @effect	If the given object is not a ducat, it is added to its old anchor. Otherwise
+	 * 			it is added to its old anchor if it still can be, or else to the first anchor
+	 * 			it can be added to.
+	 * 			| if (!(object instanceof Ducat))
+	 * 			| then	addToAnchor(object, oldAnchor)
+	 */
+	@Model
+	private void restoreToAnchor(Object object, String oldAnchor){
+		if (!(object instanceof Ducat)){
+			this.addToAnchor(object, oldAnchor);
+		}
+		else if (!this.tryAddToAnchor(object, oldAnchor)){
 			Iterator<String> iterator = this.getAnchors().keySet().iterator();
-			while (iterator.hasNext()){
+			boolean added = false;
+			while (iterator.hasNext() && !added){
 				String next = iterator.next();
-				if (this.getAnchors().get(next) == object){
-					oldAnchor = next;
-				}
+				added = this.tryAddToAnchor(object, next);
 			}
 		}
-		this.dropFromAnchor(object);
+	}
+	
+	/**
+	 * Remove the given ownable from every anchor of this creature, even if this
+	 * creature is dead. (Used when the ownable is terminated.)
+	 * 
+	 * @param 	ownable
+	 * 			The ownable to remove.
+	 * @post	No anchor of this creature holds the given ownable.
+	 * 			| !new.getAnchors().containsValue(ownable)
+	 * @effect	The holder of the given ownable is set to null.
+	 * 			| ownable.setHolder()
+	 */
+	void detachFromAnchor(Ownable ownable){
+		int[] locks = ContainmentLock.acquire(this, null);
 		try {
-			storage.addToStorage(object);
-		} catch (Exception e) {
-			if (!(object instanceof Ducat)){
-				this.addToAnchor(object, oldAnchor);
-			}
-			else {
-				Iterator<String> iterator2 = this.getAnchors().keySet().iterator();
-				boolean added = false;
-				while (iterator2.hasNext() && !added){
-					String next = iterator2.next();
-					if (this.canAddToAnchor(object, next)){
-						this.addToAnchor(object, next);
-						added = true;
-					}
+			for (Map.Entry<String, Object> entry: this.anchors.entrySet()){
+				if (entry.getValue() == ownable){
+					entry.setValue(null);
+					this.changeNumberOfArmors(-countArmors(ownable));
+					this.anchorChanged(entry.getKey());
+					getWorld().markModified();
+					getWorld().getEventBus().publish(GameEventType.ANCHOR_EMPTIED, this, ownable, 0);
 				}
 			}
-			throw e;
+			ownable.setHolder();
+		} finally {
+			ContainmentLock.release(locks);
 		}
-		
 	}
 	
 	/**
@@ -715,10 +1157,15 @@ public abstract class Creature implements Capacity{
 	 * 			| !getAnchors().keySet().contains(anchor)
 	 */
 	public void emptyAnchorAndTerminate(String anchor) throws IllegalArgumentException {
-		Object previous = this.getAnchors().get(anchor);
-		this.emptyAnchor(anchor);
-		if (previous instanceof Ownable){
-			((Ownable) previous).terminate();
+		int[] locks = ContainmentLock.acquire(this, null);
+		try {
+			Object previous = this.getAnchors().get(anchor);
+			this.emptyAnchor(anchor);
+			if (previous instanceof Ownable){
+				((Ownable) previous).terminate();
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -738,9 +1185,14 @@ public abstract class Creature implements Capacity{
 	 * 			| !canDropFromAnchor(object)
 	 */
 	public void dropFromAnchorAndTerminate(Object object) throws IllegalArgumentException {
-		this.dropFromAnchor(object);
-		if (object instanceof Ownable){
-			((Ownable) object).terminate();
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			this.dropFromAnchor(object);
+			if (object instanceof Ownable){
+				((Ownable) object).terminate();
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -765,6 +1217,31 @@ public abstract class Creature implements Capacity{
 		return (hit >= this.getCurrentProtection());
 	}
 	
+	/**
+	 * Return the probability that a hit of this creature is effective.
+	 * 
+	 * @return	The fraction of the random numbers from 0 to 100 for which a hit of this
+	 * 			creature is effective.
+	 * 			| result == (number of randy in 0..100 with effectiveHit(randy)) / 101.0
+	 */
+	public double getHitProbability(){
+		return getHitProbability(this.getCurrentProtection());
+	}
+	
+	/**
+	 * Return the probability that a hit of a creature with the given protection is effective.
+	 * 
+	 * @param	protection
+	 * 			The protection of the creature that hits.
+	 * @return	The fraction of the random numbers from 0 to 100 that are at least the given
+	 * 			protection.
+	 * 			| result == max(0, min(101, 101 - protection)) / 101.0
+	 */
+	static double getHitProbability(int protection){
+		int effective = Math.max(0, Math.min(101, 101 - protection));
+		return effective / 101.0;
+	}
+	
 	/**
 	 * Return the resulting damage of a certain hit of this creature
 	 */
@@ -797,44 +1274,111 @@ public abstract class Creature implements Capacity{
 	 *			|	newHitpointsOther = 0 }
 	 *			|	other.setHitpoints(newHitpointsOther)
 	 *			|	}
-	 * @effect	If the other creature has no hitpoints left, this creature can have the
-	 * 			benefits of deathblow.
-	 * 			| if (newHitpointsOther <= 0) {
+	 * @effect	If the other creature has no hitpoints left and the world has no loot
+	 * 			resolver, this creature can have the benefits of deathblow.
+	 * 			| if (newHitpointsOther <= 0 && getWorld().getLootResolver() == null) {
 	 * 			|		deathblow(other) }
-	 * @effect	If the other creature has no hitpoints left, it is killed.
-	 * 			| if (newHitpointsOther <= 0){
+	 * @effect	If the other creature has no hitpoints left and the world has no loot
+	 * 			resolver, it is killed.
+	 * 			| if (newHitpointsOther <= 0 && getWorld().getLootResolver() == null){
 				|		other.kill() }
+	 * @effect	If the other creature has no hitpoints left and the world has a loot
+	 * 			resolver, the other creature is killed and the deathblow of this creature
+	 * 			is handed to the resolver.
+	 * 			| if (newHitpointsOther <= 0 && getWorld().getLootResolver() != null){
+	 * 			|		getWorld().getLootResolver().submit(this, other) }
+	 * @effect	The hit is published, with the damage or zero for a miss.
+	 * 			| getWorld().getEventBus().publish(GameEventType.HIT, this, other, damage)
 	 * @throws	CreatureIsDeadException
 	 * 			This creature is dead.
 	 * 			| getKilled()
 	 * @throws	IllegalArgumentException
-	 * 			This creature can't hit the given other creature.
-	 * 			| !canHitCreature(other)
+	 * 			This creature can't hit the given other creature or the other creature
+	 * 			belongs to another world.
+	 * 			| !canHitCreature(other) || !isInSameWorld(other)
 	 */
 	public void hit(Creature other)
 			throws CreatureIsDeadException, IllegalArgumentException {
-		if (getKilled()){
-			throw new CreatureIsDeadException(this);
-		}
-		if (!canHitCreature(other)){
-			throw new IllegalArgumentException("This creature can't hit the given creature.");
-		}
-		int randy = Creature.randomNumber();
-		if (effectiveHit(randy)){
-			int newHitpointsOther = other.getHitpoints() - this.getResultingDamage();
-			while (!canHaveAsHitpointsNotFighting(newHitpointsOther) &&
-					newHitpointsOther > 0){
-				newHitpointsOther--;
+		hit(other, Creature.randomNumber());
+	}
+	
+	/**
+	 * Hit the given other creature with the given random number.
+	 * 
+	 * @param 	other
+	 * 		  	The creature that is hit.
+	 * @param 	randy
+	 * 			The random number that decides whether the hit is effective.
+	 * @effect	The given other creature is hit as described in hit(Creature), with the
+	 * 			given random number instead of a generated one.
+	 * @throws	CreatureIsDeadException
+	 * 			This creature is dead.
+	 * 			| getKilled()
+	 * @throws	IllegalArgumentException
+	 * 			This creature can't hit the given other creature or the other creature
+	 * 			belongs to another world.
+	 * 			| !canHitCreature(other) || !isInSameWorld(other)
+	 */
+	@Model
+	void hit(Creature other, int randy)
+			throws CreatureIsDeadException, IllegalArgumentException {
+		long start = Metrics.start();
+		MetricCounter outcome = null;
+		int[] locks = ContainmentLock.acquire(this, other);
+		try {
+			if (getKilled()){
+				throw getDeadException();
 			}
-			if (newHitpointsOther <= 0){
-				newHitpointsOther = 0;
-				this.deathblow(other);
-				other.kill();
+			if (!canHitCreature(other) || !isInSameWorld(other)){
+				throw new IllegalArgumentException("This creature can't hit the given creature.");
 			}
-			other.setHitpoints(newHitpointsOther);
+			outcome = MetricCounter.HITS;
+			int damage = 0;
+			if (effectiveHit(randy)){
+				outcome = MetricCounter.EFFECTIVE_HITS;
+				damage = this.getResultingDamage();
+				int newHitpointsOther = getHitpointsAfterHit(other.getHitpoints(), damage);
+				if (newHitpointsOther <= 0){
+					Metrics.count(MetricCounter.DEATHBLOWS);
+					LootResolver resolver = getWorld().getLootResolver();
+					if (resolver == null){
+						this.deathblow(other);
+						other.kill();
+					}
+					else {
+						resolver.submit(this, other);
+					}
+				}
+				other.setHitpoints(newHitpointsOther);
+			}
+			getWorld().getEventBus().publish(GameEventType.HIT, this, other, damage);
+		} finally {
+			ContainmentLock.release(locks);
+			Metrics.stopHit(start, outcome);
 		}
 	}
 	
+	/**
+	 * Return the hitpoints a creature with the given hitpoints has left after an effective
+	 * hit of this creature with the given damage.
+	 * 
+	 * @param	hitpoints
+	 * 			The hitpoints of the creature that is hit.
+	 * @param	damage
+	 * 			The damage of the hit.
+	 * @return	The given hitpoints minus the given damage, decreased until they are valid
+	 * 			when not fighting, or 0 if nothing is left.
+	 * 			| result == max(0, largest h <= hitpoints - damage with
+	 * 			|		(h <= 0 || canHaveAsHitpointsNotFighting(h)))
+	 */
+	int getHitpointsAfterHit(int hitpoints, int damage){
+		int left = hitpoints - damage;
+		while (!canHaveAsHitpointsNotFighting(left) && left > 0){
+			left--;
+		}
+		return Math.max(left, 0);
+	}
+	
 	/**
 	 * Check whether this creature can hit the given other creature.
 	 * 
@@ -858,6 +1402,21 @@ public abstract class Creature implements Capacity{
 	 * 		  | object.getUltimateHolder().equals(this)
 	 */
 	protected abstract void addTreasure(Object object, Creature opponent);
+	
+	/**
+	 * Count the given object as loot that is taken from a killed creature.
+	 * 
+	 * @param	object
+	 * 			The object that is taken, or null if nothing is taken.
+	 * @return	The given object.
+	 * 			| result == object
+	 */
+	protected static Object countLoot(Object object){
+		if (object != null){
+			Metrics.count(MetricCounter.LOOT_MOVED);
+		}
+		return object;
+	}
 
 
 	/**
@@ -957,6 +1516,28 @@ public abstract class Creature implements Capacity{
 		}
 	}
 	
+	/**
+	 * Take the given loose ducats out of the backpack in the given possessions they are in.
+	 * 
+	 * @param 	ducat
+	 * 			The loose ducats to take out.
+	 * @param 	allPossessions
+	 * 			The hashmap that contains all the possessions.
+	 * @effect	The loose ducats are removed from the first backpack in the possessions
+	 * 			that holds exactly that amount, directly or in a backpack in it.
+	 * 			| for some backpack in allPossessions.get("Backpack"){
+	 * 			|	backpack.removeDucat(ducat) }
+	 */
+	protected void takeOutOfBackpacks(Ducat ducat, HashMap<String, ArrayList<Object>> allPossessions){
+		if (allPossessions.containsKey("Backpack")){
+			Iterator<Object> iterator = allPossessions.get("Backpack").iterator();
+			boolean removed = false;
+			while (iterator.hasNext() && !removed){
+				removed = ((Backpack) iterator.next()).removeDucat(ducat);
+			}
+		}
+	}
+	
 	/**
 	 * Terminate all the remaining objects from a certain class (weapon or armor), the ones that the creature doesn't take with him.
 	 * 
@@ -989,6 +1570,20 @@ public abstract class Creature implements Capacity{
 	 */
 	public abstract int getCurrentProtection();
 	
+	/**********************************
+	 * Wallet
+	 **********************************/
+	
+	/**
+	 * Return a summary of the value of everything this creature carries.
+	 * 
+	 * @return	A new wallet for this creature.
+	 * 			| result.equals(new Wallet(this))
+	 */
+	public Wallet getWallet(){
+		return new Wallet(this);
+	}
+	
 	/**********************************
 	 * Capacity
 	 **********************************/
@@ -1046,9 +1641,116 @@ public abstract class Creature implements Capacity{
 	 * 
 	 * @post	Killed is set to true.
 	 * 			| this.killed = true
+	 * @effect	The death of this creature is published.
+	 * 			| getWorld().getEventBus().publish(GameEventType.KILLED, this, null, 0)
 	 */
 	protected void kill(){
 		this.killed = true;
+		Metrics.count(MetricCounter.KILLS);
+		getWorld().markModified();
+		getWorld().getEventBus().publish(GameEventType.KILLED, this, null, 0);
+	}
+	
+	/************************************
+	 * loot fence
+	 ************************************/
+	
+	/**
+	 * Variable referencing the fence of the deathblow this creature is involved in, or
+	 * null if there is no deathblow pending.
+	 */
+	private volatile CountDownLatch lootFence;
+	
+	/**
+	 * Return whether a deathblow this creature is involved in, as winner or as victim,
+	 * is still waiting for a loot resolver.
+	 */
+	public boolean hasPendingLoot(){
+		return (this.lootFence != null);
+	}
+	
+	/**
+	 * Wait until the deathblow this creature is involved in is resolved.
+	 * 
+	 * @post	No deathblow of this creature is pending, unless a new one was started
+	 * 			by another thread in the meantime.
+	 * @note	The wait can't be interrupted; the interrupt flag of the thread is
+	 * 			restored afterwards.
+	 */
+	public void awaitLoot(){
+		CountDownLatch fence = this.lootFence;
+		boolean interrupted = false;
+		while (fence != null){
+			try {
+				fence.await();
+			} catch (InterruptedException e) {
+				interrupted = true;
+				continue;
+			}
+			fence = this.lootFence;
+		}
+		if (interrupted){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Check whether the inventory of this creature is closed.
+	 * 
+	 * @return	True if and only if this creature is dead, unless its deathblow is pending
+	 * 			and the current thread is resolving it: the loot of a creature that was
+	 * 			killed by a hit with a loot resolver is only taken after its death.
+	 * 			| result == getKilled() && !(hasPendingLoot() && LootResolver.isResolving())
+	 */
+	@Model
+	boolean isInventoryClosed(){
+		return (getKilled() && !(hasPendingLoot() && LootResolver.isResolving()));
+	}
+	
+	/**
+	 * Put up the given fence for this creature.
+	 * 
+	 * @param 	fence
+	 * 			The fence of the pending deathblow.
+	 * @post	| new.hasPendingLoot()
+	 */
+	void setLootFence(CountDownLatch fence){
+		this.lootFence = fence;
+	}
+	
+	/**
+	 * Lift the given fence of this creature, if it's still the fence of this creature.
+	 * 
+	 * @param 	fence
+	 * 			The fence of the resolved deathblow.
+	 */
+	void clearLootFence(CountDownLatch fence){
+		if (this.lootFence == fence){
+			this.lootFence = null;
+		}
+	}
+	
+	/**
+	 * Variable referencing the exception thrown when this dead creature is inspected,
+	 * or null if it isn't made yet.
+	 */
+	private CreatureIsDeadException deadException;
+	
+	/**
+	 * Return the exception to throw when this creature is dead. The exception has no
+	 * stack trace, so the same one is reused every time.
+	 * 
+	 * @return	A creature is dead exception involving this creature.
+	 * 			| result.getCreature() == this
+	 */
+	@Model
+	protected CreatureIsDeadException getDeadException(){
+		CreatureIsDeadException exception = this.deadException;
+		if (exception == null){
+			exception = new CreatureIsDeadException(this);
+			this.deadException = exception;
+		}
+		return exception;
 	}
 	
 }
@@ -0,0 +1,137 @@
+package heroes_and_monsters;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * A class of registries that keep the metrics of the game in memory: a counter for
+ * every metric counter and a latency histogram for every metric timer.
+ *
+ * Every thread counts in its own array, so incrementing a counter is a plain write
+ * without atomic instructions. Reading a counter sums the arrays of all threads; it may
+ * miss the latest increments of threads that are still counting. The counts of a thread
+ * that ended are folded into shared totals and its array is dropped, so a registry only
+ * keeps arrays of threads that are alive.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry {
+
+	/**
+	 * Initialize this new registry with all counters and histograms empty.
+	 */
+	public DefaultMetricsRegistry(){
+		for (int i = 0; i < histograms.length; i++){
+			histograms[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Variable referencing the counters of every living thread that counted in this
+	 * registry, indexed by the ordinal of the metric counter.
+	 */
+	private final ArrayList<long[]> allCounters = new ArrayList<long[]>();
+
+	/**
+	 * Variable referencing the threads owning the counters in allCounters, at the same
+	 * index.
+	 */
+	private final ArrayList<WeakReference<Thread>> owners = new ArrayList<WeakReference<Thread>>();
+
+	/**
+	 * Variable referencing the counts of all threads that ended, indexed by the ordinal
+	 * of the metric counter.
+	 */
+	private final long[] endedCounters = new long[MetricCounter.values().length];
+
+	/**
+	 * Variable referencing the counters of the current thread.
+	 */
+	private final ThreadLocal<long[]> counters = new ThreadLocal<long[]>(){
+		@Override
+		protected long[] initialValue(){
+			long[] counters = new long[MetricCounter.values().length];
+			synchronized (allCounters){
+				foldEndedThreads();
+				allCounters.add(counters);
+				owners.add(new WeakReference<Thread>(Thread.currentThread()));
+			}
+			return counters;
+		}
+	};
+
+	/**
+	 * Add the counters of every thread that ended to the counts of the ended threads and
+	 * drop them.
+	 *
+	 * @note	The caller must synchronize on allCounters. A thread that is no longer alive
+	 * 			doesn't write its counters any more, and all its writes are visible once
+	 * 			isAlive() returned false.
+	 */
+	private void foldEndedThreads(){
+		int kept = 0;
+		for (int i = 0; i < allCounters.size(); i++){
+			Thread owner = owners.get(i).get();
+			long[] threadCounters = allCounters.get(i);
+			if ((owner == null) || !owner.isAlive()){
+				for (int j = 0; j < endedCounters.length; j++){
+					endedCounters[j] += threadCounters[j];
+				}
+			}
+			else {
+				allCounters.set(kept, threadCounters);
+				owners.set(kept, owners.get(i));
+				kept++;
+			}
+		}
+		allCounters.subList(kept, allCounters.size()).clear();
+		owners.subList(kept, owners.size()).clear();
+	}
+
+	/**
+	 * Variable referencing the histograms, indexed by the ordinal of the metric timer.
+	 */
+	private final LatencyHistogram[] histograms = new LatencyHistogram[MetricTimer.values().length];
+
+	@Override
+	public void increment(MetricCounter counter){
+		counters.get()[counter.ordinal()]++;
+	}
+
+	@Override
+	public void incrementHits(boolean effective){
+		long[] threadCounters = counters.get();
+		threadCounters[HITS]++;
+		if (effective){
+			threadCounters[EFFECTIVE_HITS]++;
+		}
+	}
+
+	/**
+	 * Constants registering the ordinals of the counters of hits.
+	 */
+	private static final int HITS = MetricCounter.HITS.ordinal(), EFFECTIVE_HITS = MetricCounter.EFFECTIVE_HITS.ordinal();
+
+	@Override
+	public void record(MetricTimer timer, long nanos){
+		histograms[timer.ordinal()].record(nanos);
+	}
+
+	@Override
+	public long getCount(MetricCounter counter){
+		synchronized (allCounters){
+			foldEndedThreads();
+			long count = endedCounters[counter.ordinal()];
+			for (long[] threadCounters: allCounters){
+				count += threadCounters[counter.ordinal()];
+			}
+			return count;
+		}
+	}
+
+	@Override
+	public LatencyHistogram getHistogram(MetricTimer timer){
+		return histograms[timer.ordinal()];
+	}
+}
@@ -33,18 +33,82 @@ public class Ducat implements Comparable<Ducat>{
 		this.value = value;
 	}
 	
+	/**
+	 * Return a ducat with the given value.
+	 * 
+	 * @param	value
+	 * 			The value for the ducat.
+	 * @return	A ducat with the given value. Ducats with a value of at most
+	 * 			the cached maximum are shared, so no new ducat is created for them.
+	 * 			| result.getValue() == value
+	 * @throws	IllegalArgumentException
+	 * 			The given value is not valid.
+	 * 			| !isValidValue(value)
+	 */
+	public static Ducat valueOf(int value) throws IllegalArgumentException {
+		if (!isValidValue(value)){
+			throw new IllegalArgumentException("Value cannot be negative");
+		}
+		if (value <= MAX_CACHED_VALUE){
+			return CACHE[value];
+		}
+		return new Ducat(value);
+	}
+	
+	/**
+	 * Return a ducat with the given value.
+	 * 
+	 * @param	value
+	 * 			The value for the ducat.
+	 * @return	A ducat with the given value.
+	 * 			| result.getValue() == value
+	 * @throws	IllegalArgumentException
+	 * 			The given value is not valid or does not fit in an int.
+	 * 			| !isValidValue(value) || value > Integer.MAX_VALUE
+	 */
+	public static Ducat valueOf(long value) throws IllegalArgumentException {
+		if (value > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("Value is too large");
+		}
+		return valueOf((int) value);
+	}
+	
+	/**
+	 * Variable referencing the largest value of the shared ducats.
+	 */
+	private final static int MAX_CACHED_VALUE = 1024;
+	
+	/**
+	 * Variable referencing the shared ducats, indexed by their value.
+	 */
+	private final static Ducat[] CACHE = new Ducat[MAX_CACHED_VALUE + 1];
+	
+	static {
+		for (int i = 0; i <= MAX_CACHED_VALUE; i++){
+			CACHE[i] = new Ducat(i);
+		}
+	}
+	
 	/**
 	 * Variable referencing the value of this ducat.
 	 */
-	private int value;
+	private final int value;
+	
+	/**
+	 * Variable referencing no ducats
+	 * 
+	 * @return	The ducat NO_DUCATS is equal to a ducat initialized with value 0.
+	 * 			| NO_DUCATS.equals(new Ducat(0))
+	 */
+	public final static Ducat NO_DUCATS = valueOf(0);
 	
 	/**
 	 * Variable referencing one ducat
 	 * 
 	 * @return	The ducat ONE_DUCAT is equal to a ducat initialized with value 1.
-	 * 			| ONE_DUCAT == new Ducat(1)
+	 * 			| ONE_DUCAT.equals(new Ducat(1))
 	 */
-	public final static Ducat ONE_DUCAT = new Ducat(1);
+	public final static Ducat ONE_DUCAT = valueOf(1);
 	
 	/**
 	 * Return the value of this ducat.
@@ -82,7 +146,7 @@ public class Ducat implements Comparable<Ducat>{
 	 * @param 	other
 	 * 			The other amount of ducats to add.
 	 * @return	The sum of the two amounts of ducats.
-	 * 			| new.getValue().equals(this.getValue() + other.getValue())
+	 * 			| result.getValue() == (this.getValue() + other.getValue())
 	 * @throws 	IllegalArgumentException
 	 * 			The other ducat is not effective.
 	 * 			| other == null
@@ -91,8 +155,30 @@ public class Ducat implements Comparable<Ducat>{
 		if (other == null){
 			throw new IllegalArgumentException("Other Ducat is not effective");
 		}
-		this.value = (this.getValue() + other.getValue());
-		return this;
+		return add(other.getValue());
+	}
+	
+	/**
+	 * Compute the sum of this amount of ducats and the given value.
+	 * 
+	 * @param 	value
+	 * 			The value to add.
+	 * @return	This ducat if the given value is 0, otherwise the sum of this amount
+	 * 			of ducats and the given value.
+	 * 			| result.getValue() == (this.getValue() + value)
+	 * @throws 	IllegalArgumentException
+	 * 			The sum is not a valid value or does not fit in an int.
+	 * 			| !isValidValue(this.getValue() + value)
+	 */
+	public Ducat add(int value) throws IllegalArgumentException {
+		if (value == 0){
+			return this;
+		}
+		try {
+			return valueOf(Math.addExact(this.getValue(), value));
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("The sum is too large");
+		}
 	}
 	
 	/**
@@ -101,7 +187,7 @@ public class Ducat implements Comparable<Ducat>{
 	 * @param 	purse
 	 * 			The purse of the content to add.
 	 * @return	The sum of the value of the ducat and the purse.
-	 * 			| new.getValue().equals(this.getValue() + purse.getValue())
+	 * 			| result.getValue() == (this.getValue() + purse.getValue().getValue())
 	 * @throws 	IllegalArgumentException
 	 * 			The purse is not effective.
 	 * 			| purse == null
@@ -110,8 +196,7 @@ public class Ducat implements Comparable<Ducat>{
 		if (purse == null){
 			throw new IllegalArgumentException("Other Ducat is not effective");
 		}
-		this.value = (this.getValue() + purse.getValue().getValue());
-		return this;
+		return add(purse.getValue().getValue());
 	}
 	
 	/**
@@ -120,7 +205,7 @@ public class Ducat implements Comparable<Ducat>{
 	 * @param	other
 	 * 			The other amount of ducats to subtract.
 	 * @return	The subtraction of the two amounts of ducats.
-	 * 			| new.getValue().equals(this.getValue() - other.getValue())
+	 * 			| result.getValue() == (this.getValue() - other.getValue())
 	 * @throws	IllegalArgumentException
 	 * 			The other ducat is not effective.
 	 * 			| other == null
@@ -132,11 +217,29 @@ public class Ducat implements Comparable<Ducat>{
 		if (other == null){
 			throw new IllegalArgumentException("Other Ducat is not effective");
 		}
-		if (other.getValue() > this.getValue()){
+		return subtract(other.getValue());
+	}
+	
+	/**
+	 * Compute the subtraction of the given value from this amount of ducats.
+	 * 
+	 * @param	value
+	 * 			The value to subtract.
+	 * @return	This ducat if the given value is 0, otherwise the subtraction of
+	 * 			the given value from this amount of ducats.
+	 * 			| result.getValue() == (this.getValue() - value)
+	 * @throws	IllegalArgumentException
+	 * 			The given value is negative or greater than the amount to subtract from.
+	 * 			| value < 0 || value > this.getValue()
+	 */
+	public Ducat subtract(int value) throws IllegalArgumentException {
+		if ((value < 0) || (value > this.getValue())){
 			throw new IllegalArgumentException("The result would be negative, which is invalid");
 		}
-		this.value = (this.getValue() - other.getValue());
-		return this;
+		if (value == 0){
+			return this;
+		}
+		return valueOf(this.getValue() - value);
 	}
 	
 	/**
@@ -145,23 +248,19 @@ public class Ducat implements Comparable<Ducat>{
 	 * @param	purse
 	 * 			The purse of the content to subtract.
 	 * @return	The subtraction of the value of the ducat and the purse.
-	 * 			| new.getValue().equals(this.getValue() - purse.getValue())
+	 * 			| result.getValue() == (this.getValue() - purse.getValue().getValue())
 	 * @throws	IllegalArgumentException
 	 * 			The purse is not effective.
 	 * 			| purse == null
 	 * @throws	IllegalArgumentException
 	 * 			The amount to subtract is greater than the amount to subtract from.
-	 * 			| purse.getValue() > this.getValue()
+	 * 			| purse.getValue().getValue() > this.getValue()
 	 */
 	public Ducat subtract(Purse purse) throws IllegalArgumentException {
 		if (purse == null){
 			throw new IllegalArgumentException("Purse is not effective");
 		}
-		if (purse.getValue().getValue() > this.getValue()){
-			throw new IllegalArgumentException("The result would be negative, which is invalid");
-		}
-		this.value = (this.getValue() - purse.getValue().getValue());
-		return this;
+		return subtract(purse.getValue().getValue());
 	}
 	
 	
@@ -184,6 +283,17 @@ public class Ducat implements Comparable<Ducat>{
  		return (this.getValue() == otherDucat.getValue());		
  	}
  	
+ 	/**
+ 	 * Return the hash code of this amount of ducats.
+ 	 * 
+ 	 * @return	The value of this ducat.
+ 	 * 			| result == getValue()
+ 	 */
+ 	@Override
+ 	public int hashCode(){
+ 		return getValue();
+ 	}
+ 	
  	/**
  	 * Return the value of this ducat as a string.
  	 */
@@ -199,11 +309,12 @@ public class Ducat implements Comparable<Ducat>{
 	/**
 	 * Compare this ducat to another by their value.
 	 * 
-	 * @return The subtraction of the value of this ducat and the value of the other ducat.
-	 * 		   | result == (this.getValue() - other.getValue())
+	 * @return A negative number, zero or a positive number if the value of this ducat is
+	 * 		   less than, equal to or greater than the value of the other ducat.
+	 * 		   | result == Integer.compare(this.getValue(), other.getValue())
 	 */
 	@Override
 	public int compareTo(Ducat other) {
-		return (this.getValue() - other.getValue());
+		return Integer.compare(this.getValue(), other.getValue());
 	}
 }
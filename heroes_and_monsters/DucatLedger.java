@@ -0,0 +1,217 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of ducat ledgers, used to sum large amounts of ducats without overflow.
+ *
+ * @invar	The value of each ledger must be a valid value.
+ * 			| isValidValue(getValue())
+ *
+ * @author	Linde en Lotte
+ * @version	1.0
+ */
+@Value
+public final class DucatLedger implements Comparable<DucatLedger>{
+
+	/**
+	 * Initialize this new ledger with the given value.
+	 *
+	 * @param 	value
+	 * 			The value for this new ledger.
+	 * @post	The value of this new ledger is equal to the given value.
+	 * 			| new.getValue() == value
+	 * @throws 	IllegalArgumentException
+	 * 			The given value is not valid.
+	 * 			| !isValidValue(value)
+	 */
+	@Raw
+	public DucatLedger(long value) throws IllegalArgumentException {
+		if (!isValidValue(value)){
+			throw new IllegalArgumentException("Value cannot be negative");
+		}
+		this.value = value;
+	}
+
+	/**
+	 * Variable referencing an empty ledger.
+	 */
+	public final static DucatLedger EMPTY = new DucatLedger(0);
+
+	/**
+	 * Variable referencing the value of this ledger.
+	 */
+	private final long value;
+
+	/**
+	 * Return the value of this ledger.
+	 */
+	@Basic @Raw @Immutable
+	public long getValue(){
+		return this.value;
+	}
+
+	/**
+	 * Check whether the given value is a valid value for any ledger.
+	 *
+	 * @param	value
+	 * 			The value to check.
+	 * @return	True if and only if the given value is greater than or equal to 0.
+	 * 			| result == (value >= 0)
+	 */
+	public static boolean isValidValue(long value){
+		return (value >= 0);
+	}
+
+	/**
+	 * Compute the sum of this ledger and the given value.
+	 *
+	 * @param 	value
+	 * 			The value to add.
+	 * @return	This ledger if the given value is 0, otherwise a ledger with the sum of
+	 * 			the value of this ledger and the given value.
+	 * 			| result.getValue() == (this.getValue() + value)
+	 * @throws 	IllegalArgumentException
+	 * 			The sum is not a valid value or does not fit in a long.
+	 * 			| !isValidValue(this.getValue() + value)
+	 */
+	public DucatLedger add(long value) throws IllegalArgumentException {
+		if (value == 0){
+			return this;
+		}
+		try {
+			return new DucatLedger(Math.addExact(this.getValue(), value));
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("The sum is too large");
+		}
+	}
+
+	/**
+	 * Compute the sum of this ledger and the given amount of ducats.
+	 *
+	 * @param 	ducat
+	 * 			The amount of ducats to add.
+	 * @return	A ledger with the sum of the value of this ledger and the given ducat.
+	 * 			| result.getValue() == (this.getValue() + ducat.getValue())
+	 * @throws 	IllegalArgumentException
+	 * 			The given ducat is not effective.
+	 * 			| ducat == null
+	 */
+	public DucatLedger add(Ducat ducat) throws IllegalArgumentException {
+		if (ducat == null){
+			throw new IllegalArgumentException("Ducat is not effective");
+		}
+		return add(ducat.getValue());
+	}
+
+	/**
+	 * Compute the sum of this ledger and the other ledger.
+	 *
+	 * @param 	other
+	 * 			The other ledger to add.
+	 * @return	A ledger with the sum of the values of both ledgers.
+	 * 			| result.getValue() == (this.getValue() + other.getValue())
+	 * @throws 	IllegalArgumentException
+	 * 			The other ledger is not effective.
+	 * 			| other == null
+	 */
+	public DucatLedger add(DucatLedger other) throws IllegalArgumentException {
+		if (other == null){
+			throw new IllegalArgumentException("Other ledger is not effective");
+		}
+		return add(other.getValue());
+	}
+
+	/**
+	 * Compute the subtraction of the given value from this ledger.
+	 *
+	 * @param	value
+	 * 			The value to subtract.
+	 * @return	A ledger with the value of this ledger minus the given value.
+	 * 			| result.getValue() == (this.getValue() - value)
+	 * @throws	IllegalArgumentException
+	 * 			The given value is negative or greater than the value of this ledger.
+	 * 			| value < 0 || value > this.getValue()
+	 */
+	public DucatLedger subtract(long value) throws IllegalArgumentException {
+		if ((value < 0) || (value > this.getValue())){
+			throw new IllegalArgumentException("The result would be negative, which is invalid");
+		}
+		if (value == 0){
+			return this;
+		}
+		return new DucatLedger(this.getValue() - value);
+	}
+
+	/**
+	 * Check whether the value of this ledger fits in a single ducat.
+	 *
+	 * @return	True if and only if the value of this ledger is at most the largest int.
+	 * 			| result == (getValue() <= Integer.MAX_VALUE)
+	 */
+	public boolean fitsInDucat(){
+		return (this.getValue() <= Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Return the value of this ledger as a ducat.
+	 *
+	 * @return	A ducat with the value of this ledger.
+	 * 			| result.getValue() == this.getValue()
+	 * @throws	IllegalArgumentException
+	 * 			The value of this ledger does not fit in a ducat.
+	 * 			| !fitsInDucat()
+	 */
+	public Ducat toDucat() throws IllegalArgumentException {
+		if (!fitsInDucat()){
+			throw new IllegalArgumentException("The value is too large for a ducat");
+		}
+		return Ducat.valueOf(this.getValue());
+	}
+
+	/**
+ 	 * Check whether or not this ledger has the same value as the given object.
+ 	 *
+ 	 * @return True if and only if the given object is an effective ledger with the
+ 	 * 		   same value as this ledger.
+ 	 * 		   | result ==
+ 	 * 		   |	( (other != null)
+ 	 * 		   |	&& (this.getClass() == other.getClass())
+ 	 * 		   |	&& (this.getValue() == other.getValue()) )
+ 	 */
+ 	@Override
+ 	public boolean equals(Object other){
+ 		if ((other == null)||(this.getClass() != other.getClass())){
+ 			return false;
+ 		}
+ 		return (this.getValue() == ((DucatLedger) other).getValue());
+ 	}
+
+ 	/**
+ 	 * Return the hash code of this ledger.
+ 	 */
+ 	@Override
+ 	public int hashCode(){
+ 		return Long.hashCode(getValue());
+ 	}
+
+ 	/**
+ 	 * Return the value of this ledger as a string.
+ 	 */
+ 	@Override
+ 	public String toString(){
+ 		return String.valueOf(getValue());
+ 	}
+
+	/**
+	 * Compare this ledger to another by their value.
+	 *
+	 * @return A negative number, zero or a positive number if the value of this ledger is
+	 * 		   less than, equal to or greater than the value of the other ledger.
+	 * 		   | result == Long.compare(this.getValue(), other.getValue())
+	 */
+	@Override
+	public int compareTo(DucatLedger other) {
+		return Long.compare(this.getValue(), other.getValue());
+	}
+}
@@ -0,0 +1,238 @@
+package heroes_and_monsters;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of duels between two creatures that hit each other in turn until one of them
+ * is dead, the way the main program lets a hero and a monster fight.
+ *
+ * Whether a hit is effective only depends on the protection of the creature that hits,
+ * and a miss changes nothing. A duel can therefore also be fast-forwarded: the number of
+ * rounds in which both creatures miss is drawn from a geometric distribution, and the
+ * duel jumps straight to the next effective hit. Both ways of fighting give every
+ * outcome with the same probability, but fast-forwarding skips the misses, so they are
+ * neither counted nor published as hits.
+ *
+ * @invar	The creatures of each duel are effective and belong to the same world.
+ * 			| getFirst() != null && getSecond() != null && getFirst().isInSameWorld(getSecond())
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class Duel {
+
+	/**
+	 * Initialize this new duel between the given creatures.
+	 *
+	 * @param 	first
+	 * 			The creature that hits first.
+	 * @param 	second
+	 * 			The creature that hits second.
+	 * @post	The first creature of this new duel is the given first creature.
+	 * 			| new.getFirst() == first
+	 * @post	The second creature of this new duel is the given second creature.
+	 * 			| new.getSecond() == second
+	 * @throws	IllegalArgumentException
+	 * 			One of the creatures is not effective, they are the same creature, they
+	 * 			can't hit each other or they belong to different worlds.
+	 * 			| first == null || second == null || first == second ||
+	 * 			| !first.canHitCreature(second) || !second.canHitCreature(first) ||
+	 * 			| !first.isInSameWorld(second)
+	 */
+	public Duel(Creature first, Creature second) throws IllegalArgumentException {
+		checkOpponents(first, second);
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * Check whether the given creatures can fight a duel.
+	 *
+	 * @param 	first
+	 * 			The creature that hits first.
+	 * @param 	second
+	 * 			The creature that hits second.
+	 * @throws	IllegalArgumentException
+	 * 			One of the creatures is not effective, they are the same creature, they
+	 * 			can't hit each other or they belong to different worlds.
+	 * 			| first == null || second == null || first == second ||
+	 * 			| !first.canHitCreature(second) || !second.canHitCreature(first) ||
+	 * 			| !first.isInSameWorld(second)
+	 */
+	static void checkOpponents(Creature first, Creature second) throws IllegalArgumentException {
+		if ((first == null) || (second == null) || (first == second)){
+			throw new IllegalArgumentException("A duel needs two effective creatures.");
+		}
+		if (!first.canHitCreature(second) || !second.canHitCreature(first) ||
+				!first.isInSameWorld(second)){
+			throw new IllegalArgumentException("These creatures can't fight each other.");
+		}
+	}
+
+	/**
+	 * Variable referencing the creature that hits first.
+	 */
+	private final Creature first;
+
+	/**
+	 * Variable referencing the creature that hits second.
+	 */
+	private final Creature second;
+
+	/**
+	 * Variable registering the number of hits, effective or not, in this duel so far.
+	 */
+	private long numberOfRounds = 0;
+
+	/**
+	 * Return the creature that hits first.
+	 */
+	@Basic @Immutable
+	public Creature getFirst(){
+		return this.first;
+	}
+
+	/**
+	 * Return the creature that hits second.
+	 */
+	@Basic @Immutable
+	public Creature getSecond(){
+		return this.second;
+	}
+
+	/**
+	 * Return the number of hits, effective or not, in this duel so far.
+	 */
+	@Basic
+	public long getNumberOfRounds(){
+		return this.numberOfRounds;
+	}
+
+	/**
+	 * Return whether this duel is over.
+	 *
+	 * @return	| result == (getFirst().getKilled() || getSecond().getKilled())
+	 */
+	public boolean isOver(){
+		return (first.getKilled() || second.getKilled());
+	}
+
+	/**
+	 * Return the creature that won this duel.
+	 *
+	 * @return	The creature that is still alive if this duel is over, null otherwise.
+	 * 			| if (!isOver()) then result == null
+	 * 			| else if (getSecond().getKilled()) then result == getFirst()
+	 * 			| else result == getSecond()
+	 */
+	public Creature getWinner(){
+		if (second.getKilled()){
+			return first;
+		}
+		if (first.getKilled()){
+			return second;
+		}
+		return null;
+	}
+
+	/**
+	 * Let the creatures hit each other in turn until one of them is dead.
+	 *
+	 * @return	The winner of this duel.
+	 * 			| result == getWinner()
+	 * @effect	The first and the second creature hit each other in turn, the first
+	 * 			creature first, until one of them is dead.
+	 * @throws	IllegalArgumentException
+	 * 			Neither creature can ever make an effective hit.
+	 * 			| !isOver() && first.getHitProbability() == 0 && second.getHitProbability() == 0
+	 */
+	public Creature fight() throws IllegalArgumentException {
+		checkEffectiveHitPossible();
+		boolean firstTurn = true;
+		while (!isOver()){
+			if (firstTurn){
+				first.hit(second);
+			}
+			else {
+				second.hit(first);
+			}
+			numberOfRounds++;
+			firstTurn = !firstTurn;
+		}
+		return getWinner();
+	}
+
+	/**
+	 * Fight this duel by jumping from one effective hit to the next.
+	 *
+	 * @return	The winner of this duel.
+	 * 			| result == getWinner()
+	 * @effect	The duel has the same outcome, with the same probabilities, as fight().
+	 * 			Before every effective hit, the number of pairs of turns in which both
+	 * 			creatures miss is drawn from a geometric distribution; then the first
+	 * 			creature hits with probability p1 / (1 - q) and otherwise the second one
+	 * 			does, with p1 and p2 the hit probabilities and q = (1 - p1)(1 - p2).
+	 * @throws	IllegalArgumentException
+	 * 			Neither creature can ever make an effective hit.
+	 * 			| !isOver() && first.getHitProbability() == 0 && second.getHitProbability() == 0
+	 */
+	public Creature fastForward() throws IllegalArgumentException {
+		checkEffectiveHitPossible();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Creature attacker = first;
+		Creature defender = second;
+		while (!isOver()){
+			double p1 = attacker.getHitProbability();
+			double p2 = defender.getHitProbability();
+			double q = (1 - p1) * (1 - p2);
+			numberOfRounds += 2 * sampleMissedPairs(random, q);
+			if (random.nextDouble() * (1 - q) < p1){
+				// The attacker hits; the defender has the next turn.
+				numberOfRounds += 1;
+				attacker.hit(defender, 100);
+				Creature swap = attacker;
+				attacker = defender;
+				defender = swap;
+			}
+			else {
+				// The attacker misses and the defender hits; the attacker has the next turn.
+				numberOfRounds += 2;
+				defender.hit(attacker, 100);
+			}
+		}
+		return getWinner();
+	}
+
+	/**
+	 * Draw the number of pairs of turns before the next pair with an effective hit.
+	 *
+	 * @param 	random
+	 * 			The random generator to use.
+	 * @param 	q
+	 * 			The probability that both creatures miss in a pair of turns.
+	 * @return	A number k with probability q^k (1 - q).
+	 */
+	private static long sampleMissedPairs(ThreadLocalRandom random, double q){
+		if (q <= 0){
+			return 0;
+		}
+		double u = 1.0 - random.nextDouble();
+		return (long) Math.floor(Math.log(u) / Math.log(q));
+	}
+
+	/**
+	 * Check that this duel can end.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			Neither creature can ever make an effective hit.
+	 * 			| !isOver() && first.getHitProbability() == 0 && second.getHitProbability() == 0
+	 */
+	@Model
+	private void checkEffectiveHitPossible() throws IllegalArgumentException {
+		if (!isOver() && (first.getHitProbability() == 0) && (second.getHitProbability() == 0)){
+			throw new IllegalArgumentException("Neither creature can ever hit effectively.");
+		}
+	}
+}
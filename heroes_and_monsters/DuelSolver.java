@@ -0,0 +1,370 @@
+package heroes_and_monsters;
+
+import java.util.stream.IntStream;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of solvers that compute the exact outcome of a duel instead of simulating it.
+ *
+ * Between two effective hits nothing changes in a duel: the probability that a creature
+ * hits effectively only depends on its protection, and the damage of an effective hit
+ * only depends on the strength and the equipment of the creature that hits. The state of
+ * a duel is therefore fully described by the hitpoints of both creatures and whose turn
+ * it is. For every pair of hitpoints up to the current hitpoints of the creatures, the
+ * solver computes the probability that the first creature wins and the expected number
+ * of hits when the first creature is about to hit, solving the two equations of both
+ * turns at once. The table is computed the first time it is needed and kept.
+ *
+ * A state only depends on states in which one of the creatures has fewer hitpoints, so
+ * the table is computed by anti-diagonals of constant total hitpoints; the states on
+ * one long anti-diagonal are computed in parallel.
+ *
+ * @invar	The creatures of each solver are effective and belong to the same world.
+ * 			| getFirst() != null && getSecond() != null && getFirst().isInSameWorld(getSecond())
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class DuelSolver {
+
+	/**
+	 * Initialize this new solver for a duel between the given creatures, as they are now.
+	 *
+	 * @param 	first
+	 * 			The creature that hits first.
+	 * @param 	second
+	 * 			The creature that hits second.
+	 * @post	The first creature of this new solver is the given first creature.
+	 * 			| new.getFirst() == first
+	 * @post	The second creature of this new solver is the given second creature.
+	 * 			| new.getSecond() == second
+	 * @throws	IllegalArgumentException
+	 * 			The creatures can't fight a duel.
+	 * 			| Duel.checkOpponents(first, second) throws IllegalArgumentException
+	 */
+	public DuelSolver(Creature first, Creature second) throws IllegalArgumentException {
+		Duel.checkOpponents(first, second);
+		this.first = first;
+		this.second = second;
+		this.firstHitpoints = first.getHitpoints();
+		this.secondHitpoints = second.getHitpoints();
+		this.firstProbability = first.getHitProbability();
+		this.secondProbability = second.getHitProbability();
+		this.firstHits = getNextHitpoints(first, first.getResultingDamage(), secondHitpoints);
+		this.secondHits = getNextHitpoints(second, second.getResultingDamage(), firstHitpoints);
+	}
+
+	/**
+	 * Return for every number of hitpoints of the defender, up to the given maximum, the
+	 * number of hitpoints it has left after an effective hit of the given attacker.
+	 *
+	 * @param 	attacker
+	 * 			The creature that hits.
+	 * @param 	damage
+	 * 			The damage of an effective hit of the attacker.
+	 * @param 	maximum
+	 * 			The largest number of hitpoints of the defender.
+	 * @return	The hitpoints minus the damage, decreased as in Creature.hit until they are
+	 * 			valid when not fighting, or 0 if nothing is left.
+	 */
+	private static int[] getNextHitpoints(Creature attacker, int damage, int maximum){
+		int[] next = new int[maximum + 1];
+		for (int hitpoints = 1; hitpoints <= maximum; hitpoints++){
+			next[hitpoints] = attacker.getHitpointsAfterHit(hitpoints, damage);
+		}
+		return next;
+	}
+
+	/**
+	 * Constant registering the smallest anti-diagonal that is computed in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 512;
+
+	/**
+	 * Constant registering the number of states one task computes on a parallel anti-diagonal.
+	 */
+	private static final int CHUNK_SIZE = 128;
+
+	/**
+	 * Variable referencing the creature that hits first.
+	 */
+	private final Creature first;
+
+	/**
+	 * Variable referencing the creature that hits second.
+	 */
+	private final Creature second;
+
+	/**
+	 * Variable registering the hitpoints of the first creature when this solver was made.
+	 */
+	private final int firstHitpoints;
+
+	/**
+	 * Variable registering the hitpoints of the second creature when this solver was made.
+	 */
+	private final int secondHitpoints;
+
+	/**
+	 * Variable registering the probability that a hit of the first creature is effective.
+	 */
+	private final double firstProbability;
+
+	/**
+	 * Variable registering the probability that a hit of the second creature is effective.
+	 */
+	private final double secondProbability;
+
+	/**
+	 * Variable referencing the hitpoints of the second creature after an effective hit of
+	 * the first creature, by the hitpoints before it.
+	 */
+	private final int[] firstHits;
+
+	/**
+	 * Variable referencing the hitpoints of the first creature after an effective hit of
+	 * the second creature, by the hitpoints before it.
+	 */
+	private final int[] secondHits;
+
+	/**
+	 * Variable referencing the probabilities that the first creature wins when it is about
+	 * to hit, by state, or null if the table isn't computed yet.
+	 */
+	private double[] wins;
+
+	/**
+	 * Variable referencing the expected number of hits when the first creature is about to
+	 * hit, by state, or null if the table isn't computed yet.
+	 */
+	private double[] rounds;
+
+	/**
+	 * Return the creature that hits first.
+	 */
+	@Basic @Immutable
+	public Creature getFirst(){
+		return this.first;
+	}
+
+	/**
+	 * Return the creature that hits second.
+	 */
+	@Basic @Immutable
+	public Creature getSecond(){
+		return this.second;
+	}
+
+	/**
+	 * Return the probability that the first creature wins the duel.
+	 *
+	 * @return	| result == getWinProbability(firstHitpoints, secondHitpoints, true)
+	 */
+	public double getWinProbability(){
+		return getWinProbability(firstHitpoints, secondHitpoints, true);
+	}
+
+	/**
+	 * Return the expected number of hits, effective or not, in the duel.
+	 *
+	 * @return	| result == getExpectedRounds(firstHitpoints, secondHitpoints, true)
+	 */
+	public double getExpectedRounds(){
+		return getExpectedRounds(firstHitpoints, secondHitpoints, true);
+	}
+
+	/**
+	 * Return the probability that the first creature wins the duel from the given state.
+	 *
+	 * @param 	firstLeft
+	 * 			The hitpoints of the first creature.
+	 * @param 	secondLeft
+	 * 			The hitpoints of the second creature.
+	 * @param 	firstToHit
+	 * 			Whether the first creature is about to hit.
+	 * @return	The probability that the first creature wins, or NaN if from this state
+	 * 			neither creature can ever bring the hitpoints of the other one down.
+	 * @throws	IllegalArgumentException
+	 * 			The hitpoints are negative or larger than the hitpoints of the creatures
+	 * 			when this solver was made.
+	 */
+	public double getWinProbability(int firstLeft, int secondLeft, boolean firstToHit)
+			throws IllegalArgumentException {
+		checkState(firstLeft, secondLeft);
+		solve();
+		if (firstToHit){
+			return wins[index(firstLeft, secondLeft)];
+		}
+		return secondToHit(wins, firstLeft, secondLeft, 0.0, 0.0);
+	}
+
+	/**
+	 * Return the expected number of hits, effective or not, in the duel from the given state.
+	 *
+	 * @param 	firstLeft
+	 * 			The hitpoints of the first creature.
+	 * @param 	secondLeft
+	 * 			The hitpoints of the second creature.
+	 * @param 	firstToHit
+	 * 			Whether the first creature is about to hit.
+	 * @return	The expected number of hits, or positive infinity if from this state
+	 * 			neither creature can ever bring the hitpoints of the other one down.
+	 * @throws	IllegalArgumentException
+	 * 			The hitpoints are negative or larger than the hitpoints of the creatures
+	 * 			when this solver was made.
+	 */
+	public double getExpectedRounds(int firstLeft, int secondLeft, boolean firstToHit)
+			throws IllegalArgumentException {
+		checkState(firstLeft, secondLeft);
+		solve();
+		if (firstToHit){
+			return rounds[index(firstLeft, secondLeft)];
+		}
+		return secondToHit(rounds, firstLeft, secondLeft, 0.0, 1.0);
+	}
+
+	/**
+	 * Check whether the given hitpoints are in the table of this solver.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The hitpoints are negative or larger than the hitpoints of the creatures
+	 * 			when this solver was made.
+	 */
+	@Model
+	private void checkState(int firstLeft, int secondLeft) throws IllegalArgumentException {
+		if ((firstLeft < 0) || (firstLeft > firstHitpoints) ||
+				(secondLeft < 0) || (secondLeft > secondHitpoints)){
+			throw new IllegalArgumentException("The state is outside the table of this solver.");
+		}
+	}
+
+	/**
+	 * Return the index of the given state in the table.
+	 */
+	private int index(int firstLeft, int secondLeft){
+		return firstLeft * (secondHitpoints + 1) + secondLeft;
+	}
+
+	/**
+	 * Return the probability that an effective hit of the first creature changes the
+	 * hitpoints of the second creature with the given hitpoints.
+	 */
+	private double firstProgress(int secondLeft){
+		return (firstHits[secondLeft] != secondLeft) ? firstProbability : 0.0;
+	}
+
+	/**
+	 * Return the probability that an effective hit of the second creature changes the
+	 * hitpoints of the first creature with the given hitpoints.
+	 */
+	private double secondProgress(int firstLeft){
+		return (secondHits[firstLeft] != firstLeft) ? secondProbability : 0.0;
+	}
+
+	/**
+	 * Return the value in the given table of the given state when the second creature is
+	 * about to hit, computed from the values when the first creature is about to hit.
+	 *
+	 * @param 	table
+	 * 			The values of the states when the first creature is about to hit.
+	 * @param 	dead
+	 * 			The value when the first creature dies.
+	 * @param 	cost
+	 * 			What the hit itself adds to the value.
+	 */
+	private double secondToHit(double[] table, int firstLeft, int secondLeft, double dead, double cost){
+		if (secondLeft == 0){
+			return table[index(firstLeft, secondLeft)];
+		}
+		if (firstLeft == 0){
+			return dead;
+		}
+		double p = secondProgress(firstLeft);
+		double result = cost + (1 - p) * table[index(firstLeft, secondLeft)];
+		if (p > 0){
+			int next = secondHits[firstLeft];
+			result += p * ((next == 0) ? dead : table[index(next, secondLeft)]);
+		}
+		return result;
+	}
+
+	/**
+	 * Compute the table of this solver if it isn't computed yet.
+	 */
+	@Model
+	private synchronized void solve(){
+		if (wins != null){
+			return;
+		}
+		final double[] wins = new double[(firstHitpoints + 1) * (secondHitpoints + 1)];
+		final double[] rounds = new double[wins.length];
+		for (int diagonal = 0; diagonal <= firstHitpoints + secondHitpoints; diagonal++){
+			final int low = Math.max(0, diagonal - secondHitpoints);
+			final int high = Math.min(diagonal, firstHitpoints);
+			final int total = diagonal;
+			int length = high - low + 1;
+			if (length < PARALLEL_THRESHOLD){
+				for (int firstLeft = low; firstLeft <= high; firstLeft++){
+					solveState(wins, rounds, firstLeft, total - firstLeft);
+				}
+			}
+			else {
+				int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+				IntStream.range(0, chunks).parallel().forEach(chunk -> {
+					int start = low + chunk * CHUNK_SIZE;
+					int end = Math.min(high, start + CHUNK_SIZE - 1);
+					for (int firstLeft = start; firstLeft <= end; firstLeft++){
+						solveState(wins, rounds, firstLeft, total - firstLeft);
+					}
+				});
+			}
+		}
+		this.rounds = rounds;
+		this.wins = wins;
+	}
+
+	/**
+	 * Compute the values of the given state when the first creature is about to hit.
+	 *
+	 * Let p and r be the probabilities that the first and the second creature bring the
+	 * hitpoints of the other one down. With X the value when the first creature is about
+	 * to hit and Y the value when the second one is, X = p U + (1 - p) Y and
+	 * Y = r V + (1 - r) X, with U the value of the second creature about to hit after
+	 * an effective hit of the first one and V the value of the first creature about to
+	 * hit after an effective hit of the second one. Both only depend on states with fewer
+	 * total hitpoints, so X = (p U + (1 - p) r V) / (1 - (1 - p)(1 - r)).
+	 */
+	private void solveState(double[] wins, double[] rounds, int firstLeft, int secondLeft){
+		int index = index(firstLeft, secondLeft);
+		if (secondLeft == 0){
+			wins[index] = 1.0;
+			return;
+		}
+		if (firstLeft == 0){
+			return;
+		}
+		double p = firstProgress(secondLeft);
+		double r = secondProgress(firstLeft);
+		double end = 1 - (1 - p) * (1 - r);
+		if (end == 0){
+			wins[index] = Double.NaN;
+			rounds[index] = Double.POSITIVE_INFINITY;
+			return;
+		}
+		double win = 0;
+		double round = 1 + (1 - p);
+		if (p > 0){
+			int next = firstHits[secondLeft];
+			win += p * secondToHit(wins, firstLeft, next, 0.0, 0.0);
+			round += p * ((next == 0) ? 0.0 : secondToHit(rounds, firstLeft, next, 0.0, 1.0));
+		}
+		if (r > 0){
+			int next = secondHits[firstLeft];
+			win += (1 - p) * r * ((next == 0) ? 0.0 : wins[index(next, secondLeft)]);
+			round += (1 - p) * r * ((next == 0) ? 0.0 : rounds[index(next, secondLeft)]);
+		}
+		wins[index] = win / end;
+		rounds[index] = round / end;
+	}
+}
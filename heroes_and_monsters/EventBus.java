@@ -0,0 +1,193 @@
+package heroes_and_monsters;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of event buses, delivering the game events of one world to the listeners
+ * that subscribed to them. Events are delivered synchronously, on the thread that made
+ * the change. The listeners of every type are kept in an array that is replaced as a
+ * whole when a listener subscribes or unsubscribes, so publishing never locks, and an
+ * event is not even made when nobody listens to its type.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class EventBus {
+
+	/**
+	 * Initialize this new event bus without listeners.
+	 *
+	 * @post	No type has listeners.
+	 * 			| for all type in GameEventType.values():
+	 * 			|		!new.hasListeners(type)
+	 */
+	public EventBus(){
+		GameEventListener[][] listeners = new GameEventListener[GameEventType.values().length][];
+		for (int i = 0; i < listeners.length; i++){
+			listeners[i] = NO_LISTENERS;
+		}
+		this.listeners = listeners;
+	}
+
+	/**
+	 * Constant referencing an empty array of listeners.
+	 */
+	private static final GameEventListener[] NO_LISTENERS = new GameEventListener[0];
+
+	/**
+	 * Variable referencing the listeners of every type, indexed by the ordinal of the type.
+	 */
+	private volatile GameEventListener[][] listeners;
+
+	/**
+	 * Variable registering the number of times a listener failed to handle an event.
+	 */
+	private final AtomicLong numberOfFailures = new AtomicLong();
+
+	/**
+	 * Check whether anybody listens to events of the given type.
+	 *
+	 * @param 	type
+	 * 			The type to check.
+	 */
+	public boolean hasListeners(GameEventType type){
+		return (listeners[type.ordinal()].length > 0);
+	}
+
+	/**
+	 * Let the given listener be told about all events of the given type.
+	 *
+	 * @param 	type
+	 * 			The type of the events to listen to.
+	 * @param 	listener
+	 * 			The listener to subscribe.
+	 * @post	The given listener is told about the events of the given type.
+	 * 			| new.hasListeners(type)
+	 * @throws	IllegalArgumentException
+	 * 			The given type or listener is not effective.
+	 * 			| type == null || listener == null
+	 */
+	public synchronized void subscribe(GameEventType type, GameEventListener listener)
+			throws IllegalArgumentException {
+		if (type == null || listener == null){
+			throw new IllegalArgumentException("Type and listener must be effective.");
+		}
+		GameEventListener[][] copy = this.listeners.clone();
+		GameEventListener[] old = copy[type.ordinal()];
+		GameEventListener[] extended = new GameEventListener[old.length + 1];
+		System.arraycopy(old, 0, extended, 0, old.length);
+		extended[old.length] = listener;
+		copy[type.ordinal()] = extended;
+		this.listeners = copy;
+	}
+
+	/**
+	 * Let the given listener be told about all events.
+	 *
+	 * @param 	listener
+	 * 			The listener to subscribe.
+	 * @effect	The listener is subscribed to every type.
+	 * 			| for all type in GameEventType.values():
+	 * 			|		subscribe(type, listener)
+	 */
+	public synchronized void subscribe(GameEventListener listener) throws IllegalArgumentException {
+		for (GameEventType type: GameEventType.values()){
+			subscribe(type, listener);
+		}
+	}
+
+	/**
+	 * Stop telling the given listener about events.
+	 *
+	 * @param 	listener
+	 * 			The listener to unsubscribe.
+	 * @post	The given listener is no longer told about any events.
+	 */
+	public synchronized void unsubscribe(GameEventListener listener){
+		GameEventListener[][] copy = this.listeners.clone();
+		for (int i = 0; i < copy.length; i++){
+			int remaining = 0;
+			for (GameEventListener subscribed: copy[i]){
+				if (subscribed != listener){
+					remaining++;
+				}
+			}
+			if (remaining < copy[i].length){
+				GameEventListener[] reduced = (remaining == 0) ? NO_LISTENERS : new GameEventListener[remaining];
+				int index = 0;
+				for (GameEventListener subscribed: copy[i]){
+					if (subscribed != listener){
+						reduced[index++] = subscribed;
+					}
+				}
+				copy[i] = reduced;
+			}
+		}
+		this.listeners = copy;
+	}
+
+	/**
+	 * Tell all the listeners of the type of the given event about it. A listener that
+	 * throws an exception does not stop the other listeners, nor the change that was made.
+	 *
+	 * @param 	event
+	 * 			The event to publish.
+	 * @effect	Every listener of the type of the event handles it.
+	 * 			| for all listener of event.getType():
+	 * 			|		listener.handle(event)
+	 * @throws	IllegalArgumentException
+	 * 			The given event is not effective.
+	 * 			| event == null
+	 */
+	public void publish(GameEvent event) throws IllegalArgumentException {
+		if (event == null){
+			throw new IllegalArgumentException("Event must be effective.");
+		}
+		deliver(listeners[event.getType().ordinal()], event);
+	}
+
+	/**
+	 * Publish an event with the given properties, if anybody listens to its type.
+	 *
+	 * @param 	type
+	 * 			The type of the event.
+	 * @param 	source
+	 * 			The object that changed.
+	 * @param 	subject
+	 * 			The object the change is about.
+	 * @param 	value
+	 * 			The number that goes with the change.
+	 * @effect	If the type has listeners, a new event is published.
+	 * 			| if (hasListeners(type))
+	 * 			| then publish(new GameEvent(type, source, subject, value))
+	 */
+	void publish(GameEventType type, Object source, Object subject, int value){
+		GameEventListener[] subscribed = listeners[type.ordinal()];
+		if (subscribed.length > 0){
+			deliver(subscribed, new GameEvent(type, source, subject, value));
+		}
+	}
+
+	/**
+	 * Let each of the given listeners handle the given event.
+	 */
+	@Model
+	private void deliver(GameEventListener[] subscribed, GameEvent event){
+		for (GameEventListener listener: subscribed){
+			try {
+				listener.handle(event);
+			} catch (RuntimeException e) {
+				numberOfFailures.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Return the number of times a listener failed to handle an event of this bus.
+	 */
+	public long getNumberOfFailures(){
+		return numberOfFailures.get();
+	}
+}
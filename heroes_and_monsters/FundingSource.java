@@ -0,0 +1,120 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of funding sources, each one the loose ducats or a purse somewhere in a backpack
+ * that ducats can be taken from when withdrawing an amount from that backpack.
+ *
+ * @author	Linde en Lotte
+ * @version	1.0
+ */
+class FundingSource {
+
+	/**
+	 * Initialize this new funding source for the loose ducats in the given backpack.
+	 *
+	 * @param 	container
+	 * 			The backpack the ducats are directly in.
+	 * @param 	amount
+	 * 			The value of the loose ducats.
+	 * @param 	depth
+	 * 			The number of backpacks between the backpack the withdrawal is made from
+	 * 			and the container.
+	 * @param	containerWeight
+	 * 			The weight in kilogram that the container carries directly.
+	 */
+	FundingSource(Backpack container, int amount, int depth, double containerWeight){
+		this.container = container;
+		this.purse = null;
+		this.amount = amount;
+		this.depth = depth;
+		this.containerWeight = containerWeight;
+	}
+
+	/**
+	 * Initialize this new funding source for the given purse in the given backpack.
+	 *
+	 * @param 	container
+	 * 			The backpack the purse is directly in.
+	 * @param 	purse
+	 * 			The purse.
+	 * @param 	depth
+	 * 			The number of backpacks between the backpack the withdrawal is made from
+	 * 			and the container.
+	 * @param	containerWeight
+	 * 			The weight in kilogram that the container carries directly.
+	 */
+	FundingSource(Backpack container, Purse purse, int depth, double containerWeight){
+		this.container = container;
+		this.purse = purse;
+		this.amount = purse.getContent().getValue();
+		this.depth = depth;
+		this.containerWeight = containerWeight;
+	}
+
+	/**
+	 * Variable referencing the backpack this source is directly in.
+	 */
+	private final Backpack container;
+
+	/**
+	 * Variable referencing the purse of this source, or null for loose ducats.
+	 */
+	private final Purse purse;
+
+	/**
+	 * Variable referencing the amount of ducats available in this source.
+	 */
+	private final int amount;
+
+	/**
+	 * Variable referencing the depth of the container of this source.
+	 */
+	private final int depth;
+
+	/**
+	 * Variable referencing the weight the container of this source carried directly when it was found.
+	 */
+	private final double containerWeight;
+
+	/**
+	 * Return the backpack this source is directly in.
+	 */
+	@Basic @Immutable
+	Backpack getContainer(){
+		return this.container;
+	}
+
+	/**
+	 * Return the purse of this source, or null if this source are the loose ducats.
+	 */
+	@Basic @Immutable
+	Purse getPurse(){
+		return this.purse;
+	}
+
+	/**
+	 * Return the amount of ducats available in this source.
+	 */
+	@Basic @Immutable
+	int getAmount(){
+		return this.amount;
+	}
+
+	/**
+	 * Return the depth of the container of this source.
+	 */
+	@Basic @Immutable
+	int getDepth(){
+		return this.depth;
+	}
+
+	/**
+	 * Return the weight in kilogram the container of this source carried directly when it was found.
+	 */
+	@Basic @Immutable
+	double getContainerWeight(){
+		return this.containerWeight;
+	}
+}
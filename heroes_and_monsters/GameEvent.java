@@ -0,0 +1,110 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of game events, each one describing a single change of the state of a world.
+ *
+ * @invar	The type of each game event is effective.
+ * 			| getType() != null
+ * @invar	The source of each game event is effective.
+ * 			| getSource() != null
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public final class GameEvent {
+
+	/**
+	 * Initialize this new game event.
+	 *
+	 * @param 	type
+	 * 			The type of this new event.
+	 * @param 	source
+	 * 			The object that changed.
+	 * @param 	subject
+	 * 			The object the change is about, or null if there is none.
+	 * @param 	value
+	 * 			The number that goes with the change, or zero if there is none.
+	 * @post	The type, source, subject and value of this new event are the given ones.
+	 * 			| new.getType() == type && new.getSource() == source &&
+	 * 			| new.getSubject() == subject && new.getValue() == value
+	 * @throws	IllegalArgumentException
+	 * 			The given type or source is not effective.
+	 * 			| type == null || source == null
+	 */
+	public GameEvent(GameEventType type, Object source, Object subject, int value)
+			throws IllegalArgumentException {
+		if (type == null){
+			throw new IllegalArgumentException("An event must have a type.");
+		}
+		if (source == null){
+			throw new IllegalArgumentException("An event must have a source.");
+		}
+		this.type = type;
+		this.source = source;
+		this.subject = subject;
+		this.value = value;
+	}
+
+	/**
+	 * Variable referencing the type of this event.
+	 */
+	private final GameEventType type;
+
+	/**
+	 * Variable referencing the object that changed.
+	 */
+	private final Object source;
+
+	/**
+	 * Variable referencing the object the change is about.
+	 */
+	private final Object subject;
+
+	/**
+	 * Variable registering the number that goes with the change.
+	 */
+	private final int value;
+
+	/**
+	 * Return the type of this event.
+	 */
+	@Basic @Immutable
+	public GameEventType getType(){
+		return this.type;
+	}
+
+	/**
+	 * Return the object that changed.
+	 */
+	@Basic @Immutable
+	public Object getSource(){
+		return this.source;
+	}
+
+	/**
+	 * Return the object the change is about, or null if there is none.
+	 */
+	@Basic @Immutable
+	public Object getSubject(){
+		return this.subject;
+	}
+
+	/**
+	 * Return the number that goes with the change, or zero if there is none.
+	 */
+	@Basic @Immutable
+	public int getValue(){
+		return this.value;
+	}
+
+	/**
+	 * Return a textual representation of this event.
+	 */
+	@Override
+	public String toString(){
+		return getType() + "(" + getSource() + ", " + getSubject() + ", " + getValue() + ")";
+	}
+}
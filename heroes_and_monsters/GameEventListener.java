@@ -0,0 +1,19 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for objects that want to be told about the game events of a world.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface GameEventListener {
+
+	/**
+	 * Handle the given event. This method is called on the thread that made the change,
+	 * while the containment trees involved are locked, so it must return quickly.
+	 *
+	 * @param 	event
+	 * 			The event to handle.
+	 */
+	void handle(GameEvent event);
+}
@@ -0,0 +1,65 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of the kinds of changes that are published as game events.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public enum GameEventType {
+
+	/**
+	 * An object is put in an anchor of a creature. The source is the creature and the
+	 * subject is the object.
+	 */
+	ANCHOR_FILLED,
+
+	/**
+	 * An object is taken out of an anchor of a creature. The source is the creature and
+	 * the subject is the object.
+	 */
+	ANCHOR_EMPTIED,
+
+	/**
+	 * An object is added to a storage. The source is the storage, the subject is the
+	 * object and the value is the number of ducats for a ducat.
+	 */
+	STORED,
+
+	/**
+	 * An object is taken out of a storage. The source is the storage, the subject is the
+	 * object and the value is the number of ducats for a ducat.
+	 */
+	TAKEN_OUT,
+
+	/**
+	 * A creature tries to hit another creature. The source is the creature that hits,
+	 * the subject is the creature that is hit and the value is the damage, or zero for a miss.
+	 */
+	HIT,
+
+	/**
+	 * A creature is killed. The source is the creature.
+	 */
+	KILLED,
+
+	/**
+	 * An ownable is terminated. The source is the ownable.
+	 */
+	TERMINATED,
+
+	/**
+	 * The current protection of an armor or a monster is set. The source is the armor or
+	 * the monster and the value is the new protection.
+	 */
+	PROTECTION_CHANGED,
+
+	/**
+	 * The current damage of a weapon or a monster is set. The source is the weapon or the
+	 * monster and the value is the new damage.
+	 */
+	DAMAGE_CHANGED
+}
@@ -28,12 +28,12 @@ public class Hero extends Creature {
 	 * 			The maximum and current hitpoints of this hero.
 	 * @param	anchorObjects
 	 * 			The objects that must go in the anchors.
-	 * @effect	This hero is initialized as a creature with the given name, strength, 
-	 * 			current hitpoints, maximum hitpoints and anchorObjects.
-	 * 			| super(name, strength, maxHitpoints, anchorsStandard, anchorObjects)
+	 * @effect	This hero is initialized as a hero of the default world with the given name,
+	 * 			strength, current hitpoints, maximum hitpoints and anchorObjects.
+	 * 			| this(World.getDefaultWorld(), name, strength, maxHitpoints, anchorObjects)
 	 * @throws 	IllegalArgumentException
 	 * 			The list anchorObjects must have 5 objects.
-	 * 			| if (anchorObjects.size() != anchorsStandard.size())
+	 * 			| if (anchorObjects.size() != getWorld().getHeroAnchors().size())
 	 * 			|	throw new IllegalArgumentException()
 	 * @throws	IllegalArgumentException
 	 * 			The object on the fourth position must be effective and it must be
@@ -49,7 +49,35 @@ public class Hero extends Creature {
 	public Hero(String name, BigDecimal strength, int maxHitpoints,
 			ArrayList<Object> anchorObjects)
 			throws IllegalArgumentException {
-		super(name, strength, maxHitpoints, anchorsStandard, anchorObjects);
+		this(World.getDefaultWorld(), name, strength, maxHitpoints, anchorObjects);
+	}
+	
+	/**
+	 * Initialize this new hero of the given world with a name, a strength, a maximum
+	 * hitpoints, a current hitpoints, the standard anchors of that world and anchorObjects.
+	 * 
+	 * @param	world
+	 * 			The world of this hero.
+	 * @param 	name
+	 * 			The name of this hero.
+	 * @param	strength
+	 * 			The strength of this hero.
+	 * @param	maxHitpoints
+	 * 			The maximum and current hitpoints of this hero.
+	 * @param	anchorObjects
+	 * 			The objects that must go in the anchors.
+	 * @effect	This hero is initialized as a creature of the given world with the given name,
+	 * 			strength, current hitpoints, maximum hitpoints and anchorObjects.
+	 * 			| super(world, name, strength, maxHitpoints, world.getHeroAnchors(), anchorObjects)
+	 * @throws	IllegalArgumentException
+	 * 			The given world is not effective.
+	 * 			| world == null
+	 */
+	@Raw
+	public Hero(World world, String name, BigDecimal strength, int maxHitpoints,
+			ArrayList<Object> anchorObjects)
+			throws IllegalArgumentException {
+		super(world, name, strength, maxHitpoints, getStandardAnchors(world), anchorObjects);
 	}
 	
 	/**
@@ -67,7 +95,26 @@ public class Hero extends Creature {
 	 */
 	@Raw
 	public Hero(String name, int maxHitpoints, Armor armor){
-		this(name, new BigDecimal(2.00), maxHitpoints, new ArrayList<Object>(Arrays.asList(null, null, null, armor, null)));
+		this(World.getDefaultWorld(), name, maxHitpoints, armor);
+	}
+	
+	/**
+	 * Initialize this new hero of the given world with a name, the default strength, a
+	 * maximum hitpoints, a current hitpoints, standard anchors and no anchorObjects.
+	 * 
+	 * @param	world
+	 * 			The world of this hero.
+	 * @param 	name
+	 * 			The name of this hero.
+	 * @param	maxHitpoints
+	 * 			The maximum and current hitpoints of this hero.
+	 * @effect	This hero is initialized as a hero of the given world with the given name and
+	 * 			maximum hitpoints. Only the given armor is added to the anchors.
+	 * 			| this(world, name, new BigDecimal(2.00), maxHitpoints, new ArrayList<Object>(Arrays.asList(null, null, null, armor, null)))
+	 */
+	@Raw
+	public Hero(World world, String name, int maxHitpoints, Armor armor){
+		this(world, name, new BigDecimal(2.00), maxHitpoints, new ArrayList<Object>(Arrays.asList(null, null, null, armor, null)));
 	}
 	
 	/****************************************
@@ -136,9 +183,18 @@ public class Hero extends Creature {
 	 ****************************************
 	
 	/**
-	 * The anchors of a hero: "Left hand", "Right hand", "Back", "Body", "Belt".
+	 * Return the standard anchors of a hero of the given world: "Left hand", "Right hand",
+	 * "Back", "Body", "Belt". If the given world is not effective, there are no anchors.
+	 * 
+	 * @param 	world
+	 * 			The world to get the anchors from.
 	 */
-	private static ArrayList<String> anchorsStandard = new ArrayList<String>(Arrays.asList("Left hand", "Right hand", "Back", "Body", "Belt")) ;
+	private static ArrayList<String> getStandardAnchors(World world){
+		if (world == null){
+			return new ArrayList<String>();
+		}
+		return world.getHeroAnchors();
+	}
 	
 	/**
 	 * The anchors of this hero are set to the objects in the given list anchorObjects.
@@ -152,7 +208,7 @@ public class Hero extends Creature {
 	 * 			|		addToAnchor(object, associated anchor)
 	 * @throws 	IllegalArgumentException
 	 * 			The list anchorObjects must have an equal amount of objects as anchors.
-	 * 			| anchorObjects.size() != anchorsStandard.size()
+	 * 			| anchorObjects.size() != getWorld().getHeroAnchors().size()
 	 * @throws	IllegalArgumentException
 	 * 			The object on the fourth position must be effective and it must be
 	 * 			an armor.
@@ -169,6 +225,7 @@ public class Hero extends Creature {
 	@Raw @Override
 	protected void setAnchorObjects(ArrayList<Object> anchorObjects)
 			throws IllegalArgumentException {
+		ArrayList<String> anchorsStandard = getWorld().getHeroAnchors();
 		if (anchorObjects.size() != anchorsStandard.size()){
 			throw new IllegalArgumentException("Not the right amount of items");
 		}
@@ -187,27 +244,36 @@ public class Hero extends Creature {
 	}
 	
 	/**
-	 * Check whether the given object can be added to the given anchor.
+	 * Check whether the given object can be added to the given anchor and tell why not.
 	 * 
 	 * @param 	object
 	 * 			The object to check.
 	 * @param 	anchor
 	 * 			The anchor to check.
-	 * @return	True if and only if the given object can be added to the given anchor
-	 * 			for any creature and if when the anchor is a belt, the object is a purse
-	 * 			and if when the anchor is a body, the object is an armor and if the hero
-	 * 			won't carry too many armors.
-	 * 			| result == super.canAddToAnchor(object, anchor) &&
+	 * @return	The admission for any creature if that is not ADMITTED. Otherwise
+	 * 			WRONG_ANCHOR if the anchor is a belt and the object is no purse or the
+	 * 			anchor is a body and the object is no armor, TOO_MANY_ARMORS if the hero
+	 * 			would carry too many armors and ADMITTED otherwise.
+	 * 			| result == AdmissionResult.ADMITTED iff
+	 * 			|	super.getAdmission(object, anchor) == AdmissionResult.ADMITTED &&
 	 *			|				(anchor != "Belt" || (object instanceof Purse)) &&
 	 *			|				(anchor != "Body" || (object instanceof Armor)) &&
 	 *			|				canAddArmor(object)
 	 */
 	@Raw @Override
-	public boolean canAddToAnchor(Object object, String anchor){
-		return (super.canAddToAnchor(object, anchor) &&
-				(anchor != "Belt" || (object instanceof Purse) || (object == null)) &&
-				(anchor != "Body" || (object instanceof Armor) || (object == null)) &&
-				canAddArmor(object));
+	public AdmissionResult getAdmission(Object object, String anchor){
+		AdmissionResult result = super.getAdmission(object, anchor);
+		if (result != AdmissionResult.ADMITTED){
+			return result;
+		}
+		if (!(anchor != "Belt" || (object instanceof Purse) || (object == null)) ||
+				!(anchor != "Body" || (object instanceof Armor) || (object == null))){
+			return AdmissionResult.WRONG_ANCHOR;
+		}
+		if (!canAddArmor(object)){
+			return AdmissionResult.TOO_MANY_ARMORS;
+		}
+		return AdmissionResult.ADMITTED;
 	}
 	
 	/**
@@ -217,31 +283,11 @@ public class Hero extends Creature {
 	 * 			The object to check.
 	 * @return	True if and only if the object is not an armor or the hero won't carry more
 	 * 			than 2 armors when the object is added.
-	 * 			| result == armors.size() < 2
+	 * 			| result == !(object instanceof Armor) || getNumberOfArmors() < 2
 	 */
 	@Raw
 	protected boolean canAddArmor(Object object){
-		ArrayList<Object> armors = new ArrayList<Object>();
-		if (object instanceof Armor){
-			Iterator<Object> iterator = getAnchors().values().iterator();
-			while (iterator.hasNext()){
-				Object obj = iterator.next();
-				if (obj instanceof Armor){
-					armors.add(obj);
-				}
-				if (obj instanceof Backpack){
-					Backpack backpack =  (Backpack) obj;
-					Enumeration<Object> enumeration = backpack.getBackpackIterator();
-					while (enumeration.hasMoreElements()){
-						Object next = enumeration.nextElement();
-						if (next instanceof Armor){
-							armors.add(next);
-						}
-					}
-				}
-			}		
-		}
-		return (armors.size() < 2);
+		return (!(object instanceof Armor) || (this.getNumberOfArmors() < 2));
 	}
 	
 	
@@ -279,6 +325,17 @@ public class Hero extends Creature {
 	 */
 	private final int standardProtection = 10;
 	
+	/**
+	 * Variable referencing the current protection of this hero. (It has no initializer,
+	 * because the anchors of a hero are already filled by the constructor of creature.)
+	 */
+	private int currentProtection;
+	
+	/**
+	 * Variable referencing the armor on the body of this hero whose protection is followed.
+	 */
+	private Armor bodyArmor;
+	
 	/**
 	 * Returns the current value for the protection of a hero.
 	 * 
@@ -287,27 +344,74 @@ public class Hero extends Creature {
 	 * @return The resulting number must be the sum of the standardProtection and the currentProtection of the armor.
 	 * 		   | result == (armor.getCurrentProtection() + this.standardProtection))
 	 */
+	@Basic
 	public int getCurrentProtection() {
-		Object object = getAnchors().get("Body");
-		if ((object != null)&&(object instanceof Armor)){
-			Armor armor = (Armor)object;
-			return (armor.getCurrentProtection() + this.standardProtection);
+		return this.currentProtection;
+	}
+	
+	/**
+	 * Follow the armor that is on the body of this hero now.
+	 * 
+	 * @post	The armor that was followed before no longer notifies this hero.
+	 * 			| bodyArmor.getProtectionListener() == null
+	 * @post	The armor on the body notifies this hero when its protection changes.
+	 * 			| ((Armor) getAnchorObject("Body")).getProtectionListener() != null
+	 * @effect	The current protection is computed again.
+	 * 			| updateCurrentProtection()
+	 */
+	@Model
+	private void updateBodyArmor(){
+		Object object = this.getAnchorObject("Body");
+		Armor armor = (object instanceof Armor) ? (Armor) object : null;
+		if ((this.bodyArmor != null) && (this.bodyArmor != armor)){
+			this.bodyArmor.setProtectionListener(null);
 		}
-		else {
-			return this.standardProtection;
+		this.bodyArmor = armor;
+		if (armor != null){
+			armor.setProtectionListener(new ProtectionListener(){
+				@Override
+				public void protectionChanged(Armor armor){
+					Hero.this.updateCurrentProtection();
+				}
+			});
 		}
+		this.updateCurrentProtection();
+	}
+	
+	/**
+	 * Compute the current protection of this hero again.
+	 * 
+	 * @post	The current protection is the standard protection plus the current protection
+	 * 			of the armor on the body, if there is one.
+	 * 			| new.getCurrentProtection() == (armor.getCurrentProtection() + this.standardProtection)
+	 */
+	@Model
+	private void updateCurrentProtection(){
+		this.currentProtection = this.getProtectionWith(this.bodyArmor);
+	}
+	
+	/**
+	 * Return the protection this hero would have with the given armor on its body.
+	 * 
+	 * @param	armor
+	 * 			The armor on the body, or null for no armor.
+	 * @return	The standard protection plus the current protection of the given armor, if
+	 * 			it is effective and not terminated.
+	 * 			| if ((armor != null) && !armor.getTerminated())
+	 * 			| then	result == armor.getCurrentProtection() + this.standardProtection
+	 * 			| else	result == this.standardProtection
+	 */
+	int getProtectionWith(Armor armor){
+		if ((armor != null) && !armor.getTerminated()){
+			return armor.getCurrentProtection() + this.standardProtection;
+		}
+		return this.standardProtection;
 	}
-
 
 	/**********************************
 	 * Capacity -  totaal
 	 **********************************/
 	
-	/**
-	 * The list of capacities between 10 and 20 of a hero.
-	 */
-	private static ArrayList<Integer> capacities = new ArrayList<Integer>(Arrays.asList(115, 130, 150, 175, 200, 230, 260, 300, 350, 400));
-	
 	/**
 	 * Return the maximum capacity of the hero.
 	 * 
@@ -316,14 +420,29 @@ public class Hero extends Creature {
 	 */
 	@Override
 	public double getMaximumCapacity(Unit unit) {
-		float strength = this.getStrength().floatValue();
+		return getMaximumCapacity(this.getStrength(), unit);
+	}
+	
+	/**
+	 * Return the maximum capacity of a hero with the given strength. Every 10 units of
+	 * strength above 20 multiply the capacity by 4. The strength of this hero is never
+	 * changed, so asking for the capacity doesn't modify the world.
+	 * 
+	 * @param	numeral
+	 * 			The strength to compute the capacity for.
+	 * @param	unit
+	 * 			The unit of the capacity.
+	 * @return	| if (numeral.floatValue() > 20)
+	 * 			| then result == 4 * getMaximumCapacity(numeral.subtract(new BigDecimal(10)), unit)
+	 * @return the resulting number cannot be negative
+	 * 		   | result >= 0
+	 */
+	private double getMaximumCapacity(BigDecimal numeral, Unit unit) {
+		float strength = numeral.floatValue();
 		int constant = 1;
 		float capacity = 0;
 		if (strength > 20){
-			this.setStrength(getStrength().subtract(new BigDecimal(10)));
-			double answer = 4 * getMaximumCapacity(unit);
-			this.setStrength(getStrength().add(new BigDecimal(10)));
-			return answer;
+			return 4 * getMaximumCapacity(numeral.subtract(new BigDecimal(10)), unit);
 		}
 		else if (strength < 1.00){
 			capacity =  0;
@@ -333,7 +452,7 @@ public class Hero extends Creature {
 		}
 		else if (strength <= 20){
 			int i = (int)Math.ceil(strength);
-			capacity =  capacities.get(i-11);			
+			capacity =  getWorld().getHeroCapacity(i);			
 		}
 		return ((double)Math.round(unit.convertFromKilogram(constant*capacity)* 1000d) / 1000d);
 	}
@@ -342,23 +461,97 @@ public class Hero extends Creature {
 	 * Hit
 	 **********************************/
 	
+	/**
+	 * Variable referencing the sum of the current damage of the weapons in the hands of
+	 * this hero. (It has no initializer, because the anchors of a hero are already
+	 * filled by the constructor of creature.)
+	 */
+	private int equippedDamage;
+	
+	/**
+	 * Return the sum of the current damage of the weapons in the hands of this hero.
+	 * 
+	 * @return	The current damage of the weapon in the left hand plus the current damage
+	 * 			of the weapon in the right hand.
+	 * 			| result == getDamageInAnchor("Left hand") + getDamageInAnchor("Right hand")
+	 */
+	@Basic
+	public int getEquippedDamage(){
+		return this.equippedDamage;
+	}
+	
+	/**
+	 * Compute the sum of the current damage of the weapons in the hands of this hero again.
+	 * (Used when a hand is filled or emptied or the damage of a weapon in a hand changes.)
+	 * 
+	 * @post	The equipped damage is the sum of the damage of the weapons in both hands.
+	 * 			| new.getEquippedDamage() == getDamageInAnchor("Left hand") + getDamageInAnchor("Right hand")
+	 */
+	void updateEquippedDamage(){
+		this.equippedDamage = getDamageInAnchor("Left hand") + getDamageInAnchor("Right hand");
+	}
+	
+	/**
+	 * Return the current damage of the weapon in the given anchor.
+	 * 
+	 * @param	anchor
+	 * 			The anchor to look in.
+	 * @return	The current damage of the weapon in the given anchor, or zero if there is no
+	 * 			weapon in it or the weapon is terminated.
+	 */
+	@Model
+	private int getDamageInAnchor(String anchor){
+		Object object = this.getAnchorObject(anchor);
+		if ((object instanceof Weapon) && !((Weapon) object).getTerminated()){
+			return ((Weapon) object).getCurrentDamage();
+		}
+		return 0;
+	}
+	
+	/**
+	 * React to a change of the object in the given anchor.
+	 * 
+	 * @effect	If the given anchor is a hand, the equipped damage is computed again.
+	 * 			| if (anchor.equals("Left hand") || anchor.equals("Right hand"))
+	 * 			| then updateEquippedDamage()
+	 * @effect	If the given anchor is the body, the armor on it is followed.
+	 * 			| if (anchor.equals("Body"))
+	 * 			| then updateBodyArmor()
+	 */
+	@Override @Raw
+	protected void anchorChanged(String anchor){
+		if ("Left hand".equals(anchor) || "Right hand".equals(anchor)){
+			this.updateEquippedDamage();
+		}
+		else if ("Body".equals(anchor)){
+			this.updateBodyArmor();
+		}
+	}
+	
 	/**
 	 * Return the resulting damage of a certain hit of this creature
 	 * 
-	 * @return The resulting number cannot be negative.
-	 * 		   | result >= 0
+	 * @return	The strength of this hero plus the damage of the weapons in its hands,
+	 * 			minus 10 and divided by 2, rounded down. The resulting number cannot be negative.
+	 * 			| result == max(0, floor((getStrength() + getEquippedDamage() - 10) / 2))
 	 */
 	@Override
 	protected int getResultingDamage() {
-		double attackForce = this.getStrength().floatValue();
-		for (int i = 0; i < anchorsStandard.size(); i++){
-			Object object = this.getAnchors().get(i);
-			if ((object instanceof Weapon) && (object != null)){
-				Weapon weapon = (Weapon)object;
-				double damageWeapon = weapon.getCurrentDamage();
-				attackForce = attackForce + damageWeapon;
-			}
-		}
+		return getResultingDamage(this.getEquippedDamage());
+	}
+	
+	/**
+	 * Return the resulting damage of a hit of this hero if the weapons in its hands had the
+	 * given sum of current damage.
+	 * 
+	 * @param	equippedDamage
+	 * 			The sum of the current damage of the weapons in the hands.
+	 * @return	The strength of this hero plus the given damage, minus 10 and divided by 2,
+	 * 			rounded down. The resulting number cannot be negative.
+	 * 			| result == max(0, floor((getStrength() + equippedDamage - 10) / 2))
+	 */
+	int getResultingDamage(int equippedDamage){
+		double attackForce = this.getStrength().floatValue() + equippedDamage;
 		int attack = (int)Math.floor((attackForce -10)/2);
 		if (attack < 0){
 			return 0;
@@ -382,7 +575,9 @@ public class Hero extends Creature {
 	@Override
 	protected void deathblow(Creature opponent) {
 		heal();
+		long start = Metrics.start();
 		addTreasure(null, opponent);
+		Metrics.stop(MetricTimer.ADD_TREASURE, start);
 	}
 	
 	/**
@@ -399,6 +594,40 @@ public class Hero extends Creature {
 	}
 
 	
+	/**********************************
+	 * Loot strategy
+	 **********************************/
+	
+	/**
+	 * Variable referencing the strategy this hero fills its purse and backpack with.
+	 */
+	private LootStrategy lootStrategy = LootStrategy.GREEDY;
+	
+	/**
+	 * Return the strategy this hero fills its purse and backpack with when it kills a monster.
+	 */
+	@Basic
+	public LootStrategy getLootStrategy(){
+		return this.lootStrategy;
+	}
+	
+	/**
+	 * Set the strategy this hero fills its purse and backpack with to the given strategy.
+	 * 
+	 * @param	lootStrategy
+	 * 			The new loot strategy.
+	 * @post	| new.getLootStrategy() == lootStrategy
+	 * @throws	IllegalArgumentException
+	 * 			The given strategy is not effective.
+	 * 			| lootStrategy == null
+	 */
+	public void setLootStrategy(LootStrategy lootStrategy) throws IllegalArgumentException {
+		if (lootStrategy == null){
+			throw new IllegalArgumentException("The loot strategy must be effective.");
+		}
+		this.lootStrategy = lootStrategy;
+	}
+	
 	/**********************************
 	 * collect Treasures
 	 **********************************/
@@ -410,7 +639,7 @@ public class Hero extends Creature {
 	 * Secondly, the hero will choose the two weapons in all the possessions that he is capable of wearing with the highest damage and put it in his left and right hand.
 	 * Furthermore, the hero will choose the backpack in all the possessions that he is capable of wearing with the highest capacity and put it on his back.
 	 * Next, he will choose the purse in all the possessions that he is capable of wearing with the highest capacity and put it on his belt.
-	 * Then he will add as much ducats as possible to his purse.
+	 * Then his loot strategy fills his purse and backpack. The greedy strategy will add as much ducats as possible to his purse.
 	 * After that he will add another armor out of all the possessions that he and his backpack are capable of wearing and has the highest protection to his backpack.
 	 * Subsequently he will add as many weapons as possible out of all the possessions that he and his backpack are capable of wearing with damages that are as high as possible to his backpack.
 	 * Finally he will add as many ducats as possible out of all the possessions that he and his backpack are capable of wearing with the highest value as possible to his backpack.
@@ -428,22 +657,8 @@ public class Hero extends Creature {
 	 * 			| this.addToAnchor(this.chooseWeapon(allPossessions), "Left hand")
 	 * 			| this.addToAnchor(this.chooseBackpack(allPossessions), "Back")
 	 * 			| this.addToAnchor(this.choosePurse(allPossessions), "Belt")
-	 * @effect	addToStorage, If there is a purse, as many ducats as possible will be added to the purse.
-	 * 			| if purse != null
-	 * 			| then	while (purse.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= purse.getMaximumCapacity(Unit.KG)):
-	 * 			|			purse.addToStorage(this.chooseDucat(allPossesions))
-	 * @effect	addToStorage, If there is a backpack, a armor will be added to the backpack if the hero and the backpack have enough capacity.
-	 * 			| if backpack != null
-	 * 			| then	if (backpack.getUsedCapacity(Unit.KG) + armor.getOwnWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG))
-	 * 			|		then	backpack.addToStorage(this.chooseArmor(allPossessions))
-	 * @effect	addToStorage, If there is a backpack, as many weapons as possible will be added to the backpack if the hero and the backpack have enough capacity.
-	 * 			| if backpack != null
-	 * 			| then	while (backpack.getUsedCapacity(Unit.KG) + weapon.getOwnWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG)):
-	 * 			|			backpack.addToStorage(this.chooseWeapon(allPossessions))
-	 * @effect	addToStorage, If there is a backpack, as many ducats as possible will be added to the backpack if the hero and the backpack have enough capacity.
-	 * 			| if backpack != null
-	 * 			| then	while (backpack.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG)):
-	 * 			|			backpack.addToStorage(this.chooseDucat(allPossessions))
+	 * @effect	The purse and the backpack are filled by the loot strategy of this hero.
+	 * 			| getLootStrategy().fill(this, allPossessions)
 	 * @effect	terminateRemainingObjectsFromClass, The remaining armors and weapons that the hero doesn't take with him will be destroyed.
 	 * 			| terminateRemainingObjectsFromClass("Armor", allPossessions);
 	 * 			| terminateRemainingObjectsFromClass("Weapon", allPossessions);
@@ -461,15 +676,43 @@ public class Hero extends Creature {
 		this.emptyAllAnchors();
 		opponent.emptyAllAnchors();
 		// Add the armor with the highest protection of all armors the hero is capable of wearing out of allPossessions.
-		this.addToAnchor(this.chooseArmor(allPossessions), "Body");
+		this.addToAnchor(countLoot(this.chooseArmor(allPossessions)), "Body");
 		// Add the weapon with the highest damage of all weapons the hero is capable of wearing out of allPossessions.
-		this.addToAnchor(this.chooseWeapon(allPossessions), "Right hand");
+		this.addToAnchor(countLoot(this.chooseWeapon(allPossessions)), "Right hand");
 		// Add the next weapon with the highest damage of all weapons the hero is capable of wearing out of allPossessions.
-		this.addToAnchor(this.chooseWeapon(allPossessions), "Left hand");
+		this.addToAnchor(countLoot(this.chooseWeapon(allPossessions)), "Left hand");
 		// Add the backpack with the highest capacity of all backpacks the hero is capable of wearing out of allPossessions.
-		this.addToAnchor(this.chooseBackpack(allPossessions), "Back");
+		this.addToAnchor(countLoot(this.chooseBackpack(allPossessions)), "Back");
 		// Add the purse with the highest capacity of all purses the hero is capable of wearing out of allPossessions.
-		this.addToAnchor(this.choosePurse(allPossessions), "Belt");
+		this.addToAnchor(countLoot(this.choosePurse(allPossessions)), "Belt");
+		this.getLootStrategy().fill(this, allPossessions);
+		terminateRemainingObjectsFromClass("Armor", allPossessions);
+		terminateRemainingObjectsFromClass("Weapon", allPossessions);
+	}
+	
+	/**
+	 * Fill the purse and the backpack of this hero the way heroes have always done it.
+	 * 
+	 * @param 	allPossessions
+	 * 			The hashmap that contains all the possessions that are not worn yet.
+	 * @effect	addToStorage, If there is a purse, as many ducats as possible will be added to the purse.
+	 * 			| if purse != null
+	 * 			| then	while (purse.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= purse.getMaximumCapacity(Unit.KG)):
+	 * 			|			purse.addToStorage(this.chooseDucat(allPossesions))
+	 * @effect	addToStorage, If there is a backpack, a armor will be added to the backpack if the hero and the backpack have enough capacity.
+	 * 			| if backpack != null
+	 * 			| then	if (backpack.getUsedCapacity(Unit.KG) + armor.getOwnWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG))
+	 * 			|		then	backpack.addToStorage(this.chooseArmor(allPossessions))
+	 * @effect	addToStorage, If there is a backpack, as many weapons as possible will be added to the backpack if the hero and the backpack have enough capacity.
+	 * 			| if backpack != null
+	 * 			| then	while (backpack.getUsedCapacity(Unit.KG) + weapon.getOwnWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG)):
+	 * 			|			backpack.addToStorage(this.chooseWeapon(allPossessions))
+	 * @effect	addToStorage, If there is a backpack, as many ducats as possible will be added to the backpack if the hero and the backpack have enough capacity.
+	 * 			| if backpack != null
+	 * 			| then	while (backpack.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG)):
+	 * 			|			backpack.addToStorage(this.chooseDucat(allPossessions))
+	 */
+	void fillGreedily(HashMap<String, ArrayList<Object>> allPossessions){
 		// Add as many ducats (with the highest value) as possible to the purse.
 		if (this.getAnchors().get("Belt") != null){
 			Object objectForPurse = this.chooseDucat(allPossessions);
@@ -477,7 +720,8 @@ public class Hero extends Creature {
 			while (objectForPurse != null){
 				Ducat ducat = (Ducat) objectForPurse;
 				if (purse.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= purse.getMaximumCapacity(Unit.KG)){
-					((Purse) this.getAnchors().get("Belt")).addToStorage(ducat);
+					this.takeOutOfBackpacks(ducat, allPossessions);
+					((Purse) this.getAnchors().get("Belt")).addToStorage(countLoot(ducat));
 					purse = (Purse) this.getAnchors().get("Belt");
 				}
 				objectForPurse = this.chooseDucat(allPossessions);
@@ -489,7 +733,7 @@ public class Hero extends Creature {
 			Object armorForBackpack = this.chooseArmor(allPossessions);
 			if (armorForBackpack != null){
 				((Armor) armorForBackpack).setHolder();
-				((Backpack) this.getAnchors().get("Back")).addToStorage(armorForBackpack);
+				((Backpack) this.getAnchors().get("Back")).addToStorage(countLoot(armorForBackpack));
 				backpack = (Backpack) this.getAnchors().get("Back");
 			}
 			// Add as many weapons (with the highest damage) as possible to the backpack.
@@ -498,7 +742,7 @@ public class Hero extends Creature {
 				((Weapon) weaponForBackpack).setHolder();
 				Weapon weapon = (Weapon) weaponForBackpack;
 				if (backpack.getUsedCapacity(Unit.KG) + weapon.getOwnWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG)){
-					((Backpack) this.getAnchors().get("Back")).addToStorage(weapon);
+					((Backpack) this.getAnchors().get("Back")).addToStorage(countLoot(weapon));
 					backpack = (Backpack) this.getAnchors().get("Back");
 				}
 				weaponForBackpack = this.chooseWeapon(allPossessions);
@@ -508,14 +752,13 @@ public class Hero extends Creature {
 			while (ducatForBackpack != null){
 				Ducat ducat = (Ducat) ducatForBackpack;
 				if (backpack.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG)){
-					((Backpack) this.getAnchors().get("Back")).addToStorage(ducat);
+					this.takeOutOfBackpacks(ducat, allPossessions);
+					((Backpack) this.getAnchors().get("Back")).addToStorage(countLoot(ducat));
 					backpack = (Backpack) this.getAnchors().get("Back");
 				}
 				ducatForBackpack = this.chooseDucat(allPossessions);
 			}
 		}
-		terminateRemainingObjectsFromClass("Armor", allPossessions);
-		terminateRemainingObjectsFromClass("Weapon", allPossessions);
 	}
 	
 	/**
@@ -546,13 +789,13 @@ public class Hero extends Creature {
 					Collections.sort(armorlist);
 					Armor armor = (Armor) armorlist.get(0);
 					while (!(this.getUsedCapacity(Unit.KG) + armor.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)) && (armorlist.size()>= 2)){
-						((Armor)(allPossessions.get("Armor")).get(0)).terminate();
-						allPossessions.get("Armor").remove(0);
+						armor.terminate();
+						allPossessions.get("Armor").remove(armor);
 						armorlist.remove(0);
 						armor = (Armor) armorlist.get(0);
 					}
 					if (this.getUsedCapacity(Unit.KG) + armor.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)){
-						allPossessions.get("Armor").remove(0);
+						allPossessions.get("Armor").remove(armor);
 						return armor;
 					}
 				}
@@ -589,13 +832,13 @@ public class Hero extends Creature {
 				while (!weaponlist.isEmpty()){
 					Weapon weapon = (Weapon) weaponlist.get(0);
 					while (!(this.getUsedCapacity(Unit.KG) + weapon.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)) && (weaponlist.size()>= 2)){
-						((Weapon)allPossessions.get("Weapon").get(0)).terminate();
-						allPossessions.get("Weapon").remove(0);
+						weapon.terminate();
+						allPossessions.get("Weapon").remove(weapon);
 						weaponlist.remove(0);
 						weapon = (Weapon) weaponlist.get(0);					
 					}
 					if (this.getUsedCapacity(Unit.KG) + weapon.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)){
-						allPossessions.get("Weapon").remove(0);
+						allPossessions.get("Weapon").remove(weapon);
 						weaponlist.remove(0);
 						return weapon;
 					}
@@ -635,12 +878,12 @@ public class Hero extends Creature {
 				while (!backpacklist.isEmpty()){
 					Backpack backpack = (Backpack) backpacklist.get(0);
 					while (!(this.getUsedCapacity(Unit.KG) + backpack.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)) && (backpacklist.size()>= 2)){
-						allPossessions.get("Backpack").remove(0);
+						allPossessions.get("Backpack").remove(backpack);
 						backpacklist.remove(0);
 						backpack = (Backpack) backpacklist.get(0);					
 					}
 					if (this.getUsedCapacity(Unit.KG) + backpack.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)){
-						allPossessions.get("Backpack").remove(0);
+						allPossessions.get("Backpack").remove(backpack);
 						backpacklist.remove(0);
 						backpack.emptyStorage();
 						return backpack;
@@ -681,12 +924,12 @@ public class Hero extends Creature {
 				while (!purselist.isEmpty()){
 					Purse purse = (Purse) purselist.get(0);
 					while (!(this.getUsedCapacity(Unit.KG) + purse.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)) && (purselist.size()>= 2)){
-						allPossessions.get("Purse").remove(0);
+						allPossessions.get("Purse").remove(purse);
 						purselist.remove(0);
 						purse = (Purse) purselist.get(0);					
 					}
 					if (this.getUsedCapacity(Unit.KG) + purse.getOwnWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)){
-						allPossessions.get("Purse").remove(0);
+						allPossessions.get("Purse").remove(purse);
 						purselist.remove(0);
 						purse.emptyStorage();
 						return purse;
@@ -725,12 +968,12 @@ public class Hero extends Creature {
 					Collections.sort(ducatlist);
 					Ducat ducat = (Ducat) ducatlist.get(0);
 					while (!(this.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)) && (ducatlist.size()>= 2)){
-						allPossessions.get("Ducat").remove(0);
+						allPossessions.get("Ducat").remove(ducat);
 						ducatlist.remove(0);
 						ducat = (Ducat) ducatlist.get(0);					
 					}
 					if (this.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= this.getMaximumCapacity(Unit.KG)){
-						allPossessions.get("Ducat").remove(0);
+						allPossessions.get("Ducat").remove(ducat);
 						ducatlist.remove(0);
 						return ducat;
 					}
@@ -0,0 +1,549 @@
+package heroes_and_monsters;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of loot strategies that fill the purse and the backpack of a hero with the loot
+ * of the highest total score that fits, instead of taking the best object of every kind
+ * first. The purse is filled first, with ducats, and then the backpack, with armors,
+ * weapons and ducats. Both are limited by their own capacity and by the capacity of the
+ * hero, and a hero never carries more than two armors.
+ *
+ * Both choices are 0/1 knapsack problems over weights in grams, rounded up, so whatever
+ * is chosen really fits. They are solved exactly with a table over all weights, divided
+ * by the greatest common divisor of the weights. When that table would have more cells
+ * than allowed, a branch and bound search is used instead; it stops when its time budget
+ * is spent and then takes the best loot it found, which is never worse than taking the
+ * objects with the highest score per gram first. Long rows of the table are computed in
+ * parallel.
+ *
+ * @invar	The score of each strategy is effective.
+ * 			| getScore() != null
+ * @invar	The time budget is not negative and the maximum number of cells is positive.
+ * 			| getTimeBudget() >= 0 && getMaximumCells() > 0
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class KnapsackLootStrategy implements LootStrategy {
+
+	/**
+	 * Initialize this new strategy with the value in ducats as score, a time budget of
+	 * 50 milliseconds and tables of at most 4194304 cells.
+	 *
+	 * @effect	| this(LootScore.VALUE, 50, 1 << 22)
+	 */
+	public KnapsackLootStrategy(){
+		this(LootScore.VALUE, 50, 1 << 22);
+	}
+
+	/**
+	 * Initialize this new strategy with the given score, time budget and maximum number
+	 * of cells.
+	 *
+	 * @param 	score
+	 * 			The score of the loot.
+	 * @param 	timeBudget
+	 * 			The number of milliseconds a search may take.
+	 * @param 	maximumCells
+	 * 			The largest number of cells of a table.
+	 * @post	| new.getScore() == score && new.getTimeBudget() == timeBudget &&
+	 * 			| new.getMaximumCells() == maximumCells
+	 * @throws	IllegalArgumentException
+	 * 			The score is not effective, the time budget is negative or the maximum
+	 * 			number of cells is not positive.
+	 * 			| score == null || timeBudget < 0 || maximumCells < 1
+	 */
+	public KnapsackLootStrategy(LootScore score, long timeBudget, int maximumCells)
+			throws IllegalArgumentException {
+		if (score == null){
+			throw new IllegalArgumentException("The score must be effective.");
+		}
+		if ((timeBudget < 0) || (maximumCells < 1)){
+			throw new IllegalArgumentException("These are not valid limits.");
+		}
+		this.score = score;
+		this.timeBudget = timeBudget;
+		this.maximumCells = maximumCells;
+	}
+
+	/**
+	 * Constant registering the smallest row of a table that is computed in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * Constant registering the number of cells one task computes on a parallel row.
+	 */
+	private static final int CHUNK_SIZE = 1 << 13;
+
+	/**
+	 * Variable referencing the score of this strategy.
+	 */
+	private final LootScore score;
+
+	/**
+	 * Variable registering the number of milliseconds a search may take.
+	 */
+	private final long timeBudget;
+
+	/**
+	 * Variable registering the largest number of cells of a table.
+	 */
+	private final int maximumCells;
+
+	/**
+	 * Variable registering the number of choices made with a table.
+	 */
+	private final AtomicLong tableSelections = new AtomicLong();
+
+	/**
+	 * Variable registering the number of choices made with a search.
+	 */
+	private final AtomicLong searchSelections = new AtomicLong();
+
+	/**
+	 * Variable registering the number of searches that ran out of time.
+	 */
+	private final AtomicLong expiredSearches = new AtomicLong();
+
+	/**
+	 * Return the score of this strategy.
+	 */
+	@Basic @Immutable
+	public LootScore getScore(){
+		return this.score;
+	}
+
+	/**
+	 * Return the number of milliseconds a search may take.
+	 */
+	@Basic @Immutable
+	public long getTimeBudget(){
+		return this.timeBudget;
+	}
+
+	/**
+	 * Return the largest number of cells of a table.
+	 */
+	@Basic @Immutable
+	public int getMaximumCells(){
+		return this.maximumCells;
+	}
+
+	/**
+	 * Return the number of choices this strategy made with a table.
+	 */
+	public long getNumberOfTableSelections(){
+		return this.tableSelections.get();
+	}
+
+	/**
+	 * Return the number of choices this strategy made with a search.
+	 */
+	public long getNumberOfSearchSelections(){
+		return this.searchSelections.get();
+	}
+
+	/**
+	 * Return the number of searches of this strategy that ran out of time.
+	 */
+	public long getNumberOfExpiredSearches(){
+		return this.expiredSearches.get();
+	}
+
+	/**
+	 * Fill the purse and the backpack of the given hero with the loot of the highest score.
+	 *
+	 * @param 	hero
+	 * 			The hero that takes the loot.
+	 * @param 	allPossessions
+	 * 			The possessions the loot is taken from.
+	 * @effect	The ducats of the highest total score that fit in the purse on the belt and
+	 * 			on the hero are added to that purse.
+	 * @effect	Out of what is left, the armors, weapons and ducats of the highest total score
+	 * 			that fit in the backpack on the back and on the hero are added to that
+	 * 			backpack, with at most as many armors as the hero can still carry.
+	 */
+	@Override
+	public void fill(Hero hero, HashMap<String, ArrayList<Object>> allPossessions){
+		Object belt = hero.getAnchorObject("Belt");
+		if (belt instanceof Purse){
+			Purse purse = (Purse) belt;
+			ArrayList<Object> items = new ArrayList<Object>(getPossessions(allPossessions, "Ducat"));
+			double room = Math.min(purse.getMaximumCapacity(Unit.KG) - purse.getUsedCapacity(Unit.KG),
+					hero.getMaximumCapacity(Unit.KG) - hero.getUsedCapacity(Unit.KG));
+			Set<Object> taken = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+			boolean[] chosen = select(items, room, 0);
+			for (int i = 0; i < items.size(); i++){
+				Ducat ducat = (Ducat) items.get(i);
+				if (chosen[i] && (purse.getUsedCapacity(Unit.KG) + ducat.getWeight(Unit.KG) <= purse.getMaximumCapacity(Unit.KG))
+						&& purse.canAddToStorage(ducat)){
+					hero.takeOutOfBackpacks(ducat, allPossessions);
+					purse.addToStorage(Creature.countLoot(ducat));
+					taken.add(ducat);
+				}
+			}
+			removeTaken(allPossessions, taken);
+		}
+		Object back = hero.getAnchorObject("Back");
+		if (back instanceof Backpack){
+			Backpack backpack = (Backpack) back;
+			int maximumArmors = Math.max(0, 2 - hero.getNumberOfArmors());
+			ArrayList<Object> items = new ArrayList<Object>();
+			if (maximumArmors > 0){
+				items.addAll(getPossessions(allPossessions, "Armor"));
+			}
+			items.addAll(getPossessions(allPossessions, "Weapon"));
+			items.addAll(getPossessions(allPossessions, "Ducat"));
+			double room = Math.min(backpack.getMaximumCapacity(Unit.KG) - backpack.getUsedCapacity(Unit.KG),
+					hero.getMaximumCapacity(Unit.KG) - hero.getUsedCapacity(Unit.KG));
+			Set<Object> taken = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+			boolean[] chosen = select(items, room, maximumArmors);
+			for (int i = 0; i < items.size(); i++){
+				Object object = items.get(i);
+				if (chosen[i] && backpack.canAddToStorage(object)){
+					if (object instanceof Ducat){
+						hero.takeOutOfBackpacks((Ducat) object, allPossessions);
+					}
+					backpack.addToStorage(Creature.countLoot(object));
+					taken.add(object);
+				}
+			}
+			removeTaken(allPossessions, taken);
+		}
+	}
+
+	/**
+	 * Return the possessions with the given class name, or an empty list if there are none.
+	 */
+	private static ArrayList<Object> getPossessions(HashMap<String, ArrayList<Object>> allPossessions, String className){
+		ArrayList<Object> possessions = allPossessions.get(className);
+		return (possessions == null) ? new ArrayList<Object>() : possessions;
+	}
+
+	/**
+	 * Remove the given objects that were taken from the given possessions.
+	 */
+	private static void removeTaken(HashMap<String, ArrayList<Object>> allPossessions, Set<Object> taken){
+		if (taken.isEmpty()){
+			return;
+		}
+		for (ArrayList<Object> possessions: allPossessions.values()){
+			ArrayList<Object> left = new ArrayList<Object>(possessions.size());
+			for (Object object: possessions){
+				if (!taken.contains(object)){
+					left.add(object);
+				}
+			}
+			possessions.clear();
+			possessions.addAll(left);
+		}
+	}
+
+	/**
+	 * Return which of the given objects to take, given the room that is left in kilograms
+	 * and the number of armors that may be taken.
+	 */
+	@Model
+	private boolean[] select(ArrayList<Object> items, double room, int maximumArmors){
+		int size = items.size();
+		long[] weights = new long[size];
+		long[] scores = new long[size];
+		boolean[] armors = new boolean[size];
+		for (int i = 0; i < size; i++){
+			Object object = items.get(i);
+			double weight = (object instanceof Ducat) ? ((Ducat) object).getWeight(Unit.KG)
+					: ((Ownable) object).getOwnWeight(Unit.KG);
+			weights[i] = (long) Math.ceil(weight * 1000 - 1e-6);
+			scores[i] = score.getScore(object);
+			armors[i] = (object instanceof Armor);
+		}
+		return select(weights, scores, armors, maximumArmors, (long) Math.floor(room * 1000 + 1e-6));
+	}
+
+	/**
+	 * Return which of the given items to take to get the highest total score without
+	 * exceeding the given capacity or taking more than the given number of armors.
+	 *
+	 * @param 	weights
+	 * 			The weights of the items in grams.
+	 * @param 	scores
+	 * 			The scores of the items; items without a positive score are never taken.
+	 * @param 	armors
+	 * 			Which of the items are armors.
+	 * @param 	maximumArmors
+	 * 			The largest number of armors that can be taken.
+	 * @param 	capacity
+	 * 			The largest total weight in grams that can be taken.
+	 * @return	For every item whether it is taken. The taken items weigh at most the
+	 * 			capacity and hold at most the given number of armors. If the choice is made
+	 * 			with a table or by a search that did not run out of time, no other choice
+	 * 			has a higher total score.
+	 * @throws	IllegalArgumentException
+	 * 			The arrays are not effective or don't have the same length, a weight is
+	 * 			negative or the number of armors is negative.
+	 */
+	public boolean[] select(long[] weights, long[] scores, boolean[] armors, int maximumArmors, long capacity)
+			throws IllegalArgumentException {
+		if ((weights == null) || (scores == null) || (armors == null) ||
+				(weights.length != scores.length) || (weights.length != armors.length) || (maximumArmors < 0)){
+			throw new IllegalArgumentException("These are not valid items.");
+		}
+		boolean[] chosen = new boolean[weights.length];
+		int[] candidates = new int[weights.length];
+		int count = 0;
+		long totalWeight = 0;
+		int totalArmors = 0;
+		long grain = 0;
+		for (int i = 0; i < weights.length; i++){
+			if (weights[i] < 0){
+				throw new IllegalArgumentException("A weight can't be negative.");
+			}
+			if ((scores[i] > 0) && (weights[i] <= capacity) && (!armors[i] || (maximumArmors > 0))){
+				candidates[count++] = i;
+				totalWeight += weights[i];
+				totalArmors += armors[i] ? 1 : 0;
+				grain = gcd(grain, weights[i]);
+			}
+		}
+		if ((count == 0) || ((totalWeight <= capacity) && (totalArmors <= maximumArmors))){
+			for (int c = 0; c < count; c++){
+				chosen[candidates[c]] = true;
+			}
+			return chosen;
+		}
+		grain = Math.max(grain, 1);
+		int layers = Math.min(maximumArmors, totalArmors) + 1;
+		long columns = Math.min(capacity, totalWeight) / grain + 1;
+		if (columns <= maximumCells / ((long) layers * count)){
+			selectByTable(weights, scores, armors, candidates, count, layers, (int) columns, grain, chosen);
+			tableSelections.incrementAndGet();
+		}
+		else {
+			selectBySearch(weights, scores, armors, candidates, count, maximumArmors, capacity, chosen);
+			searchSelections.incrementAndGet();
+		}
+		return chosen;
+	}
+
+	/**
+	 * Return the greatest common divisor of the given numbers.
+	 */
+	private static long gcd(long first, long second){
+		while (second != 0){
+			long rest = first % second;
+			first = second;
+			second = rest;
+		}
+		return first;
+	}
+
+	/**
+	 * Choose the given candidates with a table. Cell (layer, column) of a row holds the
+	 * highest score of the candidates so far with at most that many armors and at most
+	 * that many grains of weight.
+	 */
+	@Model
+	private static void selectByTable(long[] weights, final long[] scores, final boolean[] armors, final int[] candidates,
+			int count, int layers, final int columns, long grain, boolean[] chosen){
+		final int cells = layers * columns;
+		long[] previous = new long[cells];
+		long[] next = new long[cells];
+		boolean[][] taken = new boolean[count][];
+		for (int c = 0; c < count; c++){
+			final int item = candidates[c];
+			final int weight = (int) (weights[item] / grain);
+			final boolean[] take = new boolean[cells];
+			taken[c] = take;
+			if (cells < PARALLEL_THRESHOLD){
+				relax(previous, next, take, weight, scores[item], armors[item], columns, 0, cells);
+			}
+			else {
+				final long[] from = previous;
+				final long[] to = next;
+				int chunks = (cells + CHUNK_SIZE - 1) / CHUNK_SIZE;
+				IntStream.range(0, chunks).parallel().forEach(chunk -> {
+					int start = chunk * CHUNK_SIZE;
+					relax(from, to, take, weight, scores[item], armors[item], columns, start, Math.min(cells, start + CHUNK_SIZE));
+				});
+			}
+			long[] swap = previous;
+			previous = next;
+			next = swap;
+		}
+		int layer = layers - 1;
+		int column = columns - 1;
+		for (int c = count - 1; c >= 0; c--){
+			if (taken[c][layer * columns + column]){
+				int item = candidates[c];
+				chosen[item] = true;
+				column -= (int) (weights[item] / grain);
+				if (armors[item]){
+					layer--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compute the cells from the given start up to the given end of the next row of a
+	 * table, for an item with the given weight in grains, score and kind.
+	 */
+	private static void relax(long[] previous, long[] next, boolean[] take, int weight, long score, boolean armor,
+			int columns, int start, int end){
+		int offset = weight + (armor ? columns : 0);
+		int layer = start / columns;
+		int column = start % columns;
+		for (int cell = start; cell < end; cell++){
+			long best = previous[cell];
+			if ((column >= weight) && (!armor || (layer > 0))){
+				long with = previous[cell - offset] + score;
+				if (with > best){
+					best = with;
+					take[cell] = true;
+				}
+			}
+			next[cell] = best;
+			if (++column == columns){
+				column = 0;
+				layer++;
+			}
+		}
+	}
+
+	/**
+	 * Choose the given candidates with a depth first branch and bound search over the
+	 * candidates in order of score per gram. A branch is cut when even taking a part of
+	 * every candidate that is left, as if there were no limit on armors, can't beat the
+	 * best choice so far. The search starts from taking the candidates in that order as
+	 * long as they fit.
+	 */
+	@Model
+	private void selectBySearch(final long[] weights, final long[] scores, boolean[] armors, int[] candidates,
+			int count, int maximumArmors, long capacity, boolean[] chosen){
+		Integer[] sorted = new Integer[count];
+		for (int c = 0; c < count; c++){
+			sorted[c] = candidates[c];
+		}
+		Arrays.sort(sorted, new Comparator<Integer>(){
+			@Override
+			public int compare(Integer first, Integer second){
+				return Double.compare(getDensity(scores[second], weights[second]), getDensity(scores[first], weights[first]));
+			}
+		});
+		int[] order = new int[count];
+		long[] prefixWeights = new long[count + 1];
+		long[] prefixScores = new long[count + 1];
+		for (int k = 0; k < count; k++){
+			order[k] = sorted[k];
+			prefixWeights[k + 1] = prefixWeights[k] + weights[order[k]];
+			prefixScores[k + 1] = prefixScores[k] + scores[order[k]];
+		}
+		boolean[] best = new boolean[count];
+		long bestScore = 0;
+		long weight = 0;
+		int armorsTaken = 0;
+		for (int k = 0; k < count; k++){
+			int item = order[k];
+			if ((weight + weights[item] <= capacity) && (!armors[item] || (armorsTaken < maximumArmors))){
+				best[k] = true;
+				weight += weights[item];
+				bestScore += scores[item];
+				armorsTaken += armors[item] ? 1 : 0;
+			}
+		}
+		boolean[] current = new boolean[count];
+		byte[] stage = new byte[count + 1];
+		long deadline = System.nanoTime() + timeBudget * 1000000L;
+		long score = 0;
+		long steps = 0;
+		int depth = 0;
+		weight = 0;
+		armorsTaken = 0;
+		while (depth >= 0){
+			if (((++steps & 1023) == 0) && (System.nanoTime() - deadline > 0)){
+				expiredSearches.incrementAndGet();
+				break;
+			}
+			if (stage[depth] == 0){
+				if (score > bestScore){
+					bestScore = score;
+					System.arraycopy(current, 0, best, 0, count);
+				}
+				// Scores are whole numbers, so a bound within a half of the best can't beat it.
+				if ((depth == count) || (score + getBound(weights, scores, order, prefixWeights, prefixScores,
+						depth, capacity - weight) <= bestScore + 0.5)){
+					depth--;
+					continue;
+				}
+				stage[depth] = 1;
+				int item = order[depth];
+				if ((weight + weights[item] <= capacity) && (!armors[item] || (armorsTaken < maximumArmors))){
+					current[depth] = true;
+					weight += weights[item];
+					score += scores[item];
+					armorsTaken += armors[item] ? 1 : 0;
+					depth++;
+					continue;
+				}
+			}
+			if (stage[depth] == 1){
+				if (current[depth]){
+					int item = order[depth];
+					current[depth] = false;
+					weight -= weights[item];
+					score -= scores[item];
+					armorsTaken -= armors[item] ? 1 : 0;
+				}
+				stage[depth] = 2;
+				depth++;
+				continue;
+			}
+			stage[depth] = 0;
+			depth--;
+		}
+		for (int k = 0; k < count; k++){
+			if (best[k]){
+				chosen[order[k]] = true;
+			}
+		}
+	}
+
+	/**
+	 * Return the score per gram of an item with the given score and weight.
+	 */
+	private static double getDensity(long score, long weight){
+		return (weight == 0) ? Double.POSITIVE_INFINITY : (double) score / weight;
+	}
+
+	/**
+	 * Return the highest score the candidates from the given position on in the given
+	 * order can add to the given room, if parts of candidates may be taken.
+	 */
+	private static double getBound(long[] weights, long[] scores, int[] order, long[] prefixWeights,
+			long[] prefixScores, int from, long room){
+		long base = prefixWeights[from];
+		int low = from;
+		int high = order.length;
+		while (low < high){
+			int middle = (low + high + 1) >>> 1;
+			if (prefixWeights[middle] - base <= room){
+				low = middle;
+			}
+			else {
+				high = middle - 1;
+			}
+		}
+		double bound = prefixScores[low] - prefixScores[from];
+		if (low < order.length){
+			int item = order[low];
+			bound += (double) (room - (prefixWeights[low] - base)) * scores[item] / weights[item];
+		}
+		return bound;
+	}
+}
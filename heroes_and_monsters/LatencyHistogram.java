@@ -0,0 +1,156 @@
+package heroes_and_monsters;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of latency histograms, recording durations in nanoseconds. Like an
+ * HdrHistogram, the buckets are linear below 32 and logarithmic above, every power of
+ * two being split into 16 sub-buckets, so every recorded value is known up to 6.25%
+ * while the histogram has a fixed size for every long value. Recording only increments
+ * a few counters and never allocates, so it can be done from many threads at once.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Constant registering the number of sub-buckets every power of two is split into.
+	 */
+	private static final int SUB_BUCKETS = 16;
+
+	/**
+	 * Constant registering the values below which every value has its own bucket.
+	 */
+	private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+	/**
+	 * Constant registering the number of buckets.
+	 */
+	private static final int NUMBER_OF_BUCKETS = LINEAR_LIMIT + (63 - 5) * SUB_BUCKETS;
+
+	/**
+	 * Variable referencing the number of recorded values in every bucket.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+	/**
+	 * Variable referencing the sum of the recorded values.
+	 */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * Variable referencing the largest recorded value.
+	 */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record the given duration.
+	 *
+	 * @param 	nanos
+	 * 			The duration in nanoseconds. Negative durations are recorded as zero.
+	 * @post	The total count is increased by one.
+	 * 			| new.getTotalCount() == getTotalCount() + 1
+	 */
+	public void record(long nanos){
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(getBucket(value));
+		sum.add(value);
+		long largest = max.get();
+		while ((value > largest) && !max.compareAndSet(largest, value)){
+			largest = max.get();
+		}
+	}
+
+	/**
+	 * Return the bucket of the given value.
+	 *
+	 * @param 	value
+	 * 			A value that is not negative.
+	 */
+	private static int getBucket(long value){
+		if (value < LINEAR_LIMIT){
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) ((value >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+		return LINEAR_LIMIT + (exponent - 5) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Return the largest value that falls in the given bucket.
+	 *
+	 * @param 	bucket
+	 * 			The bucket.
+	 */
+	private static long getHighestValueIn(int bucket){
+		if (bucket < LINEAR_LIMIT){
+			return bucket;
+		}
+		int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 5;
+		long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+		return ((SUB_BUCKETS + subBucket + 1) << (exponent - 4)) - 1;
+	}
+
+	/**
+	 * Return the number of recorded values. The buckets are summed on every call, so
+	 * recording a value doesn't have to update a separate count.
+	 */
+	public long getTotalCount(){
+		long count = 0;
+		for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++){
+			count += counts.get(bucket);
+		}
+		return count;
+	}
+
+	/**
+	 * Return the largest recorded value, or zero if nothing is recorded.
+	 */
+	public long getMax(){
+		return max.get();
+	}
+
+	/**
+	 * Return the mean of the recorded values, or zero if nothing is recorded.
+	 */
+	public double getMean(){
+		long count = getTotalCount();
+		return (count == 0) ? 0 : ((double) sum.sum() / count);
+	}
+
+	/**
+	 * Return the value below which the given percentage of the recorded values lies.
+	 *
+	 * @param 	percentile
+	 * 			The percentage, between 0 and 100.
+	 * @return	The highest value of the bucket that holds the value at the given
+	 * 			percentile, but never more than the largest recorded value. Zero if
+	 * 			nothing is recorded.
+	 * @throws	IllegalArgumentException
+	 * 			The given percentile is not between 0 and 100.
+	 * 			| percentile < 0 || percentile > 100
+	 */
+	public long getValueAtPercentile(double percentile) throws IllegalArgumentException {
+		if (!(percentile >= 0) || (percentile > 100)){
+			throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+		}
+		long count = getTotalCount();
+		if (count == 0){
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++){
+			seen += counts.get(bucket);
+			if (seen >= rank){
+				return Math.min(getHighestValueIn(bucket), getMax());
+			}
+		}
+		return getMax();
+	}
+}
@@ -0,0 +1,133 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of loadouts, each one a choice of the weapons in the hands and the armor on
+ * the body of a hero, with the damage the hero is expected to do with it in one round
+ * against a monster.
+ *
+ * @invar	The hit probability is between 0 and 1 and the expected damage is not negative.
+ * 			| 0 <= getHitProbability() && getHitProbability() <= 1 && getExpectedDamage() >= 0
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class Loadout {
+
+	/**
+	 * Initialize this new loadout.
+	 *
+	 * @param 	leftHand
+	 * 			The weapon in the left hand, or null if there is none.
+	 * @param 	rightHand
+	 * 			The weapon in the right hand, or null if there is none.
+	 * @param 	body
+	 * 			The armor on the body, or null if there is none.
+	 * @param 	resultingDamage
+	 * 			The damage of an effective hit of the hero with this loadout.
+	 * @param 	hitProbability
+	 * 			The probability that a hit of the hero with this loadout is effective.
+	 * @param 	expectedDamage
+	 * 			The hitpoints the monster is expected to lose in one round.
+	 */
+	Loadout(Weapon leftHand, Weapon rightHand, Armor body, int resultingDamage, double hitProbability,
+			double expectedDamage){
+		this.leftHand = leftHand;
+		this.rightHand = rightHand;
+		this.body = body;
+		this.resultingDamage = resultingDamage;
+		this.hitProbability = hitProbability;
+		this.expectedDamage = expectedDamage;
+	}
+
+	/**
+	 * Variable referencing the weapon in the left hand.
+	 */
+	private final Weapon leftHand;
+
+	/**
+	 * Variable referencing the weapon in the right hand.
+	 */
+	private final Weapon rightHand;
+
+	/**
+	 * Variable referencing the armor on the body.
+	 */
+	private final Armor body;
+
+	/**
+	 * Variable registering the damage of an effective hit.
+	 */
+	private final int resultingDamage;
+
+	/**
+	 * Variable registering the probability that a hit is effective.
+	 */
+	private final double hitProbability;
+
+	/**
+	 * Variable registering the hitpoints the monster is expected to lose in one round.
+	 */
+	private final double expectedDamage;
+
+	/**
+	 * Return the weapon in the left hand, or null if there is none. (A hand that holds
+	 * something else than a weapon is left alone.)
+	 */
+	@Basic @Immutable
+	public Weapon getLeftHand(){
+		return this.leftHand;
+	}
+
+	/**
+	 * Return the weapon in the right hand, or null if there is none. (A hand that holds
+	 * something else than a weapon is left alone.)
+	 */
+	@Basic @Immutable
+	public Weapon getRightHand(){
+		return this.rightHand;
+	}
+
+	/**
+	 * Return the armor on the body, or null if there is none.
+	 */
+	@Basic @Immutable
+	public Armor getBody(){
+		return this.body;
+	}
+
+	/**
+	 * Return the damage of an effective hit of the hero with this loadout.
+	 */
+	@Basic @Immutable
+	public int getResultingDamage(){
+		return this.resultingDamage;
+	}
+
+	/**
+	 * Return the probability that a hit of the hero with this loadout is effective.
+	 */
+	@Basic @Immutable
+	public double getHitProbability(){
+		return this.hitProbability;
+	}
+
+	/**
+	 * Return the hitpoints the monster is expected to lose in one round: the hit
+	 * probability times the hitpoints an effective hit takes.
+	 */
+	@Basic @Immutable
+	public double getExpectedDamage(){
+		return this.expectedDamage;
+	}
+
+	/**
+	 * Return a textual representation of this loadout.
+	 */
+	@Override
+	public String toString(){
+		return "Loadout[left hand=" + this.leftHand + ", right hand=" + this.rightHand + ", body=" + this.body +
+				", expected damage=" + this.expectedDamage + "]";
+	}
+}
@@ -0,0 +1,673 @@
+package heroes_and_monsters;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Exceptions.CreatureIsDeadException;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of optimizers that choose the weapons in the hands and the armor on the body of
+ * a hero for a fight against a monster, out of everything the hero carries: what it wears
+ * now and the weapons and armors in its backpacks, however deep.
+ *
+ * The chosen loadout has the highest expected damage per round: the probability that a
+ * hit of the hero is effective times the hitpoints an effective hit takes from the
+ * monster, which depends on the hitpoints the monster has left. That probability only
+ * depends on the protection of the hero itself, so an armor with less protection makes
+ * the hero hit more often. The objects that are taken off go into the backpack on the
+ * back of the hero, so a loadout is only possible if that backpack can carry them once
+ * the objects taken out of it are gone. A hand that holds something else than a weapon is
+ * left alone. Of the loadouts with the same expected damage, the current one is kept.
+ *
+ * The expected damage grows with the damage of the weapons and with the hit probability,
+ * so the armors are tried from the lowest protection up and the pairs of weapons from the
+ * highest damage down. A search stops as soon as no loadout that is still to come can be
+ * better than the best one found, so it only looks at a few of the pairs of weapons.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class LoadoutOptimizer {
+
+	/**
+	 * Initialize this new loadout optimizer.
+	 *
+	 * @post	| new.getNumberOfEvaluations() == 0
+	 */
+	public LoadoutOptimizer(){
+	}
+
+	/**
+	 * Constant referencing the hands of a hero, in the order they are filled.
+	 */
+	private static final String[] HANDS = {"Left hand", "Right hand"};
+
+	/**
+	 * Variable registering the number of loadouts of which the searches checked whether
+	 * they are possible.
+	 */
+	private final AtomicLong evaluations = new AtomicLong();
+
+	/**
+	 * Return the number of loadouts of which the searches of this optimizer checked
+	 * whether they are possible.
+	 */
+	public long getNumberOfEvaluations(){
+		return this.evaluations.get();
+	}
+
+	/**
+	 * Return the loadout the given hero wears now, against the given monster.
+	 *
+	 * @param 	hero
+	 * 			The hero to look at.
+	 * @param 	monster
+	 * 			The monster the hero is going to fight.
+	 * @return	The weapons in the hands and the armor on the body of the hero, with the
+	 * 			damage per round it is expected to do against the monster.
+	 * @throws	IllegalArgumentException
+	 * 			The creatures can't fight a duel.
+	 * 			| Duel.checkOpponents(hero, monster) throws IllegalArgumentException
+	 * @throws	CreatureIsDeadException
+	 * 			The hero is dead.
+	 * 			| hero.getKilled()
+	 */
+	public Loadout getCurrentLoadout(Hero hero, Monster monster)
+			throws IllegalArgumentException, CreatureIsDeadException {
+		Duel.checkOpponents(hero, monster);
+		int[] locks = ContainmentLock.acquire(hero, monster);
+		try {
+			Search search = new Search(hero, monster);
+			return search.getLoadout(search.currentBody, search.currentHands);
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+
+	/**
+	 * Return the loadout with the highest expected damage per round the given hero can
+	 * wear against the given monster.
+	 *
+	 * @param 	hero
+	 * 			The hero to choose for.
+	 * @param 	monster
+	 * 			The monster the hero is going to fight.
+	 * @return	A possible loadout of the hero with the highest expected damage; the current
+	 * 			loadout if no other loadout does more damage.
+	 * 			| result.getExpectedDamage() >= getCurrentLoadout(hero, monster).getExpectedDamage()
+	 * @throws	IllegalArgumentException
+	 * 			The creatures can't fight a duel.
+	 * 			| Duel.checkOpponents(hero, monster) throws IllegalArgumentException
+	 * @throws	CreatureIsDeadException
+	 * 			The hero is dead.
+	 * 			| hero.getKilled()
+	 */
+	public Loadout findBest(Hero hero, Monster monster)
+			throws IllegalArgumentException, CreatureIsDeadException {
+		Duel.checkOpponents(hero, monster);
+		int[] locks = ContainmentLock.acquire(hero, monster);
+		try {
+			return new Search(hero, monster).run();
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+
+	/**
+	 * Let the given hero wear the loadout with the highest expected damage per round
+	 * against the given monster. The objects are moved at once: if one of them can't be
+	 * moved, every object is put back where it was.
+	 *
+	 * @param 	hero
+	 * 			The hero to equip.
+	 * @param 	monster
+	 * 			The monster the hero is going to fight.
+	 * @return	The loadout the hero wears afterwards.
+	 * @effect	The weapons and the armor of the best loadout are taken out of their
+	 * 			backpacks and put in the hands and on the body of the hero, and the weapons
+	 * 			and the armor that are taken off are put in the backpack on its back.
+	 * 			| findBest(hero, monster)
+	 * @throws	IllegalArgumentException
+	 * 			The creatures can't fight a duel.
+	 * 			| Duel.checkOpponents(hero, monster) throws IllegalArgumentException
+	 * @throws	CreatureIsDeadException
+	 * 			The hero is dead.
+	 * 			| hero.getKilled()
+	 */
+	public Loadout equipBest(Hero hero, Monster monster)
+			throws IllegalArgumentException, CreatureIsDeadException {
+		Duel.checkOpponents(hero, monster);
+		int[] locks = ContainmentLock.acquire(hero, monster);
+		try {
+			Search search = new Search(hero, monster);
+			Loadout best = search.run();
+			if (search.apply(best)){
+				return best;
+			}
+			return search.getLoadout(search.currentBody, search.currentHands);
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+
+	/**
+	 * A class of weapons and armors a hero can wear, with what the search needs to know
+	 * about them. A candidate without object stands for an empty hand or body.
+	 */
+	private static final class Candidate {
+
+		/**
+		 * Initialize this new candidate.
+		 *
+		 * @param 	object
+		 * 			The weapon or armor, or null for nothing.
+		 * @param 	score
+		 * 			The current damage of the weapon or the current protection of the armor.
+		 * @param 	relief
+		 * 			The weight the backpack on the back loses or doesn't have to take if
+		 * 			the object is worn.
+		 * @param 	anchor
+		 * 			The anchor the object is on now, or null if it is not on an anchor.
+		 */
+		Candidate(Ownable object, int score, double relief, String anchor){
+			this.object = object;
+			this.score = score;
+			this.relief = relief;
+			this.anchor = anchor;
+		}
+
+		/**
+		 * Variable referencing the weapon or armor.
+		 */
+		final Ownable object;
+
+		/**
+		 * Variable registering the damage or the protection.
+		 */
+		final int score;
+
+		/**
+		 * Variable registering the weight the backpack on the back doesn't have to carry.
+		 */
+		final double relief;
+
+		/**
+		 * Variable referencing the anchor the object is on now.
+		 */
+		final String anchor;
+	}
+
+	/**
+	 * A class of searches for the best loadout of one hero against one monster.
+	 */
+	private final class Search {
+
+		/**
+		 * Initialize this new search and collect the candidates.
+		 *
+		 * @param 	hero
+		 * 			The hero to choose for.
+		 * @param 	monster
+		 * 			The monster the hero is going to fight.
+		 * @throws	CreatureIsDeadException
+		 * 			The hero is dead.
+		 * 			| hero.getKilled()
+		 */
+		Search(Hero hero, Monster monster) throws CreatureIsDeadException {
+			if (hero.getKilled()){
+				throw hero.getDeadException();
+			}
+			this.hero = hero;
+			this.hitpoints = monster.getHitpoints();
+			Object back = hero.getAnchorObject("Back");
+			this.back = (back instanceof Backpack) ? (Backpack) back : null;
+			if (this.back != null){
+				this.room = this.back.getMaximumCapacity(Unit.KG) - this.back.getUsedCapacity(Unit.KG);
+			}
+			for (String hand: HANDS){
+				Object object = hero.getAnchorObject(hand);
+				if ((object == null) || (object instanceof Weapon)){
+					this.freeHands.add(hand);
+					Candidate candidate = (object == null) ? new Candidate(null, 0, 0, null) : this.addSlot(object, hand);
+					this.currentHands.add(candidate);
+				}
+			}
+			Object body = hero.getAnchorObject("Body");
+			this.currentBody = (body == null) ? new Candidate(null, 0, 0, null) : this.addSlot(body, "Body");
+			for (Object object: hero.getAnchors().values()){
+				if (object instanceof Backpack){
+					Backpack backpack = (Backpack) object;
+					for (Weapon weapon: backpack.getAllWeapons()){
+						this.weapons.add(new Candidate(weapon, weapon.getCurrentDamage(), this.getRelief(backpack, weapon), null));
+					}
+					for (Armor armor: backpack.getAllArmors()){
+						this.armors.add(new Candidate(armor, armor.getCurrentProtection(), this.getRelief(backpack, armor), null));
+					}
+				}
+			}
+			for (int i = 0; i < this.freeHands.size(); i++){
+				this.weapons.add(new Candidate(null, 0, 0, null));
+			}
+			this.armors.add(new Candidate(null, 0, 0, null));
+			Collections.sort(this.weapons, new Comparator<Candidate>(){
+				@Override
+				public int compare(Candidate first, Candidate second){
+					if (first.score != second.score){
+						return Integer.compare(second.score, first.score);
+					}
+					return compareTies(first, second);
+				}
+			});
+			Collections.sort(this.armors, new Comparator<Candidate>(){
+				@Override
+				public int compare(Candidate first, Candidate second){
+					if (first.score != second.score){
+						return Integer.compare(first.score, second.score);
+					}
+					return compareTies(first, second);
+				}
+			});
+		}
+
+		/**
+		 * Variable referencing the hero to choose for.
+		 */
+		private final Hero hero;
+
+		/**
+		 * Variable registering the hitpoints of the monster.
+		 */
+		private final int hitpoints;
+
+		/**
+		 * Variable referencing the backpack on the back of the hero, or null if there is none.
+		 */
+		private final Backpack back;
+
+		/**
+		 * Variable registering the weight the backpack on the back can still carry.
+		 */
+		private double room = 0;
+
+		/**
+		 * Variable referencing the hands that hold a weapon or nothing.
+		 */
+		private final ArrayList<String> freeHands = new ArrayList<String>();
+
+		/**
+		 * Variable referencing the candidates in the free hands now.
+		 */
+		private final ArrayList<Candidate> currentHands = new ArrayList<Candidate>();
+
+		/**
+		 * Variable referencing the candidate on the body now.
+		 */
+		private final Candidate currentBody;
+
+		/**
+		 * Variable registering the number of objects in the free hands and on the body.
+		 */
+		private int numberOfWorn = 0;
+
+		/**
+		 * Variable registering the weight of the objects in the free hands and on the body.
+		 */
+		private double wornWeight = 0;
+
+		/**
+		 * Variable referencing the weapons, with the highest damage first.
+		 */
+		private final ArrayList<Candidate> weapons = new ArrayList<Candidate>();
+
+		/**
+		 * Variable referencing the armors, with the lowest protection first.
+		 */
+		private final ArrayList<Candidate> armors = new ArrayList<Candidate>();
+
+		/**
+		 * Variable referencing the hitpoints an effective hit takes for each damage that
+		 * was looked at.
+		 */
+		private final HashMap<Integer, Integer> effectiveDamages = new HashMap<Integer, Integer>();
+
+		/**
+		 * Variable referencing the armor of the best loadout found.
+		 */
+		private Candidate bestBody;
+
+		/**
+		 * Variable referencing the weapons of the best loadout found.
+		 */
+		private ArrayList<Candidate> bestHands;
+
+		/**
+		 * Variable registering the expected damage of the best loadout found.
+		 */
+		private double bestValue;
+
+		/**
+		 * Variable registering the number of loadouts that were checked.
+		 */
+		private long numberOfEvaluations = 0;
+
+		/**
+		 * Add the given object on the given anchor to the candidates and return its candidate.
+		 */
+		private Candidate addSlot(Object object, String anchor){
+			Ownable ownable = (Ownable) object;
+			double weight = Storage.getWeightOf(ownable);
+			this.numberOfWorn++;
+			this.wornWeight = this.wornWeight + weight;
+			Candidate candidate;
+			if (ownable instanceof Weapon){
+				candidate = new Candidate(ownable, ((Weapon) ownable).getCurrentDamage(), weight, anchor);
+				this.weapons.add(candidate);
+			}
+			else {
+				candidate = new Candidate(ownable, ((Armor) ownable).getCurrentProtection(), weight, anchor);
+				this.armors.add(candidate);
+			}
+			return candidate;
+		}
+
+		/**
+		 * Return the weight the backpack on the back loses if the given object in the given
+		 * backpack on an anchor is worn.
+		 */
+		private double getRelief(Backpack backpack, Ownable ownable){
+			return (backpack == this.back) ? Storage.getWeightOf(ownable) : 0;
+		}
+
+		/**
+		 * Compare two candidates with the same score: the ones that are worn now come
+		 * first, then the ones that free the most weight in the backpack on the back.
+		 */
+		private int compareTies(Candidate first, Candidate second){
+			if ((first.anchor == null) != (second.anchor == null)){
+				return (first.anchor != null) ? -1 : 1;
+			}
+			return Double.compare(second.relief, first.relief);
+		}
+
+		/**
+		 * Return the hitpoints an effective hit with the given damage takes from the monster.
+		 */
+		private int getEffectiveDamage(int damage){
+			Integer result = this.effectiveDamages.get(damage);
+			if (result == null){
+				result = this.hitpoints - this.hero.getHitpointsAfterHit(this.hitpoints, damage);
+				this.effectiveDamages.put(damage, result);
+			}
+			return result;
+		}
+
+		/**
+		 * Return the probability that a hit of the hero with the armor of the given
+		 * candidate on its body is effective.
+		 */
+		private double getHitProbability(Candidate body){
+			return Creature.getHitProbability(this.hero.getProtectionWith((Armor) body.object));
+		}
+
+		/**
+		 * Return the expected damage per round with the given hit probability and the
+		 * given sum of the damage of the weapons.
+		 */
+		private double getValue(double probability, int damage){
+			return probability * this.getEffectiveDamage(this.hero.getResultingDamage(damage));
+		}
+
+		/**
+		 * Check whether the hero can wear the given candidates: true if every object that
+		 * is worn now is still worn, or if the backpack on the back can carry the objects
+		 * that are taken off once the chosen objects are out of it.
+		 */
+		private boolean isPossible(Candidate body, Candidate first, Candidate second){
+			this.numberOfEvaluations++;
+			int kept = 0;
+			double relief = 0;
+			Candidate[] chosen = {body, first, second};
+			for (Candidate candidate: chosen){
+				if (candidate != null){
+					relief = relief + candidate.relief;
+					if (candidate.anchor != null){
+						kept++;
+					}
+				}
+			}
+			if (kept == this.numberOfWorn){
+				return true;
+			}
+			return (this.back != null) && (this.wornWeight - relief <= this.room);
+		}
+
+		/**
+		 * Remember the given candidates as the best loadout found.
+		 */
+		private void setBest(double value, Candidate body, Candidate first, Candidate second){
+			this.bestValue = value;
+			this.bestBody = body;
+			this.bestHands = new ArrayList<Candidate>();
+			if (first != null){
+				this.bestHands.add(first);
+			}
+			if (second != null){
+				this.bestHands.add(second);
+			}
+		}
+
+		/**
+		 * Search the best loadout.
+		 *
+		 * @return	The best loadout found, which is the current one if no other loadout
+		 * 			does more damage.
+		 */
+		Loadout run(){
+			int currentDamage = 0;
+			for (Candidate candidate: this.currentHands){
+				currentDamage = currentDamage + candidate.score;
+			}
+			this.bestValue = this.getValue(this.getHitProbability(this.currentBody), currentDamage);
+			this.bestBody = this.currentBody;
+			this.bestHands = this.currentHands;
+			int hands = this.freeHands.size();
+			int topDamage = 0;
+			for (int i = 0; i < hands; i++){
+				topDamage = topDamage + this.weapons.get(i).score;
+			}
+			for (Candidate body: this.armors){
+				double probability = this.getHitProbability(body);
+				if (this.getValue(probability, topDamage) <= this.bestValue){
+					break;
+				}
+				if (hands == 0){
+					if (this.isPossible(body, null, null)){
+						this.setBest(this.getValue(probability, 0), body, null, null);
+					}
+				}
+				else if (hands == 1){
+					this.searchOne(body, probability);
+				}
+				else {
+					this.searchTwo(body, probability);
+				}
+			}
+			LoadoutOptimizer.this.evaluations.addAndGet(this.numberOfEvaluations);
+			return this.getLoadout(this.bestBody, this.bestHands);
+		}
+
+		/**
+		 * Search the best weapon for one free hand with the given armor.
+		 */
+		private void searchOne(Candidate body, double probability){
+			for (Candidate weapon: this.weapons){
+				double value = this.getValue(probability, weapon.score);
+				if (value <= this.bestValue){
+					return;
+				}
+				if (this.isPossible(body, weapon, null)){
+					this.setBest(value, body, weapon, null);
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Search the best pair of weapons for two free hands with the given armor.
+		 */
+		private void searchTwo(Candidate body, double probability){
+			int size = this.weapons.size();
+			for (int i = 0; i < size - 1; i++){
+				Candidate first = this.weapons.get(i);
+				if (this.getValue(probability, first.score + this.weapons.get(i + 1).score) <= this.bestValue){
+					return;
+				}
+				for (int j = i + 1; j < size; j++){
+					Candidate second = this.weapons.get(j);
+					double value = this.getValue(probability, first.score + second.score);
+					if (value <= this.bestValue){
+						break;
+					}
+					if (this.isPossible(body, first, second)){
+						this.setBest(value, body, first, second);
+						break;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Return the loadout with the given armor and weapons. A weapon that is in a free
+		 * hand now stays in that hand; the other weapons go in the remaining free hands.
+		 */
+		Loadout getLoadout(Candidate body, ArrayList<Candidate> hands){
+			HashMap<String, Weapon> assigned = new HashMap<String, Weapon>();
+			ArrayList<Weapon> others = new ArrayList<Weapon>();
+			int damage = 0;
+			for (Candidate candidate: hands){
+				damage = damage + candidate.score;
+				if (candidate.anchor != null){
+					assigned.put(candidate.anchor, (Weapon) candidate.object);
+				}
+				else if (candidate.object != null){
+					others.add((Weapon) candidate.object);
+				}
+			}
+			for (String hand: this.freeHands){
+				if (!assigned.containsKey(hand) && !others.isEmpty()){
+					assigned.put(hand, others.remove(0));
+				}
+			}
+			double probability = this.getHitProbability(body);
+			int resultingDamage = this.hero.getResultingDamage(damage);
+			return new Loadout(assigned.get("Left hand"), assigned.get("Right hand"), (Armor) body.object,
+					resultingDamage, probability, probability * this.getEffectiveDamage(resultingDamage));
+		}
+
+		/**
+		 * Let the hero wear the given loadout, moving all the objects at once.
+		 *
+		 * @param	loadout
+		 * 			The loadout to wear, found by this search.
+		 * @return	True if the hero wears the given loadout; false if an object couldn't
+		 * 			be moved, in which case every object was put back where it was.
+		 */
+		boolean apply(Loadout loadout){
+			LinkedHashMap<String, Object> targets = new LinkedHashMap<String, Object>();
+			for (String hand: this.freeHands){
+				targets.put(hand, "Left hand".equals(hand) ? loadout.getLeftHand() : loadout.getRightHand());
+			}
+			targets.put("Body", loadout.getBody());
+			IdentityHashMap<Object, Object> origins = new IdentityHashMap<Object, Object>();
+			ArrayList<Object> takenOff = new ArrayList<Object>();
+			for (Map.Entry<String, Object> entry: targets.entrySet()){
+				Object current = this.hero.getAnchorObject(entry.getKey());
+				if ((current != null) && (current != entry.getValue())){
+					origins.put(current, entry.getKey());
+					if (!targets.containsValue(current)){
+						takenOff.add(current);
+					}
+				}
+			}
+			for (Object target: targets.values()){
+				if ((target != null) && !origins.containsKey(target) && (((Ownable) target).getHolder() != this.hero)){
+					origins.put(target, ((Ownable) target).getHolder());
+				}
+			}
+			if (origins.isEmpty()){
+				return true;
+			}
+			if (!this.move(targets, origins, takenOff)){
+				this.restore(origins);
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Take the objects with the given origins off and out of their backpacks, put the
+		 * given objects that are taken off in the backpack on the back and put the targets
+		 * on their anchors.
+		 *
+		 * @return	False if one of the objects couldn't be moved.
+		 */
+		private boolean move(Map<String, Object> targets, Map<Object, Object> origins, List<Object> takenOff){
+			for (Map.Entry<Object, Object> entry: origins.entrySet()){
+				if (entry.getValue() instanceof Backpack){
+					Backpack backpack = (Backpack) entry.getValue();
+					if (!backpack.canTakeOutOfStorage(entry.getKey())){
+						return false;
+					}
+					backpack.takeOutOfStorage(entry.getKey());
+				}
+				else {
+					String anchor = (String) entry.getValue();
+					if (!this.hero.canEmptyAnchor(anchor)){
+						return false;
+					}
+					this.hero.emptyAnchor(anchor);
+				}
+			}
+			for (Object object: takenOff){
+				if ((this.back == null) || (this.back.getAdmission(object) != AdmissionResult.ADMITTED)){
+					return false;
+				}
+				this.back.storeAdmitted(object);
+			}
+			for (Map.Entry<String, Object> entry: targets.entrySet()){
+				Object target = entry.getValue();
+				if ((target != null) && origins.containsKey(target)){
+					if (this.hero.getAdmission(target, entry.getKey()) != AdmissionResult.ADMITTED){
+						return false;
+					}
+					this.hero.attachAdmitted(target, entry.getKey());
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Put every object with the given origins back where it was.
+		 */
+		private void restore(Map<Object, Object> origins){
+			for (Object object: origins.keySet()){
+				Object holder = ((Ownable) object).getHolder();
+				if (holder instanceof Backpack){
+					((Backpack) holder).takeOutOfStorage(object);
+				}
+				else if (holder == this.hero){
+					this.hero.dropFromAnchor(object);
+				}
+			}
+			for (Map.Entry<Object, Object> entry: origins.entrySet()){
+				if (entry.getValue() instanceof Backpack){
+					((Backpack) entry.getValue()).storeAdmitted(entry.getKey());
+				}
+				else {
+					this.hero.attachAdmitted(entry.getKey(), (String) entry.getValue());
+				}
+			}
+		}
+	}
+}
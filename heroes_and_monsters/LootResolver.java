@@ -0,0 +1,349 @@
+package heroes_and_monsters;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of loot resolvers, resolving the deathblows of the creatures of a world on a
+ * bounded pool of background threads. When a world has a loot resolver, the hit that
+ * kills a creature only marks it as dead and hands the deathblow of the winner to the
+ * resolver, so the killing hit costs about as much as any other hit.
+ *
+ * While a deathblow is pending, both the winner and the victim carry a fence. Every
+ * operation that acquires the containment lock of one of them first waits until that
+ * fence is lifted, so later operations on the inventory of either party always see the
+ * committed loot. When the queue of the resolver is full, or when the resolver is
+ * closed, the deathblow is resolved on the thread of the killing hit itself. A deathblow
+ * that fails still lifts its fences; the resolver counts it and keeps the first failure.
+ *
+ * @invar	The number of threads and the capacity of each resolver are positive.
+ * 			| getNumberOfThreads() > 0 && getCapacity() > 0
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class LootResolver {
+
+	/**
+	 * Initialize this new resolver and start its threads.
+	 *
+	 * @param 	threads
+	 * 			The number of threads that resolve deathblows.
+	 * @param 	capacity
+	 * 			The number of deathblows that can wait for a thread.
+	 * @post	The number of threads of this new resolver is the given number of threads.
+	 * 			| new.getNumberOfThreads() == threads
+	 * @post	The capacity of this new resolver is the given capacity.
+	 * 			| new.getCapacity() == capacity
+	 * @throws	IllegalArgumentException
+	 * 			The number of threads or the capacity is not positive.
+	 * 			| threads < 1 || capacity < 1
+	 */
+	public LootResolver(int threads, int capacity) throws IllegalArgumentException {
+		if (threads < 1){
+			throw new IllegalArgumentException("A resolver needs at least one thread.");
+		}
+		if (capacity < 1){
+			throw new IllegalArgumentException("The capacity must be positive.");
+		}
+		this.capacity = capacity;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(capacity), new ThreadFactory(){
+					private final AtomicInteger number = new AtomicInteger();
+					@Override
+					public Thread newThread(Runnable runnable){
+						Thread thread = new Thread(runnable, "loot-resolver-" + number.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new RejectedExecutionHandler(){
+					@Override
+					public void rejectedExecution(Runnable job, ThreadPoolExecutor executor){
+						// A full queue or a closed resolver resolves on the killing thread.
+						job.run();
+					}
+				});
+	}
+
+	/**
+	 * Initialize this new resolver with one thread and room for 256 waiting deathblows.
+	 *
+	 * @effect	| this(1, 256)
+	 */
+	public LootResolver(){
+		this(1, 256);
+	}
+
+	/**
+	 * Variable referencing the threads and the queue of this resolver.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Variable registering the number of deathblows that can wait for a thread.
+	 */
+	private final int capacity;
+
+	/**
+	 * Variable registering the number of deathblows handed to this resolver.
+	 */
+	private final AtomicLong submitted = new AtomicLong();
+
+	/**
+	 * Variable registering the number of deathblows this resolver has resolved.
+	 */
+	private final AtomicLong resolved = new AtomicLong();
+
+	/**
+	 * Variable registering the number of deathblows of this resolver that failed.
+	 */
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * Variable referencing the first exception a deathblow of this resolver threw.
+	 */
+	private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<RuntimeException>();
+
+	/**
+	 * Variable referencing the lock guarding the condition drained.
+	 */
+	private final ReentrantLock drainLock = new ReentrantLock();
+
+	/**
+	 * Variable referencing the condition that is signalled when no deathblow of this
+	 * resolver is pending any more.
+	 */
+	private final Condition drained = drainLock.newCondition();
+
+	/**
+	 * Variable registering the number of fences that are not lifted yet, over all resolvers.
+	 */
+	private static final AtomicInteger pendingFences = new AtomicInteger();
+
+	/**
+	 * Variable registering whether the current thread is resolving a deathblow.
+	 */
+	private static final ThreadLocal<Boolean> resolving = new ThreadLocal<Boolean>();
+
+	/**
+	 * Return the number of threads that resolve deathblows.
+	 */
+	@Basic @Immutable
+	public int getNumberOfThreads(){
+		return this.executor.getCorePoolSize();
+	}
+
+	/**
+	 * Return the number of deathblows that can wait for a thread.
+	 */
+	@Basic @Immutable
+	public int getCapacity(){
+		return this.capacity;
+	}
+
+	/**
+	 * Return the number of deathblows that were handed to this resolver.
+	 */
+	public long getNumberOfSubmitted(){
+		return this.submitted.get();
+	}
+
+	/**
+	 * Return the number of deathblows this resolver has resolved, including the ones
+	 * that failed.
+	 */
+	public long getNumberOfResolved(){
+		return this.resolved.get();
+	}
+
+	/**
+	 * Return the number of deathblows of this resolver that threw an exception. These
+	 * deathblows are counted as resolved as well.
+	 */
+	public long getNumberOfFailed(){
+		return this.failed.get();
+	}
+
+	/**
+	 * Return the first exception a deathblow of this resolver threw, or null if none
+	 * failed.
+	 */
+	public RuntimeException getFirstFailure(){
+		return this.firstFailure.get();
+	}
+
+	/**
+	 * Return the number of deathblows that were handed to this resolver but are not
+	 * resolved yet.
+	 *
+	 * @return	| result == getNumberOfSubmitted() - getNumberOfResolved()
+	 */
+	public long getNumberOfPending(){
+		return getNumberOfSubmitted() - getNumberOfResolved();
+	}
+
+	/**
+	 * Return whether this resolver is closed.
+	 */
+	public boolean isClosed(){
+		return this.executor.isShutdown();
+	}
+
+	/**
+	 * Kill the given victim and hand the deathblow of the given winner to this resolver.
+	 *
+	 * @param 	winner
+	 * 			The creature that dealt the killing hit.
+	 * @param 	victim
+	 * 			The creature that was killed.
+	 * @effect	The victim is killed.
+	 * 			| victim.kill()
+	 * @post	Both creatures carry a fence until the deathblow of the winner is resolved.
+	 * @note	The caller must hold the containment lock of both creatures.
+	 */
+	void submit(final Creature winner, final Creature victim){
+		final CountDownLatch fence = new CountDownLatch(1);
+		pendingFences.incrementAndGet();
+		winner.setLootFence(fence);
+		victim.setLootFence(fence);
+		submitted.incrementAndGet();
+		victim.kill();
+		executor.execute(new Runnable(){
+			@Override
+			public void run(){
+				resolve(winner, victim, fence);
+			}
+		});
+	}
+
+	/**
+	 * Resolve the deathblow of the given winner on the given victim and lift the given fence.
+	 *
+	 * @param 	winner
+	 * 			The creature that dealt the killing hit.
+	 * @param 	victim
+	 * 			The creature that was killed.
+	 * @param 	fence
+	 * 			The fence both creatures carry.
+	 */
+	@Model
+	private void resolve(Creature winner, Creature victim, CountDownLatch fence){
+		Boolean outer = resolving.get();
+		resolving.set(Boolean.TRUE);
+		int[] locks = ContainmentLock.acquire(winner, victim);
+		try {
+			winner.deathblow(victim);
+		} catch (RuntimeException e) {
+			// A failing deathblow must not keep the fences up or stop the resolver.
+			failed.incrementAndGet();
+			firstFailure.compareAndSet(null, e);
+		} finally {
+			ContainmentLock.release(locks);
+			if (outer == null){
+				resolving.remove();
+			}
+			winner.clearLootFence(fence);
+			victim.clearLootFence(fence);
+			resolved.incrementAndGet();
+			pendingFences.decrementAndGet();
+			fence.countDown();
+			if (getNumberOfPending() == 0){
+				signalDrained();
+			}
+		}
+	}
+
+	/**
+	 * Wake up every thread waiting in drain().
+	 */
+	private void signalDrained(){
+		drainLock.lock();
+		try {
+			drained.signalAll();
+		} finally {
+			drainLock.unlock();
+		}
+	}
+
+	/**
+	 * Return whether the current thread is resolving a deathblow.
+	 */
+	static boolean isResolving(){
+		return (resolving.get() != null);
+	}
+
+	/**
+	 * Wait until the deathblows of every creature involved in an operation on the given
+	 * objects are resolved.
+	 *
+	 * @param 	first
+	 * 			The first object of the operation.
+	 * @param 	second
+	 * 			The second object of the operation, possibly null.
+	 * @note	Nothing is waited for on a thread that is resolving a deathblow itself, so
+	 * 			the inventory operations of the deathblow don't wait for their own fence.
+	 */
+	static void awaitFences(Object first, Object second){
+		if ((pendingFences.get() == 0) || (resolving.get() != null)){
+			return;
+		}
+		awaitFence(ContainmentLock.getRoot(first));
+		awaitFence(ContainmentLock.getRoot(second));
+	}
+
+	/**
+	 * Wait until the fence of the given root is lifted, if it is a creature.
+	 *
+	 * @param 	root
+	 * 			The root of a containment tree.
+	 */
+	private static void awaitFence(Object root){
+		if (root instanceof Creature){
+			((Creature) root).awaitLoot();
+		}
+	}
+
+	/**
+	 * Wait until every deathblow handed to this resolver is resolved.
+	 *
+	 * @note	A deathblow that failed counts as resolved; see getNumberOfFailed().
+	 */
+	public void drain() throws InterruptedException {
+		if (getNumberOfPending() == 0){
+			return;
+		}
+		drainLock.lock();
+		try {
+			while (getNumberOfPending() > 0){
+				drained.await();
+			}
+		} finally {
+			drainLock.unlock();
+		}
+	}
+
+	/**
+	 * Close this resolver: the deathblows that were handed to it are still resolved, the
+	 * deathblows handed to it afterwards are resolved on the killing thread and its
+	 * threads stop.
+	 *
+	 * @post	This resolver is closed.
+	 * 			| new.isClosed()
+	 */
+	public void close() throws InterruptedException {
+		this.executor.shutdown();
+		while (!this.executor.awaitTermination(1, TimeUnit.SECONDS)){
+		}
+	}
+}
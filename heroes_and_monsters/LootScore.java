@@ -0,0 +1,36 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for the scores a knapsack loot strategy gives to the weapons, armors and
+ * ducats it can take. The strategy takes the loot with the highest total score.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface LootScore {
+
+	/**
+	 * Return the score of the given object. Objects with a score that is not positive
+	 * are never taken.
+	 *
+	 * @param 	object
+	 * 			A weapon, an armor or an amount of ducats.
+	 */
+	long getScore(Object object);
+
+	/**
+	 * The score that is the value of the object in ducats.
+	 */
+	LootScore VALUE = new LootScore(){
+		@Override
+		public long getScore(Object object){
+			if (object instanceof Ducat){
+				return ((Ducat) object).getValue();
+			}
+			if (object instanceof Ownable){
+				return ((Ownable) object).getValue().getValue();
+			}
+			return 0;
+		}
+	};
+}
@@ -0,0 +1,39 @@
+package heroes_and_monsters;
+
+import java.util.*;
+
+/**
+ * An interface for the ways a hero fills its purse and backpack with the possessions of
+ * a monster it killed, after it has chosen what to wear.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface LootStrategy {
+
+	/**
+	 * Fill the purse on the belt and the backpack on the back of the given hero, if it
+	 * has them, with objects out of the given possessions. Every object that is taken is
+	 * removed from the possessions; the weapons and armors that are left are terminated
+	 * afterwards.
+	 *
+	 * @param 	hero
+	 * 			The hero that takes the loot.
+	 * @param 	allPossessions
+	 * 			The possessions of the hero and the monster it killed that are not worn yet,
+	 * 			with the simple name of their class as key.
+	 */
+	void fill(Hero hero, HashMap<String, ArrayList<Object>> allPossessions);
+
+	/**
+	 * The strategy heroes have always used: as many ducats as possible in the purse, then
+	 * the armor with the highest protection, the weapons with the highest damage and the
+	 * ducats with the highest value in the backpack, as long as they fit.
+	 */
+	LootStrategy GREEDY = new LootStrategy(){
+		@Override
+		public void fill(Hero hero, HashMap<String, ArrayList<Object>> allPossessions){
+			hero.fillGreedily(allPossessions);
+		}
+	};
+}
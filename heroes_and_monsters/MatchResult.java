@@ -0,0 +1,142 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of results of the matches of a tournament.
+ *
+ * @invar	The winner is one of the entrants of the match, or there is no winner.
+ * 			| getWinner() == null || getWinner() == getFirst() || getWinner() == getSecond()
+ * @invar	A match that timed out has no winner.
+ * 			| !isTimedOut() || getWinner() == null
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public final class MatchResult {
+
+	/**
+	 * Initialize this new result.
+	 *
+	 * @param 	round
+	 * 			The round of the tournament in which the match was played.
+	 * @param 	first
+	 * 			The first entrant of the match.
+	 * @param 	second
+	 * 			The second entrant of the match.
+	 * @param 	winner
+	 * 			The entrant that won the match, or null for a draw.
+	 * @param 	numberOfHits
+	 * 			The number of hits, effective or not, in the match.
+	 * @param 	timedOut
+	 * 			Whether the match was stopped because it took too long.
+	 */
+	MatchResult(int round, TournamentEntrant first, TournamentEntrant second, TournamentEntrant winner,
+			long numberOfHits, boolean timedOut){
+		this.round = round;
+		this.first = first;
+		this.second = second;
+		this.winner = winner;
+		this.numberOfHits = numberOfHits;
+		this.timedOut = timedOut;
+	}
+
+	/**
+	 * Variable registering the round of the match.
+	 */
+	private final int round;
+
+	/**
+	 * Variable referencing the first entrant.
+	 */
+	private final TournamentEntrant first;
+
+	/**
+	 * Variable referencing the second entrant.
+	 */
+	private final TournamentEntrant second;
+
+	/**
+	 * Variable referencing the winner, or null for a draw.
+	 */
+	private final TournamentEntrant winner;
+
+	/**
+	 * Variable registering the number of hits in the match.
+	 */
+	private final long numberOfHits;
+
+	/**
+	 * Variable registering whether the match timed out.
+	 */
+	private final boolean timedOut;
+
+	/**
+	 * Return the round of the tournament in which the match was played, starting at 1.
+	 * All matches of a round robin are played in round 1.
+	 */
+	@Basic @Immutable
+	public int getRound(){
+		return this.round;
+	}
+
+	/**
+	 * Return the first entrant of the match.
+	 */
+	@Basic @Immutable
+	public TournamentEntrant getFirst(){
+		return this.first;
+	}
+
+	/**
+	 * Return the second entrant of the match.
+	 */
+	@Basic @Immutable
+	public TournamentEntrant getSecond(){
+		return this.second;
+	}
+
+	/**
+	 * Return the entrant that won the match, or null if it was a draw.
+	 */
+	@Basic @Immutable
+	public TournamentEntrant getWinner(){
+		return this.winner;
+	}
+
+	/**
+	 * Return the number of hits, effective or not, in the match.
+	 */
+	@Basic @Immutable
+	public long getNumberOfHits(){
+		return this.numberOfHits;
+	}
+
+	/**
+	 * Return whether the match was stopped because it took too long.
+	 */
+	@Basic @Immutable
+	public boolean isTimedOut(){
+		return this.timedOut;
+	}
+
+	/**
+	 * Return whether the match was a draw.
+	 *
+	 * @return	| result == (getWinner() == null)
+	 */
+	public boolean isDraw(){
+		return this.winner == null;
+	}
+
+	/**
+	 * Return a textual representation of this result.
+	 */
+	@Override
+	public String toString(){
+		String outcome = (this.winner == null) ? (this.timedOut ? "timed out" : "draw") : this.winner.getName() + " wins";
+		return "Round " + this.round + ": " + this.first.getName() + " - " + this.second.getName() + ", " + outcome +
+				" after " + this.numberOfHits + " hits";
+	}
+}
@@ -0,0 +1,51 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of the events that are counted when metrics are enabled.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public enum MetricCounter {
+
+	/**
+	 * A creature tries to hit another creature.
+	 */
+	HITS,
+
+	/**
+	 * A hit of a creature is effective.
+	 */
+	EFFECTIVE_HITS,
+
+	/**
+	 * A creature is killed.
+	 */
+	KILLS,
+
+	/**
+	 * A creature gets the benefits of killing another creature.
+	 */
+	DEATHBLOWS,
+
+	/**
+	 * An object is put in an anchor or a storage by a creature that takes the
+	 * possessions of a creature it killed.
+	 */
+	LOOT_MOVED,
+
+	/**
+	 * A weapon or armor is terminated.
+	 */
+	TERMINATIONS;
+
+	/**
+	 * Return the name of this counter as it is shown in a dump.
+	 */
+	public String getName(){
+		return name().toLowerCase();
+	}
+}
@@ -0,0 +1,46 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of the operations whose latency is recorded when metrics are enabled.
+ * Only a sample of the operations is timed, see Metrics.getSamplePeriod().
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public enum MetricTimer {
+
+	/**
+	 * Creature.hit, including the deathblow.
+	 */
+	HIT,
+
+	/**
+	 * Hero.addTreasure, taking the possessions of a killed monster.
+	 */
+	ADD_TREASURE,
+
+	/**
+	 * Monster.collectTreasures, taking the possessions of a killed creature.
+	 */
+	COLLECT_TREASURES,
+
+	/**
+	 * Backpack.canAddToStorage.
+	 */
+	CAN_ADD_TO_STORAGE,
+
+	/**
+	 * Finding and registering the identification of a new ownable.
+	 */
+	ID_ALLOCATION;
+
+	/**
+	 * Return the name of this timer as it is shown in a dump.
+	 */
+	public String getName(){
+		return name().toLowerCase();
+	}
+}
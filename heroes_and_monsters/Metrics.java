@@ -0,0 +1,332 @@
+package heroes_and_monsters;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A class of metrics, counting combat and inventory events and timing the operations
+ * that matter most during fights.
+ *
+ * Metrics are disabled by default. Then every instrumented operation only reads one
+ * volatile field and never asks for the time. When a registry is set, counters are
+ * incremented and durations are recorded in that registry. Asking for the time costs
+ * about as much as a cheap operation itself, so only one in every sample period
+ * operations is timed, chosen at random. The metrics can be read from the registry, as
+ * text through dump() and over JMX after registerMBean().
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class Metrics {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private Metrics(){
+	}
+
+	/**********************************
+	 * registry
+	 **********************************/
+
+	/**
+	 * Variable referencing the registry that receives the metrics, or null if metrics
+	 * are disabled.
+	 */
+	private static volatile MetricsRegistry registry = null;
+
+	/**
+	 * Return the registry that receives the metrics, or null if metrics are disabled.
+	 */
+	public static MetricsRegistry getRegistry(){
+		return registry;
+	}
+
+	/**
+	 * Set the registry that receives the metrics.
+	 *
+	 * @param	registry
+	 * 			The new registry, or null to disable metrics.
+	 * @post	The registry is set to the given registry.
+	 * 			| new.getRegistry() == registry
+	 */
+	public static void setRegistry(MetricsRegistry registry){
+		Metrics.registry = registry;
+	}
+
+	/**
+	 * Return whether metrics are recorded.
+	 *
+	 * @return	| result == (getRegistry() != null)
+	 */
+	public static boolean isEnabled(){
+		return (registry != null);
+	}
+
+	/**
+	 * Start recording metrics in a new standard registry.
+	 *
+	 * @effect	| setRegistry(new DefaultMetricsRegistry())
+	 */
+	public static void enable(){
+		setRegistry(new DefaultMetricsRegistry());
+	}
+
+	/**
+	 * Stop recording metrics.
+	 *
+	 * @effect	| setRegistry(null)
+	 */
+	public static void disable(){
+		setRegistry(null);
+	}
+
+	/**
+	 * Variable registering the sample period minus one.
+	 */
+	private static volatile int sampleMask = 1023;
+
+	/**
+	 * Return the sample period: on average one in this number of operations is timed.
+	 */
+	public static int getSamplePeriod(){
+		return sampleMask + 1;
+	}
+
+	/**
+	 * Set the sample period.
+	 *
+	 * @param	samplePeriod
+	 * 			The new sample period, 1 to time every operation.
+	 * @post	The sample period is set to the given period.
+	 * 			| new.getSamplePeriod() == samplePeriod
+	 * @throws	IllegalArgumentException
+	 * 			The given period is not a power of two.
+	 * 			| Integer.bitCount(samplePeriod) != 1
+	 */
+	public static void setSamplePeriod(int samplePeriod) throws IllegalArgumentException {
+		if ((samplePeriod < 1) || (Integer.bitCount(samplePeriod) != 1)){
+			throw new IllegalArgumentException("The sample period must be a power of two.");
+		}
+		sampleMask = samplePeriod - 1;
+	}
+
+	/**********************************
+	 * recording
+	 **********************************/
+
+	/**
+	 * Count one more occurrence of the given counter, if metrics are enabled.
+	 *
+	 * @param	counter
+	 * 			The counter to increment.
+	 */
+	static void count(MetricCounter counter){
+		MetricsRegistry current = registry;
+		if (current != null){
+			current.increment(counter);
+		}
+	}
+
+	/**
+	 * Return the start time of an operation that is timed, or zero if metrics are disabled
+	 * or the operation is not in the sample.
+	 */
+	static long start(){
+		if (registry == null){
+			return 0;
+		}
+		int mask = sampleMask;
+		if ((mask != 0) && ((ThreadLocalRandom.current().nextInt() & mask) != 0)){
+			return 0;
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Record the duration of an operation that started at the given time, if metrics
+	 * are enabled and were enabled when it started.
+	 *
+	 * @param	timer
+	 * 			The operation that was timed.
+	 * @param	start
+	 * 			The time start() returned when the operation started.
+	 */
+	static void stop(MetricTimer timer, long start){
+		MetricsRegistry current = registry;
+		if ((current != null) && (start != 0)){
+			current.record(timer, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Count a hit that started at the given time and record its duration, if metrics are
+	 * enabled. All metrics of a hit are recorded here at once, after the hit, so the hit
+	 * itself stays as small as it was without metrics.
+	 *
+	 * @param	start
+	 * 			The time start() returned when the hit started.
+	 * @param	outcome
+	 * 			EFFECTIVE_HITS for an effective hit, HITS for a hit that was not effective, or
+	 * 			null if the creature could not hit.
+	 */
+	static void stopHit(long start, MetricCounter outcome){
+		MetricsRegistry current = registry;
+		if (current != null){
+			if (outcome != null){
+				current.incrementHits(outcome == MetricCounter.EFFECTIVE_HITS);
+			}
+			if (start != 0){
+				current.record(MetricTimer.HIT, System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**********************************
+	 * exposure
+	 **********************************/
+
+	/**
+	 * Return all metrics of the current registry as text, one counter or timer per line.
+	 * Durations are in nanoseconds.
+	 */
+	public static String dump(){
+		MetricsRegistry current = registry;
+		if (current == null){
+			return "metrics disabled" + System.lineSeparator();
+		}
+		StringBuilder builder = new StringBuilder();
+		for (MetricCounter counter: MetricCounter.values()){
+			builder.append(String.format(Locale.ROOT, "counter %s %d%n",
+					counter.getName(), current.getCount(counter)));
+		}
+		for (MetricTimer timer: MetricTimer.values()){
+			LatencyHistogram histogram = current.getHistogram(timer);
+			if (histogram != null){
+				builder.append(String.format(Locale.ROOT,
+						"timer %s count=%d mean=%.0f p50=%d p99=%d p999=%d max=%d%n",
+						timer.getName(), histogram.getTotalCount(), histogram.getMean(),
+						histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+						histogram.getValueAtPercentile(99.9), histogram.getMax()));
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Constant registering the name under which the metrics are shown over JMX.
+	 */
+	public static final String MBEAN_NAME = "heroes_and_monsters:type=Metrics";
+
+	/**
+	 * Show the metrics over JMX, in the platform MBean server.
+	 *
+	 * @throws	IllegalStateException
+	 * 			The metrics can't be registered, for example because they already are.
+	 */
+	public static void registerMBean() throws IllegalStateException {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(new MetricsView(), new ObjectName(MBEAN_NAME));
+		} catch (JMException e) {
+			throw new IllegalStateException("The metrics can't be registered.", e);
+		}
+	}
+
+	/**
+	 * Stop showing the metrics over JMX, if they are shown.
+	 */
+	public static void unregisterMBean(){
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(MBEAN_NAME);
+			if (server.isRegistered(name)){
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("The metrics can't be unregistered.", e);
+		}
+	}
+
+	/**
+	 * A class of views on the current registry, shown over JMX.
+	 */
+	private static class MetricsView implements MetricsMXBean {
+
+		@Override
+		public boolean isEnabled(){
+			return Metrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled){
+			if (enabled && !Metrics.isEnabled()){
+				Metrics.enable();
+			}
+			else if (!enabled){
+				Metrics.disable();
+			}
+		}
+
+		@Override
+		public Map<String, Long> getCounters(){
+			Map<String, Long> result = new TreeMap<String, Long>();
+			MetricsRegistry current = registry;
+			if (current != null){
+				for (MetricCounter counter: MetricCounter.values()){
+					result.put(counter.getName(), current.getCount(counter));
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public Map<String, Long> getTimerCounts(){
+			return getTimerValues(-1);
+		}
+
+		@Override
+		public Map<String, Long> getTimerMedianNanos(){
+			return getTimerValues(50);
+		}
+
+		@Override
+		public Map<String, Long> getTimer99thPercentileNanos(){
+			return getTimerValues(99);
+		}
+
+		@Override
+		public Map<String, Long> getTimerMaxNanos(){
+			return getTimerValues(100);
+		}
+
+		/**
+		 * Return the value at the given percentile of every timer by its name, or the
+		 * number of recorded durations if the percentile is negative.
+		 */
+		private Map<String, Long> getTimerValues(double percentile){
+			Map<String, Long> result = new TreeMap<String, Long>();
+			MetricsRegistry current = registry;
+			if (current != null){
+				for (MetricTimer timer: MetricTimer.values()){
+					LatencyHistogram histogram = current.getHistogram(timer);
+					if (histogram != null){
+						result.put(timer.getName(), (percentile < 0) ? histogram.getTotalCount()
+								: histogram.getValueAtPercentile(percentile));
+					}
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public String dump(){
+			return Metrics.dump();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package heroes_and_monsters;
+
+import java.util.Map;
+
+/**
+ * The management interface through which the metrics of the game are shown over JMX.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface MetricsMXBean {
+
+	/**
+	 * Return whether metrics are recorded.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Start recording metrics in a new standard registry, or stop recording them.
+	 *
+	 * @param 	enabled
+	 * 			Whether metrics must be recorded.
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Return the value of every counter by its name.
+	 */
+	Map<String, Long> getCounters();
+
+	/**
+	 * Return the number of recorded durations of every timer by its name.
+	 */
+	Map<String, Long> getTimerCounts();
+
+	/**
+	 * Return the median duration in nanoseconds of every timer by its name.
+	 */
+	Map<String, Long> getTimerMedianNanos();
+
+	/**
+	 * Return the 99th percentile of the durations in nanoseconds of every timer by its name.
+	 */
+	Map<String, Long> getTimer99thPercentileNanos();
+
+	/**
+	 * Return the longest duration in nanoseconds of every timer by its name.
+	 */
+	Map<String, Long> getTimerMaxNanos();
+
+	/**
+	 * Return all metrics as text.
+	 */
+	String dump();
+}
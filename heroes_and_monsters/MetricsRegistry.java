@@ -0,0 +1,64 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for registries that receive the metrics of the game. The standard
+ * registry keeps them in memory, but a registry can just as well forward them to
+ * another metrics library.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * Count one more occurrence of the given counter.
+	 *
+	 * @param 	counter
+	 * 			The counter to increment.
+	 */
+	void increment(MetricCounter counter);
+
+	/**
+	 * Count one more hit, and one more effective hit if the hit was effective. A hit
+	 * happens so often that a registry may want to count both in one step.
+	 *
+	 * @param 	effective
+	 * 			Whether the hit was effective.
+	 * @effect	| increment(MetricCounter.HITS)
+	 * @effect	| if (effective)
+	 * 			|	then increment(MetricCounter.EFFECTIVE_HITS)
+	 */
+	default void incrementHits(boolean effective){
+		increment(MetricCounter.HITS);
+		if (effective){
+			increment(MetricCounter.EFFECTIVE_HITS);
+		}
+	}
+
+	/**
+	 * Record a duration of the given timer.
+	 *
+	 * @param 	timer
+	 * 			The operation that was timed.
+	 * @param 	nanos
+	 * 			The duration in nanoseconds.
+	 */
+	void record(MetricTimer timer, long nanos);
+
+	/**
+	 * Return the number of occurrences of the given counter.
+	 *
+	 * @param 	counter
+	 * 			The counter to return.
+	 */
+	long getCount(MetricCounter counter);
+
+	/**
+	 * Return the histogram of the durations of the given timer, or null if this registry
+	 * keeps no histograms.
+	 *
+	 * @param 	timer
+	 * 			The timer to return.
+	 */
+	LatencyHistogram getHistogram(MetricTimer timer);
+}
@@ -54,7 +54,46 @@ public class Monster extends Creature implements Damage, Protection {
 			ArrayList<String> anchors, ArrayList<Object> anchorObjects, int damage,
 			int protection)
 			throws IllegalArgumentException {
-		super(name, strength, maxHitpoints, anchors, anchorObjects);
+		this(World.getDefaultWorld(), name, strength, maxHitpoints, anchors, anchorObjects,
+				damage, protection);
+	}
+	
+	/**
+	 * Initialize this new monster of the given world with a name, a strength, a maximum
+	 * hitpoints a current hitpoints, anchors, anchorObjects, damage and protection.
+	 * 
+	 * @param	world
+	 * 			The world of this monster.
+	 * @param 	name
+	 * 			The name of this monster.
+	 * @param	strength
+	 * 			The strength of this monster.
+	 * @param	maxHitpoints
+	 * 			The maximum and current hitpoints of this monster.
+	 * @param	anchors
+	 * 			The anchors of a monster.
+	 * @param	anchorObjects
+	 * 			The objects that must go in the anchors.
+	 * @param	damage
+	 * 			The damage of this monster.
+	 * @param	protection
+	 * 			The protection of this monster.
+	 * @pre		The given damage must be a correct value for damage.
+	 * @effect	This monster is initialized as a creature of the given world with the given
+	 * 			name, strength, current hitpoints, maximum hitpoints, anchors and anchorObjects.
+	 * @post	The current damage of this monster is set to the given damage.
+	 * @post	The current protection of this monster is set to the given protection.
+	 * @throws	IllegalArgumentException
+	 * 			There can't be more anchorObjects than anchors.
+	 * @throws	IllegalArgumentException
+	 * 			The given world is not effective.
+	 */
+	@Raw
+	public Monster(World world, String name, BigDecimal strength, int maxHitpoints,
+			ArrayList<String> anchors, ArrayList<Object> anchorObjects, int damage,
+			int protection)
+			throws IllegalArgumentException {
+		super(world, name, strength, maxHitpoints, anchors, anchorObjects);
 		setCurrentDamage(damage);
 		setCurrentProtection(protection);
 	}
@@ -150,11 +189,6 @@ public class Monster extends Creature implements Damage, Protection {
 	 */
 	private int damage = 7;
 	
-	/**
-	 * Variable registering the maximum value of the monster.
-	 */
-	private static int maxDamage = 100;
-	
 	/**
 	 * Returns the current value for the damage of the monster.
 	 * 
@@ -176,7 +210,7 @@ public class Monster extends Creature implements Damage, Protection {
 	 */
 	@Override
 	public int getMaximumDamage() {
-		return Monster.maxDamage;
+		return getWorld().getMonsterMaxDamage();
 	}
 
 	/**
@@ -192,6 +226,7 @@ public class Monster extends Creature implements Damage, Protection {
 	@Override
 	public void setCurrentDamage(int damage) {
 		this.damage = damage;
+		getWorld().getEventBus().publish(GameEventType.DAMAGE_CHANGED, this, null, damage);
 	}
 
 	/**
@@ -206,7 +241,7 @@ public class Monster extends Creature implements Damage, Protection {
 	 */
 	@Override
 	public void setMaximumDamage(int damage) {
-		Monster.maxDamage = damage;	
+		getWorld().setMonsterMaxDamage(damage);
 	}
 
 	/**
@@ -275,6 +310,7 @@ public class Monster extends Creature implements Damage, Protection {
 	public void setCurrentProtection(int protection) {
 		if (this.canHaveAsProtection(protection)){
 			this.protection = protection;
+			getWorld().getEventBus().publish(GameEventType.PROTECTION_CHANGED, this, null, protection);
 		}
 	}
 
@@ -304,7 +340,7 @@ public class Monster extends Creature implements Damage, Protection {
 	public void decreaseProtection(int decrease)
 			throws IllegalArgumentException, CreatureIsDeadException {
 		if (getKilled()){
-			throw new CreatureIsDeadException(this);
+			throw getDeadException();
 		}
 		if (decrease > 0){
 			int decreasedProtection = this.protection - decrease;
@@ -346,7 +382,7 @@ public class Monster extends Creature implements Damage, Protection {
 	public void increaseProtection(int increase)
 			throws IllegalArgumentException, CreatureIsDeadException {
 		if (getKilled()){
-			throw new CreatureIsDeadException(this);
+			throw getDeadException();
 		}
 		if (increase > 0){
 			int increasedProtection = this.protection + increase;
@@ -428,7 +464,9 @@ public class Monster extends Creature implements Damage, Protection {
 	 */
 	@Override
 	protected void deathblow(Creature opponent) {
+		long start = Metrics.start();
 		collectTreasures(opponent);
+		Metrics.stop(MetricTimer.COLLECT_TREASURES, start);
 	}
 	
 	/**
@@ -493,6 +531,9 @@ public class Monster extends Creature implements Damage, Protection {
 					possessions.get("Purse").remove(((Purse) treasure).getContent());
 				}
 			}
+			if (treasure instanceof Ducat){
+				this.takeOutOfBackpacks((Ducat) treasure, possessions);
+			}
 			if (treasure != null){
 			addTreasure(treasure, opponent);
 			possessions.get(treasure.getClass().getSimpleName()).remove(treasure);
@@ -530,15 +571,11 @@ public class Monster extends Creature implements Damage, Protection {
 			Iterator<String> iterator1 = this.getAnchors().keySet().iterator();
 			while (iterator1.hasNext() && !added){
 				String anchor = iterator1.next();
-				if (this.canAddToAnchor(object, anchor)){
-					this.addToAnchor(object, anchor);
+				if (this.tryAddToAnchor(object, anchor)){
 					added = true;
 				}
-				else if (this.getAnchors().get(anchor) instanceof Storage) {
-					if (((Storage) this.getAnchors().get(anchor)).canAddToStorage(object)){
-						((Storage) this.getAnchors().get(anchor)).addToStorage(object);
-						added = true;
-					}
+				else if (this.getAnchorObject(anchor) instanceof Storage) {
+					added = ((Storage) this.getAnchorObject(anchor)).tryAddToStorage(object);
 				}
 			}
 			double weight = getWeightFromAnchorObject(object);
@@ -548,20 +585,23 @@ public class Monster extends Creature implements Damage, Protection {
 					String anchor = iterator2.next();
 					if (getWeightFromAnchorObject(this.getAnchors().get(anchor)) > weight){
 						Object previousObject = this.getAnchors().get(anchor);
-						try {
-							this.emptyAnchor(anchor);
-							this.addToAnchor(object, anchor);
+						this.emptyAnchor(anchor);
+						if (this.tryAddToAnchor(object, anchor)){
 							if (previousObject instanceof Ownable){
 								((Ownable) previousObject).terminate();
 							}
 							added = true;
-						} catch (Exception e) {
+						}
+						else {
 							this.addToAnchor(previousObject, anchor);
 						}
 					}
 				}
 			}
-			if (!added && (object instanceof Ownable)){
+			if (added){
+				countLoot(object);
+			}
+			else if (object instanceof Ownable){
 				((Ownable) object).terminate();
 			}
 		}
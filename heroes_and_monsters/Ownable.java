@@ -24,144 +24,157 @@ public abstract class Ownable{
 	 ******************************************
 	
 	/**
-	 * Initialize an ownable with an identification, weight and unit.
+	 * Initialize an ownable of the given world with an identification, weight and unit.
 	 * 
+	 * @param	world
+	 * 			The world of this ownable.
 	 * @param 	identification
 	 * 			The identification of this ownable.
 	 * @param	weight
 	 * 			The weight of this ownable.
 	 * @param	unit
 	 * 			The unit in which the weight is set.
+	 * @post	The world of this ownable is set to the given world.
+	 * 			| new.getWorld() == world
 	 * @post	The identification of this ownable is set to identification.
 	 * 			| new.getIdentification() == identification
 	 * @post	The weight of this ownable is set to the given weight in the given unit.
 	 * 			| new.getOwnWeight(unit) == weight
+	 * @throws	IllegalArgumentException
+	 * 			The given world is not effective.
+	 * 			| world == null
 	 */
 	@Raw @Model
-	protected Ownable(long identification, double weight, Unit unit){
+	protected Ownable(World world, long identification, double weight, Unit unit)
+			throws IllegalArgumentException {
+		if (world == null){
+			throw new IllegalArgumentException("An ownable must belong to a world.");
+		}
+		this.world = world;
 		setIdentification(identification);
 		setOwnWeight(weight, unit);
 	}
 	
+	/**
+	 * Initialize an ownable of the default world with an identification, weight and unit.
+	 * 
+	 * @param 	identification
+	 * 			The identification of this ownable.
+	 * @param	weight
+	 * 			The weight of this ownable.
+	 * @param	unit
+	 * 			The unit in which the weight is set.
+	 * @effect	This ownable is initialized in the default world.
+	 * 			| this(World.getDefaultWorld(), identification, weight, unit)
+	 */
+	@Raw @Model
+	protected Ownable(long identification, double weight, Unit unit){
+		this(World.getDefaultWorld(), identification, weight, unit);
+	}
+	
 	/*******************************
-	 * identification
+	 * world
 	 *******************************/
 	
 	/**
-	 * Variable referencing the identification of an ownable.
+	 * Variable referencing the world of an ownable.
 	 */
-	private long identification;
+	private final World world;
 	
 	/**
-	 * Variable where we can store all the id's of armors.
+	 * Return the world of this ownable.
 	 */
-	private static ArrayList<Long> idListArmors = new ArrayList<Long>();
+	@Raw @Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
 	
 	/**
-	 * Add the given identification to the list of identifications of armors.
+	 * Check whether this ownable can interact with the given object.
 	 * 
-	 * @param 	identification
-	 * 			The identification to add.
-	 * @post	The given identification is added to the list.
-	 * 			| idListArmors.add(identification)
-	 * @post	The size of the list is increased by one.
-	 * 			| new.idListArmors.size() = this.idListArmors.size() + 1
+	 * @param 	object
+	 * 			The object to check.
+	 * @return	True if and only if the given object is not a creature or an ownable, or
+	 * 			it belongs to the same world as this ownable.
+	 * 			| result == !(object instanceof Ownable || object instanceof Creature) ||
+	 * 			|			object.getWorld() == getWorld()
 	 */
 	@Raw
-	protected void addArmor(long identification){
-		idListArmors.add(identification);
+	public boolean isInSameWorld(Object object){
+		if (object instanceof Ownable){
+			return ((Ownable) object).getWorld() == getWorld();
+		}
+		if (object instanceof Creature){
+			return ((Creature) object).getWorld() == getWorld();
+		}
+		return true;
 	}
 	
-	/**
-	 * Return the arraylist with the identifications of all armors.
-	 */
-	@Raw
-	protected static ArrayList<Long> getArmors(){
-		return new ArrayList<Long>(idListArmors);
-	}
+	/*******************************
+	 * identification
+	 *******************************/
 	
 	/**
-	 * Variable where we can store all the id's of weapons.
+	 * Variable referencing the identification of an ownable.
 	 */
-	private static ArrayList<Long> idListWeapons = new ArrayList<Long>();
+	private long identification;
 	
 	/**
-	 * Add the given identification to the list of identifications of weapons.
+	 * Add the given identification to the identifications of armors of the world
+	 * of this ownable.
 	 * 
 	 * @param 	identification
 	 * 			The identification to add.
-	 * @post	The given identification is added to the list.
-	 * 			| idListWeapons.add(identification)
-	 * @post	The size of the list is increased by one.
-	 * 			| new.idListWeapons.size() = this.idListWeapons.size() + 1
+	 * @effect	The given identification is added to the armors of the world.
+	 * 			| getWorld().addArmor(identification)
 	 */
 	@Raw
-	protected void addWeapon(long identification){
-		idListWeapons.add(identification);
+	protected void addArmor(long identification){
+		long start = Metrics.start();
+		getWorld().addArmor(identification);
+		Metrics.stop(MetricTimer.ID_ALLOCATION, start);
 	}
 	
 	/**
-	 * Return the arraylist with the identifications of all weapons.
+	 * Add the given identification to the identifications of weapons of the world
+	 * of this ownable.
+	 * 
+	 * @param 	identification
+	 * 			The identification to add.
+	 * @effect	The given identification is added to the weapons of the world.
+	 * 			| getWorld().addWeapon(identification)
 	 */
 	@Raw
-	protected static ArrayList<Long> getWeapons(){
-		return new ArrayList<Long>(idListWeapons);
+	protected void addWeapon(long identification){
+		getWorld().addWeapon(identification);
 	}
 	
 	/**
-	 * Variable where we can store all the id's of backpacks.
-	 */
-	private static ArrayList<Long> idListBackpacks = new ArrayList<Long>();
-	
-	/**
-	 * Add the given identification to the list of identifications of backpacks.
+	 * Add the given identification to the identifications of backpacks of the world
+	 * of this ownable.
 	 * 
 	 * @param 	identification
 	 * 			The identification to add.
-	 * @post	The given identification is added to the list.
-	 * 			| idListBackpacks.add(identification)
-	 * @post	The size of the list is increased by one.
-	 * 			| new.idListArmorBackpacks.size() = this.idListBackpacks.size() + 1
+	 * @effect	The given identification is added to the backpacks of the world.
+	 * 			| getWorld().addBackpack(identification)
 	 */
 	@Raw
 	protected void addBackpack(long identification){
-		idListBackpacks.add(identification);
+		getWorld().addBackpack(identification);
 	}
 	
 	/**
-	 * Return the arraylist with the identifications of all backpacks.
-	 */
-	@Raw
-	protected static ArrayList<Long> getBackpacks(){
-		return new ArrayList<Long>(idListBackpacks);
-	}
-	
-	/**
-	 * Variable where we can store all the id's of purses.
-	 */
-	private static ArrayList<Long> idListPurses = new ArrayList<Long>();
-	
-	/**
-	 * Add the given identification to the list of identifications of purses.
+	 * Add the given identification to the identifications of purses of the world
+	 * of this ownable.
 	 * 
 	 * @param 	identification
 	 * 			The identification to add.
-	 * @post	The given identification is added to the list.
-	 * 			| idListPurses.add(identification)
-	 * @post	The size of the list is increased by one.
-	 * 			| new.idListPurses.size() = this.idListPurses.size() + 1
+	 * @effect	The given identification is added to the purses of the world.
+	 * 			| getWorld().addPurse(identification)
 	 */
 	@Raw
 	protected void addPurse(long identification){
-		idListPurses.add(identification);
-	}
-	
-	/**
-	 * Return the arraylist with the identifications of all purses.
-	 */
-	@Raw
-	protected static ArrayList<Long> getPurses(){
-		return new ArrayList<Long>(idListPurses);
+		getWorld().addPurse(identification);
 	}
 	
 	/**
@@ -174,11 +187,26 @@ public abstract class Ownable{
 	@Raw @Basic @Immutable
 	public long getIdentification() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		return this.identification;
 	}
 	
+	/**
+	 * Return the identification of this ownable, without throwing if it is terminated.
+	 * 
+	 * @return	An empty optional if this ownable is terminated, otherwise its identification.
+	 * 			| if (getTerminated())
+	 * 			| then	!result.isPresent()
+	 * 			| else	result.getAsLong() == getIdentification()
+	 */
+	public OptionalLong tryGetIdentification(){
+		if (getTerminated()){
+			return OptionalLong.empty();
+		}
+		return OptionalLong.of(this.identification);
+	}
+	
 	/**
 	 * Set the identification to the given identification if possible.
 	 * 
@@ -270,10 +298,27 @@ public abstract class Ownable{
 	 */
 	public Object getHolder() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		return this.holder;
 	}
+	
+	/**
+	 * Return the holder of this ownable, without throwing if it is terminated.
+	 * 
+	 * @return	An empty optional if this ownable is terminated or has no holder, otherwise
+	 * 			its holder.
+	 * 			| if (getTerminated())
+	 * 			| then	!result.isPresent()
+	 * 			| else	result.orElse(null) == getHolder()
+	 */
+	public Optional<Object> tryGetHolder(){
+		if (getTerminated()){
+			return Optional.empty();
+		}
+		return Optional.ofNullable(this.holder);
+	}
+	
 	/**
 	 * Return the ultimate owner of this ownable.
 	 * 
@@ -283,7 +328,7 @@ public abstract class Ownable{
 	 */
 	public Object getUltimateHolder() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		Object obj = this.getHolder();
 		if (obj == null || obj instanceof Creature){
@@ -347,16 +392,16 @@ public abstract class Ownable{
 	 * @param 	holder
 	 * 			The holder to check.
 	 * @return	True if and only if the holder is a living creature or a non-terminated
-	 * 			backpack or there is no holder at all. 
-	 * 			| result == (holder instanceof Creature && !((Creature) holder).getKilled())
+	 * 			backpack of the same world or there is no holder at all. 
+	 * 			| result == ((holder instanceof Creature && !((Creature) holder).getKilled())
 	 *			|			|| (holder instanceof Backpack && !((Backpack) holder).getTerminated()) ||
-	 *			|			holder == null
+	 *			|			holder == null) && isInSameWorld(holder)
 	 */
 	@Raw
 	public boolean canHaveAsHolder(Object holder){
 		return ((holder instanceof Creature && !((Creature) holder).getKilled())
 				|| (holder instanceof Backpack && !((Backpack) holder).getTerminated()) ||
-				holder == null);
+				holder == null) && isInSameWorld(holder);
 	}
 	
 	/********************************
@@ -374,7 +419,7 @@ public abstract class Ownable{
 	 */
 	@Raw
 	public boolean isValidValue(Ducat value){
-		return (value.compareTo(new Ducat(0)) >= 0);
+		return (value.compareTo(Ducat.NO_DUCATS) >= 0);
 	}
 	
 	/**
@@ -428,7 +473,21 @@ public abstract class Ownable{
 	 * 		 | new.getContainersSet().isEmpty()
 	 */
 	protected void removeAllContainers(){
-		this.getContainersSet().clear();
+		this.containersSet.clear();
+	}
+	
+	/**
+	 * Remove the given containers out of the containersSet of this ownable.
+	 * (Used when a backpack that contains this ownable is removed from a backpack)
+	 * 
+	 * @param	containers
+	 * 			The containers to remove.
+	 * @post	The new containersSet contains none of the given containers.
+	 * 			| for all container in containers:
+	 * 			|		!new.getContainersSet().contains(container)
+	 */
+	protected void removeContainers(Collection<Backpack> containers){
+		this.containersSet.removeAll(containers);
 	}
 	
 	/**********************************
@@ -452,6 +511,50 @@ public abstract class Ownable{
 	 */
 	protected abstract void terminate();
 	
+	/**
+	 * Variable referencing the exception thrown when this terminated ownable is used,
+	 * or null if it isn't made yet.
+	 */
+	private OwnableIsTerminatedException terminatedException;
+	
+	/**
+	 * Return the exception to throw when this ownable is terminated. The exception has
+	 * no stack trace, so the same one is reused every time.
+	 * 
+	 * @return	An ownable is terminated exception involving this ownable.
+	 * 			| result.getOwnable() == this
+	 */
+	@Model
+	protected OwnableIsTerminatedException getTerminatedException(){
+		OwnableIsTerminatedException exception = this.terminatedException;
+		if (exception == null){
+			exception = new OwnableIsTerminatedException(this);
+			this.terminatedException = exception;
+		}
+		return exception;
+	}
+	
+	/**
+	 * Detach this ownable from its holder, so that no backpack or creature refers to it
+	 * any longer.
+	 * 
+	 * @effect	If the holder is a backpack, this ownable is taken out of it.
+	 * 			| if (getHolder() instanceof Backpack)
+	 * 			| then ((Backpack) getHolder()).takeOutOfStorage(this)
+	 * @effect	If the holder is a creature, this ownable is removed from its anchors.
+	 * 			| if (getHolder() instanceof Creature)
+	 * 			| then ((Creature) getHolder()).detachFromAnchor(this)
+	 */
+	protected void detachFromHolder(){
+		Object holder = getHolder();
+		if (holder instanceof Backpack){
+			((Backpack) holder).takeOutOfStorage(this);
+		}
+		else if (holder instanceof Creature){
+			((Creature) holder).detachFromAnchor(this);
+		}
+	}
+	
 	/**
 	 * Set the flag of terminated to the given flag.
 	 * 
@@ -462,5 +565,6 @@ public abstract class Ownable{
 	 */
 	protected void setTerminate(boolean terminated){
 		this.terminated = terminated;
+		getWorld().markModified();
 	}
 }
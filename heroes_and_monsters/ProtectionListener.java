@@ -0,0 +1,19 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for objects that want to know when the current protection of an armor
+ * changes.
+ *
+ * @author	Linde en Lotte
+ * @version	1.0
+ */
+interface ProtectionListener {
+
+	/**
+	 * React to a change of the current protection of the given armor.
+	 *
+	 * @param 	armor
+	 * 			The armor whose current protection has changed.
+	 */
+	void protectionChanged(Armor armor);
+}
@@ -36,7 +36,29 @@ public class Purse extends Storage {
 	 */
 	@Raw
 	public Purse(double ownWeight, Unit unit, double maxCapacity){
-		super(calculateValidIdentification(), ownWeight, unit);
+		this(World.getDefaultWorld(), ownWeight, unit, maxCapacity);
+	}
+	
+	/**
+	 * Initialize this new purse of the given world with an own weight, unit and maximum capacity.
+	 * 
+	 * @param	world
+	 * 			The world of this purse.
+	 * @param	ownWeight
+	 * 			The weight of this purse.
+	 * @param	unit
+	 * 			The unit in which the weight is set.
+	 * @param	maxCapacity
+	 * 			The maximum capacity of this purse.
+	 * @effect	This purse is initialized as a storage of the given world with a calculated
+	 * 			identification and the given ownWeight and unit.
+	 * 			| super(world, calculateValidIdentification(world), ownWeight, unit)
+	 * @effect	The maximum capacity is set to the given maxCapacity in the given unit.
+	 * 			| setMaxCapacity(maxCapacity, unit)
+	 */
+	@Raw
+	public Purse(World world, double ownWeight, Unit unit, double maxCapacity){
+		super(world, calculateValidIdentification(world), ownWeight, unit);
 		setMaxCapacity(maxCapacity, unit);
 	}
 	
@@ -93,29 +115,48 @@ public class Purse extends Storage {
 	}
 	
 	/**
-	 * Check whether a purse can have this identification.
+	 * Check whether a purse of the default world can have this identification.
 	 * 
 	 * @param 	identification
 	 * 			The identification to check.
-	 * @return	False if identification is not a Fibonacci number. Also false when there
-	 * 			have not been made 1000 purses yet and the identification already exists
-	 * 			for another purse. True otherwise.
-	 * 			| result == isFibonacci(identification) && ( idListPurses.size() >= 1000 ||
-	 * 			|				!idListPurses.contains(identification) )
+	 * @return	The identification is valid in the default world.
+	 * 			| result == canHaveAsIdentification(identification, World.getDefaultWorld())
 	 */
 	public static boolean canHaveAsIdentification(long identification){
-		return (isFibonacci(identification) && (getPurses().size() >= 1000 ||
-	 				!getPurses().contains(identification) ));
+		return canHaveAsIdentification(identification, World.getDefaultWorld());
 	}
 	
 	/**
-	 * Return a valid identification for a purse.
+	 * Check whether a purse of the given world can have this identification.
+	 * 
+	 * @param 	identification
+	 * 			The identification to check.
+	 * @param	world
+	 * 			The world to check in.
+	 * @return	False if identification is not a Fibonacci number. Also false when there
+	 * 			have not been made 1000 purses in the given world yet and the identification
+	 * 			already exists for another purse of that world. True otherwise.
+	 * 			| result == isFibonacci(identification) && ( world.getPurses().size() >= 1000 ||
+	 * 			|				!world.getPurses().contains(identification) )
+	 */
+	public static boolean canHaveAsIdentification(long identification, World world){
+		return (isFibonacci(identification) && (world.getNumberOfPurses() >= 1000 ||
+	 				!world.hasPurse(identification) ));
+	}
+	
+	/**
+	 * Return a valid identification for a purse of the given world.
 	 */
-	private static long calculateValidIdentification(){
+	private static long calculateValidIdentification(World world) throws IllegalArgumentException {
+		if (world == null){
+			throw new IllegalArgumentException("An ownable must belong to a world.");
+		}
+		long start = Metrics.start();
 		long id = ThreadLocalRandom.current().nextLong(0, Long.MAX_VALUE);
-		while (!canHaveAsIdentification(id)){
+		while (!canHaveAsIdentification(id, world)){
 			id = ThreadLocalRandom.current().nextLong(0, Long.MAX_VALUE);
 		}
+		Metrics.stop(MetricTimer.ID_ALLOCATION, start);
 		return id;
 	}
 	
@@ -182,7 +223,7 @@ public class Purse extends Storage {
 	 */
 	@Override
 	public Ducat getValue() {
-		return new Ducat(this.content.getValue());
+		return this.content;
 	}
 	
 	/*********************************
@@ -190,54 +231,70 @@ public class Purse extends Storage {
 	 *********************************
 
 	/**
-	 * Check whether the given object can be added to this purse.
+	 * Check whether the given object can be added to this purse and tell why not.
 	 * 
-	 * @return	True if the object can be added to any storage and is a ducat, the purse
-	 * 			isn't broken, all the backpacks in which it's located have enough capacity
-	 * 			to store the extra weight and the capacity of the ultimate holder is big
-	 * 			enough to support the extra weight. False otherwise
-	 * 			| result == super.canAddToStorage(object) && (object instanceof Ducat)
+	 * @param 	object
+	 * 			The object to check.
+	 * @return	The admission of any storage if that is not ADMITTED. Otherwise NOT_STORABLE
+	 * 			if the object is not a ducat, BROKEN if this purse is broken, OVER_CAPACITY if
+	 * 			the ducat would break this purse while it is not held by a backpack, or if one
+	 * 			of the backpacks this purse is in or the creature carrying it can't carry the
+	 * 			extra weight, and ADMITTED otherwise.
+	 * 			| result == AdmissionResult.ADMITTED iff
+	 * 			|	super.getAdmission(object) == AdmissionResult.ADMITTED && (object instanceof Ducat)
 	 * 			|			&& (!(this.getBroken())) &&
+	 * 			|			((this.getHolder() instanceof Backpack) ||
+	 * 			|				(this.getContent().add(object).getWeight(Unit.KG) <=
+	 * 			|					this.getMaximumCapacity(Unit.KG))) &&
 	 * 			|			(for all holders of this {
 	 * 			|					holder.getUsedCapacity(Unit.KG) + weight <=
 	 * 			|					holder.getMaximumCapacity(Unit.KG) } )
 	 */
 	@Override
-	public boolean canAddToStorage(Object object){
-		if (!super.canAddToStorage(object)){
-			return false;
+	public AdmissionResult getAdmission(Object object){
+		AdmissionResult result = super.getAdmission(object);
+		if (result != AdmissionResult.ADMITTED){
+			return result;
 		}
-		if ((object instanceof Ducat)&&(!(this.getBroken()))){
-			Ducat ducat = (Ducat) object;
-			double weight = ducat.getWeight(Unit.KG);
-			Iterator<Backpack> iterator = this.getContainersSet().iterator();
-			while (iterator.hasNext()){
-				Backpack backpack = iterator.next();
-				if ((backpack.getUsedCapacity(Unit.KG) + weight) > backpack.getMaximumCapacity(Unit.KG)){
-					return false;
-				}
+		if (!(object instanceof Ducat)){
+			return AdmissionResult.NOT_STORABLE;
+		}
+		if (this.getBroken()){
+			return AdmissionResult.BROKEN;
+		}
+		double weight = ((Ducat) object).getWeight(Unit.KG);
+		if (!(this.getHolder() instanceof Backpack)
+				&& (this.getContent().add((Ducat) object).getWeight(Unit.KG) > this.getMaximumCapacity(Unit.KG))){
+			// Only a backpack can catch the content of a purse that breaks.
+			return AdmissionResult.OVER_CAPACITY;
+		}
+		Iterator<Backpack> iterator = this.getContainersSet().iterator();
+		while (iterator.hasNext()){
+			Backpack backpack = iterator.next();
+			if ((backpack.getUsedCapacity(Unit.KG) + weight) > backpack.getMaximumCapacity(Unit.KG)){
+				return AdmissionResult.OVER_CAPACITY;
 			}
-			if (this.getUltimateHolder() instanceof Creature){
-				Creature creature = (Creature) this.getUltimateHolder();
-				if ((creature.getUsedCapacity(Unit.KG) + weight) > creature.getMaximumCapacity(Unit.KG)){
-					return false;
-				}
+		}
+		if (this.getUltimateHolder() instanceof Creature){
+			Creature creature = (Creature) this.getUltimateHolder();
+			if ((creature.getUsedCapacity(Unit.KG) + weight) > creature.getMaximumCapacity(Unit.KG)){
+				return AdmissionResult.OVER_CAPACITY;
 			}
-			return true;
 		}
-		return false;
+		return AdmissionResult.ADMITTED;
 	}
 	
 	/**
 	 * Variable referencing the content of this purse.
 	 */
-	private Ducat content = new Ducat(0);
+	private Ducat content = Ducat.NO_DUCATS;
 	
 	/**
 	 * Return the content of this purse.
 	 */
+	@Basic
 	public Ducat getContent(){
-		return new Ducat(content.getValue());
+		return this.content;
 	}
 	
 	/**
@@ -247,9 +304,19 @@ public class Purse extends Storage {
 	 * 			The ducat to set the content of this purse to.
 	 * @post	The content of this purse is set to content.
 	 * 			| new.getContent() == ducat
+	 * @effect	The liquid funds of all the backpacks this purse is in are changed by the
+	 * 			difference in content.
+	 * 			| for all container in getContainersSet(){
+	 * 			|		container.changeLiquidFunds(ducat.getValue() - this.getContent().getValue()) }
 	 */
 	private void setContent(Ducat ducat){
+		long difference = (long) ducat.getValue() - this.content.getValue();
 		this.content = ducat;
+		if (difference != 0){
+			for (Backpack container: this.getContainersSet()){
+				container.changeLiquidFunds(difference);
+			}
+		}
 	}
 	
 	/**
@@ -282,29 +349,54 @@ public class Purse extends Storage {
 	 * @param 	object
 	 * 			The object to add.
 	 * @post	The given object is added to this purse.
-	 * 			| content.add(object)
+	 * 			| new.getContent().equals(this.getContent().add(object))
+	 * @post	If the content of this purse becomes too heavy, the purse breaks and its
+	 * 			content falls into the backpack holding it.
+	 * 			| if (this.getContent().add(object).getWeight(Unit.KG) > this.getMaximumCapacity(Unit.KG))
+	 * 			|	then new.getBroken() && new.getContent().getValue() == 0
 	 * @throws	IllegalArgumentException
 	 * 			The object cannot be added to this purse.
 	 * 			| !canAddToStorage(object)
 	 */
 	@Override
 	public void addToStorage(Object object) throws IllegalArgumentException {
-		if (!canAddToStorage(object)){
-			throw new IllegalArgumentException("The given object can't be added to this purse.");
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (!canAddToStorage(object)){
+				throw new IllegalArgumentException("The given object can't be added to this purse.");
+			}
+			this.storeAdmitted(object);
+		} finally {
+			ContainmentLock.release(locks);
 		}
-		Ducat ducat = (Ducat) object;
-		setContent(getContent().add(ducat));
-		((Ducat) object).subtract(ducat);
-		if (getContent().getWeight(Unit.KG) > this.getMaximumCapacity(Unit.KG)){
-			if (this.getHolder() instanceof Backpack){
+	}
+	
+	/**
+	 * Add the given ducat to this purse, without checking whether it can be added.
+	 * 
+	 * @param 	object
+	 * 			The ducat to add.
+	 * @post	The ducat is added to this purse, as in addToStorage(object).
+	 */
+	@Override @Model
+	protected void storeAdmitted(Object object){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			Ducat ducat = (Ducat) object;
+			setContent(getContent().add(ducat));
+			if (getContent().getWeight(Unit.KG) > this.getMaximumCapacity(Unit.KG)){
+				// The admission only lets a purse break inside a backpack. The content leaves
+				// the purse first, so the backpack doesn't count its weight twice.
+				Ducat spilled = getContent();
 				Backpack backpack = (Backpack) this.getHolder();
-				backpack.addToStorage(getContent());
-			}
-			else {
-				((Ducat) object).add(this.getContent());	
+				setContent(Ducat.NO_DUCATS);
+				setBroken(true);
+				backpack.addToStorage(spilled);
 			}
-			setContent(getContent().subtract(this));
-			setBroken(true);
+			getWorld().markModified();
+			getWorld().getEventBus().publish(GameEventType.STORED, this, ducat, ducat.getValue());
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -340,31 +432,39 @@ public class Purse extends Storage {
 	 * 			The object to take out.
 	 * @post	The value of the given object (that must be a ducat) is subtracted from
 	 * 			the value of this purse.
-	 * 			| this.content.subtract(object)
+	 * 			| new.getContent().equals(this.getContent().subtract(object))
 	 * @throws 	IllegalArgumentException
 	 * 			The given object can't be taken out of this purse.
 	 * 			| !canTakeOutOfStorage(object)
 	 */
 	@Override
 	protected void takeOutOfStorage(Object object) throws IllegalArgumentException {
-		if (!canTakeOutOfStorage(object)){
-			throw new IllegalArgumentException("The given object can't be taken out of this purse.");
-		}
-		else {
-			Ducat ducat = (Ducat) object;
-			this.content.subtract(ducat);
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (!canTakeOutOfStorage(object)){
+				throw new IllegalArgumentException("The given object can't be taken out of this purse.");
+			}
+			else {
+				Ducat ducat = (Ducat) object;
+				setContent(this.content.subtract(ducat));
+				getWorld().markModified();
+				getWorld().getEventBus().publish(GameEventType.TAKEN_OUT, this, ducat, ducat.getValue());
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
 	/**
-	 * Transfer an object from this purse to the given storage.
+	 * Transfer an object from this purse to the given storage if that is possible.
 	 * 
 	 * @param 	other
 	 * 			The other storage to transfer to.
 	 * @param 	object
 	 * 			The object to transfer.
-	 * @effect	The given object is taken out of this storage and added to the other storage.
-	 * 			| super.transferToStorage(other, object)
+	 * @return	False if the given object can't be taken out of this purse or can't be added
+	 * 			to the other storage, true otherwise.
+	 * 			| result == super.tryTransferToStorage(other, object)
 	 * @post	If this purse is empty after the transfer and it was transferred to another purse, this
 	 * 			purse is taken out of the backpack it's in or dropped from the anchor it's on (if it is any
 	 * 			of those).
@@ -373,24 +473,25 @@ public class Purse extends Storage {
 	 * 			|				then (getHolder()).takeOutOfStorage(this))
 	 * 			|			else if (this.getHolder() instanceof Creature)
 	 * 			|				then (getHolder()).dropFromAnchor(this))
-	 * @throws 	IllegalArgumentException
-	 * 			The given object can't be taken out of this storage.
-	 * 			| !this.canTakeOutOfStorage(object)
-	 * @throws	IllegalArgumentException
-	 * 			The object cannot be added to the other storage.
-	 * 			| !other.canAddToStorage(object)
 	 */
 	@Override
-	public void transferToStorage(Storage other, Object object)
-			throws IllegalArgumentException {
-		super.transferToStorage(other, object);
-		if (this.getContent().getValue() == 0 && other instanceof Purse){
-			if (this.getHolder() instanceof Backpack){
-				((Backpack) this.getHolder()).takeOutOfStorage(this);
+	public boolean tryTransferToStorage(Storage other, Object object){
+		int[] locks = ContainmentLock.acquire(this, other);
+		try {
+			if (!super.tryTransferToStorage(other, object)){
+				return false;
 			}
-			else if (this.getHolder() instanceof Creature){
-				((Creature) this.getHolder()).dropFromAnchor(this);
+			if (this.getContent().getValue() == 0 && other instanceof Purse){
+				if (this.getHolder() instanceof Backpack){
+					((Backpack) this.getHolder()).takeOutOfStorage(this);
+				}
+				else if (this.getHolder() instanceof Creature){
+					((Creature) this.getHolder()).dropFromAnchor(this);
+				}
 			}
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
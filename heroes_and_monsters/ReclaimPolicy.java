@@ -0,0 +1,51 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of policies that decide what happens to the identification of a
+ * terminated weapon or armor.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public enum ReclaimPolicy {
+
+	/**
+	 * The identification is released when its ownable is terminated, so it can be
+	 * used again by a new ownable of the same class.
+	 */
+	REUSE(true),
+
+	/**
+	 * The identification stays registered forever, so it is never used again
+	 * while there are less than 1000 ownables of the same class.
+	 */
+	RETAIN(false);
+
+	/**
+	 * Initialize a new reclaim policy.
+	 *
+	 * @param 	releasesIdentification
+	 * 			Whether the identification of a terminated ownable is released.
+	 * @post	The new policy releases identifications if and only if the given flag is true.
+	 * 			| new.releasesIdentification() == releasesIdentification
+	 */
+	private ReclaimPolicy(boolean releasesIdentification){
+		this.releasesIdentification = releasesIdentification;
+	}
+
+	/**
+	 * Return whether this policy releases the identification of a terminated ownable.
+	 */
+	@Raw @Basic @Immutable
+	public boolean releasesIdentification(){
+		return this.releasesIdentification;
+	}
+
+	/**
+	 * Variable registering whether this policy releases identifications.
+	 */
+	private final boolean releasesIdentification;
+}
@@ -0,0 +1,131 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of standings of the entrants of a tournament: their results so far and their
+ * place in the ranking. A win is worth 3 points and a draw 1 point.
+ *
+ * @invar	The numbers of wins, draws and losses are not negative.
+ * 			| getWins() >= 0 && getDraws() >= 0 && getLosses() >= 0
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+@Value
+public final class Standing {
+
+	/**
+	 * Initialize this new standing.
+	 *
+	 * @param 	rank
+	 * 			The place of the entrant in the ranking, starting at 1.
+	 * @param 	entrant
+	 * 			The entrant.
+	 * @param 	wins
+	 * 			The number of matches the entrant won.
+	 * @param 	draws
+	 * 			The number of matches that ended in a draw.
+	 * @param 	losses
+	 * 			The number of matches the entrant lost.
+	 */
+	Standing(int rank, TournamentEntrant entrant, int wins, int draws, int losses){
+		this.rank = rank;
+		this.entrant = entrant;
+		this.wins = wins;
+		this.draws = draws;
+		this.losses = losses;
+	}
+
+	/**
+	 * Variable registering the place in the ranking.
+	 */
+	private final int rank;
+
+	/**
+	 * Variable referencing the entrant.
+	 */
+	private final TournamentEntrant entrant;
+
+	/**
+	 * Variable registering the number of wins.
+	 */
+	private final int wins;
+
+	/**
+	 * Variable registering the number of draws.
+	 */
+	private final int draws;
+
+	/**
+	 * Variable registering the number of losses.
+	 */
+	private final int losses;
+
+	/**
+	 * Return the place of the entrant in the ranking, starting at 1.
+	 */
+	@Basic @Immutable
+	public int getRank(){
+		return this.rank;
+	}
+
+	/**
+	 * Return the entrant.
+	 */
+	@Basic @Immutable
+	public TournamentEntrant getEntrant(){
+		return this.entrant;
+	}
+
+	/**
+	 * Return the number of matches the entrant won.
+	 */
+	@Basic @Immutable
+	public int getWins(){
+		return this.wins;
+	}
+
+	/**
+	 * Return the number of matches of the entrant that ended in a draw.
+	 */
+	@Basic @Immutable
+	public int getDraws(){
+		return this.draws;
+	}
+
+	/**
+	 * Return the number of matches the entrant lost.
+	 */
+	@Basic @Immutable
+	public int getLosses(){
+		return this.losses;
+	}
+
+	/**
+	 * Return the number of matches the entrant played.
+	 *
+	 * @return	| result == getWins() + getDraws() + getLosses()
+	 */
+	public int getMatches(){
+		return this.wins + this.draws + this.losses;
+	}
+
+	/**
+	 * Return the number of points of the entrant.
+	 *
+	 * @return	| result == 3 * getWins() + getDraws()
+	 */
+	public int getPoints(){
+		return 3 * this.wins + this.draws;
+	}
+
+	/**
+	 * Return a textual representation of this standing, as a row of a ranking table.
+	 */
+	@Override
+	public String toString(){
+		return String.format("%3d. %-20s %4d %4d %4d %4d %5d", this.rank, this.entrant.getName(), this.getMatches(),
+				this.wins, this.draws, this.losses, this.getPoints());
+	}
+}
@@ -1,5 +1,7 @@
 package heroes_and_monsters;
 
+import java.util.*;
+
 import be.kuleuven.cs.som.annotate.*;
 
 /**
@@ -34,6 +36,26 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 		super(identification, ownWeight, unit);
 	}
 	
+	/**
+	 * Initialize this new storage of the given world with an identification, own weight and unit.
+	 * 
+	 * @param	world
+	 * 			The world of this storage.
+	 * @param 	identification
+	 * 			The identification of this storage.
+	 * @param	ownWeight
+	 * 			The weight of this storage.
+	 * @param	unit
+	 * 			The unit in which the weight is set.
+	 * @effect	This storage is initialized as an ownable of the given world with the given
+	 * 			identification.
+	 * 			| super(world, identification, ownWeight, unit)
+	 */
+	@Raw @Model
+	protected Storage(World world, long identification, double ownWeight, Unit unit){
+		super(world, identification, ownWeight, unit);
+	}
+	
 	/*****************************************
 	 * identification
 	 *****************************************/
@@ -92,17 +114,169 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 	 */
 	public abstract void addToStorage(Object object) throws IllegalArgumentException;
 	
+	/**
+	 * Add the given object to this storage if that is possible.
+	 * 
+	 * @param 	object
+	 * 			The object to add.
+	 * @return	True if and only if the object could be added to this storage.
+	 * 			| result == canAddToStorage(object)
+	 * @effect	If the object can be added, it is added to this storage.
+	 * 			| if (canAddToStorage(object))
+	 * 			| then	addToStorage(object)
+	 */
+	public boolean tryAddToStorage(Object object){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			if (getAdmission(object) != AdmissionResult.ADMITTED){
+				return false;
+			}
+			this.storeAdmitted(object);
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Add the given object to this storage, without checking whether it can be added.
+	 * 
+	 * @param 	object
+	 * 			The object to add, for which the admission is ADMITTED.
+	 */
+	@Model
+	protected abstract void storeAdmitted(Object object);
+	
+	/**
+	 * Check once whether the given object can be added to this storage and return the
+	 * outcome as a ticket that can be committed later.
+	 * 
+	 * @param 	object
+	 * 			The object to check.
+	 * @return	A ticket for this storage and the given object, with the admission of the
+	 * 			object, its weight, the ancestors of this storage and the current
+	 * 			modification count of the world.
+	 * 			| result.getTarget() == this && result.getObject() == object &&
+	 * 			| result.getResult() == getAdmission(object) &&
+	 * 			| result.getModificationCount() == getWorld().getModificationCount()
+	 */
+	public AdmissionTicket prepareAdd(Object object){
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			long modificationCount = getWorld().getModificationCount();
+			return new AdmissionTicket(this, object, null, getAdmission(object), getWeightOf(object),
+					getAncestors(), modificationCount);
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Add the object of the given ticket to this storage without checking it again.
+	 * 
+	 * @param 	ticket
+	 * 			The ticket to commit.
+	 * @return	The result of the ticket if it wasn't admitted, STALE if the world changed
+	 * 			since the ticket was prepared and ADMITTED otherwise.
+	 * @effect	If the result is ADMITTED, the object of the ticket is added to this storage.
+	 * 			| if (result == AdmissionResult.ADMITTED)
+	 * 			| then	storeAdmitted(ticket.getObject())
+	 * @throws	IllegalArgumentException
+	 * 			The given ticket is not effective or is not for this storage.
+	 * 			| ticket == null || ticket.getTarget() != this
+	 */
+	public AdmissionResult commit(AdmissionTicket ticket) throws IllegalArgumentException {
+		if ((ticket == null) || (ticket.getTarget() != this)){
+			throw new IllegalArgumentException("The ticket is not for this storage.");
+		}
+		int[] locks = ContainmentLock.acquire(this, ticket.getObject());
+		try {
+			if (!ticket.isAdmitted()){
+				return ticket.getResult();
+			}
+			if (ticket.getModificationCount() != getWorld().getModificationCount()){
+				return AdmissionResult.STALE;
+			}
+			this.storeAdmitted(ticket.getObject());
+			return AdmissionResult.ADMITTED;
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+	
+	/**
+	 * Return the backpacks this storage is in and the creature carrying it.
+	 * 
+	 * @return	All the containers of this storage and, if its ultimate holder is a creature,
+	 * 			that creature.
+	 */
+	@Model
+	List<Object> getAncestors(){
+		ArrayList<Object> ancestors = new ArrayList<Object>(getContainersSet());
+		Object root = getUltimateHolder();
+		if (root instanceof Creature){
+			ancestors.add(root);
+		}
+		return ancestors;
+	}
+	
+	/**
+	 * Return the weight in kilogram the given object adds to whatever carries it.
+	 * 
+	 * @param 	object
+	 * 			The object to weigh.
+	 * @return	The total weight of a storage, the own weight of any other ownable, the
+	 * 			weight of a ducat and zero otherwise.
+	 */
+	@Model
+	static double getWeightOf(Object object){
+		if (object instanceof Storage){
+			return ((Storage) object).getTotalWeight(Unit.KG);
+		}
+		else if (object instanceof Ownable){
+			return ((Ownable) object).getOwnWeight(Unit.KG);
+		}
+		else if (object instanceof Ducat){
+			return ((Ducat) object).getWeight(Unit.KG);
+		}
+		return 0;
+	}
+	
 	/**
 	 * Check whether the given object can be added to this storage.
 	 * 
 	 * @param 	object
 	 * 			The object to check.
-	 * @return	True if and only if this ownable and the given object are not terminated.
-	 * 			| result == !getTerminated()
+	 * @return	True if and only if the given object is admitted.
+	 * 			| result == (getAdmission(object) == AdmissionResult.ADMITTED)
 	 */
 	public boolean canAddToStorage(Object object){
-		return ((object == null)||(!getTerminated() &&
-				(!(object instanceof Ownable) || !((Ownable) object).getTerminated())));
+		return (getAdmission(object) == AdmissionResult.ADMITTED);
+	}
+	
+	/**
+	 * Check whether the given object can be added to this storage and tell why not.
+	 * 
+	 * @param 	object
+	 * 			The object to check.
+	 * @return	ADMITTED if the given object is not effective. Otherwise TERMINATED if this
+	 * 			storage or the given object is terminated, OTHER_WORLD if the given object
+	 * 			belongs to another world and ADMITTED otherwise.
+	 */
+	public AdmissionResult getAdmission(Object object){
+		if (object == null){
+			return AdmissionResult.ADMITTED;
+		}
+		if (getTerminated()){
+			return AdmissionResult.TERMINATED;
+		}
+		if (!isInSameWorld(object)){
+			return AdmissionResult.OTHER_WORLD;
+		}
+		if ((object instanceof Ownable) && ((Ownable) object).getTerminated()){
+			return AdmissionResult.TERMINATED;
+		}
+		return AdmissionResult.ADMITTED;
 	}
 	
 	/**
@@ -136,14 +310,8 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 	 * 			The other storage to transfer to.
 	 * @param 	object
 	 * 			The object to transfer.
-	 * @effect	The given object is taken out of this storage.
-	 * 			| this.takeOutOfStorage(object)
-	 * @effect	The given object is added to the other storage.
-	 * 			| other.addToStorage(object)
-	 * @post	If the given object can't be added to the given storage, it's added back where it came
-	 * 			from (possibly indirect storage). Unless it's a ducat, the it's added in this storage.
-	 * 			| if (!canAddToStorage(object))
-	 * 			| then (holder.addToStorage(object))
+	 * @effect	The given object is transferred to the other storage if that is possible.
+	 * 			| tryTransferToStorage(other, object)
 	 * @throws 	IllegalArgumentException
 	 * 			The given object can't be taken out of this storage.
 	 * 			| !this.canTakeOutOfStorage(object)
@@ -153,19 +321,47 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 	 */
 	public void transferToStorage(Storage other, Object object)
 			throws IllegalArgumentException {
-		Object holder;
-		if (object instanceof Ownable){
-			holder = ((Ownable) object).getHolder();
-		}
-		else {
-			holder = this;
+		if (!tryTransferToStorage(other, object)){
+			throw new IllegalArgumentException("The object can't be transferred to the other storage.");
 		}
-		this.takeOutOfStorage(object);
+	}
+	
+	/**
+	 * Transfer an object from this storage to the given storage if that is possible.
+	 * 
+	 * @param 	other
+	 * 			The other storage to transfer to.
+	 * @param 	object
+	 * 			The object to transfer.
+	 * @return	False if the given object can't be taken out of this storage or can't be added
+	 * 			to the other storage, true otherwise.
+	 * @effect	If the given object can be taken out of this storage, it is taken out.
+	 * 			| if (canTakeOutOfStorage(object))
+	 * 			| then	this.takeOutOfStorage(object)
+	 * @effect	If the given object can then be added to the other storage, it is added.
+	 * 			| if (other.canAddToStorage(object))
+	 * 			| then	other.addToStorage(object)
+	 * @post	If the given object can't be added to the given storage, it's added back where it came
+	 * 			from (possibly indirect storage). Unless it's a ducat, the it's added in this storage.
+	 * 			| if (!canAddToStorage(object))
+	 * 			| then (holder.addToStorage(object))
+	 */
+	public boolean tryTransferToStorage(Storage other, Object object){
+		int[] locks = ContainmentLock.acquire(this, other);
 		try {
-			other.addToStorage(object);
-		} catch (Exception e) {
-			((Storage) holder).addToStorage(object);
-			throw e;
+			if (!this.canTakeOutOfStorage(object)){
+				return false;
+			}
+			Object holder = getRestoreHolderOf(object);
+			this.takeOutOfStorage(object);
+			if (other.getAdmission(object) != AdmissionResult.ADMITTED){
+				((Storage) holder).addToStorage(object);
+				return false;
+			}
+			other.storeAdmitted(object);
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -179,15 +375,8 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 	 * 			The creature to transfer to.
 	 * @param 	anchor
 	 * 			The anchor to put the given object in.
-	 * @effect	The given object is taken out of this storage.
-	 * 			| this.takeOutOfStorage(object)
-	 * @effect	The given object is added to the given anchor from the given creature.
-	 * 			| creature.addToAnchor(object, anchor)
-	 * @post	If the given object can't be added to the given anchor from the given object, it's added
-	 * 			back where it came from (possibly indirect storage). Unless it's a ducat, the it's added in
-	 * 			this storage.
-	 * 			| if (!canAddToAnchor(object, anchor))
-	 * 			| then (holder.addToStorage(object))
+	 * @effect	The given object is transferred to the given anchor if that is possible.
+	 * 			| tryTransferToCreature(object, creature, anchor)
 	 * @throws 	IllegalArgumentException
 	 * 			The given object can't be taken out of this storage.
 	 * 			| !this.canTakeOutOfStorage(object)
@@ -197,22 +386,72 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 	 */
 	public void transferToCreature(Object object, Creature creature, String anchor)
 			throws IllegalArgumentException {
-		Object holder;
-		if (object instanceof Ownable){
-			holder = ((Ownable) object).getHolder();
-		}
-		else {
-			holder = this;
+		if (!tryTransferToCreature(object, creature, anchor)){
+			throw new IllegalArgumentException("The object can't be transferred to this anchor.");
 		}
-		this.takeOutOfStorage(object);
+	}
+	
+	/**
+	 * Transfer the given object from this storage to the given anchor of the given
+	 * creature if that is possible.
+	 * 
+	 * @param 	object
+	 * 			The object to transfer.
+	 * @param 	creature
+	 * 			The creature to transfer to.
+	 * @param 	anchor
+	 * 			The anchor to put the given object in.
+	 * @return	False if the given object can't be taken out of this storage or can't be added
+	 * 			to the given anchor, true otherwise.
+	 * @effect	If the given object can be taken out of this storage, it is taken out.
+	 * 			| if (canTakeOutOfStorage(object))
+	 * 			| then	this.takeOutOfStorage(object)
+	 * @effect	If the given object can then be added to the given anchor, it is added.
+	 * 			| if (creature.canAddToAnchor(object, anchor))
+	 * 			| then	creature.addToAnchor(object, anchor)
+	 * @post	If the given object can't be added to the given anchor from the given object, it's added
+	 * 			back where it came from (possibly indirect storage). Unless it's a ducat, the it's added in
+	 * 			this storage.
+	 * 			| if (!canAddToAnchor(object, anchor))
+	 * 			| then (holder.addToStorage(object))
+	 */
+	public boolean tryTransferToCreature(Object object, Creature creature, String anchor){
+		int[] locks = ContainmentLock.acquire(this, creature);
 		try {
-			creature.addToAnchor(object, anchor);
-		} catch (Exception e) {
-			((Storage) holder).addToStorage(object);
-			throw e;
+			if (!this.canTakeOutOfStorage(object)){
+				return false;
+			}
+			Object holder = getRestoreHolderOf(object);
+			this.takeOutOfStorage(object);
+			if (creature.getAdmission(object, anchor) != AdmissionResult.ADMITTED){
+				((Storage) holder).addToStorage(object);
+				return false;
+			}
+			creature.attachAdmitted(object, anchor);
+			return true;
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
+	/**
+	 * Return the storage the given object must be put back in if a transfer fails.
+	 * 
+	 * @param 	object
+	 * 			The object that is transferred.
+	 * @return	The holder of the given object if it is an ownable, this storage otherwise.
+	 * 			| if (object instanceof Ownable)
+	 * 			| then	result == object.getHolder()
+	 * 			| else	result == this
+	 */
+	@Model
+	private Object getRestoreHolderOf(Object object){
+		if (object instanceof Ownable){
+			return ((Ownable) object).getHolder();
+		}
+		return this;
+	}
+	
 	/**
 	 * The content of this storage is emptied.
 	 * 
@@ -239,9 +478,14 @@ public abstract class Storage extends Ownable implements Capacity, Comparable<St
 	 */
 	public void removeFromStorageAndTerminate(Object object)
 			throws IllegalArgumentException {
-		this.takeOutOfStorage(object);
-		if (object instanceof Ownable) {
-			((Ownable) object).terminate();
+		int[] locks = ContainmentLock.acquire(this, object);
+		try {
+			this.takeOutOfStorage(object);
+			if (object instanceof Ownable) {
+				((Ownable) object).terminate();
+			}
+		} finally {
+			ContainmentLock.release(locks);
 		}
 	}
 	
@@ -0,0 +1,701 @@
+package heroes_and_monsters;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of tournaments between entrants that each make a creature for every match. A
+ * tournament is played once, as a round robin, in which every entrant meets every other
+ * entrant, or as a knockout, in which the entrants are paired in the order they were
+ * given and only the winners go through to the next round.
+ *
+ * Every match is a duel as in the main program: in a new world, a random one of both
+ * creatures hits first and then they hit each other in turn until one of them is dead.
+ * Creatures that can't hit each other, like two heroes, draw without a fight, and a match
+ * that lasts longer than the timeout is stopped and counts as a draw. A win is worth 3
+ * points and a draw 1 point.
+ *
+ * The matches are fought on a fixed number of threads, by default one for every
+ * processor, because a match never waits for anything. Every round is played as a whole:
+ * it only ends when all of its matches have ended, and when a match fails or the
+ * tournament is cancelled, the matches that are still being fought stop at their next hit
+ * and no new matches are started. At most a fixed number of matches are in flight at any
+ * time, so the creatures and worlds of a large round robin are never all in memory at once.
+ * The standings can be asked for at any time, also while the tournament is being played,
+ * and a listener is told about every result together with the standings right after it.
+ *
+ * @invar	The number of threads and the maximum number of matches in flight are positive.
+ * 			| getNumberOfThreads() > 0 && getMaximumInFlight() > 0
+ * @invar	The timeout of a match is positive.
+ * 			| getMatchTimeout() > 0
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public final class Tournament {
+
+	/**
+	 * Initialize this new tournament between the given entrants.
+	 *
+	 * @param 	entrants
+	 * 			The entrants, best seed first.
+	 * @param 	threads
+	 * 			The number of threads that fight the matches.
+	 * @param 	maximumInFlight
+	 * 			The number of matches that may be in flight at the same time.
+	 * @post	The entrants of this new tournament are the given entrants, in the same order.
+	 * 			| new.getEntrants().equals(entrants)
+	 * @post	| new.getNumberOfThreads() == threads && new.getMaximumInFlight() == maximumInFlight
+	 * @throws	IllegalArgumentException
+	 * 			The list is not effective, has fewer than two entrants or has an entrant that
+	 * 			is not effective or in it twice, or the number of threads or the maximum
+	 * 			number of matches in flight is not positive.
+	 * 			| entrants == null || entrants.size() < 2 || entrants.contains(null) ||
+	 * 			| threads < 1 || maximumInFlight < 1
+	 */
+	public Tournament(List<? extends TournamentEntrant> entrants, int threads, int maximumInFlight)
+			throws IllegalArgumentException {
+		if ((entrants == null) || (entrants.size() < 2)){
+			throw new IllegalArgumentException("A tournament needs at least two entrants.");
+		}
+		IdentityHashMap<TournamentEntrant, Boolean> seen = new IdentityHashMap<TournamentEntrant, Boolean>();
+		for (TournamentEntrant entrant: entrants){
+			if (entrant == null){
+				throw new IllegalArgumentException("Every entrant must be effective.");
+			}
+			if (seen.put(entrant, Boolean.TRUE) != null){
+				throw new IllegalArgumentException("An entrant can't take part twice.");
+			}
+		}
+		if ((threads < 1) || (maximumInFlight < 1)){
+			throw new IllegalArgumentException("A tournament needs at least one thread and one match in flight.");
+		}
+		this.entrants = new ArrayList<TournamentEntrant>(entrants);
+		this.records = new Record[entrants.size()];
+		for (int i = 0; i < this.records.length; i++){
+			this.records[i] = new Record(i);
+		}
+		this.threads = threads;
+		this.maximumInFlight = maximumInFlight;
+	}
+
+	/**
+	 * Initialize this new tournament between the given entrants, with one thread for every
+	 * available processor and four matches in flight for every thread.
+	 *
+	 * @effect	| this(entrants, Runtime.getRuntime().availableProcessors(),
+	 * 			|	4 * Runtime.getRuntime().availableProcessors())
+	 */
+	public Tournament(List<? extends TournamentEntrant> entrants) throws IllegalArgumentException {
+		this(entrants, Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Variable referencing the entrants, best seed first.
+	 */
+	private final List<TournamentEntrant> entrants;
+
+	/**
+	 * Variable referencing the results of every entrant so far, in the order of the entrants.
+	 * The records are only read and changed while holding this array.
+	 */
+	private final Record[] records;
+
+	/**
+	 * Variable referencing the lock that is held while a listener handles a result. It is
+	 * private, so a listener that synchronizes on itself can't block the matches.
+	 */
+	private final Object listenerLock = new Object();
+
+	/**
+	 * Variable registering the number of threads of this tournament.
+	 */
+	private final int threads;
+
+	/**
+	 * Variable registering the number of matches that may be in flight at the same time.
+	 */
+	private final int maximumInFlight;
+
+	/**
+	 * Variable registering the number of milliseconds a match may last.
+	 */
+	private volatile long matchTimeout = 10000;
+
+	/**
+	 * Variable registering whether this tournament has been played or is being played.
+	 */
+	private final AtomicBoolean started = new AtomicBoolean();
+
+	/**
+	 * Variable registering whether this tournament was cancelled.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Variable registering whether the matches that are being fought must stop, because
+	 * the tournament was cancelled or a match failed.
+	 */
+	private volatile boolean stopping = false;
+
+	/**
+	 * Variable registering the number of matches of this tournament, once it is known.
+	 */
+	private volatile int numberOfMatches = 0;
+
+	/**
+	 * Variable registering the number of matches played so far.
+	 */
+	private final AtomicInteger numberOfMatchesPlayed = new AtomicInteger();
+
+	/**
+	 * Variable referencing the winner of the knockout, if there is one.
+	 */
+	private volatile TournamentEntrant champion = null;
+
+	/**
+	 * Return the entrants of this tournament, best seed first.
+	 */
+	@Basic @Immutable
+	public List<TournamentEntrant> getEntrants(){
+		return new ArrayList<TournamentEntrant>(this.entrants);
+	}
+
+	/**
+	 * Return the number of threads of this tournament.
+	 */
+	@Basic @Immutable
+	public int getNumberOfThreads(){
+		return this.threads;
+	}
+
+	/**
+	 * Return the number of matches that may be in flight at the same time.
+	 */
+	@Basic @Immutable
+	public int getMaximumInFlight(){
+		return this.maximumInFlight;
+	}
+
+	/**
+	 * Return the number of milliseconds a match may last before it is stopped.
+	 */
+	@Basic
+	public long getMatchTimeout(){
+		return this.matchTimeout;
+	}
+
+	/**
+	 * Set the number of milliseconds a match may last before it is stopped. The new
+	 * timeout applies to the matches that start after this call.
+	 *
+	 * @param 	matchTimeout
+	 * 			The number of milliseconds.
+	 * @post	| new.getMatchTimeout() == matchTimeout
+	 * @throws	IllegalArgumentException
+	 * 			| matchTimeout < 1
+	 */
+	public void setMatchTimeout(long matchTimeout) throws IllegalArgumentException {
+		if (matchTimeout < 1){
+			throw new IllegalArgumentException("The timeout of a match must be positive.");
+		}
+		this.matchTimeout = matchTimeout;
+	}
+
+	/**
+	 * Return the number of matches of this tournament, or 0 if it hasn't started yet.
+	 * For a round robin between n entrants, this is n(n-1)/2; for a knockout, n-1.
+	 */
+	@Basic
+	public int getNumberOfMatches(){
+		return this.numberOfMatches;
+	}
+
+	/**
+	 * Return the number of matches played so far.
+	 */
+	@Basic
+	public int getNumberOfMatchesPlayed(){
+		return this.numberOfMatchesPlayed.get();
+	}
+
+	/**
+	 * Return whether this tournament was cancelled.
+	 */
+	@Basic
+	public boolean isCancelled(){
+		return this.cancelled;
+	}
+
+	/**
+	 * Return the winner of the knockout, or null if no knockout was played to the end.
+	 */
+	@Basic
+	public TournamentEntrant getChampion(){
+		return this.champion;
+	}
+
+	/**
+	 * Cancel this tournament. The matches that are being fought stop at their next hit
+	 * and don't count, and no new matches are started.
+	 *
+	 * @post	| new.isCancelled()
+	 */
+	public void cancel(){
+		this.cancelled = true;
+		this.stopping = true;
+	}
+
+	/**
+	 * Return the standings of all entrants, best entrant first. Entrants are ranked by
+	 * their points, then by their wins and then in the order they were given. This method
+	 * can be called at any time, also while the tournament is being played.
+	 *
+	 * @return	A new list with a standing for every entrant.
+	 */
+	public List<Standing> getStandings(){
+		return this.rank(this.snapshot());
+	}
+
+	/**
+	 * Return a ranking table of the given standings, with a header and a row for every standing.
+	 *
+	 * @param 	standings
+	 * 			The standings to show.
+	 * @throws	IllegalArgumentException
+	 * 			| standings == null
+	 */
+	public static String toTable(List<Standing> standings) throws IllegalArgumentException {
+		if (standings == null){
+			throw new IllegalArgumentException("The standings must be effective.");
+		}
+		StringBuilder table = new StringBuilder(String.format("%3s  %-20s %4s %4s %4s %4s %5s%n", "#", "Entrant",
+				"P", "W", "D", "L", "Pts"));
+		for (Standing standing: standings){
+			table.append(standing).append(String.format("%n"));
+		}
+		return table.toString();
+	}
+
+	/**
+	 * Let every entrant meet every other entrant once.
+	 *
+	 * @param 	listener
+	 * 			The listener that is told about every result as soon as it is known, or null.
+	 * @return	The final standings, or the standings so far if the tournament was cancelled.
+	 * 			| result == getStandings()
+	 * @throws	IllegalStateException
+	 * 			This tournament has already been played, or an entrant failed to make a
+	 * 			creature in the world of its match; the exception is then the cause.
+	 * @throws	InterruptedException
+	 * 			The current thread was interrupted while the matches were fought; the
+	 * 			matches that were being fought are stopped first.
+	 */
+	public List<Standing> playRoundRobin(TournamentListener listener) throws IllegalStateException, InterruptedException {
+		this.start();
+		final int size = this.entrants.size();
+		this.numberOfMatches = size * (size - 1) / 2;
+		ExecutorService executor = this.newExecutor();
+		try {
+			this.playRound(executor, 1, new Iterator<int[]>(){
+				private int first = 0;
+				private int second = 1;
+
+				@Override
+				public boolean hasNext(){
+					return this.second < size;
+				}
+
+				@Override
+				public int[] next(){
+					int[] pair = new int[]{this.first, this.second};
+					if (++this.second == size){
+						this.first++;
+						this.second = this.first + 1;
+					}
+					return pair;
+				}
+			}, listener, null);
+		} finally {
+			executor.shutdown();
+		}
+		return this.getStandings();
+	}
+
+	/**
+	 * Let every entrant meet every other entrant once, without listener.
+	 *
+	 * @effect	| playRoundRobin(null)
+	 */
+	public List<Standing> playRoundRobin() throws IllegalStateException, InterruptedException {
+		return this.playRoundRobin(null);
+	}
+
+	/**
+	 * Play a knockout between the entrants. In every round, the remaining entrants are
+	 * paired in their order; if their number is odd, the last one goes through without a
+	 * match. The winner of every match goes through in the place of the pair; after a
+	 * draw, the first entrant of the pair, the best seed, goes through.
+	 *
+	 * @param 	listener
+	 * 			The listener that is told about every result as soon as it is known, or null.
+	 * @return	The final standings, or the standings so far if the tournament was cancelled.
+	 * 			| result == getStandings()
+	 * @post	If the knockout was played to the end, the entrant that went through the
+	 * 			last round is the champion.
+	 * @throws	IllegalStateException
+	 * 			This tournament has already been played, or an entrant failed to make a
+	 * 			creature in the world of its match; the exception is then the cause.
+	 * @throws	InterruptedException
+	 * 			The current thread was interrupted while the matches were fought; the
+	 * 			matches that were being fought are stopped first.
+	 */
+	public List<Standing> playKnockout(TournamentListener listener) throws IllegalStateException, InterruptedException {
+		this.start();
+		this.numberOfMatches = this.entrants.size() - 1;
+		int[] remaining = new int[this.entrants.size()];
+		for (int i = 0; i < remaining.length; i++){
+			remaining[i] = i;
+		}
+		ExecutorService executor = this.newExecutor();
+		try {
+			int round = 1;
+			while ((remaining.length > 1) && !this.stopping){
+				final int[] bracket = remaining;
+				final int pairs = bracket.length / 2;
+				int[] winners = new int[pairs];
+				this.playRound(executor, round, new Iterator<int[]>(){
+					private int pair = 0;
+
+					@Override
+					public boolean hasNext(){
+						return this.pair < pairs;
+					}
+
+					@Override
+					public int[] next(){
+						int[] match = new int[]{bracket[2 * this.pair], bracket[2 * this.pair + 1], this.pair};
+						this.pair++;
+						return match;
+					}
+				}, listener, winners);
+				remaining = new int[pairs + bracket.length % 2];
+				System.arraycopy(winners, 0, remaining, 0, pairs);
+				if (bracket.length % 2 == 1){
+					remaining[pairs] = bracket[bracket.length - 1];
+				}
+				round++;
+			}
+		} finally {
+			executor.shutdown();
+		}
+		if (!this.stopping){
+			this.champion = this.entrants.get(remaining[0]);
+		}
+		return this.getStandings();
+	}
+
+	/**
+	 * Play a knockout between the entrants, without listener.
+	 *
+	 * @effect	| playKnockout(null)
+	 */
+	public List<Standing> playKnockout() throws IllegalStateException, InterruptedException {
+		return this.playKnockout(null);
+	}
+
+	/**
+	 * Mark this tournament as started.
+	 *
+	 * @throws	IllegalStateException
+	 * 			This tournament has already been played or is being played.
+	 */
+	@Model
+	private void start() throws IllegalStateException {
+		if (!this.started.compareAndSet(false, true)){
+			throw new IllegalStateException("A tournament can only be played once.");
+		}
+	}
+
+	/**
+	 * Return a new pool with the threads of this tournament, for one play.
+	 */
+	@Model
+	private ExecutorService newExecutor(){
+		return Executors.newFixedThreadPool(this.threads, new ThreadFactory(){
+			private final AtomicInteger number = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable runnable){
+				Thread thread = new Thread(runnable, "tournament-" + number.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Fight the given matches of one round and wait until they have all ended.
+	 *
+	 * @param 	executor
+	 * 			The threads of the current play of this tournament.
+	 * @param 	round
+	 * 			The number of the round.
+	 * @param 	matches
+	 * 			The matches, each one the indices of both entrants and, for a knockout,
+	 * 			the index of the pair.
+	 * @param 	listener
+	 * 			The listener to tell about every result, or null.
+	 * @param 	winners
+	 * 			The array in which the index of the entrant that goes through is stored at
+	 * 			the index of every pair, or null.
+	 * @throws	IllegalStateException
+	 * 			A match failed; the exception is the cause.
+	 * @throws	InterruptedException
+	 * 			The current thread was interrupted.
+	 */
+	@Model
+	private void playRound(ExecutorService executor, final int round, Iterator<int[]> matches,
+			final TournamentListener listener, final int[] winners) throws IllegalStateException, InterruptedException {
+		final Semaphore inFlight = new Semaphore(this.maximumInFlight);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		try {
+			while (matches.hasNext() && !this.stopping){
+				final int[] match = matches.next();
+				inFlight.acquire();
+				if (this.stopping){
+					inFlight.release();
+					break;
+				}
+				executor.execute(new Runnable(){
+					@Override
+					public void run(){
+						try {
+							MatchResult result = playMatch(round, match[0], match[1]);
+							if (result != null){
+								if (winners != null){
+									winners[match[2]] = (result.getWinner() == result.getSecond()) ? match[1] : match[0];
+								}
+								record(match[0], match[1], result, listener);
+							}
+						} catch (RuntimeException e) {
+							failure.compareAndSet(null, e);
+							stopping = true;
+						} catch (Error e) {
+							failure.compareAndSet(null, e);
+							stopping = true;
+						} finally {
+							inFlight.release();
+						}
+					}
+				});
+			}
+			// The round only ends when none of its matches is in flight any more.
+			inFlight.acquire(this.maximumInFlight);
+		} catch (InterruptedException e) {
+			this.stopping = true;
+			inFlight.acquireUninterruptibly(this.maximumInFlight);
+			throw e;
+		}
+		if (failure.get() != null){
+			throw new IllegalStateException("A match of the tournament failed.", failure.get());
+		}
+	}
+
+	/**
+	 * Fight a match between the entrants with the given indices in a new world.
+	 *
+	 * @param 	round
+	 * 			The number of the round.
+	 * @param 	first
+	 * 			The index of the first entrant.
+	 * @param 	second
+	 * 			The index of the second entrant.
+	 * @return	The result of the match, or null if it was stopped because the tournament
+	 * 			is stopping.
+	 * @throws	IllegalStateException
+	 * 			One of the entrants didn't make a creature in the world of the match.
+	 */
+	@Model
+	private MatchResult playMatch(int round, int first, int second) throws IllegalStateException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.matchTimeout);
+		TournamentEntrant firstEntrant = this.entrants.get(first);
+		TournamentEntrant secondEntrant = this.entrants.get(second);
+		World world = new World();
+		Creature firstCreature = firstEntrant.createCreature(world);
+		Creature secondCreature = secondEntrant.createCreature(world);
+		if ((firstCreature == null) || (firstCreature.getWorld() != world) || firstCreature.getKilled()){
+			throw new IllegalStateException(firstEntrant.getName() + " made no living creature in the given world.");
+		}
+		if ((secondCreature == null) || (secondCreature.getWorld() != world) || secondCreature.getKilled() ||
+				(secondCreature == firstCreature)){
+			throw new IllegalStateException(secondEntrant.getName() + " made no living creature in the given world.");
+		}
+		if (!firstCreature.canHitCreature(secondCreature) || !secondCreature.canHitCreature(firstCreature) ||
+				((firstCreature.getHitProbability() == 0) && (secondCreature.getHitProbability() == 0))){
+			return new MatchResult(round, firstEntrant, secondEntrant, null, 0, false);
+		}
+		boolean firstTurn = ThreadLocalRandom.current().nextBoolean();
+		long hits = 0;
+		while (!firstCreature.getKilled() && !secondCreature.getKilled()){
+			if (this.stopping){
+				return null;
+			}
+			if (System.nanoTime() - deadline > 0){
+				return new MatchResult(round, firstEntrant, secondEntrant, null, hits, true);
+			}
+			if (firstTurn){
+				firstCreature.hit(secondCreature);
+			}
+			else {
+				secondCreature.hit(firstCreature);
+			}
+			hits++;
+			firstTurn = !firstTurn;
+		}
+		TournamentEntrant winner = firstCreature.getKilled() ? secondEntrant : firstEntrant;
+		return new MatchResult(round, firstEntrant, secondEntrant, winner, hits, false);
+	}
+
+	/**
+	 * Record the given result of the match between the entrants with the given indices
+	 * and tell the given listener about it.
+	 */
+	@Model
+	private void record(int first, int second, MatchResult result, TournamentListener listener){
+		if (listener == null){
+			this.record(first, second, result, false);
+			return;
+		}
+		// The listener lock is held while recording, so the listener gets the results in the
+		// order of the standings, one at a time.
+		synchronized (this.listenerLock){
+			listener.handle(result, this.rank(this.record(first, second, result, true)));
+		}
+	}
+
+	/**
+	 * Record the given result of the match between the entrants with the given indices.
+	 * Only the counters are changed while holding the records; the standings are ranked
+	 * by the caller, outside the lock.
+	 *
+	 * @param	copy
+	 * 			Whether to return a copy of the records right after the match.
+	 * @return	A copy of the records right after the match if copy is true, null otherwise.
+	 */
+	@Model
+	private Record[] record(int first, int second, MatchResult result, boolean copy){
+		synchronized (this.records){
+			if (result.isDraw()){
+				this.records[first].draws++;
+				this.records[second].draws++;
+			}
+			else if (result.getWinner() == result.getFirst()){
+				this.records[first].wins++;
+				this.records[second].losses++;
+			}
+			else {
+				this.records[second].wins++;
+				this.records[first].losses++;
+			}
+			this.numberOfMatchesPlayed.incrementAndGet();
+			return copy ? this.copyRecords() : null;
+		}
+	}
+
+	/**
+	 * Return a copy of the records of all entrants.
+	 */
+	@Model
+	private Record[] snapshot(){
+		synchronized (this.records){
+			return this.copyRecords();
+		}
+	}
+
+	/**
+	 * Return a copy of the records of all entrants. The records must be held.
+	 */
+	@Model
+	private Record[] copyRecords(){
+		Record[] copy = new Record[this.records.length];
+		for (int i = 0; i < copy.length; i++){
+			copy[i] = new Record(this.records[i]);
+		}
+		return copy;
+	}
+
+	/**
+	 * Return the standings of the given copy of the records, best entrant first. The copy
+	 * is sorted in place.
+	 */
+	@Model
+	private List<Standing> rank(Record[] ranking){
+		Arrays.sort(ranking, RANKING);
+		List<Standing> standings = new ArrayList<Standing>(ranking.length);
+		for (int i = 0; i < ranking.length; i++){
+			Record record = ranking[i];
+			standings.add(new Standing(i + 1, this.entrants.get(record.index), record.wins, record.draws, record.losses));
+		}
+		return standings;
+	}
+
+	/**
+	 * Variable referencing the order of the ranking: most points first, then most wins,
+	 * then the order of the entrants.
+	 */
+	private static final Comparator<Record> RANKING = new Comparator<Record>(){
+		@Override
+		public int compare(Record first, Record second){
+			int points = (3 * second.wins + second.draws) - (3 * first.wins + first.draws);
+			if (points != 0){
+				return points;
+			}
+			if (first.wins != second.wins){
+				return second.wins - first.wins;
+			}
+			return first.index - second.index;
+		}
+	};
+
+	/**
+	 * A class of records of the results of an entrant so far.
+	 */
+	private static class Record {
+
+		Record(int index){
+			this.index = index;
+		}
+
+		Record(Record record){
+			this.index = record.index;
+			this.wins = record.wins;
+			this.draws = record.draws;
+			this.losses = record.losses;
+		}
+
+		/**
+		 * Variable registering the index of the entrant.
+		 */
+		private final int index;
+
+		/**
+		 * Variable registering the number of wins.
+		 */
+		private int wins = 0;
+
+		/**
+		 * Variable registering the number of draws.
+		 */
+		private int draws = 0;
+
+		/**
+		 * Variable registering the number of losses.
+		 */
+		private int losses = 0;
+	}
+}
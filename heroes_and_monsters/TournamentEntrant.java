@@ -0,0 +1,25 @@
+package heroes_and_monsters;
+
+/**
+ * An interface for the entrants of a tournament. A creature is changed by every fight,
+ * so an entrant makes a new creature for every match it plays.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface TournamentEntrant {
+
+	/**
+	 * Return the name of this entrant, as it is shown in the standings.
+	 */
+	String getName();
+
+	/**
+	 * Return a new creature of this entrant in the given world. This method is called by
+	 * several threads at once, each one with its own world.
+	 *
+	 * @param 	world
+	 * 			The world to make the creature in.
+	 */
+	Creature createCreature(World world);
+}
@@ -0,0 +1,25 @@
+package heroes_and_monsters;
+
+import java.util.List;
+
+/**
+ * An interface for objects that want to be told about the result of every match of a
+ * tournament as soon as it is known, together with the standings after it.
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public interface TournamentListener {
+
+	/**
+	 * Handle the given result. The results of one tournament are handled one at a time,
+	 * but not necessarily on the thread that plays the tournament, nor in the order the
+	 * matches were drawn.
+	 *
+	 * @param 	result
+	 * 			The result of a match.
+	 * @param 	standings
+	 * 			The standings right after the match, best entrant first.
+	 */
+	void handle(MatchResult result, List<Standing> standings);
+}
@@ -0,0 +1,191 @@
+package heroes_and_monsters;
+
+import java.util.*;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of wallets, summarizing the value of everything a creature carries. The
+ * summary is computed in one pass over the anchors of the creature and the content
+ * of the backpacks on them.
+ *
+ * @author	Linde en Lotte
+ * @version	1.0
+ */
+@Value
+public final class Wallet {
+
+	/**
+	 * Initialize this new wallet with the value of everything the given creature carries.
+	 *
+	 * @param 	creature
+	 * 			The creature to summarize.
+	 * @post	The loose ducats of this wallet are the sum of all ducats on the anchors of the
+	 * 			creature and in the backpacks it carries.
+	 * @post	The purse ducats of this wallet are the sum of the content of all purses the
+	 * 			creature carries.
+	 * @post	The backpack value of this wallet is the sum of the standard value of all
+	 * 			backpacks the creature carries.
+	 * @post	The equipment value of this wallet is the sum of the value of all weapons and
+	 * 			armors the creature carries.
+	 * @throws	IllegalArgumentException
+	 * 			The given creature is not effective.
+	 * 			| creature == null
+	 * @throws	IllegalArgumentException
+	 * 			One of the sums does not fit in a ledger.
+	 */
+	public Wallet(Creature creature) throws IllegalArgumentException {
+		if (creature == null){
+			throw new IllegalArgumentException("Creature is not effective");
+		}
+		int[] locks = ContainmentLock.acquire(creature, null);
+		try {
+			Iterator<Object> iterator = creature.getAnchors().values().iterator();
+			while (iterator.hasNext()){
+				Object object = iterator.next();
+				count(object);
+				if (object instanceof Backpack){
+					Enumeration<Object> enumeration = ((Backpack) object).getBackpackIterator();
+					while (enumeration.hasMoreElements()){
+						count(enumeration.nextElement());
+					}
+				}
+			}
+		} finally {
+			ContainmentLock.release(locks);
+		}
+	}
+
+	/**
+	 * Add the value of the given object to the right total of this wallet.
+	 *
+	 * @param 	object
+	 * 			The object to count.
+	 */
+	@Model
+	private void count(Object object) throws IllegalArgumentException {
+		if (object instanceof Ducat){
+			looseDucats = looseDucats.add((Ducat) object);
+		}
+		else if (object instanceof Purse){
+			purseDucats = purseDucats.add(((Purse) object).getContent());
+		}
+		else if (object instanceof Backpack){
+			backpackValue = backpackValue.add(((Backpack) object).getStandardValue());
+		}
+		else if (object instanceof Ownable){
+			equipmentValue = equipmentValue.add(((Ownable) object).getValue());
+		}
+	}
+
+	/**
+	 * Variable referencing the sum of the loose ducats.
+	 */
+	private DucatLedger looseDucats = DucatLedger.EMPTY;
+
+	/**
+	 * Variable referencing the sum of the content of the purses.
+	 */
+	private DucatLedger purseDucats = DucatLedger.EMPTY;
+
+	/**
+	 * Variable referencing the sum of the standard values of the backpacks.
+	 */
+	private DucatLedger backpackValue = DucatLedger.EMPTY;
+
+	/**
+	 * Variable referencing the sum of the values of the weapons and armors.
+	 */
+	private DucatLedger equipmentValue = DucatLedger.EMPTY;
+
+	/**
+	 * Return the sum of the loose ducats the creature carries.
+	 */
+	@Basic @Immutable
+	public DucatLedger getLooseDucats(){
+		return looseDucats;
+	}
+
+	/**
+	 * Return the sum of the content of the purses the creature carries.
+	 */
+	@Basic @Immutable
+	public DucatLedger getPurseDucats(){
+		return purseDucats;
+	}
+
+	/**
+	 * Return the sum of the standard values of the backpacks the creature carries.
+	 */
+	@Basic @Immutable
+	public DucatLedger getBackpackValue(){
+		return backpackValue;
+	}
+
+	/**
+	 * Return the sum of the values of the weapons and armors the creature carries.
+	 */
+	@Basic @Immutable
+	public DucatLedger getEquipmentValue(){
+		return equipmentValue;
+	}
+
+	/**
+	 * Return the sum of all the ducats the creature carries, loose or in purses.
+	 *
+	 * @return	The sum of the loose ducats and the purse ducats.
+	 * 			| result.equals(getLooseDucats().add(getPurseDucats()))
+	 */
+	public DucatLedger getLiquidFunds(){
+		return getLooseDucats().add(getPurseDucats());
+	}
+
+	/**
+	 * Return the total value of everything the creature carries.
+	 *
+	 * @return	The sum of the liquid funds, the backpack value and the equipment value.
+	 * 			| result.equals(getLiquidFunds().add(getBackpackValue()).add(getEquipmentValue()))
+	 */
+	public DucatLedger getTotal(){
+		return getLiquidFunds().add(getBackpackValue()).add(getEquipmentValue());
+	}
+
+	/**
+	 * Check whether this wallet has the same sums as the given object.
+	 *
+	 * @return	True if and only if the given object is an effective wallet with the same
+	 * 			loose ducats, purse ducats, backpack value and equipment value.
+	 * 			| result ==
+	 * 			|	( (other != null)
+	 * 			|	&& (this.getClass() == other.getClass())
+	 * 			|	&& getLooseDucats().equals(((Wallet) other).getLooseDucats())
+	 * 			|	&& getPurseDucats().equals(((Wallet) other).getPurseDucats())
+	 * 			|	&& getBackpackValue().equals(((Wallet) other).getBackpackValue())
+	 * 			|	&& getEquipmentValue().equals(((Wallet) other).getEquipmentValue()) )
+	 */
+	@Override
+	public boolean equals(Object other){
+		if ((other == null) || (this.getClass() != other.getClass())){
+			return false;
+		}
+		Wallet wallet = (Wallet) other;
+		return looseDucats.equals(wallet.looseDucats) && purseDucats.equals(wallet.purseDucats) &&
+				backpackValue.equals(wallet.backpackValue) && equipmentValue.equals(wallet.equipmentValue);
+	}
+
+	/**
+	 * Return the hash code of this wallet.
+	 */
+	@Override
+	public int hashCode(){
+		return Objects.hash(looseDucats, purseDucats, backpackValue, equipmentValue);
+	}
+
+	/**
+	 * Return the total value of this wallet as a string.
+	 */
+	@Override
+	public String toString(){
+		return getTotal().toString();
+	}
+}
@@ -3,6 +3,7 @@ package heroes_and_monsters;
 import be.kuleuven.cs.som.annotate.*;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.OptionalInt;
 
 import Exceptions.OwnableIsTerminatedException;
 
@@ -38,7 +39,29 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	 */
 	@Raw
 	public Weapon(double weight, Unit unit, int damage){
-		super(calculateValidIdentification(), weight, unit);
+		this(World.getDefaultWorld(), weight, unit, damage);
+	}
+	
+	/**
+	 * Initialize this new weapon of the given world with an identification, weight, unit
+	 * and damage.
+	 * 
+	 * @param	world
+	 * 			The world of this weapon.
+	 * @param	weight
+	 * 			The weight of this weapon.
+	 * @param	unit
+	 * 			The unit in which the weight is set.
+	 * @param	damage
+	 * 			The damage of this weapon
+	 * @pre   	the given damage must be a legal number.
+	 * @effect	This weapon is initialized as an ownable of the given world with a calculated
+	 * 			identification and the given weight and unit.
+	 * @post	The damage of this weapon is set to damage.
+	 */
+	@Raw
+	public Weapon(World world, double weight, Unit unit, int damage){
+		super(world, calculateValidIdentification(world), weight, unit);
 		setCurrentDamage(damage);
 	}
 	
@@ -51,11 +74,6 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	 */
 	private int damage = 7;
 	
-	/**
-	 * Variable registering the maximum value of the weapon.
-	 */
-	private static int maxDamage = 100;
-	
 	/**
 	 * Returns the current value for the damage of a weapon.
 	 * 
@@ -70,10 +88,25 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	@Override @Basic @Raw
 	public int getCurrentDamage() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		return this.damage;		
 	}
+	
+	/**
+	 * Return the current damage of this weapon, without throwing if it is terminated.
+	 * 
+	 * @return	An empty optional if this weapon is terminated, otherwise its current damage.
+	 * 			| if (getTerminated())
+	 * 			| then	!result.isPresent()
+	 * 			| else	result.getAsInt() == getCurrentDamage()
+	 */
+	public OptionalInt tryGetCurrentDamage(){
+		if (getTerminated()){
+			return OptionalInt.empty();
+		}
+		return OptionalInt.of(this.damage);
+	}
 
 	/**
 	 * Returns the maximum integer allowed for the damage of the weapon.
@@ -87,9 +120,9 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	@Override
 	public int getMaximumDamage() throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
-		return Weapon.maxDamage;
+		return getWorld().getWeaponMaxDamage();
 	}
 
 	/**
@@ -101,6 +134,10 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	 * 		  | this.canHaveAsDamage(damage)
 	 * @post  the number to which the damage is set is equal to the given number.
 	 * 		  | new.getCurrentDamage().equals(damage) 
+	 * @effect If this weapon is held by a hero, the equipped damage of that hero is
+	 * 		   computed again.
+	 * 		  | if (getHolder() instanceof Hero)
+	 * 		  | then ((Hero) getHolder()).updateEquippedDamage()
 	 * @throws	OwnableIsTerminatedException
 	 * 			This ownable is terminated.
 	 * 			| getTerminated()
@@ -108,9 +145,13 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	@Override @Raw
 	public void setCurrentDamage(int damage) throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		this.damage=damage;	
+		if (getHolder() instanceof Hero){
+			((Hero) getHolder()).updateEquippedDamage();
+		}
+		getWorld().getEventBus().publish(GameEventType.DAMAGE_CHANGED, this, null, damage);
 	}
 
 	/**
@@ -129,10 +170,10 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	@Override
 	public void setMaximumDamage(int damage) throws OwnableIsTerminatedException {
 		if (getTerminated()){
-			throw new OwnableIsTerminatedException(this);
+			throw getTerminatedException();
 		}
 		if (this.isValidMaximumDamage(damage)){
-			Weapon.maxDamage=damage;
+			getWorld().setWeaponMaxDamage(damage);
 		}		
 	}
 
@@ -147,7 +188,7 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	 */
 	@Override @Raw
 	public boolean canHaveAsDamage(int damage) {
-		return ((damage >= 1)&&(damage <= Weapon.maxDamage)&&(damage % 7 == 0));
+		return ((damage >= 1)&&(damage <= getWorld().getWeaponMaxDamage())&&(damage % 7 == 0));
 	}
 
 	/**
@@ -168,28 +209,49 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	 ******************************
 	
 	/**
-	 * Return a valid identification for a weapon.
+	 * Return a valid identification for a weapon of the given world.
 	 */
-	private static long calculateValidIdentification(){
+	private static long calculateValidIdentification(World world) throws IllegalArgumentException {
+		if (world == null){
+			throw new IllegalArgumentException("An ownable must belong to a world.");
+		}
+		long start = Metrics.start();
 		long id = ThreadLocalRandom.current().nextLong(0, Long.MAX_VALUE);
-		while (!canHaveAsIdentification(id)){
+		while (!canHaveAsIdentification(id, world)){
 			id = ThreadLocalRandom.current().nextLong(0, Long.MAX_VALUE);
 		}
+		Metrics.stop(MetricTimer.ID_ALLOCATION, start);
 		return id;
 	}
 	
 	/**
-	 * Check whether the identification is correct.
+	 * Check whether the identification is correct for a weapon of the default world.
 	 * 
 	 * @param 	identification
 	 * 			The identification to check.
-	 * @return	False if the number cannot be divided by 6. Also false if there are not
-	 * 			made 1000 weapons yet and the identification already exists. True otherwise.
+	 * @return	The identification is correct in the default world.
+	 * 			| result == canHaveAsIdentification(identification, World.getDefaultWorld())
 	 */
 	@Raw
 	public static boolean canHaveAsIdentification(long identification){
-		return (identification%6 == 0 && (Ownable.getWeapons().size() >= 1000 ||
-				!Ownable.getWeapons().contains(identification)));
+		return canHaveAsIdentification(identification, World.getDefaultWorld());
+	}
+	
+	/**
+	 * Check whether the identification is correct for a weapon of the given world.
+	 * 
+	 * @param 	identification
+	 * 			The identification to check.
+	 * @param	world
+	 * 			The world to check in.
+	 * @return	False if the number cannot be divided by 6. Also false if there are not
+	 * 			made 1000 weapons in the given world yet and the identification already
+	 * 			exists there. True otherwise.
+	 */
+	@Raw
+	public static boolean canHaveAsIdentification(long identification, World world){
+		return (identification%6 == 0 && (world.getNumberOfWeapons() >= 1000 ||
+				!world.hasWeapon(identification)));
 	}
 	
 	/**
@@ -235,12 +297,12 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	 */
 	@Override
 	public Ducat getValue() {
-		Ducat value = new Ducat(this.getCurrentDamage()*2);
+		Ducat value = Ducat.valueOf(this.getCurrentDamage()*2);
 		if (this.isValidValue(value)){
 			return value;
 		}
 		else{
-			return new Ducat(1);
+			return Ducat.ONE_DUCAT;
 		}
 	}
 	
@@ -251,11 +313,23 @@ public class Weapon extends Ownable implements Damage, Comparable<Weapon>{
 	/**
 	 * Terminate this weapon.
 	 * 
+	 * @effect	If this weapon is not terminated yet, it is detached from its holder.
+	 * 			| detachFromHolder()
 	 * @effect	Terminated is set to true.
 	 * 			| setTerminated(true)
+	 * @effect	The identification of this weapon is released in its world.
+	 * 			| getWorld().releaseWeapon(getIdentification())
 	 */
 	protected void terminate(){
+		if (getTerminated()){
+			return;
+		}
+		long identification = getIdentification();
+		detachFromHolder();
 		setTerminate(true);
+		getWorld().releaseWeapon(identification);
+		Metrics.count(MetricCounter.TERMINATIONS);
+		getWorld().getEventBus().publish(GameEventType.TERMINATED, this, null, 0);
 	}
 
 	/**********************************
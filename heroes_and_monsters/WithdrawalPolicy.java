@@ -0,0 +1,71 @@
+package heroes_and_monsters;
+
+import java.util.Comparator;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of policies that decide in which order the ducats and purses in a
+ * backpack are used when an amount of ducats is taken out of that backpack.
+ *
+ * @author	Linde en Lotte
+ * @version	1.0
+ */
+@Value
+public enum WithdrawalPolicy {
+
+	/**
+	 * The sources with the most ducats are used first, so as few loose ducats and
+	 * purses as possible are touched.
+	 */
+	LARGEST_FIRST {
+		@Override
+		int compare(FundingSource first, FundingSource second){
+			return Integer.compare(second.getAmount(), first.getAmount());
+		}
+	},
+
+	/**
+	 * The sources in the least deeply nested backpacks are used first, in the order of
+	 * the content.
+	 */
+	NEAREST_FIRST {
+		@Override
+		int compare(FundingSource first, FundingSource second){
+			return Integer.compare(first.getDepth(), second.getDepth());
+		}
+	},
+
+	/**
+	 * The sources in the backpacks that directly carry the most weight are used first.
+	 * Every ducat weighs the same, so the total weight after the withdrawal does not
+	 * depend on the plan, but this way the most heavily loaded backpacks are relieved.
+	 */
+	LIGHTEST_RESULTING_WEIGHT {
+		@Override
+		int compare(FundingSource first, FundingSource second){
+			return Double.compare(second.getContainerWeight(), first.getContainerWeight());
+		}
+	};
+
+	/**
+	 * Compare the two given funding sources.
+	 *
+	 * @return	A negative number if the first source must be used before the second,
+	 * 			a positive number if it must be used after it and zero if the order of
+	 * 			the content must decide.
+	 */
+	abstract int compare(FundingSource first, FundingSource second);
+
+	/**
+	 * Return a comparator that orders funding sources by this policy.
+	 */
+	Comparator<FundingSource> getComparator(){
+		return new Comparator<FundingSource>(){
+			@Override
+			public int compare(FundingSource first, FundingSource second){
+				return WithdrawalPolicy.this.compare(first, second);
+			}
+		};
+	}
+}
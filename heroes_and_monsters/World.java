@@ -0,0 +1,556 @@
+package heroes_and_monsters;
+
+import be.kuleuven.cs.som.annotate.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A class of worlds. A world owns the identification registries and the tunable
+ * settings that are shared by all the creatures and ownables that belong to it.
+ * Creatures and ownables of different worlds can't interact with each other, so
+ * worlds can be used side by side without influencing each other. A world that is
+ * no longer referenced can be garbage collected together with all its entities.
+ *
+ * @invar	The maximum damage of weapons in this world is valid.
+ * 			| getWeaponMaxDamage() >= 1
+ * @invar	The maximum damage of monsters in this world is valid.
+ * 			| getMonsterMaxDamage() >= 1
+ *
+ * @author Linde en Lotte
+ * @version 1.0
+ */
+public class World {
+
+	/******************************************
+	 * Constructors
+	 ******************************************/
+
+	/**
+	 * Initialize this new world with the standard settings.
+	 *
+	 * @post	The maximum damage of weapons and monsters is 100.
+	 * 			| new.getWeaponMaxDamage() == 100 && new.getMonsterMaxDamage() == 100
+	 * @post	The registries of identifications are empty.
+	 * 			| new.getArmors().isEmpty() && new.getWeapons().isEmpty() &&
+	 * 			| new.getBackpacks().isEmpty() && new.getPurses().isEmpty()
+	 * @post	The identifications of terminated ownables are reused.
+	 * 			| new.getReclaimPolicy() == ReclaimPolicy.REUSE
+	 */
+	public World(){
+	}
+
+	/**
+	 * Variable referencing the default world.
+	 */
+	private static final World defaultWorld = new World();
+
+	/**
+	 * Return the default world. All creatures and ownables that are made without a
+	 * world belong to this world.
+	 */
+	@Basic @Immutable
+	public static World getDefaultWorld(){
+		return defaultWorld;
+	}
+
+	/*******************************
+	 * identification
+	 *******************************/
+	
+	/**
+	 * A class of registries of identifications. An identification can be registered
+	 * more than once; it stays in the registry until every registration is released.
+	 */
+	private static class Registry {
+		
+		/**
+		 * Variable referencing the number of registrations of every identification.
+		 */
+		private final HashMap<Long, Integer> registrations = new HashMap<Long, Integer>();
+		
+		/**
+		 * Variable registering the total number of registrations.
+		 */
+		private int size = 0;
+		
+		/**
+		 * Register the given identification once more.
+		 */
+		private synchronized void register(long identification){
+			Integer count = registrations.get(identification);
+			registrations.put(identification, (count == null) ? 1 : count + 1);
+			size++;
+		}
+		
+		/**
+		 * Release one registration of the given identification, if there is one.
+		 */
+		private synchronized void release(long identification){
+			Integer count = registrations.get(identification);
+			if (count == null){
+				return;
+			}
+			if (count == 1){
+				registrations.remove(identification);
+			}
+			else {
+				registrations.put(identification, count - 1);
+			}
+			size--;
+		}
+		
+		/**
+		 * Return whether the given identification is registered.
+		 */
+		private synchronized boolean contains(long identification){
+			return registrations.containsKey(identification);
+		}
+		
+		/**
+		 * Return the total number of registrations.
+		 */
+		private synchronized int size(){
+			return size;
+		}
+		
+		/**
+		 * Return a set with all the registered identifications.
+		 */
+		private synchronized HashSet<Long> getIdentifications(){
+			return new HashSet<Long>(registrations.keySet());
+		}
+	}
+	
+	/**
+	 * Variable referencing the identifications of armors.
+	 */
+	private final Registry armors = new Registry();
+	
+	/**
+	 * Add the given identification to the identifications of armors.
+	 *
+	 * @param 	identification
+	 * 			The identification to add.
+	 * @post	The given identification is registered.
+	 * 			| new.hasArmor(identification)
+	 * @post	The number of armors is increased by one.
+	 * 			| new.getNumberOfArmors() == getNumberOfArmors() + 1
+	 */
+	protected void addArmor(long identification){
+		armors.register(identification);
+	}
+	
+	/**
+	 * Release the given identification of a terminated armor.
+	 *
+	 * @param 	identification
+	 * 			The identification to release.
+	 * @post	If the reclaim policy of this world releases identifications, one
+	 * 			registration of the given identification is removed.
+	 * 			| if (getReclaimPolicy().releasesIdentification())
+	 * 			| then new.getNumberOfArmors() == getNumberOfArmors() - 1
+	 */
+	protected void releaseArmor(long identification){
+		if (getReclaimPolicy().releasesIdentification()){
+			armors.release(identification);
+		}
+	}
+	
+	/**
+	 * Return whether the given identification is registered for an armor.
+	 */
+	public boolean hasArmor(long identification){
+		return armors.contains(identification);
+	}
+	
+	/**
+	 * Return the number of registered armors.
+	 */
+	public int getNumberOfArmors(){
+		return armors.size();
+	}
+	
+	/**
+	 * Return a set with the identifications of all registered armors.
+	 */
+	public HashSet<Long> getArmors(){
+		return armors.getIdentifications();
+	}
+	
+	/**
+	 * Variable referencing the identifications of weapons.
+	 */
+	private final Registry weapons = new Registry();
+	
+	/**
+	 * Add the given identification to the identifications of weapons.
+	 *
+	 * @param 	identification
+	 * 			The identification to add.
+	 * @post	The given identification is registered.
+	 * 			| new.hasWeapon(identification)
+	 * @post	The number of weapons is increased by one.
+	 * 			| new.getNumberOfWeapons() == getNumberOfWeapons() + 1
+	 */
+	protected void addWeapon(long identification){
+		weapons.register(identification);
+	}
+	
+	/**
+	 * Release the given identification of a terminated weapon.
+	 *
+	 * @param 	identification
+	 * 			The identification to release.
+	 * @post	If the reclaim policy of this world releases identifications, one
+	 * 			registration of the given identification is removed.
+	 * 			| if (getReclaimPolicy().releasesIdentification())
+	 * 			| then new.getNumberOfWeapons() == getNumberOfWeapons() - 1
+	 */
+	protected void releaseWeapon(long identification){
+		if (getReclaimPolicy().releasesIdentification()){
+			weapons.release(identification);
+		}
+	}
+	
+	/**
+	 * Return whether the given identification is registered for a weapon.
+	 */
+	public boolean hasWeapon(long identification){
+		return weapons.contains(identification);
+	}
+	
+	/**
+	 * Return the number of registered weapons.
+	 */
+	public int getNumberOfWeapons(){
+		return weapons.size();
+	}
+	
+	/**
+	 * Return a set with the identifications of all registered weapons.
+	 */
+	public HashSet<Long> getWeapons(){
+		return weapons.getIdentifications();
+	}
+	
+	/**
+	 * Variable referencing the identifications of backpacks.
+	 */
+	private final Registry backpacks = new Registry();
+	
+	/**
+	 * Add the given identification to the identifications of backpacks.
+	 *
+	 * @param 	identification
+	 * 			The identification to add.
+	 * @post	The given identification is registered.
+	 * 			| new.hasBackpack(identification)
+	 * @post	The number of backpacks is increased by one.
+	 * 			| new.getNumberOfBackpacks() == getNumberOfBackpacks() + 1
+	 */
+	protected void addBackpack(long identification){
+		backpacks.register(identification);
+	}
+	
+	/**
+	 * Return whether the given identification is registered for a backpack.
+	 */
+	public boolean hasBackpack(long identification){
+		return backpacks.contains(identification);
+	}
+	
+	/**
+	 * Return the number of registered backpacks.
+	 */
+	public int getNumberOfBackpacks(){
+		return backpacks.size();
+	}
+	
+	/**
+	 * Return a set with the identifications of all registered backpacks.
+	 */
+	public HashSet<Long> getBackpacks(){
+		return backpacks.getIdentifications();
+	}
+	
+	/**
+	 * Variable referencing the identifications of purses.
+	 */
+	private final Registry purses = new Registry();
+	
+	/**
+	 * Add the given identification to the identifications of purses.
+	 *
+	 * @param 	identification
+	 * 			The identification to add.
+	 * @post	The given identification is registered.
+	 * 			| new.hasPurse(identification)
+	 * @post	The number of purses is increased by one.
+	 * 			| new.getNumberOfPurses() == getNumberOfPurses() + 1
+	 */
+	protected void addPurse(long identification){
+		purses.register(identification);
+	}
+	
+	/**
+	 * Return whether the given identification is registered for a purse.
+	 */
+	public boolean hasPurse(long identification){
+		return purses.contains(identification);
+	}
+	
+	/**
+	 * Return the number of registered purses.
+	 */
+	public int getNumberOfPurses(){
+		return purses.size();
+	}
+	
+	/**
+	 * Return a set with the identifications of all registered purses.
+	 */
+	public HashSet<Long> getPurses(){
+		return purses.getIdentifications();
+	}
+	
+	/**
+	 * Variable registering the reclaim policy of this world.
+	 */
+	private volatile ReclaimPolicy reclaimPolicy = ReclaimPolicy.REUSE;
+	
+	/**
+	 * Return the policy that decides what happens with the identifications of
+	 * terminated weapons and armors of this world.
+	 */
+	@Basic
+	public ReclaimPolicy getReclaimPolicy(){
+		return this.reclaimPolicy;
+	}
+	
+	/**
+	 * Set the reclaim policy of this world to the given policy.
+	 * 
+	 * @param 	reclaimPolicy
+	 * 			The new reclaim policy.
+	 * @post	The reclaim policy of this world is set to the given policy.
+	 * 			| new.getReclaimPolicy() == reclaimPolicy
+	 * @throws	IllegalArgumentException
+	 * 			The given policy is not effective.
+	 * 			| reclaimPolicy == null
+	 */
+	public void setReclaimPolicy(ReclaimPolicy reclaimPolicy) throws IllegalArgumentException {
+		if (reclaimPolicy == null){
+			throw new IllegalArgumentException("A world must have a reclaim policy.");
+		}
+		this.reclaimPolicy = reclaimPolicy;
+	}
+
+	/*******************************
+	 * events
+	 *******************************/
+	
+	/**
+	 * Variable referencing the event bus of this world.
+	 */
+	private final EventBus eventBus = new EventBus();
+	
+	/**
+	 * Return the event bus that publishes the changes of the creatures and ownables
+	 * of this world.
+	 */
+	@Basic @Immutable
+	public EventBus getEventBus(){
+		return this.eventBus;
+	}
+	
+	/*******************************
+	 * modifications
+	 *******************************/
+	
+	/**
+	 * Variable registering the number of changes to the inventories of this world.
+	 */
+	private final AtomicLong modificationCount = new AtomicLong();
+	
+	/**
+	 * Return the number of changes made so far to the anchors of the creatures, the
+	 * content of the storages and the terminated and killed flags in this world.
+	 * Admission tickets use it to detect that the world changed since they were
+	 * prepared.
+	 */
+	@Basic
+	public long getModificationCount(){
+		return this.modificationCount.get();
+	}
+	
+	/**
+	 * Register a change to an inventory of this world.
+	 * 
+	 * @post	The modification count of this world is increased by 1.
+	 * 			| new.getModificationCount() == getModificationCount() + 1
+	 */
+	void markModified(){
+		this.modificationCount.incrementAndGet();
+	}
+
+	/*******************************
+	 * loot
+	 *******************************/
+	
+	/**
+	 * Variable referencing the loot resolver of this world, or null if deathblows are
+	 * resolved during the killing hit.
+	 */
+	private volatile LootResolver lootResolver = null;
+	
+	/**
+	 * Return the loot resolver that resolves the deathblows of the creatures of this
+	 * world in the background, or null if they are resolved during the killing hit.
+	 */
+	@Basic
+	public LootResolver getLootResolver(){
+		return this.lootResolver;
+	}
+	
+	/**
+	 * Set the loot resolver of this world.
+	 * 
+	 * @param 	lootResolver
+	 * 			The new loot resolver, or null to resolve deathblows during the killing hit.
+	 * @post	The loot resolver of this world is the given resolver.
+	 * 			| new.getLootResolver() == lootResolver
+	 * @note	Deathblows that are already handed to the previous resolver are still
+	 * 			resolved by it.
+	 */
+	public void setLootResolver(LootResolver lootResolver){
+		this.lootResolver = lootResolver;
+	}
+
+	/*******************************
+	 * damage
+	 *******************************/
+
+	/**
+	 * Variable registering the maximum damage of the weapons in this world.
+	 */
+	private volatile int weaponMaxDamage = 100;
+
+	/**
+	 * Return the maximum damage of the weapons in this world.
+	 */
+	@Basic
+	public int getWeaponMaxDamage(){
+		return this.weaponMaxDamage;
+	}
+
+	/**
+	 * Set the maximum damage of the weapons in this world to the given damage.
+	 *
+	 * @param 	damage
+	 * 			The new maximum damage.
+	 * @post	If the given damage is at least 1, the maximum damage of the weapons in
+	 * 			this world is set to the given damage.
+	 * 			| if (damage >= 1)
+	 * 			| then new.getWeaponMaxDamage() == damage
+	 */
+	public void setWeaponMaxDamage(int damage){
+		if (damage >= 1){
+			this.weaponMaxDamage = damage;
+		}
+	}
+
+	/**
+	 * Variable registering the maximum damage of the monsters in this world.
+	 */
+	private volatile int monsterMaxDamage = 100;
+
+	/**
+	 * Return the maximum damage of the monsters in this world.
+	 */
+	@Basic
+	public int getMonsterMaxDamage(){
+		return this.monsterMaxDamage;
+	}
+
+	/**
+	 * Set the maximum damage of the monsters in this world to the given damage.
+	 *
+	 * @param 	damage
+	 * 			The new maximum damage.
+	 * @post	If the given damage is at least 1, the maximum damage of the monsters in
+	 * 			this world is set to the given damage.
+	 * 			| if (damage >= 1)
+	 * 			| then new.getMonsterMaxDamage() == damage
+	 */
+	public void setMonsterMaxDamage(int damage){
+		if (damage >= 1){
+			this.monsterMaxDamage = damage;
+		}
+	}
+
+	/*******************************
+	 * heroes
+	 *******************************/
+
+	/**
+	 * The anchors of a hero: "Left hand", "Right hand", "Back", "Body", "Belt".
+	 */
+	private final ArrayList<String> heroAnchors = new ArrayList<String>(Arrays.asList("Left hand", "Right hand", "Back", "Body", "Belt"));
+
+	/**
+	 * Return the anchors of the heroes in this world.
+	 */
+	public ArrayList<String> getHeroAnchors(){
+		return new ArrayList<String>(heroAnchors);
+	}
+
+	/**
+	 * The list of capacities of a hero with a strength between 10 and 20.
+	 */
+	private final ArrayList<Integer> heroCapacities = new ArrayList<Integer>(Arrays.asList(115, 130, 150, 175, 200, 230, 260, 300, 350, 400));
+
+	/**
+	 * Return the capacity of a hero in this world with the given rounded strength.
+	 *
+	 * @param 	strength
+	 * 			The strength, rounded up, between 11 and 20.
+	 * @throws	IllegalArgumentException
+	 * 			The given strength is not between 11 and 20.
+	 * 			| strength < 11 || strength > 20
+	 */
+	public int getHeroCapacity(int strength) throws IllegalArgumentException {
+		if (strength < 11 || strength > 20){
+			throw new IllegalArgumentException("There is no capacity for this strength.");
+		}
+		synchronized (heroCapacities){
+			return heroCapacities.get(strength - 11);
+		}
+	}
+
+	/**
+	 * Set the capacities of the heroes in this world with a strength between 11 and 20.
+	 *
+	 * @param 	capacities
+	 * 			The capacities for the strengths 11 up to and including 20.
+	 * @post	The capacities are set to the given capacities.
+	 * 			| for i in 11..20:
+	 * 			|		new.getHeroCapacity(i) == capacities.get(i - 11)
+	 * @throws	IllegalArgumentException
+	 * 			There are not 10 capacities or one of them is negative.
+	 * 			| capacities.size() != 10 || for some capacity in capacities: capacity < 0
+	 */
+	public void setHeroCapacities(List<Integer> capacities) throws IllegalArgumentException {
+		if (capacities.size() != 10){
+			throw new IllegalArgumentException("There must be 10 capacities.");
+		}
+		for (Integer capacity: capacities){
+			if (capacity == null || capacity < 0){
+				throw new IllegalArgumentException("A capacity can't be negative.");
+			}
+		}
+		synchronized (heroCapacities){
+			heroCapacities.clear();
+			heroCapacities.addAll(capacities);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class AdmissionTicketTest {
+
+	World world;
+	Hero hero;
+	Backpack backpack;
+	Weapon weapon;
+	Purse purse;
+	
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		hero = new Hero(world, "Eend", 237, new Armor(world, 2477, 84, new Ducat(752), 10, Unit.KG));
+		backpack = new Backpack(world, new Ducat(10), 100, 1, Unit.KG);
+		weapon = new Weapon(world, 1, Unit.KG, 14);
+		purse = new Purse(world, 100, Unit.GRAM, 1000);
+	}
+	
+	@Test
+	public void testPrepareAndCommitStorage(){
+		AdmissionTicket ticket = backpack.prepareAdd(weapon);
+		assertTrue(ticket.isAdmitted());
+		assertSame(backpack, ticket.getTarget());
+		assertSame(weapon, ticket.getObject());
+		assertNull(ticket.getAnchor());
+		assertEquals(1, ticket.getWeight(Unit.KG), 0.0001);
+		assertTrue(ticket.getAncestors().isEmpty());
+		assertEquals(AdmissionResult.ADMITTED, backpack.commit(ticket));
+		assertSame(backpack, weapon.getHolder());
+	}
+	
+	@Test
+	public void testAncestors(){
+		hero.addToAnchor(backpack, "Back");
+		Backpack inner = new Backpack(world, new Ducat(10), 50, 1, Unit.KG);
+		backpack.addToStorage(inner);
+		AdmissionTicket ticket = inner.prepareAdd(weapon);
+		assertTrue(ticket.isAdmitted());
+		assertEquals(2, ticket.getAncestors().size());
+		assertTrue(ticket.getAncestors().contains(backpack));
+		assertTrue(ticket.getAncestors().contains(hero));
+	}
+	
+	@Test
+	public void testStaleTicket(){
+		AdmissionTicket ticket = backpack.prepareAdd(weapon);
+		long count = world.getModificationCount();
+		hero.addToAnchor(new Weapon(world, 1, Unit.KG, 7), "Left hand");
+		assertTrue(world.getModificationCount() > count);
+		assertEquals(AdmissionResult.STALE, backpack.commit(ticket));
+		assertNull(weapon.getHolder());
+		assertEquals(AdmissionResult.ADMITTED, backpack.commit(backpack.prepareAdd(weapon)));
+	}
+	
+	@Test
+	public void testRejectedTicket(){
+		backpack.addToStorage(weapon);
+		Backpack other = new Backpack(world, new Ducat(10), 100, 1, Unit.KG);
+		AdmissionTicket ticket = other.prepareAdd(weapon);
+		assertFalse(ticket.isAdmitted());
+		assertEquals(AdmissionResult.ALREADY_HELD, ticket.getResult());
+		assertEquals(AdmissionResult.ALREADY_HELD, other.commit(ticket));
+		assertSame(backpack, weapon.getHolder());
+	}
+	
+	@Test
+	public void testStorageAdmission(){
+		Backpack small = new Backpack(world, new Ducat(10), 0.5, 1, Unit.KG);
+		assertEquals(AdmissionResult.OVER_CAPACITY, small.getAdmission(weapon));
+		assertEquals(AdmissionResult.NOT_STORABLE, purse.getAdmission(weapon));
+		assertEquals(AdmissionResult.ADMITTED, purse.getAdmission(new Ducat(5)));
+		assertEquals(AdmissionResult.OTHER_WORLD, backpack.getAdmission(new Weapon(new World(), 1, Unit.KG, 7)));
+		assertFalse(small.canAddToStorage(weapon));
+	}
+	
+	@Test
+	public void testCreatureAdmission(){
+		assertEquals(AdmissionResult.WRONG_ANCHOR, hero.getAdmission(weapon, "Belt"));
+		assertEquals(AdmissionResult.NO_SUCH_ANCHOR, hero.getAdmission(weapon, "Tail"));
+		assertEquals(AdmissionResult.ANCHOR_OCCUPIED, hero.getAdmission(weapon, "Body"));
+		assertEquals(AdmissionResult.NOT_STORABLE, hero.getAdmission(new Ducat(2), "Left hand"));
+		AdmissionTicket ticket = hero.prepareAdd(weapon, "Left hand");
+		assertEquals("Left hand", ticket.getAnchor());
+		assertEquals(AdmissionResult.ADMITTED, hero.commit(ticket));
+		assertSame(hero, weapon.getHolder());
+		assertEquals(AdmissionResult.ANCHOR_OCCUPIED, hero.prepareAdd(new Weapon(world, 1, Unit.KG, 7), "Left hand").getResult());
+	}
+	
+	@Test
+	public void testStrongHero(){
+		Hero strong = new Hero(world, "Kip", new BigDecimal(25), 237,
+				new ArrayList<Object>(Arrays.asList(null, null, backpack,
+						new Armor(world, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+		long count = world.getModificationCount();
+		assertEquals(4 * 200, strong.getMaximumCapacity(Unit.KG), 0.0001);
+		assertEquals(count, world.getModificationCount());
+		assertEquals(new BigDecimal("25.00"), strong.getStrength());
+		AdmissionTicket ticket = backpack.prepareAdd(weapon);
+		assertTrue(ticket.getAncestors().contains(strong));
+		assertEquals(AdmissionResult.ADMITTED, backpack.commit(ticket));
+		assertSame(backpack, weapon.getHolder());
+		Weapon other = new Weapon(world, 1, Unit.KG, 7);
+		assertEquals(AdmissionResult.ADMITTED, strong.commit(strong.prepareAdd(other, "Left hand")));
+		assertSame(strong, other.getHolder());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testCommitOtherTarget() throws IllegalArgumentException {
+		AdmissionTicket ticket = backpack.prepareAdd(weapon);
+		new Backpack(world, new Ducat(10), 100, 1, Unit.KG).commit(ticket);
+	}
+}
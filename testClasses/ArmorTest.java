@@ -118,5 +118,22 @@ public class ArmorTest {
 	public void testStartWithIllegalIdentification(){
 		assertFalse(armor2.getIdentification() == 65);
 	}
-
+	
+	@Test
+	public void testTerminate_ReleasesIdentification(){
+		World world = armor.getWorld();
+		long identification = armor.getIdentification();
+		int numberOfArmors = world.getNumberOfArmors();
+		backpack.removeFromStorageAndTerminate(armor);
+		assertEquals(numberOfArmors - 1, world.getNumberOfArmors());
+		assertFalse(world.hasArmor(identification));
+		assertFalse(backpack.getContent().contains(armor));
+	}
+	
+	@Test
+	public void testTryGetCurrentProtection(){
+		assertEquals(1, armor.tryGetCurrentProtection().getAsInt());
+		backpack.removeFromStorageAndTerminate(armor);
+		assertFalse(armor.tryGetCurrentProtection().isPresent());
+	}
 }
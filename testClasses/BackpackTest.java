@@ -9,6 +9,7 @@ import java.math.*;
 
 public class BackpackTest {
 
+	World world;
 	Backpack backpack1, backpack2, backpack3;
 	Purse purse;
 	Ducat ducat1, ducat2, ducat3;
@@ -19,21 +20,23 @@ public class BackpackTest {
 	
 	@Before
 	public void setUpFixture(){
-		backpack1 = new Backpack(new Ducat(10), 500, 10, Unit.KG);
-		backpack2 = new Backpack(new Ducat(200), 1000, 600, Unit.GRAM);
-		backpack3 = new Backpack(new Ducat(15), 500, 0.7, Unit.KG);
-		purse = new Purse(100, Unit.GRAM, 5000);
+		// Every test gets its own world, so the identifications of the backpacks stay cheap.
+		world = new World();
+		backpack1 = new Backpack(world, new Ducat(10), 500, 10, Unit.KG);
+		backpack2 = new Backpack(world, new Ducat(200), 1000, 600, Unit.GRAM);
+		backpack3 = new Backpack(world, new Ducat(15), 500, 0.7, Unit.KG);
+		purse = new Purse(world, 100, Unit.GRAM, 5000);
 		ducat1 = new Ducat(2);
 		ducat2 = new Ducat(20);
 		ducat3 = new Ducat(5);
-		armor1 = new Armor(13, 90, new Ducat(830), 26, Unit.KG);
-		armor2 = new Armor(7, 92, new Ducat(850), 27, Unit.KG);
-		armor3 = new Armor(17, 99, new Ducat(710), 2, Unit.KG);
-		armor4 = new Armor(19, 80, new Ducat(615), 8, Unit.KG);
-		weapon1 = new Weapon(5.67, Unit.KG, 84);
-		weapon2 = new Weapon(300, Unit.KG, 84);
+		armor1 = new Armor(world, 13, 90, new Ducat(830), 26, Unit.KG);
+		armor2 = new Armor(world, 7, 92, new Ducat(850), 27, Unit.KG);
+		armor3 = new Armor(world, 17, 99, new Ducat(710), 2, Unit.KG);
+		armor4 = new Armor(world, 19, 80, new Ducat(615), 8, Unit.KG);
+		weapon1 = new Weapon(world, 5.67, Unit.KG, 84);
+		weapon2 = new Weapon(world, 300, Unit.KG, 84);
 		ArrayList<Object> anchorList = new ArrayList<Object>((Arrays.asList(null, null, null, armor1, null)));
-		hero = new Hero("Special K", new BigDecimal(13.02), 2477, anchorList);
+		hero = new Hero(world, "Special K", new BigDecimal(13.02), 2477, anchorList);
 	}
 	
 	@Test
@@ -152,6 +155,191 @@ public class BackpackTest {
 		
 	}
 	
+	/**
+	 * Fill backpack1 with a loose ducat of 3, a purse of 40 and backpack3 with a loose
+	 * ducat of 30 and a heavy weapon, and withdraw 35 ducats from it.
+	 */
+	private void withdrawWithPolicy(WithdrawalPolicy policy){
+		backpack1.addToStorage(new Ducat(3));
+		purse.addToStorage(new Ducat(40));
+		backpack1.addToStorage(purse);
+		backpack3.addToStorage(new Ducat(30));
+		backpack3.addToStorage(weapon1);
+		backpack1.addToStorage(backpack3);
+		backpack1.setWithdrawalPolicy(policy);
+		assertSame(policy, backpack1.getWithdrawalPolicy());
+		backpack1.removeFromStorageAndTerminate(new Ducat(35));
+		assertEquals(38, backpack1.getValue().getValue() - 10 - 15 - weapon1.getValue().getValue());
+	}
+	
+	private int getLooseDucats(Backpack backpack){
+		return backpack.getLooseDucats().getValue();
+	}
+	
+	@Test
+	public void testWithdrawal_NearestFirst(){
+		withdrawWithPolicy(WithdrawalPolicy.NEAREST_FIRST);
+		assertEquals(0, getLooseDucats(backpack1));
+		assertEquals(8, purse.getContent().getValue());
+		assertEquals(30, getLooseDucats(backpack3));
+	}
+	
+	@Test
+	public void testWithdrawal_LargestFirst(){
+		withdrawWithPolicy(WithdrawalPolicy.LARGEST_FIRST);
+		assertEquals(3, getLooseDucats(backpack1));
+		assertEquals(5, purse.getContent().getValue());
+		assertEquals(30, getLooseDucats(backpack3));
+	}
+	
+	@Test
+	public void testWithdrawal_LightestResultingWeight(){
+		withdrawWithPolicy(WithdrawalPolicy.LIGHTEST_RESULTING_WEIGHT);
+		assertEquals(0, getLooseDucats(backpack3));
+		assertEquals(0, getLooseDucats(backpack1));
+		assertEquals(38, purse.getContent().getValue());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testWithdrawalPolicy_Null(){
+		backpack1.setWithdrawalPolicy(null);
+	}
+	
+	/**
+	 * Return the sum of all loose ducats and purse content in the given backpack, computed
+	 * by walking its content.
+	 */
+	private long sumLiquidFunds(Backpack backpack){
+		long total = 0;
+		Enumeration<Object> iterator = backpack.getBackpackIterator();
+		while (iterator.hasMoreElements()){
+			Object object = iterator.nextElement();
+			if (object instanceof Ducat){
+				total = total + ((Ducat) object).getValue();
+			}
+			else if (object instanceof Purse){
+				total = total + ((Purse) object).getContent().getValue();
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Put a loose ducat of 7 and the purse in backpack3, and backpack3 and a loose ducat
+	 * of 4 in backpack1.
+	 */
+	private void fillLiquidFunds(){
+		backpack3.addToStorage(new Ducat(7));
+		backpack3.addToStorage(purse);
+		backpack1.addToStorage(backpack3);
+		backpack1.addToStorage(new Ducat(4));
+	}
+	
+	private void assertLiquidFunds(Backpack backpack){
+		assertEquals(sumLiquidFunds(backpack), backpack.getLiquidFunds());
+	}
+	
+	@Test
+	public void testLiquidFunds_NestedPurseDeposit(){
+		assertEquals(0, backpack1.getLiquidFunds());
+		fillLiquidFunds();
+		assertEquals(11, backpack1.getLiquidFunds());
+		purse.addToStorage(new Ducat(50));
+		assertLiquidFunds(backpack1);
+		assertLiquidFunds(backpack3);
+		assertEquals(61, backpack1.getLiquidFunds());
+		assertEquals(57, backpack3.getLiquidFunds());
+		assertTrue(backpack1.canTakeOutOfStorage(new Ducat(61)));
+		assertFalse(backpack1.canTakeOutOfStorage(new Ducat(62)));
+	}
+	
+	@Test
+	public void testLiquidFunds_TransferOut(){
+		fillLiquidFunds();
+		purse.addToStorage(new Ducat(50));
+		purse.transferToStorage(backpack2, new Ducat(10));
+		assertLiquidFunds(backpack1);
+		assertLiquidFunds(backpack2);
+		assertEquals(51, backpack1.getLiquidFunds());
+		assertEquals(10, backpack2.getLiquidFunds());
+		Backpack backpack4 = new Backpack(world, new Ducat(1), 500, 1, Unit.KG);
+		backpack4.addToStorage(new Ducat(3));
+		backpack1.transferToStorage(backpack4, backpack3);
+		assertLiquidFunds(backpack1);
+		assertLiquidFunds(backpack4);
+		assertEquals(4, backpack1.getLiquidFunds());
+		assertEquals(50, backpack4.getLiquidFunds());
+	}
+	
+	@Test
+	public void testLiquidFunds_Withdrawal(){
+		fillLiquidFunds();
+		purse.addToStorage(new Ducat(50));
+		backpack1.removeFromStorageAndTerminate(new Ducat(20));
+		assertLiquidFunds(backpack1);
+		assertLiquidFunds(backpack3);
+		assertEquals(41, backpack1.getLiquidFunds());
+		backpack1.removeFromStorageAndTerminate(new Ducat(41));
+		assertLiquidFunds(backpack1);
+		assertLiquidFunds(backpack3);
+		assertEquals(0, backpack1.getLiquidFunds());
+		assertFalse(backpack1.canTakeOutOfStorage(new Ducat(1)));
+	}
+	
+	@Test
+	public void testLooseDucats_Merged(){
+		backpack3.addToStorage(new Ducat(4));
+		backpack3.addToStorage(weapon1);
+		backpack3.addToStorage(new Ducat(6));
+		assertEquals(10, backpack3.getLooseDucats().getValue());
+		assertEquals(2, backpack3.getContent().size());
+		assertSame(weapon1, backpack3.getContent().get(0));
+		assertEquals(new Ducat(10), backpack3.getContent().get(1));
+		backpack3.removeFromStorageAndTerminate(new Ducat(10));
+		assertEquals(1, backpack3.getContent().size());
+	}
+	
+	@Test
+	public void testBackpackIterator_Order(){
+		backpack1.addToStorage(weapon1);
+		backpack1.addToStorage(new Ducat(3));
+		backpack3.addToStorage(backpack1);
+		backpack3.addToStorage(purse);
+		backpack3.addToStorage(new Ducat(2));
+		ArrayList<Object> expected = new ArrayList<Object>(Arrays.asList(purse, weapon1, new Ducat(3), backpack1, new Ducat(2)));
+		ArrayList<Object> actual = new ArrayList<Object>();
+		Enumeration<Object> iterator = backpack3.getBackpackIterator();
+		while (iterator.hasMoreElements()){
+			assertTrue(iterator.hasMoreElements());
+			actual.add(iterator.nextElement());
+		}
+		assertEquals(expected, actual);
+	}
+	
+	@Test (expected = NoSuchElementException.class)
+	public void testBackpackIterator_NoMoreElements(){
+		backpack3.getBackpackIterator().nextElement();
+	}
+	
+	@Test
+	public void testTypedQueries(){
+		Weapon weapon3 = new Weapon(world, 1, Unit.KG, 14);
+		backpack1.addToStorage(weapon1);
+		backpack1.addToStorage(armor4);
+		backpack3.addToStorage(weapon3);
+		backpack3.addToStorage(purse);
+		backpack3.addToStorage(backpack1);
+		assertEquals(2, backpack3.getNumberOfWeapons());
+		assertEquals(1, backpack3.getNumberOfArmors());
+		assertEquals(1, backpack1.getNumberOfWeapons());
+		assertTrue(backpack3.getAllWeapons().containsAll(Arrays.asList(weapon1, weapon3)));
+		assertEquals(Arrays.asList(armor4), backpack3.getAllArmors());
+		assertEquals(Arrays.asList(weapon3, purse, backpack1), backpack3.getContent());
+		backpack3.transferToStorage(new Backpack(world, new Ducat(1), 500, 1, Unit.KG), weapon1);
+		assertEquals(1, backpack3.getNumberOfWeapons());
+		assertEquals(0, backpack1.getNumberOfWeapons());
+	}
+	
 	@Test (expected = IllegalArgumentException.class)
 	public void testRemoveFromStorageException() throws IllegalArgumentException {
 		backpack3.removeFromStorageAndTerminate(weapon1);
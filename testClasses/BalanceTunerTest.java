@@ -0,0 +1,172 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class BalanceTunerTest {
+
+	/**
+	 * The default capacities of the heroes.
+	 */
+	private static final List<Integer> CAPACITIES = Arrays.asList(115, 130, 150, 175, 200, 230, 260, 300, 350, 400);
+
+	/**
+	 * A scenario in which a strong hero almost always beats a weak monster.
+	 */
+	private static final BalanceScenario STRONG_HERO = new BalanceScenario(){
+		@Override
+		public Duel createDuel(World world, BalanceSettings settings){
+			Hero hero = new Hero(world, "Hero", settings.getHeroStrength(), 997,
+					new ArrayList<Object>(Arrays.asList(new Weapon(world, 1, Unit.KG, 14), null, null,
+							new Armor(world, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+			Monster monster = new Monster(world, "Monster", new BigDecimal(20), 97,
+					new ArrayList<String>(Arrays.asList("Left hand")), new ArrayList<Object>(), 7, 90);
+			return new Duel(hero, monster);
+		}
+	};
+
+	BalanceTuner tuner;
+
+	@Before
+	public void setUpFixture(){
+		tuner = new BalanceTuner(BalanceTuner.MAIN_PROGRAM, 4);
+	}
+
+	@Test
+	public void testSettings(){
+		BalanceSettings settings = new BalanceSettings(70, 49, CAPACITIES, new BigDecimal("15.5"));
+		assertEquals(70, settings.getWeaponMaxDamage());
+		assertEquals(49, settings.getMonsterMaxDamage());
+		assertEquals(CAPACITIES, settings.getHeroCapacities());
+		assertEquals(settings, new BalanceSettings(70, 49, CAPACITIES, new BigDecimal("15.50")));
+		assertEquals(settings.hashCode(), new BalanceSettings(70, 49, CAPACITIES, new BigDecimal("15.50")).hashCode());
+		World world = new World();
+		settings.applyTo(world);
+		assertEquals(70, world.getWeaponMaxDamage());
+		assertEquals(49, world.getMonsterMaxDamage());
+		assertEquals(175, world.getHeroCapacity(14));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testSettingsTooFewCapacities(){
+		new BalanceSettings(70, 49, Arrays.asList(1, 2, 3), new BigDecimal(15));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testSettingsNegativeStrength(){
+		new BalanceSettings(70, 49, CAPACITIES, new BigDecimal(-1));
+	}
+
+	@Test
+	public void testGrid(){
+		List<BalanceSettings> grid = BalanceSettings.grid(Arrays.asList(70, 100), Arrays.asList(35, 70, 100),
+				Arrays.asList(CAPACITIES), Arrays.asList(new BigDecimal(15), new BigDecimal(264)));
+		assertEquals(12, grid.size());
+		assertEquals(new BalanceSettings(70, 35, CAPACITIES, new BigDecimal(15)), grid.get(0));
+		assertEquals(new BalanceSettings(70, 35, CAPACITIES, new BigDecimal(264)), grid.get(1));
+		assertEquals(new BalanceSettings(100, 100, CAPACITIES, new BigDecimal(264)), grid.get(11));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorNoThreads(){
+		new BalanceTuner(BalanceTuner.MAIN_PROGRAM, 0);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testSetPrecisionInvalid(){
+		tuner.setPrecision(0.6, 3);
+	}
+
+	@Test
+	public void testEarlyStopping() throws InterruptedException {
+		BalanceTuner strong = new BalanceTuner(STRONG_HERO, 2);
+		strong.setPrecision(0.05, 3);
+		strong.setDuels(50, 100, 100000);
+		List<BalanceSettings> grid = Arrays.asList(
+				new BalanceSettings(100, 100, CAPACITIES, new BigDecimal(200)),
+				new BalanceSettings(100, 100, CAPACITIES, new BigDecimal(250)));
+		final List<BalanceResult> streamed = new ArrayList<BalanceResult>();
+		List<BalanceResult> results = strong.tune(grid, new BalanceListener(){
+			@Override
+			public void handle(BalanceResult result){
+				streamed.add(result);
+			}
+		});
+		assertEquals(2, results.size());
+		assertEquals(2, streamed.size());
+		for (int i = 0; i < 2; i++){
+			BalanceResult result = results.get(i);
+			assertEquals(grid.get(i), result.getSettings());
+			assertTrue(streamed.contains(result));
+			assertTrue(result.isConverged());
+			assertTrue(result.getNumberOfDuels() >= 100);
+			assertTrue(result.getNumberOfDuels() < 1000);
+			assertEquals(0, result.getNumberOfDuels() % 50);
+			assertTrue(result.getUpperBound() - result.getLowerBound() <= 0.1);
+			assertTrue(result.getLowerBound() <= result.getWinRate());
+			assertTrue(result.getWinRate() <= result.getUpperBound());
+		}
+	}
+
+	@Test
+	public void testMaximumDuels() throws InterruptedException {
+		tuner.setPrecision(0.0001, 3);
+		tuner.setDuels(30, 0, 90);
+		List<BalanceResult> results = tuner.tune(Arrays.asList(BalanceSettings.DEFAULT));
+		assertFalse(results.get(0).isConverged());
+		assertEquals(90, results.get(0).getNumberOfDuels());
+	}
+
+	@Test
+	public void testFailingScenario() throws InterruptedException {
+		BalanceTuner failing = new BalanceTuner(new BalanceScenario(){
+			@Override
+			public Duel createDuel(World world, BalanceSettings settings){
+				throw new IllegalArgumentException("No duel today.");
+			}
+		}, 2);
+		try {
+			failing.tune(Arrays.asList(BalanceSettings.DEFAULT, BalanceSettings.DEFAULT));
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("No duel today.", e.getCause().getMessage());
+		}
+	}
+
+	@Test (timeout = 60000)
+	public void testFailingListener() throws InterruptedException {
+		tuner.setDuels(30, 0, 30);
+		try {
+			tuner.tune(Arrays.asList(BalanceSettings.DEFAULT, BalanceSettings.DEFAULT, BalanceSettings.DEFAULT),
+					new BalanceListener(){
+						@Override
+						public void handle(BalanceResult result){
+							throw new IllegalArgumentException("No results today.");
+						}
+					});
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("No results today.", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testAgreesWithSolver() throws InterruptedException {
+		World world = new World();
+		Duel duel = BalanceTuner.MAIN_PROGRAM.createDuel(world, BalanceSettings.DEFAULT);
+		Creature hero = (duel.getFirst() instanceof Hero) ? duel.getFirst() : duel.getSecond();
+		Creature monster = (hero == duel.getFirst()) ? duel.getSecond() : duel.getFirst();
+		DuelSolver solver = new DuelSolver(hero, monster);
+		// The hero hits first half of the time.
+		double exact = 0.5 * (solver.getWinProbability(hero.getHitpoints(), monster.getHitpoints(), true) +
+				solver.getWinProbability(hero.getHitpoints(), monster.getHitpoints(), false));
+		tuner.setPrecision(0.02, 3);
+		BalanceResult result = tuner.tune(Arrays.asList(BalanceSettings.DEFAULT)).get(0);
+		assertTrue(result.isConverged());
+		double error = Math.sqrt(exact * (1 - exact) / result.getNumberOfDuels());
+		assertEquals(exact, result.getWinRate(), 4.5 * error);
+	}
+}
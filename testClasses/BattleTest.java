@@ -0,0 +1,170 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class BattleTest {
+
+	World world;
+	Hero hero1, hero2;
+	Monster monster1, monster2;
+
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		hero1 = hero(world, "Eend");
+		hero2 = hero(world, "Kip");
+		monster1 = monster(world, 97);
+		monster2 = monster(world, 97);
+	}
+
+	/**
+	 * Return a hero with a weapon and an armor.
+	 */
+	private static Hero hero(World world, String name){
+		return new Hero(world, name, new BigDecimal(20), 97,
+				new ArrayList<Object>(Arrays.asList(new Weapon(world, 1, Unit.KG, 49), null, null,
+						new Armor(world, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+	}
+
+	/**
+	 * Return a monster without possessions with the given hitpoints.
+	 */
+	private static Monster monster(World world, int hitpoints){
+		return new Monster(world, "Monster", new BigDecimal(20), hitpoints,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 7, 50);
+	}
+
+	/**
+	 * Check that the given battle is over and that exactly its survivors are alive.
+	 */
+	private static void checkOver(Battle battle){
+		assertTrue(battle.isOver());
+		List<Creature> survivors = battle.getSurvivors();
+		assertEquals(battle.getNumberOfAlive(), survivors.size());
+		int monsters = 0;
+		for (int i = 0; i < battle.getNumberOfParticipants(); i++){
+			Creature creature = battle.getParticipantAt(i);
+			assertEquals(!creature.getKilled(), survivors.contains(creature));
+			if (!creature.getKilled() && (creature instanceof Monster)){
+				monsters++;
+			}
+		}
+		assertEquals(monsters, battle.getNumberOfMonsters());
+		assertTrue((monsters == 0) || (survivors.size() == 1));
+	}
+
+	@Test
+	public void testConstructor(){
+		Battle battle = new Battle(Arrays.asList(hero1, monster1, monster2));
+		assertEquals(3, battle.getNumberOfParticipants());
+		assertEquals(3, battle.getNumberOfAlive());
+		assertEquals(2, battle.getNumberOfMonsters());
+		assertSame(monster1, battle.getParticipantAt(1));
+		assertEquals(0, battle.getNumberOfKills());
+		assertFalse(battle.isOver());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorOneCreature(){
+		new Battle(Arrays.asList(hero1));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorTwice(){
+		new Battle(Arrays.asList(monster1, hero1, monster1));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorNull(){
+		new Battle(Arrays.asList(monster1, null));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorOtherWorld(){
+		new Battle(Arrays.asList(monster1, monster(new World(), 97)));
+	}
+
+	@Test
+	public void testHeroesOnly(){
+		Battle battle = new Battle(Arrays.asList(hero1, hero2));
+		assertTrue(battle.isOver());
+		assertEquals(2, battle.fight().size());
+		assertEquals(0, battle.getNumberOfRounds());
+	}
+
+	@Test
+	public void testTargetsRespectCanHitCreature(){
+		final ArrayList<GameEvent> hits = new ArrayList<GameEvent>();
+		world.getEventBus().subscribe(GameEventType.HIT, new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+				hits.add(event);
+			}
+		});
+		ArrayList<Creature> participants = new ArrayList<Creature>(Arrays.asList(hero1, hero2, monster1, monster2));
+		for (int i = 0; i < 8; i++){
+			participants.add(monster(world, 97));
+		}
+		Battle battle = new Battle(participants);
+		battle.fight();
+		checkOver(battle);
+		assertEquals(battle.getNumberOfHits(), hits.size());
+		for (GameEvent event: hits){
+			Creature attacker = (Creature) event.getSource();
+			assertTrue(attacker.canHitCreature((Creature) event.getSubject()));
+		}
+	}
+
+	@Test
+	public void testRoundGivesEveryoneOneTurn(){
+		ArrayList<Monster> participants = new ArrayList<Monster>();
+		for (int i = 0; i < 50; i++){
+			participants.add(monster(world, 997));
+		}
+		Battle battle = new Battle(participants);
+		battle.fightRound();
+		assertEquals(1, battle.getNumberOfRounds());
+		assertEquals(50, battle.getNumberOfHits());
+	}
+
+	@Test
+	public void testLargeBattle(){
+		ArrayList<Monster> participants = new ArrayList<Monster>();
+		for (int i = 0; i < 10000; i++){
+			participants.add(monster(world, 2 + 2 * (i % 2) + 1));
+		}
+		Battle battle = new Battle(participants);
+		List<Creature> survivors = battle.fight();
+		checkOver(battle);
+		assertEquals(1, survivors.size());
+		assertEquals(9999, battle.getNumberOfKills());
+	}
+
+	@Test
+	public void testLootResolver() throws InterruptedException {
+		LootResolver resolver = new LootResolver(2, 16);
+		world.setLootResolver(resolver);
+		try {
+			ArrayList<Creature> participants = new ArrayList<Creature>(Arrays.asList(hero1, hero2, monster1, monster2));
+			for (int i = 0; i < 20; i++){
+				participants.add(new Monster(world, "Monster", new BigDecimal(20), 97,
+						new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+						new ArrayList<Object>(Arrays.asList(new Weapon(world, 1, Unit.KG, 14))), 7, 50));
+			}
+			Battle battle = new Battle(participants);
+			battle.fight();
+			checkOver(battle);
+			assertEquals(battle.getNumberOfKills(), resolver.getNumberOfResolved());
+			for (Creature creature: participants){
+				assertFalse(creature.hasPendingLoot());
+			}
+		} finally {
+			resolver.close();
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ContainmentLockTest {
+
+	private static final int NUMBER_OF_THREADS = 8;
+	private static final int NUMBER_OF_TRANSFERS = 2000;
+
+	Backpack backpack1;
+	Backpack backpack2;
+	Hero hero1;
+	Hero hero2;
+	ArrayList<Weapon> weapons;
+	ArrayList<Weapon> swords;
+
+	@Before
+	public void setUpFixture(){
+		ContainmentLock.setEnabled(true);
+		backpack1 = new Backpack(new Ducat(10), 1000, 1, Unit.KG);
+		backpack2 = new Backpack(new Ducat(10), 1000, 1, Unit.KG);
+		weapons = new ArrayList<Weapon>();
+		for (int i = 0; i < 20; i++){
+			Weapon weapon = new Weapon(2, Unit.KG, 6);
+			weapons.add(weapon);
+			backpack1.addToStorage(weapon);
+		}
+		hero1 = new Hero("Hero", 89, new Armor(2477, 20, new Ducat(100), 1, Unit.KG));
+		hero2 = new Hero("Heroine", 89, new Armor(2477, 20, new Ducat(100), 1, Unit.KG));
+		swords = new ArrayList<Weapon>();
+		swords.add(new Weapon(1, Unit.KG, 6));
+		swords.add(new Weapon(1, Unit.KG, 6));
+		hero1.addToAnchor(swords.get(0), "Left hand");
+		hero1.addToAnchor(swords.get(1), "Right hand");
+	}
+
+	@After
+	public void tearDown(){
+		ContainmentLock.setEnabled(false);
+	}
+
+	/**
+	 * Run the given task on all threads at once and wait until they are all done.
+	 */
+	private void runConcurrently(final Runnable task) throws InterruptedException {
+		Thread[] threads = new Thread[NUMBER_OF_THREADS];
+		final Throwable[] failure = new Throwable[1];
+		for (int i = 0; i < NUMBER_OF_THREADS; i++){
+			threads[i] = new Thread(new Runnable(){
+				public void run(){
+					try {
+						task.run();
+					} catch (Throwable e) {
+						synchronized (failure){
+							failure[0] = e;
+						}
+					}
+				}
+			});
+		}
+		for (Thread thread: threads){
+			thread.start();
+		}
+		for (Thread thread: threads){
+			thread.join();
+		}
+		if (failure[0] != null){
+			throw new AssertionError(failure[0]);
+		}
+	}
+
+	@Test
+	public void testIsEnabled(){
+		assertTrue(ContainmentLock.isEnabled());
+		assertEquals(1, Integer.bitCount(ContainmentLock.getNumberOfStripes()));
+	}
+
+	@Test
+	public void testConcurrentTransferToStorage() throws InterruptedException {
+		final double weightBefore = backpack1.getTotalWeight(Unit.KG) + backpack2.getTotalWeight(Unit.KG);
+		runConcurrently(new Runnable(){
+			public void run(){
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < NUMBER_OF_TRANSFERS; i++){
+					Weapon weapon = weapons.get(random.nextInt(weapons.size()));
+					Backpack from = random.nextBoolean() ? backpack1 : backpack2;
+					Backpack to = (from == backpack1) ? backpack2 : backpack1;
+					try {
+						from.transferToStorage(to, weapon);
+					} catch (IllegalArgumentException e) {
+						// The weapon was not in the chosen backpack.
+					}
+				}
+			}
+		});
+		assertEquals(weapons.size(), backpack1.getContent().size() + backpack2.getContent().size());
+		assertEquals(weightBefore, backpack1.getTotalWeight(Unit.KG) + backpack2.getTotalWeight(Unit.KG), 0.0001);
+		for (Weapon weapon: weapons){
+			Object holder = weapon.getHolder();
+			assertTrue(holder == backpack1 || holder == backpack2);
+			assertTrue(((Backpack) holder).getContent().contains(weapon));
+			assertTrue(((Backpack) holder).ownableInBackpack(weapon));
+			Backpack other = (holder == backpack1) ? backpack2 : backpack1;
+			assertFalse(other.getContent().contains(weapon));
+		}
+	}
+
+	@Test
+	public void testConcurrentPassAlong() throws InterruptedException {
+		final double usedBefore = hero1.getUsedCapacity(Unit.KG) + hero2.getUsedCapacity(Unit.KG);
+		runConcurrently(new Runnable(){
+			public void run(){
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < NUMBER_OF_TRANSFERS; i++){
+					Weapon sword = swords.get(random.nextInt(swords.size()));
+					Hero from = random.nextBoolean() ? hero1 : hero2;
+					Hero to = (from == hero1) ? hero2 : hero1;
+					String anchor = random.nextBoolean() ? "Left hand" : "Right hand";
+					try {
+						from.passAlong(sword, to, anchor);
+					} catch (IllegalArgumentException e) {
+						// The sword was not carried by the chosen hero or the anchor was taken.
+					}
+				}
+			}
+		});
+		assertEquals(usedBefore, hero1.getUsedCapacity(Unit.KG) + hero2.getUsedCapacity(Unit.KG), 0.0001);
+		for (Weapon sword: swords){
+			Object holder = sword.getHolder();
+			assertTrue(holder == hero1 || holder == hero2);
+			Hero other = (holder == hero1) ? hero2 : hero1;
+			assertTrue(((Hero) holder).getAnchors().containsValue(sword));
+			assertFalse(other.getAnchors().containsValue(sword));
+		}
+	}
+}
@@ -238,4 +238,66 @@ public class CreatureTest {
 	public void testHitIllegalCreature() throws IllegalArgumentException {
 		hero1.hit(hero2);
 	}
+	
+	@Test
+	public void testTryPassAlong(){
+		assertFalse(hero1.tryPassAlong(weapon1, hero2, "Right hand"));
+		assertTrue(weapon1.getHolder() == hero1);
+		assertTrue(hero1.getAnchors().get("Left hand") == weapon1);
+		assertFalse(hero1.tryPassAlong(weapon3, hero2, "Left hand"));
+		assertTrue(hero1.tryPassAlong(purse, hero2, "Belt"));
+		assertTrue(purse.getHolder() == hero2);
+	}
+	
+	@Test
+	public void testTryPassToStorage(){
+		Purse extra = new Purse(1, Unit.KG, 5);
+		assertFalse(hero1.tryPassToStorage(weapon1, extra));
+		assertTrue(hero1.getAnchors().get("Left hand") == weapon1);
+		assertFalse(hero1.tryPassToStorage(weapon2, backpack));
+		assertTrue(hero1.tryPassToStorage(weapon1, backpack));
+		assertTrue(weapon1.getHolder() == backpack);
+	}
+	
+	@Test
+	public void testTryAddToAnchor(){
+		assertFalse(hero1.tryAddToAnchor(weapon3, "Left hand"));
+		assertTrue(hero1.getAnchors().get("Left hand") == weapon1);
+		Weapon light = new Weapon(1, Unit.KG, 14);
+		assertTrue(hero1.tryAddToAnchor(light, "Right hand"));
+		assertTrue(light.getHolder() == hero1);
+	}
+	
+	@Test
+	public void testTryGetName_Dead(){
+		assertEquals("Dracula", monster2.tryGetName().get());
+		assertEquals(monster2.getStrength(), monster2.tryGetStrength().get());
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		assertFalse(monster2.tryGetName().isPresent());
+		assertFalse(monster2.tryGetStrength().isPresent());
+	}
+	
+	@Test
+	public void testDeadExceptionIsStackless(){
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		CreatureIsDeadException first = null;
+		CreatureIsDeadException second = null;
+		try {
+			monster2.getName();
+		} catch (CreatureIsDeadException e) {
+			first = e;
+		}
+		try {
+			monster2.getStrength();
+		} catch (CreatureIsDeadException e) {
+			second = e;
+		}
+		assertSame(monster2, first.getCreature());
+		assertSame(first, second);
+		assertEquals(0, first.getStackTrace().length);
+	}
 }
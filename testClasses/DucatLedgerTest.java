@@ -0,0 +1,60 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+
+public class DucatLedgerTest {
+
+	DucatLedger ledger;
+	
+	@Before
+	public void setUpFixture(){
+		ledger = new DucatLedger(Integer.MAX_VALUE);
+	}
+	
+	@Test
+	public void testAdd_BeyondInt(){
+		DucatLedger sum = ledger.add(new Ducat(10)).add(ledger);
+		assertEquals(2L * Integer.MAX_VALUE + 10, sum.getValue());
+		assertFalse(sum.fitsInDucat());
+		assertEquals(Integer.MAX_VALUE, ledger.getValue());
+		assertTrue(ledger.fitsInDucat());
+		assertEquals(Integer.MAX_VALUE, ledger.toDucat().getValue());
+	}
+	
+	@Test
+	public void testSubtract(){
+		assertEquals(Integer.MAX_VALUE - 7L, ledger.subtract(7).getValue());
+		assertSame(ledger, ledger.subtract(0));
+		assertEquals(DucatLedger.EMPTY, ledger.subtract(Integer.MAX_VALUE));
+	}
+	
+	@Test
+	public void testEquals(){
+		assertTrue(new DucatLedger(5).equals(DucatLedger.EMPTY.add(5)));
+		assertEquals(new DucatLedger(5).hashCode(), DucatLedger.EMPTY.add(5).hashCode());
+		assertFalse(new DucatLedger(5).equals(new Ducat(5)));
+		assertTrue(new DucatLedger(4).compareTo(new DucatLedger(5)) < 0);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorIllegalValue(){
+		new DucatLedger(-1);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testAddOverflow(){
+		new DucatLedger(Long.MAX_VALUE).add(1);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testSubtractTooBig(){
+		new DucatLedger(3).subtract(4);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testToDucatTooBig(){
+		ledger.add(1).toDucat();
+	}
+}
@@ -3,6 +3,8 @@ package testClasses;
 import static org.junit.Assert.*;
 import org.junit.*;
 import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
 
 public class DucatTest {
 
@@ -22,33 +24,79 @@ public class DucatTest {
 	public void testDucat_LegalCase(){
 		assertTrue(ducat1.getValue() == 8);
 		assertTrue(ducat2.getValue() == 2);
-		assertTrue(ducat3.getValue() == 0);
+		assertTrue(ducat3.getValue() == 4);
+		assertTrue(purse.getContent().getValue() == 4);
 		assertTrue(Ducat.ONE_DUCAT.getValue() == 1);
 		assertTrue(Ducat.isValidValue(100));
 		assertTrue(ducat1.getWeight(Unit.KG) == 0.4);
 		assertTrue(ducat2.getWeight(Unit.KG) == 0.1);
-		assertTrue(ducat3.getWeight(Unit.KG) == 0);
-		ducat1.add(ducat2);
+		assertTrue(ducat3.getWeight(Unit.KG) == 0.2);
+		ducat1 = ducat1.add(ducat2);
 		assertTrue(ducat1.getValue() == 10);
 		assertTrue(ducat2.getValue() == 2);
-		ducat1.add(ducat1);
+		ducat1 = ducat1.add(ducat1);
 		assertTrue(ducat1.getValue() == 20);
 		assertTrue(ducat1.getWeight(Unit.KG) == 1);
-		ducat2.add(purse);
+		ducat2 = ducat2.add(purse);
 		assertTrue(ducat2.getValue() == 6);
 		assertTrue(ducat2.getWeight(Unit.KG) == 0.3);
-		ducat1.subtract(ducat2);
+		ducat1 = ducat1.subtract(ducat2);
 		assertTrue(ducat1.getValue() == 14);
 		assertTrue(ducat1.getWeight(Unit.KG) == 0.7);
-		ducat1.subtract(ducat1);
+		ducat1 = ducat1.subtract(ducat1);
 		assertTrue(ducat1.getValue() == 0);
 		assertTrue(ducat1.getWeight(Unit.KG) == 0);
-		ducat2.subtract(purse);
+		ducat2 = ducat2.subtract(purse);
 		assertTrue(ducat2.getValue() == 2);
 		assertTrue(ducat2.getWeight(Unit.KG) == 0.1);
-		ducat1.add(ducat2);
+		ducat1 = ducat1.add(ducat2);
 		assertTrue(ducat1.equals(ducat2));
-		assertFalse(ducat1 == ducat2);
+		assertTrue(ducat1.hashCode() == ducat2.hashCode());
+	}
+	
+	@Test
+	public void testImmutable(){
+		Ducat sum = ducat1.add(ducat2);
+		Ducat difference = ducat1.subtract(ducat2);
+		assertTrue(sum.getValue() == 10);
+		assertTrue(difference.getValue() == 6);
+		assertTrue(ducat1.getValue() == 8);
+		assertTrue(ducat2.getValue() == 2);
+		assertSame(ducat1, ducat1.add(0));
+		assertSame(ducat1, ducat1.subtract(0));
+	}
+	
+	@Test
+	public void testValueOf(){
+		assertSame(Ducat.valueOf(8), Ducat.valueOf(8));
+		assertSame(Ducat.ONE_DUCAT, Ducat.valueOf(1));
+		assertSame(Ducat.NO_DUCATS, ducat2.subtract(2));
+		assertSame(Ducat.valueOf(10), ducat1.add(2));
+		assertTrue(Ducat.valueOf(5000).equals(new Ducat(5000)));
+		assertTrue(Ducat.valueOf(5000L).getValue() == 5000);
+	}
+	
+	@Test
+	public void testAddToStorage_DucatUnchanged(){
+		Purse other = new Purse(200, Unit.GRAM, 5000.00);
+		other.addToStorage(ducat1);
+		assertTrue(ducat1.getValue() == 8);
+		assertTrue(other.getContent().getValue() == 8);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testValueOfIllegalValue() throws IllegalArgumentException{
+		Ducat.valueOf(-1);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testAddOverflow() throws IllegalArgumentException{
+		Ducat.valueOf(Integer.MAX_VALUE).add(1);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testSubtractValueIsTooBig() throws IllegalArgumentException{
+		ducat2.subtract(3);
 	}
 	
 	@Test (expected = IllegalArgumentException.class)
@@ -106,4 +154,21 @@ public class DucatTest {
 		assertFalse(ducat2.equals(purse));
 		assertFalse(ducat2.equals(ducat3));
 	}
+	
+	@Test
+	public void testSharedDucatOnTwoAnchors(){
+		World world = new World();
+		Monster monster = new Monster(world, "Boemkool", new BigDecimal(20), 97,
+				new ArrayList<String>(Arrays.asList("Hand", "Tail", "Horns")),
+				new ArrayList<Object>(Arrays.asList(Ducat.ONE_DUCAT, Ducat.ONE_DUCAT)), 7, 50);
+		Monster other = new Monster(world, "Bloemkool", new BigDecimal(20), 97,
+				new ArrayList<String>(Arrays.asList("Hand", "Tail")), new ArrayList<Object>(), 7, 50);
+		assertEquals(2, monster.getWallet().getLooseDucats().getValue());
+		monster.passAlong(Ducat.ONE_DUCAT, other, "Hand");
+		assertEquals(1, monster.getWallet().getLooseDucats().getValue());
+		assertEquals(1, other.getWallet().getLooseDucats().getValue());
+		assertTrue(monster.getAnchors().containsValue(Ducat.ONE_DUCAT));
+		monster.passToStorage(Ducat.ONE_DUCAT, new Backpack(world, new Ducat(10), 10, 1, Unit.KG));
+		assertEquals(0, monster.getWallet().getLooseDucats().getValue());
+	}
 }
@@ -0,0 +1,188 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class DuelSolverTest {
+
+	World world;
+	Monster monster1, monster2;
+
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		monster1 = monster(world, "Frankenstein", 90, new BigDecimal(20), 97);
+		monster2 = monster(world, "Dracula", 85, new BigDecimal(20), 97);
+	}
+
+	/**
+	 * Return a monster without possessions with the given protection, strength and hitpoints.
+	 */
+	private static Monster monster(World world, String name, int protection, BigDecimal strength, int hitpoints){
+		return new Monster(world, name, strength, hitpoints,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 7, protection);
+	}
+
+	/**
+	 * Return the hitpoints left after a hit with the given damage, as in Creature.hit.
+	 */
+	private static int afterHit(Creature attacker, int hitpoints, int damage){
+		int left = hitpoints - damage;
+		while (!attacker.canHaveAsHitpointsNotFighting(left) && left > 0){
+			left--;
+		}
+		return Math.max(left, 0);
+	}
+
+	/**
+	 * Push the probability mass of the duel forward hit by hit until almost all of it is
+	 * absorbed, and return the probability that the first creature wins and the expected
+	 * number of hits.
+	 */
+	private static double[] propagate(Creature first, int damage1, Creature second, int damage2,
+			int firstLeft, int secondLeft, boolean firstToHit){
+		double p1 = first.getHitProbability();
+		double p2 = second.getHitProbability();
+		// A state is the hitpoints of both creatures and whose turn it is.
+		HashMap<List<Integer>, Double> mass = new HashMap<List<Integer>, Double>();
+		mass.put(Arrays.asList(firstLeft, secondLeft, firstToHit ? 1 : 0), 1.0);
+		double win = 0;
+		double rounds = 0;
+		double alive = 1;
+		while (alive > 1e-13){
+			rounds += alive;
+			HashMap<List<Integer>, Double> next = new HashMap<List<Integer>, Double>();
+			for (Map.Entry<List<Integer>, Double> entry: mass.entrySet()){
+				int a = entry.getKey().get(0);
+				int b = entry.getKey().get(1);
+				boolean firstTurn = entry.getKey().get(2) == 1;
+				double m = entry.getValue();
+				double p = firstTurn ? p1 : p2;
+				List<Integer> miss = Arrays.asList(a, b, firstTurn ? 0 : 1);
+				next.put(miss, next.getOrDefault(miss, 0.0) + m * (1 - p));
+				if (firstTurn){
+					int b2 = afterHit(first, b, damage1);
+					if (b2 == 0){
+						win += m * p;
+					}
+					else {
+						List<Integer> hit = Arrays.asList(a, b2, 0);
+						next.put(hit, next.getOrDefault(hit, 0.0) + m * p);
+					}
+				}
+				else {
+					int a2 = afterHit(second, a, damage2);
+					if (a2 != 0){
+						List<Integer> hit = Arrays.asList(a2, b, 1);
+						next.put(hit, next.getOrDefault(hit, 0.0) + m * p);
+					}
+				}
+			}
+			mass = next;
+			alive = 0;
+			for (double m: mass.values()){
+				alive += m;
+			}
+		}
+		return new double[]{win, rounds};
+	}
+
+	@Test
+	public void testConstructor(){
+		DuelSolver solver = new DuelSolver(monster1, monster2);
+		assertSame(monster1, solver.getFirst());
+		assertSame(monster2, solver.getSecond());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorSameCreature(){
+		new DuelSolver(monster1, monster1);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testStateOutsideTable(){
+		new DuelSolver(monster1, monster2).getWinProbability(98, 10, true);
+	}
+
+	@Test
+	public void testOneHitKills(){
+		// A damage of 7 + (312 - 5) / 3 = 109 kills the other monster in one hit.
+		Monster first = monster(world, "Wolfman", 60, new BigDecimal(312), 97);
+		Monster second = monster(world, "Mummy", 30, new BigDecimal(312), 97);
+		double p1 = 41 / 101.0;
+		double p2 = 71 / 101.0;
+		double end = 1 - (1 - p1) * (1 - p2);
+		DuelSolver solver = new DuelSolver(first, second);
+		assertEquals(p1 / end, solver.getWinProbability(), 1e-12);
+		assertEquals((2 - p1) / end, solver.getExpectedRounds(), 1e-12);
+	}
+
+	@Test
+	public void testTerminalStates(){
+		DuelSolver solver = new DuelSolver(monster1, monster2);
+		assertEquals(1.0, solver.getWinProbability(50, 0, false), 0);
+		assertEquals(0.0, solver.getWinProbability(0, 50, true), 0);
+		assertEquals(0.0, solver.getExpectedRounds(50, 0, true), 0);
+	}
+
+	@Test
+	public void testSymmetricDuel(){
+		Monster twin = monster(world, "Twin", 90, new BigDecimal(20), 97);
+		DuelSolver solver = new DuelSolver(monster1, twin);
+		assertEquals(1.0, solver.getWinProbability(97, 97, true) + solver.getWinProbability(97, 97, false), 1e-12);
+		assertTrue(solver.getWinProbability() > 0.5);
+	}
+
+	@Test
+	public void testAgreesWithPropagation(){
+		DuelSolver solver = new DuelSolver(monster1, monster2);
+		double[] expected = propagate(monster1, 12, monster2, 12, 97, 97, true);
+		assertEquals(expected[0], solver.getWinProbability(), 1e-9);
+		assertEquals(expected[1], solver.getExpectedRounds(), 1e-6);
+		expected = propagate(monster1, 12, monster2, 12, 41, 83, false);
+		assertEquals(expected[0], solver.getWinProbability(41, 83, false), 1e-9);
+		assertEquals(expected[1], solver.getExpectedRounds(41, 83, false), 1e-6);
+	}
+
+	@Test
+	public void testAgreesWithPropagationLargeTable(){
+		// Both tables are large enough to be solved with a parallel wavefront.
+		Monster first = monster(world, "Wolfman", 40, new BigDecimal(65), 997);
+		Monster second = monster(world, "Mummy", 55, new BigDecimal(95), 1009);
+		DuelSolver solver = new DuelSolver(first, second);
+		double[] expected = propagate(first, 27, second, 37, 997, 1009, true);
+		assertEquals(expected[0], solver.getWinProbability(), 1e-9);
+		assertEquals(expected[1], solver.getExpectedRounds(), 1e-6);
+	}
+
+	@Test
+	public void testAgreesWithSimulation(){
+		DuelSolver solver = new DuelSolver(monster1, monster2);
+		int number = 4000;
+		int wins = 0;
+		double sum = 0;
+		double sumSquares = 0;
+		for (int i = 0; i < number; i++){
+			World world = new World();
+			Monster first = monster(world, "Frankenstein", 90, new BigDecimal(20), 97);
+			Monster second = monster(world, "Dracula", 85, new BigDecimal(20), 97);
+			Duel duel = new Duel(first, second);
+			if (duel.fastForward() == first){
+				wins++;
+			}
+			sum += duel.getNumberOfRounds();
+			sumSquares += duel.getNumberOfRounds() * (double) duel.getNumberOfRounds();
+		}
+		double p = solver.getWinProbability();
+		double winZ = (wins / (double) number - p) / Math.sqrt(p * (1 - p) / number);
+		assertTrue("Win rate differs, z = " + winZ, Math.abs(winZ) < 4.5);
+		double mean = sum / number;
+		double variance = sumSquares / number - mean * mean;
+		double roundsZ = (mean - solver.getExpectedRounds()) / Math.sqrt(variance / number);
+		assertTrue("Number of rounds differs, z = " + roundsZ, Math.abs(roundsZ) < 4.5);
+	}
+}
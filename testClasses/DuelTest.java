@@ -0,0 +1,206 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class DuelTest {
+
+	/**
+	 * The number of duels fought in every mode by the statistical tests.
+	 */
+	private static final int NUMBER_OF_DUELS = 4000;
+
+	/**
+	 * The largest z-score the statistical tests accept; a correct implementation fails
+	 * about once in 150000 runs.
+	 */
+	private static final double CRITICAL_Z = 4.5;
+
+	World world;
+	Monster monster1, monster2;
+
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		monster1 = monster(world, "Frankenstein", 90);
+		monster2 = monster(world, "Dracula", 85);
+	}
+
+	/**
+	 * Return a monster without possessions and with the given protection, that needs
+	 * about eight effective hits to be killed.
+	 */
+	private static Monster monster(World world, String name, int protection){
+		return new Monster(world, name, new BigDecimal(20), 97,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 7, protection);
+	}
+
+	/**
+	 * The outcomes of a number of duels between two fresh monsters.
+	 */
+	private static class Outcomes {
+		int firstWins = 0;
+		double sumRounds = 0;
+		double sumSquaredRounds = 0;
+		HashMap<Integer, Integer> finalStates = new HashMap<Integer, Integer>();
+	}
+
+	/**
+	 * Fight the given number of duels between fresh monsters with the given protections,
+	 * fast-forwarded or not.
+	 */
+	private static Outcomes fightDuels(int number, int protection1, int protection2, boolean fastForward){
+		Outcomes outcomes = new Outcomes();
+		for (int i = 0; i < number; i++){
+			World world = new World();
+			Monster first = monster(world, "Frankenstein", protection1);
+			Monster second = monster(world, "Dracula", protection2);
+			Duel duel = new Duel(first, second);
+			Creature winner = fastForward ? duel.fastForward() : duel.fight();
+			if (winner == first){
+				outcomes.firstWins++;
+			}
+			double rounds = duel.getNumberOfRounds();
+			outcomes.sumRounds += rounds;
+			outcomes.sumSquaredRounds += rounds * rounds;
+			// The winner and its remaining hitpoints describe the final state.
+			int state = (winner == first ? 1000 : 0) + winner.getHitpoints();
+			Integer count = outcomes.finalStates.get(state);
+			outcomes.finalStates.put(state, (count == null) ? 1 : count + 1);
+		}
+		return outcomes;
+	}
+
+	/**
+	 * Return the z-score of the difference between two means.
+	 */
+	private static double zScore(double mean1, double variance1, double mean2, double variance2, int number){
+		double error = Math.sqrt((variance1 + variance2) / number);
+		return (error == 0) ? 0 : (mean1 - mean2) / error;
+	}
+
+	/**
+	 * Return the z-score of the chi-square statistic of the homogeneity of both
+	 * histograms, using the Wilson-Hilferty approximation. Final states that are
+	 * expected less than 5 times are pooled.
+	 */
+	private static double chiSquareZ(Map<Integer, Integer> histogram1, Map<Integer, Integer> histogram2, int number){
+		TreeSet<Integer> states = new TreeSet<Integer>(histogram1.keySet());
+		states.addAll(histogram2.keySet());
+		double chiSquare = 0;
+		int degrees = -1;
+		int pooled1 = 0;
+		int pooled2 = 0;
+		for (int state: states){
+			int count1 = histogram1.containsKey(state) ? histogram1.get(state) : 0;
+			int count2 = histogram2.containsKey(state) ? histogram2.get(state) : 0;
+			if ((count1 + count2) / 2.0 < 5){
+				pooled1 += count1;
+				pooled2 += count2;
+				continue;
+			}
+			chiSquare += cell(count1, count2);
+			degrees++;
+		}
+		if (pooled1 + pooled2 > 0){
+			chiSquare += cell(pooled1, pooled2);
+			degrees++;
+		}
+		if (degrees <= 0){
+			return 0;
+		}
+		double ratio = Math.cbrt(chiSquare / degrees);
+		double variance = 2.0 / (9 * degrees);
+		return (ratio - (1 - variance)) / Math.sqrt(variance);
+	}
+
+	/**
+	 * Return the contribution of one state with the given counts to the chi-square
+	 * statistic of two samples of the same size.
+	 */
+	private static double cell(int count1, int count2){
+		double expected = (count1 + count2) / 2.0;
+		return ((count1 - expected) * (count1 - expected) + (count2 - expected) * (count2 - expected)) / expected;
+	}
+
+	/**
+	 * Check that fighting and fast-forwarding give the same distribution of outcomes for
+	 * monsters with the given protections.
+	 */
+	private static void checkSameDistribution(int protection1, int protection2){
+		Outcomes fought = fightDuels(NUMBER_OF_DUELS, protection1, protection2, false);
+		Outcomes forwarded = fightDuels(NUMBER_OF_DUELS, protection1, protection2, true);
+		double p1 = fought.firstWins / (double) NUMBER_OF_DUELS;
+		double p2 = forwarded.firstWins / (double) NUMBER_OF_DUELS;
+		double winZ = zScore(p1, p1 * (1 - p1), p2, p2 * (1 - p2), NUMBER_OF_DUELS);
+		assertTrue("Win rate differs, z = " + winZ, Math.abs(winZ) < CRITICAL_Z);
+		double mean1 = fought.sumRounds / NUMBER_OF_DUELS;
+		double mean2 = forwarded.sumRounds / NUMBER_OF_DUELS;
+		double variance1 = fought.sumSquaredRounds / NUMBER_OF_DUELS - mean1 * mean1;
+		double variance2 = forwarded.sumSquaredRounds / NUMBER_OF_DUELS - mean2 * mean2;
+		double roundsZ = zScore(mean1, variance1, mean2, variance2, NUMBER_OF_DUELS);
+		assertTrue("Number of rounds differs, z = " + roundsZ, Math.abs(roundsZ) < CRITICAL_Z);
+		double stateZ = chiSquareZ(fought.finalStates, forwarded.finalStates, NUMBER_OF_DUELS);
+		assertTrue("Final states differ, z = " + stateZ, stateZ < CRITICAL_Z);
+	}
+
+	@Test
+	public void testConstructor(){
+		Duel duel = new Duel(monster1, monster2);
+		assertSame(monster1, duel.getFirst());
+		assertSame(monster2, duel.getSecond());
+		assertEquals(0, duel.getNumberOfRounds());
+		assertFalse(duel.isOver());
+		assertNull(duel.getWinner());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorSameCreature(){
+		new Duel(monster1, monster1);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorOtherWorld(){
+		new Duel(monster1, monster(new World(), "Wolfman", 50));
+	}
+
+	@Test
+	public void testHitProbability(){
+		assertEquals(11 / 101.0, monster1.getHitProbability(), 1e-12);
+		assertEquals(16 / 101.0, monster2.getHitProbability(), 1e-12);
+	}
+
+	@Test
+	public void testFight(){
+		Duel duel = new Duel(monster1, monster2);
+		Creature winner = duel.fight();
+		assertTrue(duel.isOver());
+		assertSame(winner, duel.getWinner());
+		assertFalse(winner.getKilled());
+		assertTrue(duel.getNumberOfRounds() > 0);
+	}
+
+	@Test
+	public void testFastForward(){
+		Duel duel = new Duel(monster1, monster2);
+		Creature winner = duel.fastForward();
+		assertTrue(duel.isOver());
+		assertSame(winner, duel.getWinner());
+		assertFalse(winner.getKilled());
+		assertTrue(duel.getNumberOfRounds() >= 8);
+	}
+
+	@Test
+	public void testSameDistributionHighProtection(){
+		checkSameDistribution(90, 85);
+	}
+
+	@Test
+	public void testSameDistributionUnevenProtection(){
+		checkSameDistribution(30, 95);
+	}
+}
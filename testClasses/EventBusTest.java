@@ -0,0 +1,222 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.util.*;
+
+public class EventBusTest {
+
+	World world;
+	EventBus bus;
+	Hero hero;
+	Backpack backpack;
+	Weapon weapon;
+	ArrayList<GameEvent> events;
+	GameEventListener recorder;
+	
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		bus = world.getEventBus();
+		hero = new Hero(world, "Eend", 237, new Armor(world, 2477, 84, new Ducat(752), 10, Unit.KG));
+		backpack = new Backpack(world, new Ducat(10), 100, 1, Unit.KG);
+		weapon = new Weapon(world, 1, Unit.KG, 14);
+		events = new ArrayList<GameEvent>();
+		recorder = new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+				events.add(event);
+			}
+		};
+	}
+	
+	@Test
+	public void testNoListeners(){
+		for (GameEventType type: GameEventType.values()){
+			assertFalse(bus.hasListeners(type));
+		}
+		hero.addToAnchor(backpack, "Back");
+		assertTrue(events.isEmpty());
+	}
+	
+	@Test
+	public void testAnchorAndStorageEvents(){
+		bus.subscribe(recorder);
+		hero.addToAnchor(backpack, "Back");
+		backpack.addToStorage(weapon);
+		backpack.addToStorage(new Ducat(3));
+		assertEquals(3, events.size());
+		assertEquals(GameEventType.ANCHOR_FILLED, events.get(0).getType());
+		assertSame(hero, events.get(0).getSource());
+		assertSame(backpack, events.get(0).getSubject());
+		assertEquals(GameEventType.STORED, events.get(1).getType());
+		assertSame(weapon, events.get(1).getSubject());
+		assertEquals(GameEventType.STORED, events.get(2).getType());
+		assertEquals(3, events.get(2).getValue());
+		backpack.removeFromStorageAndTerminate(weapon);
+		assertEquals(GameEventType.TAKEN_OUT, events.get(3).getType());
+		assertEquals(GameEventType.TERMINATED, events.get(4).getType());
+		assertSame(weapon, events.get(4).getSource());
+	}
+	
+	@Test
+	public void testSubscribeToType(){
+		bus.subscribe(GameEventType.DAMAGE_CHANGED, recorder);
+		assertTrue(bus.hasListeners(GameEventType.DAMAGE_CHANGED));
+		assertFalse(bus.hasListeners(GameEventType.STORED));
+		backpack.addToStorage(weapon);
+		weapon.setCurrentDamage(28);
+		assertEquals(1, events.size());
+		assertEquals(28, events.get(0).getValue());
+		bus.unsubscribe(recorder);
+		assertFalse(bus.hasListeners(GameEventType.DAMAGE_CHANGED));
+		weapon.setCurrentDamage(35);
+		assertEquals(1, events.size());
+	}
+	
+	@Test
+	public void testOtherWorldIsSilent(){
+		bus.subscribe(recorder);
+		Backpack other = new Backpack(new Ducat(10), 100, 1, Unit.KG);
+		other.addToStorage(new Weapon(1, Unit.KG, 14));
+		assertTrue(events.isEmpty());
+	}
+	
+	@Test
+	public void testFailingListener(){
+		bus.subscribe(new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+				throw new RuntimeException();
+			}
+		});
+		bus.subscribe(recorder);
+		backpack.addToStorage(weapon);
+		assertEquals(weapon, backpack.getContent().get(0));
+		assertEquals(1, events.size());
+		assertEquals(1, bus.getNumberOfFailures());
+	}
+	
+	@Test
+	public void testHitEvents(){
+		Monster monster = new Monster(world, "Boemkool", new java.math.BigDecimal(41.23), 73,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 49, 46);
+		bus.subscribe(GameEventType.HIT, recorder);
+		bus.subscribe(GameEventType.KILLED, recorder);
+		while (!hero.getKilled()){
+			monster.hit(hero);
+		}
+		GameEvent last = events.get(events.size() - 1);
+		assertEquals(GameEventType.HIT, last.getType());
+		assertSame(monster, last.getSource());
+		assertSame(hero, last.getSubject());
+		assertEquals(GameEventType.KILLED, events.get(events.size() - 2).getType());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testSubscribeNull(){
+		bus.subscribe(GameEventType.HIT, null);
+	}
+	
+	@Test
+	public void testAsyncDispatcher() throws InterruptedException {
+		final ArrayList<GameEvent> handled = new ArrayList<GameEvent>();
+		AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+				handled.add(event);
+			}
+		}, 4);
+		bus.subscribe(GameEventType.STORED, dispatcher);
+		for (int i = 1; i <= 20; i++){
+			backpack.addToStorage(new Ducat(i));
+		}
+		dispatcher.close();
+		assertTrue(dispatcher.isClosed());
+		assertEquals(20, dispatcher.getNumberOfHandled());
+		for (int i = 1; i <= 20; i++){
+			assertEquals(i, handled.get(i - 1).getValue());
+		}
+	}
+	
+	/**
+	 * Return whether a consumer thread of a dispatcher is parked without a timeout.
+	 */
+	private boolean isDispatcherSleeping(){
+		for (Thread thread: Thread.getAllStackTraces().keySet()){
+			if (thread.getName().equals("game-event-dispatcher") && (thread.getState() == Thread.State.WAITING)){
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Test
+	public void testAsyncDispatcherSleepsWhenIdle() throws InterruptedException {
+		final ArrayList<GameEvent> handled = new ArrayList<GameEvent>();
+		AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+				handled.add(event);
+			}
+		}, 4);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!isDispatcherSleeping() && (System.currentTimeMillis() < deadline)){
+			Thread.sleep(1);
+		}
+		assertTrue(isDispatcherSleeping());
+		bus.subscribe(GameEventType.STORED, dispatcher);
+		backpack.addToStorage(new Ducat(3));
+		while ((dispatcher.getNumberOfHandled() == 0) && (System.currentTimeMillis() < deadline)){
+			Thread.sleep(1);
+		}
+		assertEquals(1, dispatcher.getNumberOfHandled());
+		dispatcher.close();
+		assertEquals(3, handled.get(0).getValue());
+	}
+	
+	@Test
+	public void testAsyncDispatcherFailingConsumer() throws InterruptedException {
+		final IllegalStateException failure = new IllegalStateException("disk full");
+		AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+				if (event.getValue() % 2 == 0){
+					throw failure;
+				}
+			}
+		}, 4);
+		assertEquals(0, dispatcher.getNumberOfFailures());
+		assertNull(dispatcher.getFirstFailure());
+		bus.subscribe(GameEventType.STORED, dispatcher);
+		for (int i = 1; i <= 6; i++){
+			backpack.addToStorage(new Ducat(i));
+		}
+		dispatcher.close();
+		assertEquals(6, dispatcher.getNumberOfHandled());
+		assertEquals(3, dispatcher.getNumberOfFailures());
+		assertSame(failure, dispatcher.getFirstFailure());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testAsyncDispatcherCapacity(){
+		new AsyncEventDispatcher(new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+			}
+		}, 3);
+	}
+	
+	@Test (expected = IllegalStateException.class)
+	public void testAsyncDispatcherClosed() throws InterruptedException {
+		AsyncEventDispatcher dispatcher = new AsyncEventDispatcher(new GameEventListener(){
+			@Override
+			public void handle(GameEvent event){
+			}
+		});
+		dispatcher.close();
+		dispatcher.handle(new GameEvent(GameEventType.KILLED, hero, null, 0));
+	}
+}
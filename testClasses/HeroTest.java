@@ -114,6 +114,62 @@ public class HeroTest {
 		Hero h = new Hero("Hero", new BigDecimal(25.00), 127, new ArrayList<Object>(Arrays.asList(null, null, null, null, null)));
 	}
 	
+	@Test
+	public void testNumberOfArmors(){
+		assertEquals(1, hero1.getNumberOfArmors());
+		Armor armor3 = new Armor(11, 20, new Ducat(562), 4, Unit.KG);
+		Armor armor4 = new Armor(17, 20, new Ducat(562), 4, Unit.KG);
+		hero1.addToAnchor(backpack, "Back");
+		backpack.addToStorage(armor3);
+		assertEquals(2, hero1.getNumberOfArmors());
+		assertFalse(backpack.canAddToStorage(armor4));
+		assertFalse(hero1.canAddToAnchor(armor4, "Right hand"));
+		Backpack inner = new Backpack(new Ducat(1), 100, 1, Unit.KG);
+		backpack.transferToStorage(inner, armor3);
+		assertEquals(1, hero1.getNumberOfArmors());
+		backpack.addToStorage(inner);
+		assertEquals(2, hero1.getNumberOfArmors());
+		hero1.passAlong(backpack, hero2, "Back");
+		assertEquals(1, hero1.getNumberOfArmors());
+		assertEquals(2, hero2.getNumberOfArmors());
+		assertTrue(hero1.canAddToAnchor(armor4, "Right hand"));
+	}
+	
+	@Test
+	public void testEquippedDamage(){
+		assertEquals(42, hero1.getEquippedDamage());
+		hero1.addToAnchor(weapon2, "Right hand");
+		assertEquals(98, hero1.getEquippedDamage());
+		weapon2.setCurrentDamage(28);
+		assertEquals(70, hero1.getEquippedDamage());
+		hero1.dropFromAnchorAndTerminate(weapon1);
+		assertEquals(28, hero1.getEquippedDamage());
+		Weapon dagger = new Weapon(1, Unit.KG, 14);
+		hero2.addToAnchor(dagger, "Left hand");
+		hero2.addToAnchor(new Weapon(1, Unit.KG, 21), "Back");
+		assertEquals(14, hero2.getEquippedDamage());
+		hero2.passAlong(dagger, hero1, "Left hand");
+		assertEquals(42, hero1.getEquippedDamage());
+		assertEquals(0, hero2.getEquippedDamage());
+	}
+	
+	@Test
+	public void testCurrentProtection_Cached(){
+		int before = hero1.getCurrentProtection();
+		assertEquals(armor1.getCurrentProtection() + 10, before);
+		armor1.increaseProtection(5);
+		assertEquals(before + 5, hero1.getCurrentProtection());
+		armor1.decreaseProtection(2);
+		assertEquals(before + 3, hero1.getCurrentProtection());
+		hero1.emptyAnchorAndTerminate("Body");
+		assertEquals(10, hero1.getCurrentProtection());
+		Armor armor3 = new Armor(11, 20, new Ducat(562), 4, Unit.KG);
+		hero1.addToAnchor(armor3, "Body");
+		assertEquals(armor3.getCurrentProtection() + 10, hero1.getCurrentProtection());
+		armor3.increaseProtection(1);
+		assertEquals(armor3.getCurrentProtection() + 10, hero1.getCurrentProtection());
+	}
+	
 	@Test (expected = IllegalArgumentException.class)
 	public void testConstructorArmorAtBirthOnBody2() throws IllegalArgumentException {
 		Weapon w = new Weapon(12, Unit.KG, 42);
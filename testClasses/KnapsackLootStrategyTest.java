@@ -0,0 +1,200 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class KnapsackLootStrategyTest {
+
+	World world;
+	Hero hero;
+	Monster monster;
+	Backpack backpack;
+	Weapon heavy, light1, light2;
+
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		backpack = new Backpack(world, new Ducat(10), 10, 1, Unit.KG);
+		hero = new Hero(world, "Hero", new BigDecimal(30), 997,
+				new ArrayList<Object>(Arrays.asList(null, null, backpack,
+						new Armor(world, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+		heavy = new Weapon(world, 10, Unit.KG, 70);
+		light1 = new Weapon(world, 1, Unit.KG, 98);
+		light2 = new Weapon(world, 1, Unit.KG, 98);
+		monster = new Monster(world, "Monster", new BigDecimal(20), 2,
+				new ArrayList<String>(Arrays.asList("Hand 1", "Hand 2", "Hand 3", "Hand 4", "Hand 5", "Tail")),
+				new ArrayList<Object>(Arrays.asList(new Weapon(world, 5, Unit.KG, 56), new Weapon(world, 5, Unit.KG, 56),
+						heavy, light1, light2, Ducat.ONE_DUCAT)), 7, 50);
+	}
+
+	/**
+	 * Let the hero hit the monster until it is dead.
+	 */
+	private void killMonster(){
+		while (!monster.getKilled()){
+			hero.hit(monster);
+		}
+	}
+
+	/**
+	 * Return the total score of the given choice, or -1 if it does not fit.
+	 */
+	private static long getScore(boolean[] chosen, long[] weights, long[] scores, boolean[] armors,
+			int maximumArmors, long capacity){
+		long weight = 0;
+		long score = 0;
+		int numberOfArmors = 0;
+		for (int i = 0; i < chosen.length; i++){
+			if (chosen[i]){
+				weight += weights[i];
+				score += scores[i];
+				numberOfArmors += armors[i] ? 1 : 0;
+			}
+		}
+		return ((weight <= capacity) && (numberOfArmors <= maximumArmors)) ? score : -1;
+	}
+
+	/**
+	 * Return the highest total score of all the choices that fit.
+	 */
+	private static long getBestScore(long[] weights, long[] scores, boolean[] armors, int maximumArmors, long capacity){
+		long best = 0;
+		boolean[] chosen = new boolean[weights.length];
+		for (int mask = 0; mask < (1 << weights.length); mask++){
+			for (int i = 0; i < weights.length; i++){
+				chosen[i] = ((mask >> i) & 1) == 1;
+			}
+			best = Math.max(best, getScore(chosen, weights, scores, armors, maximumArmors, capacity));
+		}
+		return best;
+	}
+
+	/**
+	 * Check the given strategy against all choices on many small random sets of items.
+	 */
+	private void checkAgainstAllChoices(KnapsackLootStrategy strategy){
+		Random random = new Random(47);
+		for (int run = 0; run < 300; run++){
+			int size = 1 + random.nextInt(12);
+			long[] weights = new long[size];
+			long[] scores = new long[size];
+			boolean[] armors = new boolean[size];
+			for (int i = 0; i < size; i++){
+				weights[i] = 50 * (1 + random.nextInt(20));
+				scores[i] = random.nextInt(31);
+				armors[i] = random.nextInt(4) == 0;
+			}
+			int maximumArmors = random.nextInt(3);
+			long capacity = 50 * random.nextInt(100);
+			boolean[] chosen = strategy.select(weights, scores, armors, maximumArmors, capacity);
+			assertEquals(getBestScore(weights, scores, armors, maximumArmors, capacity),
+					getScore(chosen, weights, scores, armors, maximumArmors, capacity));
+		}
+	}
+
+	@Test
+	public void testSelectWithTable(){
+		KnapsackLootStrategy strategy = new KnapsackLootStrategy();
+		checkAgainstAllChoices(strategy);
+		assertTrue(strategy.getNumberOfTableSelections() > 0);
+		assertEquals(0, strategy.getNumberOfSearchSelections());
+	}
+
+	@Test
+	public void testSelectWithSearch(){
+		KnapsackLootStrategy strategy = new KnapsackLootStrategy(LootScore.VALUE, 10000, 1);
+		checkAgainstAllChoices(strategy);
+		assertEquals(0, strategy.getNumberOfTableSelections());
+		assertTrue(strategy.getNumberOfSearchSelections() > 0);
+		assertEquals(0, strategy.getNumberOfExpiredSearches());
+	}
+
+	@Test
+	public void testParallelTableAgreesWithSearch(){
+		Random random = new Random(7);
+		int size = 24;
+		long[] weights = new long[size];
+		long[] scores = new long[size];
+		boolean[] armors = new boolean[size];
+		for (int i = 0; i < size; i++){
+			weights[i] = 1000 + random.nextInt(19001);
+			scores[i] = 1 + random.nextInt(1000);
+			armors[i] = (i % 6 == 0);
+		}
+		long capacity = 150000;
+		KnapsackLootStrategy table = new KnapsackLootStrategy(LootScore.VALUE, 0, 1 << 23);
+		KnapsackLootStrategy search = new KnapsackLootStrategy(LootScore.VALUE, 60000, 1);
+		long tableScore = getScore(table.select(weights, scores, armors, 1, capacity), weights, scores, armors, 1, capacity);
+		long searchScore = getScore(search.select(weights, scores, armors, 1, capacity), weights, scores, armors, 1, capacity);
+		assertEquals(1, table.getNumberOfTableSelections());
+		assertEquals(0, search.getNumberOfExpiredSearches());
+		assertTrue(tableScore > 0);
+		assertEquals(searchScore, tableScore);
+	}
+
+	@Test
+	public void testExpiredSearch(){
+		Random random = new Random(3);
+		int size = 2000;
+		long[] weights = new long[size];
+		long[] scores = new long[size];
+		boolean[] armors = new boolean[size];
+		for (int i = 0; i < size; i++){
+			weights[i] = 1 + random.nextInt(1000000);
+			scores[i] = 1 + random.nextInt(1000000);
+		}
+		KnapsackLootStrategy strategy = new KnapsackLootStrategy(LootScore.VALUE, 0, 1);
+		boolean[] chosen = strategy.select(weights, scores, armors, 0, 100000000L);
+		assertEquals(1, strategy.getNumberOfExpiredSearches());
+		assertTrue(getScore(chosen, weights, scores, armors, 0, 100000000L) > 0);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testSelectInvalid(){
+		new KnapsackLootStrategy().select(new long[2], new long[1], new boolean[2], 0, 10);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorInvalid(){
+		new KnapsackLootStrategy(null, 10, 10);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testSetLootStrategyInvalid(){
+		hero.setLootStrategy(null);
+	}
+
+	@Test
+	public void testGreedyLoot(){
+		assertSame(LootStrategy.GREEDY, hero.getLootStrategy());
+		killMonster();
+		assertEquals(Arrays.asList((Object) heavy), backpack.getContent());
+	}
+
+	@Test
+	public void testKnapsackLoot(){
+		hero.setLootStrategy(new KnapsackLootStrategy());
+		killMonster();
+		assertTrue(backpack.getContent().contains(light1));
+		assertTrue(backpack.getContent().contains(light2));
+		assertEquals(1, backpack.getLooseDucats().getValue());
+		assertTrue(heavy.getTerminated());
+		assertEquals(1, hero.getNumberOfArmors());
+	}
+
+	@Test
+	public void testKnapsackLootWithScore(){
+		hero.setLootStrategy(new KnapsackLootStrategy(new LootScore(){
+			@Override
+			public long getScore(Object object){
+				return (object instanceof Weapon) ? Math.round(((Weapon) object).getOwnWeight(Unit.KG)) : 0;
+			}
+		}, 50, 1000));
+		killMonster();
+		assertEquals(Arrays.asList((Object) heavy), backpack.getContent());
+		assertTrue(light1.getTerminated());
+	}
+}
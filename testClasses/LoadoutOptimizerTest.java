@@ -0,0 +1,236 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class LoadoutOptimizerTest {
+
+	World world;
+	Hero hero;
+	Monster monster;
+	Backpack backpack, inner;
+	Weapon weak, strong1, strong2;
+	Armor heavyArmor, lightArmor;
+	LoadoutOptimizer optimizer;
+
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		backpack = new Backpack(world, new Ducat(10), 20, 1, Unit.KG);
+		inner = new Backpack(world, new Ducat(10), 10, 1, Unit.KG);
+		weak = new Weapon(world, 1, Unit.KG, 7);
+		strong1 = new Weapon(world, 2, Unit.KG, 91);
+		strong2 = new Weapon(world, 2, Unit.KG, 84);
+		heavyArmor = new Armor(world, 2477, 40, new Ducat(100), 3, Unit.KG);
+		lightArmor = new Armor(world, 2473, 5, new Ducat(100), 1, Unit.KG);
+		heavyArmor.setCurrentProtection(40);
+		lightArmor.setCurrentProtection(5);
+		hero = new Hero(world, "Hero", new BigDecimal(30), 997,
+				new ArrayList<Object>(Arrays.asList(weak, null, backpack, heavyArmor, null)));
+		inner.addToStorage(strong1);
+		backpack.addToStorage(inner);
+		backpack.addToStorage(strong2);
+		backpack.addToStorage(lightArmor);
+		monster = monster(world, 997);
+		optimizer = new LoadoutOptimizer();
+	}
+
+	/**
+	 * Return a monster without possessions with the given hitpoints.
+	 */
+	private static Monster monster(World world, int hitpoints){
+		return new Monster(world, "Monster", new BigDecimal(20), hitpoints,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 7, 50);
+	}
+
+	/**
+	 * Return the expected damage per round of a hero with the given strength, damage of
+	 * its weapons and protection of its armor against the given monster, as in Creature.hit.
+	 */
+	private static double getExpectedDamage(Monster monster, int strength, int damage, int protection){
+		int resulting = Math.max(0, (int) Math.floor((strength + damage - 10) / 2.0));
+		int left = monster.getHitpoints() - resulting;
+		while (!monster.canHaveAsHitpointsNotFighting(left) && left > 0){
+			left--;
+		}
+		double probability = Math.max(0, Math.min(101, 101 - (10 + protection))) / 101.0;
+		return probability * (monster.getHitpoints() - Math.max(left, 0));
+	}
+
+	/**
+	 * Return the highest expected damage of all loadouts, if capacity doesn't matter.
+	 */
+	private static double getBestExpectedDamage(Monster monster, int strength, List<Weapon> weapons, List<Armor> armors){
+		ArrayList<Integer> damages = new ArrayList<Integer>(Arrays.asList(0, 0));
+		for (Weapon weapon: weapons){
+			damages.add(weapon.getCurrentDamage());
+		}
+		ArrayList<Integer> protections = new ArrayList<Integer>(Arrays.asList(0));
+		for (Armor armor: armors){
+			protections.add(armor.getCurrentProtection());
+		}
+		double best = 0;
+		for (int protection: protections){
+			for (int i = 0; i < damages.size(); i++){
+				for (int j = i + 1; j < damages.size(); j++){
+					best = Math.max(best, getExpectedDamage(monster, strength, damages.get(i) + damages.get(j), protection));
+				}
+			}
+		}
+		return best;
+	}
+
+	@Test
+	public void testCurrentLoadout(){
+		Loadout loadout = optimizer.getCurrentLoadout(hero, monster);
+		assertSame(weak, loadout.getLeftHand());
+		assertNull(loadout.getRightHand());
+		assertSame(heavyArmor, loadout.getBody());
+		assertEquals(hero.getHitProbability(), loadout.getHitProbability(), 1e-12);
+		assertEquals(getExpectedDamage(monster, 30, 7, 40), loadout.getExpectedDamage(), 1e-9);
+	}
+
+	@Test
+	public void testFindBest(){
+		Loadout loadout = optimizer.findBest(hero, monster);
+		assertSame(strong1, loadout.getLeftHand());
+		assertSame(strong2, loadout.getRightHand());
+		assertNull(loadout.getBody());
+		assertEquals(getExpectedDamage(monster, 30, 91 + 84, 0), loadout.getExpectedDamage(), 1e-9);
+		assertSame(weak, hero.getAnchors().get("Left hand"));
+		assertSame(inner, strong1.getHolder());
+	}
+
+	@Test
+	public void testEquipBest(){
+		Loadout loadout = optimizer.equipBest(hero, monster);
+		assertSame(strong1, hero.getAnchors().get("Left hand"));
+		assertSame(strong2, hero.getAnchors().get("Right hand"));
+		assertNull(hero.getAnchors().get("Body"));
+		assertSame(backpack, weak.getHolder());
+		assertSame(backpack, heavyArmor.getHolder());
+		assertSame(backpack, lightArmor.getHolder());
+		assertSame(hero, strong1.getHolder());
+		assertEquals(91 + 84, hero.getEquippedDamage());
+		assertEquals(10, hero.getCurrentProtection());
+		assertEquals(2, hero.getNumberOfArmors());
+		assertEquals(loadout.getExpectedDamage(), optimizer.getCurrentLoadout(hero, monster).getExpectedDamage(), 1e-12);
+		assertSame(loadout.getLeftHand(), optimizer.equipBest(hero, monster).getLeftHand());
+	}
+
+	@Test
+	public void testEquipBestWithFullBackpack(){
+		backpack.addToStorage(new Weapon(world, 11, Unit.KG, 7));
+		optimizer.equipBest(hero, monster);
+		// Only 1 kg is left in the backpack, so the weak weapon and the heavy armor can only
+		// be taken off if the strong weapons come out of it.
+		assertSame(strong1, hero.getAnchors().get("Left hand"));
+		assertSame(strong2, hero.getAnchors().get("Right hand"));
+		assertNull(hero.getAnchors().get("Body"));
+		assertTrue(backpack.getUsedCapacity(Unit.KG) <= backpack.getMaximumCapacity(Unit.KG));
+	}
+
+	@Test
+	public void testEquipBestWithoutRoom(){
+		World other = new World();
+		Backpack back = new Backpack(other, new Ducat(10), 10, 1, Unit.KG);
+		Weapon heavy = new Weapon(other, 9, Unit.KG, 7);
+		Weapon light1 = new Weapon(other, 1, Unit.KG, 91);
+		Weapon light2 = new Weapon(other, 1, Unit.KG, 84);
+		Armor armor = new Armor(other, 2477, 40, new Ducat(100), 3, Unit.KG);
+		Hero otherHero = new Hero(other, "Hero", new BigDecimal(30), 997,
+				new ArrayList<Object>(Arrays.asList(heavy, null, back, armor, null)));
+		back.addToStorage(light1);
+		back.addToStorage(light2);
+		back.addToStorage(new Weapon(other, 8, Unit.KG, 7));
+		optimizer.equipBest(otherHero, monster(other, 997));
+		// The backpack is full and the light weapons don't free enough room for the heavy
+		// weapon or the armor, but the right hand is free.
+		assertSame(heavy, otherHero.getAnchors().get("Left hand"));
+		assertSame(light1, otherHero.getAnchors().get("Right hand"));
+		assertSame(armor, otherHero.getAnchors().get("Body"));
+		assertSame(back, light2.getHolder());
+	}
+
+	@Test
+	public void testEquipBestWithoutBackpack(){
+		World other = new World();
+		Weapon weapon = new Weapon(other, 1, Unit.KG, 14);
+		Armor armor = new Armor(other, 2477, 30, new Ducat(100), 1, Unit.KG);
+		Hero lonely = new Hero(other, "Lonely", new BigDecimal(30), 997,
+				new ArrayList<Object>(Arrays.asList(null, weapon, null, armor, null)));
+		Loadout loadout = optimizer.equipBest(lonely, monster(other, 997));
+		assertNull(loadout.getLeftHand());
+		assertSame(weapon, loadout.getRightHand());
+		assertSame(armor, lonely.getAnchors().get("Body"));
+	}
+
+	@Test
+	public void testFindBestAgainstAllLoadouts(){
+		Random random = new Random(48);
+		int[] hitpoints = {2, 97, 211, 997};
+		for (int run = 0; run < 30; run++){
+			World other = new World();
+			Backpack back = new Backpack(other, new Ducat(10), 100, 1, Unit.KG);
+			Backpack nested = new Backpack(other, new Ducat(10), 50, 1, Unit.KG);
+			ArrayList<Weapon> weapons = new ArrayList<Weapon>();
+			for (int i = 0; i < 14; i++){
+				weapons.add(new Weapon(other, 0.5, Unit.KG, 7 * (1 + random.nextInt(14))));
+			}
+			Armor body = new Armor(other, 2477, 1 + random.nextInt(60), new Ducat(100), 1, Unit.KG);
+			Armor spare = new Armor(other, 2473, 1 + random.nextInt(60), new Ducat(100), 1, Unit.KG);
+			body.setCurrentProtection(1 + random.nextInt(body.getMaxProtection()));
+			spare.setCurrentProtection(1 + random.nextInt(spare.getMaxProtection()));
+			int strength = 10 + random.nextInt(21);
+			Hero otherHero = new Hero(other, "Hero", new BigDecimal(strength), 997,
+					new ArrayList<Object>(Arrays.asList(weapons.get(0), null, back, body, null)));
+			back.addToStorage(nested);
+			back.addToStorage(spare);
+			for (int i = 1; i < weapons.size(); i++){
+				((i % 2 == 0) ? back : nested).addToStorage(weapons.get(i));
+			}
+			Monster otherMonster = monster(other, hitpoints[run % hitpoints.length]);
+			double best = getBestExpectedDamage(otherMonster, strength, weapons, Arrays.asList(body, spare));
+			assertEquals(best, optimizer.findBest(otherHero, otherMonster).getExpectedDamage(), 1e-9);
+			assertEquals(best, optimizer.equipBest(otherHero, otherMonster).getExpectedDamage(), 1e-9);
+			assertEquals(best, optimizer.getCurrentLoadout(otherHero, otherMonster).getExpectedDamage(), 1e-9);
+			assertEquals(2, otherHero.getNumberOfArmors());
+			assertEquals(14, back.getNumberOfWeapons() + (otherHero.getAnchors().get("Left hand") != null ? 1 : 0) +
+					(otherHero.getAnchors().get("Right hand") != null ? 1 : 0));
+		}
+	}
+
+	@Test
+	public void testPruningWithManyWeapons(){
+		World other = new World();
+		Backpack back = new Backpack(other, new Ducat(10), 500, 1, Unit.KG);
+		Hero otherHero = new Hero(other, "Hero", new BigDecimal(30), 997,
+				new ArrayList<Object>(Arrays.asList(null, null, back, new Armor(other, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+		Random random = new Random(400);
+		ArrayList<Weapon> weapons = new ArrayList<Weapon>();
+		for (int i = 0; i < 400; i++){
+			Weapon weapon = new Weapon(other, 0.5, Unit.KG, 7 * (1 + random.nextInt(14)));
+			weapons.add(weapon);
+			back.addToStorage(weapon);
+		}
+		Monster otherMonster = monster(other, 997);
+		Loadout loadout = optimizer.findBest(otherHero, otherMonster);
+		assertEquals(getBestExpectedDamage(otherMonster, 30, weapons, new ArrayList<Armor>()),
+				loadout.getExpectedDamage(), 1e-9);
+		assertTrue(optimizer.getNumberOfEvaluations() < 100);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testFindBestWithoutMonster(){
+		optimizer.findBest(hero, null);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testEquipBestOtherWorld(){
+		optimizer.equipBest(hero, monster(new World(), 997));
+	}
+}
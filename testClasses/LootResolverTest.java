@@ -0,0 +1,153 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class LootResolverTest {
+
+	World world;
+	LootResolver resolver;
+	Monster monster1, monster2;
+	Weapon weapon1, weapon2;
+
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		resolver = new LootResolver(2, 16);
+		world.setLootResolver(resolver);
+		weapon1 = new Weapon(world, 15, Unit.KG, 21);
+		weapon2 = new Weapon(world, 12, Unit.KG, 56);
+		monster1 = new Monster(world, "Frankenstein", new BigDecimal(321.64), 97,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand", "Back", "Tail")),
+				new ArrayList<Object>(Arrays.asList(weapon1)), 77, 52);
+		monster2 = new Monster(world, "Dracula", new BigDecimal(41.23), 73,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(Arrays.asList(weapon2)), 49, 46);
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		resolver.close();
+	}
+
+	@Test
+	public void testDefaultWorldResolvesDuringHit(){
+		assertNull(new World().getLootResolver());
+	}
+
+	@Test
+	public void testConstructor(){
+		assertEquals(2, resolver.getNumberOfThreads());
+		assertEquals(16, resolver.getCapacity());
+		assertFalse(resolver.isClosed());
+		assertEquals(0, resolver.getNumberOfPending());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorNoThreads(){
+		new LootResolver(0, 16);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorNoCapacity(){
+		new LootResolver(1, 0);
+	}
+
+	@Test
+	public void testKillingHitIsResolvedInBackground() throws InterruptedException {
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		resolver.drain();
+		assertEquals(1, resolver.getNumberOfSubmitted());
+		assertEquals(1, resolver.getNumberOfResolved());
+		assertFalse(monster1.hasPendingLoot());
+		assertFalse(monster2.hasPendingLoot());
+		for (Object object: monster2.getAnchors().values()){
+			assertNull(object);
+		}
+	}
+
+	@Test
+	public void testFailingDeathblowIsReported() throws InterruptedException {
+		final IllegalStateException failure = new IllegalStateException("no loot");
+		Monster failing = new Monster(world, "Frankenstein", new BigDecimal(321.64), 97,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 77, 52){
+			@Override
+			protected void deathblow(Creature opponent){
+				throw failure;
+			}
+		};
+		while (!monster2.getKilled()){
+			failing.hit(monster2);
+		}
+		resolver.drain();
+		assertEquals(1, resolver.getNumberOfResolved());
+		assertEquals(1, resolver.getNumberOfFailed());
+		assertSame(failure, resolver.getFirstFailure());
+		assertFalse(failing.hasPendingLoot());
+		assertFalse(monster2.hasPendingLoot());
+	}
+
+	@Test
+	public void testNoFailures() throws InterruptedException {
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		resolver.drain();
+		assertEquals(0, resolver.getNumberOfFailed());
+		assertNull(resolver.getFirstFailure());
+	}
+
+	@Test
+	public void testFenceOrdersLaterOperations(){
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		// The wallet locks the winner, so it waits for the loot to be committed.
+		new Wallet(monster1);
+		assertFalse(monster1.hasPendingLoot());
+		for (Object object: monster2.getAnchors().values()){
+			assertNull(object);
+		}
+	}
+
+	@Test
+	public void testAwaitLoot(){
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		monster2.awaitLoot();
+		assertFalse(monster2.hasPendingLoot());
+		assertNull(monster2.getAnchors().get("Left hand"));
+	}
+
+	@Test
+	public void testClosedResolverResolvesDuringHit() throws InterruptedException {
+		resolver.close();
+		assertTrue(resolver.isClosed());
+		while (!monster2.getKilled()){
+			monster1.hit(monster2);
+		}
+		assertEquals(1, resolver.getNumberOfResolved());
+		assertFalse(monster1.hasPendingLoot());
+	}
+
+	@Test
+	public void testConcurrencyMode() throws InterruptedException {
+		ContainmentLock.setEnabled(true);
+		try {
+			while (!monster2.getKilled()){
+				monster1.hit(monster2);
+			}
+			new Wallet(monster2);
+			assertEquals(1, resolver.getNumberOfResolved());
+		} finally {
+			ContainmentLock.setEnabled(false);
+		}
+	}
+}
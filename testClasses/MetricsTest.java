@@ -0,0 +1,184 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.*;
+import javax.management.*;
+
+public class MetricsTest {
+
+	World world;
+	Hero hero;
+	Monster monster;
+	
+	@Before
+	public void setUpFixture(){
+		world = new World();
+		hero = new Hero(world, "Eend", new BigDecimal(20), 237,
+				new ArrayList<Object>(Arrays.asList(new Weapon(world, 1, Unit.KG, 14), null,
+						new Backpack(world, new Ducat(10), 100, 1, Unit.KG),
+						new Armor(world, 2477, 84, new Ducat(752), 10, Unit.KG), null)));
+		monster = new Monster(world, "Boemkool", new BigDecimal(41.23), 73,
+				new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+				new ArrayList<Object>(), 49, 46);
+	}
+	
+	@After
+	public void tearDown(){
+		Metrics.setSamplePeriod(1024);
+		Metrics.disable();
+		Metrics.unregisterMBean();
+	}
+	
+	private void fight(){
+		while (!hero.getKilled() && !monster.getKilled()){
+			hero.hit(monster);
+			if (!monster.getKilled()){
+				monster.hit(hero);
+			}
+		}
+	}
+	
+	@Test
+	public void testDisabled(){
+		assertFalse(Metrics.isEnabled());
+		assertNull(Metrics.getRegistry());
+		fight();
+		assertEquals("metrics disabled" + System.lineSeparator(), Metrics.dump());
+	}
+	
+	@Test
+	public void testCombatCounters(){
+		Metrics.enable();
+		Metrics.setSamplePeriod(1);
+		assertTrue(Metrics.isEnabled());
+		fight();
+		MetricsRegistry registry = Metrics.getRegistry();
+		assertTrue(registry.getCount(MetricCounter.HITS) > 0);
+		assertTrue(registry.getCount(MetricCounter.EFFECTIVE_HITS) <= registry.getCount(MetricCounter.HITS));
+		assertEquals(1, registry.getCount(MetricCounter.KILLS));
+		assertEquals(1, registry.getCount(MetricCounter.DEATHBLOWS));
+		assertEquals(registry.getCount(MetricCounter.HITS), registry.getHistogram(MetricTimer.HIT).getTotalCount());
+		MetricTimer loot = hero.getKilled() ? MetricTimer.COLLECT_TREASURES : MetricTimer.ADD_TREASURE;
+		assertEquals(1, registry.getHistogram(loot).getTotalCount());
+		assertTrue(Metrics.dump().contains("counter kills 1"));
+	}
+	
+	@Test
+	public void testInventoryMetrics(){
+		Metrics.enable();
+		Metrics.setSamplePeriod(1);
+		Backpack backpack = new Backpack(world, new Ducat(10), 100, 1, Unit.KG);
+		Weapon weapon = new Weapon(world, 1, Unit.KG, 14);
+		assertTrue(backpack.canAddToStorage(weapon));
+		backpack.addToStorage(weapon);
+		backpack.removeFromStorageAndTerminate(weapon);
+		MetricsRegistry registry = Metrics.getRegistry();
+		assertEquals(2, registry.getHistogram(MetricTimer.ID_ALLOCATION).getTotalCount());
+		assertEquals(2, registry.getHistogram(MetricTimer.CAN_ADD_TO_STORAGE).getTotalCount());
+		assertEquals(1, registry.getCount(MetricCounter.TERMINATIONS));
+	}
+	
+	@Test
+	public void testCountsOfEndedThreadsAreKept() throws InterruptedException {
+		final DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+		for (int i = 0; i < 50; i++){
+			Thread thread = new Thread(new Runnable(){
+				@Override
+				public void run(){
+					registry.increment(MetricCounter.KILLS);
+					registry.incrementHits(true);
+				}
+			});
+			thread.start();
+			thread.join();
+		}
+		registry.increment(MetricCounter.KILLS);
+		assertEquals(51, registry.getCount(MetricCounter.KILLS));
+		assertEquals(50, registry.getCount(MetricCounter.HITS));
+		assertEquals(50, registry.getCount(MetricCounter.EFFECTIVE_HITS));
+		assertEquals(51, registry.getCount(MetricCounter.KILLS));
+	}
+	
+	@Test
+	public void testPluggableRegistry(){
+		final ArrayList<MetricCounter> counted = new ArrayList<MetricCounter>();
+		Metrics.setRegistry(new MetricsRegistry(){
+			@Override
+			public void increment(MetricCounter counter){
+				counted.add(counter);
+			}
+			@Override
+			public void record(MetricTimer timer, long nanos){
+			}
+			@Override
+			public long getCount(MetricCounter counter){
+				return Collections.frequency(counted, counter);
+			}
+			@Override
+			public LatencyHistogram getHistogram(MetricTimer timer){
+				return null;
+			}
+		});
+		hero.hit(monster);
+		assertEquals(MetricCounter.HITS, counted.get(0));
+		assertTrue(Metrics.dump().contains("counter hits 1"));
+		assertFalse(Metrics.dump().contains("timer"));
+	}
+	
+	@Test
+	public void testSampling(){
+		Metrics.enable();
+		assertEquals(1024, Metrics.getSamplePeriod());
+		for (int i = 0; i < 64; i++){
+			fight();
+			setUpFixture();
+		}
+		MetricsRegistry registry = Metrics.getRegistry();
+		assertTrue(registry.getHistogram(MetricTimer.HIT).getTotalCount() < registry.getCount(MetricCounter.HITS));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testSamplePeriodIllegal(){
+		Metrics.setSamplePeriod(3);
+	}
+	
+	@Test
+	public void testHistogram(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		for (int i = 1; i <= 1000; i++){
+			histogram.record(i * 1000L);
+		}
+		assertEquals(1000, histogram.getTotalCount());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500500, histogram.getMean(), 0.001);
+		long median = histogram.getValueAtPercentile(50);
+		assertTrue(median >= 500000 && median <= 500000 * 1.0625);
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testHistogramIllegalPercentile(){
+		new LatencyHistogram().getValueAtPercentile(101);
+	}
+	
+	@Test
+	public void testMBean() throws Exception {
+		Metrics.registerMBean();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(Metrics.MBEAN_NAME);
+		assertEquals(Boolean.FALSE, server.getAttribute(name, "Enabled"));
+		server.setAttribute(name, new Attribute("Enabled", Boolean.TRUE));
+		assertTrue(Metrics.isEnabled());
+		hero.hit(monster);
+		assertTrue(((String) server.invoke(name, "dump", null, null)).contains("counter hits 1"));
+		Metrics.unregisterMBean();
+		assertFalse(server.isRegistered(name));
+	}
+}
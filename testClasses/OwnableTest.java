@@ -64,4 +64,39 @@ public class OwnableTest {
 	public void testIllegalHolder(){
 		assertFalse(weapon.canHaveAsHolder(armor));
 	}
+	
+	@Test
+	public void testTryGetIdentification(){
+		assertEquals(weapon.getIdentification(), weapon.tryGetIdentification().getAsLong());
+		assertTrue(weapon.tryGetHolder().get() == backpack);
+		backpack.removeFromStorageAndTerminate(weapon);
+		assertFalse(weapon.tryGetIdentification().isPresent());
+		assertFalse(weapon.tryGetHolder().isPresent());
+	}
+	
+	@Test
+	public void testTryGetHolder_NoHolder(){
+		Weapon loose = new Weapon(1, Unit.KG, 14);
+		assertFalse(loose.tryGetHolder().isPresent());
+	}
+	
+	@Test
+	public void testTerminatedExceptionIsStackless(){
+		backpack.removeFromStorageAndTerminate(weapon);
+		OwnableIsTerminatedException first = null;
+		OwnableIsTerminatedException second = null;
+		try {
+			weapon.getIdentification();
+		} catch (OwnableIsTerminatedException e) {
+			first = e;
+		}
+		try {
+			weapon.getHolder();
+		} catch (OwnableIsTerminatedException e) {
+			second = e;
+		}
+		assertSame(weapon, first.getOwnable());
+		assertSame(first, second);
+		assertEquals(0, first.getStackTrace().length);
+	}
 }
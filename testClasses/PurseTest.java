@@ -64,6 +64,28 @@ public class PurseTest {
 		assertFalse(purse.canAddToStorage(new Ducat(100)));
 	}
 	
+	@Test
+	public void testCannotBreakOutsideBackpack(){
+		purse.addToStorage(ducat);
+		assertEquals(AdmissionResult.OVER_CAPACITY, purse.getAdmission(new Ducat(2)));
+		assertFalse(purse.getBroken());
+		assertEquals(79, purse.getValue().getValue());
+		hero.addToAnchor(purse, "Belt");
+		assertFalse(purse.canAddToStorage(new Ducat(2)));
+		assertTrue(purse.canAddToStorage(new Ducat(1)));
+	}
+	
+	@Test
+	public void testBreakInBackpackKeepsContent(){
+		purse.addToStorage(ducat);
+		backpack.addToStorage(purse);
+		purse.addToStorage(new Ducat(2));
+		assertTrue(purse.getBroken());
+		assertEquals(0, purse.getValue().getValue());
+		assertEquals(132 + 81, backpack.getValue().getValue());
+		assertTrue(backpack.canTakeOutOfStorage(new Ducat(81)));
+	}
+	
 	@Test (expected = IllegalArgumentException.class)
 	public void testAddToStorageException() throws IllegalArgumentException {
 		purse.addToStorage(hero);
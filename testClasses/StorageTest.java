@@ -105,5 +105,32 @@ public class StorageTest {
 	public void testRemoveFromStorageAndTerminateException() throws IllegalArgumentException {
 		backpack1.removeFromStorageAndTerminate(armor);
 	}
-
+	
+	@Test
+	public void testTryAddToStorage(){
+		assertTrue(backpack1.tryAddToStorage(weapon));
+		assertTrue(weapon.getHolder() == backpack1);
+		assertFalse(backpack2.tryAddToStorage(weapon));
+		assertFalse(purse.tryAddToStorage(armor));
+	}
+	
+	@Test
+	public void testTryTransferToStorage(){
+		backpack1.addToStorage(weapon);
+		assertFalse(backpack1.tryTransferToStorage(purse, weapon));
+		assertTrue(weapon.getHolder() == backpack1);
+		assertTrue(backpack1.ownableInBackpack(weapon));
+		assertFalse(backpack1.tryTransferToStorage(backpack2, armor));
+		assertTrue(backpack1.tryTransferToStorage(backpack2, weapon));
+		assertTrue(weapon.getHolder() == backpack2);
+	}
+	
+	@Test
+	public void testTryTransferToCreature(){
+		backpack1.addToStorage(weapon);
+		assertFalse(backpack1.tryTransferToCreature(weapon, hero, "Belt"));
+		assertTrue(weapon.getHolder() == backpack1);
+		assertTrue(backpack1.tryTransferToCreature(weapon, hero, "Left hand"));
+		assertTrue(weapon.getHolder() == hero);
+	}
 }
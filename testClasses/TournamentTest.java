@@ -0,0 +1,305 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TournamentTest {
+
+	/**
+	 * A class of entrants that make a monster without possessions.
+	 */
+	private static class MonsterEntrant implements TournamentEntrant {
+
+		MonsterEntrant(String name, int hitpoints, int damage){
+			this.name = name;
+			this.hitpoints = hitpoints;
+			this.damage = damage;
+		}
+
+		private final String name;
+
+		private final int hitpoints;
+
+		private final int damage;
+
+		@Override
+		public String getName(){
+			return this.name;
+		}
+
+		@Override
+		public Creature createCreature(World world){
+			return new Monster(world, "Monster", new BigDecimal(20), this.hitpoints,
+					new ArrayList<String>(Arrays.asList("Left hand", "Right hand")),
+					new ArrayList<Object>(), this.damage, 50);
+		}
+	}
+
+	/**
+	 * An entrant that makes a hero with a weapon and an armor.
+	 */
+	private static final TournamentEntrant HERO = new TournamentEntrant(){
+		@Override
+		public String getName(){
+			return "Eend";
+		}
+
+		@Override
+		public Creature createCreature(World world){
+			return new Hero(world, "Eend", new BigDecimal(20), 97,
+					new ArrayList<Object>(Arrays.asList(new Weapon(world, 1, Unit.KG, 49), null, null,
+							new Armor(world, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+		}
+	};
+
+	/**
+	 * Return the given number of monster entrants.
+	 */
+	private static List<TournamentEntrant> monsters(int number){
+		List<TournamentEntrant> entrants = new ArrayList<TournamentEntrant>();
+		for (int i = 0; i < number; i++){
+			entrants.add(new MonsterEntrant("Monster " + i, 97, 7));
+		}
+		return entrants;
+	}
+
+	/**
+	 * Check that the given standings are ranked and add up.
+	 */
+	private static void checkStandings(List<Standing> standings, int matches){
+		int wins = 0, draws = 0, losses = 0;
+		for (int i = 0; i < standings.size(); i++){
+			Standing standing = standings.get(i);
+			assertEquals(i + 1, standing.getRank());
+			if (i > 0){
+				assertTrue(standings.get(i - 1).getPoints() >= standing.getPoints());
+			}
+			wins += standing.getWins();
+			draws += standing.getDraws();
+			losses += standing.getLosses();
+		}
+		assertEquals(wins, losses);
+		assertEquals(matches, wins + draws / 2);
+	}
+
+	@Test
+	public void testConstructor(){
+		List<TournamentEntrant> entrants = monsters(3);
+		Tournament tournament = new Tournament(entrants, 2, 5);
+		assertEquals(entrants, tournament.getEntrants());
+		assertEquals(2, tournament.getNumberOfThreads());
+		assertEquals(5, tournament.getMaximumInFlight());
+		assertEquals(0, tournament.getNumberOfMatches());
+		assertEquals(3, tournament.getStandings().size());
+		assertFalse(tournament.isCancelled());
+		tournament.setMatchTimeout(500);
+		assertEquals(500, tournament.getMatchTimeout());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorOneEntrant(){
+		new Tournament(monsters(1));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorTwice(){
+		new Tournament(Arrays.asList(HERO, HERO));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructorNoMatchesInFlight(){
+		new Tournament(monsters(2), 1, 0);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testSetMatchTimeoutInvalid(){
+		new Tournament(monsters(2)).setMatchTimeout(0);
+	}
+
+	@Test
+	public void testRoundRobin() throws InterruptedException {
+		List<TournamentEntrant> entrants = new ArrayList<TournamentEntrant>(monsters(4));
+		final TournamentEntrant otherHero = new TournamentEntrant(){
+			@Override
+			public String getName(){
+				return "Kip";
+			}
+
+			@Override
+			public Creature createCreature(World world){
+				return HERO.createCreature(world);
+			}
+		};
+		entrants.add(HERO);
+		entrants.add(otherHero);
+		final Tournament tournament = new Tournament(entrants, 3, 4);
+		final List<MatchResult> results = new ArrayList<MatchResult>();
+		List<Standing> standings = tournament.playRoundRobin(new TournamentListener(){
+			@Override
+			public void handle(MatchResult result, List<Standing> standings){
+				results.add(result);
+				checkStandings(standings, results.size());
+				List<Standing> now = tournament.getStandings();
+				int played = tournament.getNumberOfMatchesPlayed();
+				assertTrue(played >= results.size());
+				int matches = 0;
+				for (Standing standing: now){
+					matches += standing.getMatches();
+				}
+				assertTrue(matches / 2 >= results.size() && matches / 2 <= played);
+			}
+		});
+		assertEquals(15, tournament.getNumberOfMatches());
+		assertEquals(15, tournament.getNumberOfMatchesPlayed());
+		assertEquals(15, results.size());
+		checkStandings(standings, 15);
+		for (Standing standing: standings){
+			assertEquals(5, standing.getMatches());
+		}
+		for (MatchResult result: results){
+			assertEquals(1, result.getRound());
+			assertFalse(result.isTimedOut());
+			boolean heroes = (result.getFirst() == HERO || result.getFirst() == otherHero) &&
+					(result.getSecond() == HERO || result.getSecond() == otherHero);
+			assertEquals(heroes, result.isDraw());
+			assertEquals(heroes, result.getNumberOfHits() == 0);
+		}
+		assertTrue(Tournament.toTable(standings).contains("Kip"));
+		assertNull(tournament.getChampion());
+	}
+
+	@Test
+	public void testKnockout() throws InterruptedException {
+		List<TournamentEntrant> entrants = monsters(5);
+		entrants.add(1, new MonsterEntrant("Boemkool", 997, 98));
+		Tournament tournament = new Tournament(entrants, 2, 2);
+		final List<MatchResult> results = new ArrayList<MatchResult>();
+		List<Standing> standings = tournament.playKnockout(new TournamentListener(){
+			@Override
+			public void handle(MatchResult result, List<Standing> standings){
+				results.add(result);
+			}
+		});
+		assertEquals(5, tournament.getNumberOfMatches());
+		assertEquals(5, results.size());
+		checkStandings(standings, 5);
+		TournamentEntrant champion = tournament.getChampion();
+		assertNotNull(champion);
+		int rounds = 0;
+		for (MatchResult result: results){
+			assertFalse(result.isDraw());
+			rounds = Math.max(rounds, result.getRound());
+		}
+		assertEquals(3, rounds);
+		for (Standing standing: standings){
+			if (standing.getEntrant() == champion){
+				assertEquals(0, standing.getLosses());
+			}
+			else {
+				assertTrue(standing.getLosses() == 1 || standing.getMatches() == 0);
+			}
+		}
+	}
+
+	@Test
+	public void testKnockoutKeepsItsThreads() throws InterruptedException {
+		Tournament tournament = new Tournament(monsters(8), 1, 1);
+		final Set<Thread> threads = new HashSet<Thread>();
+		tournament.playKnockout(new TournamentListener(){
+			@Override
+			public void handle(MatchResult result, List<Standing> standings){
+				threads.add(Thread.currentThread());
+			}
+		});
+		assertNotNull(tournament.getChampion());
+		// All three rounds are fought on the one thread of the tournament.
+		assertEquals(1, threads.size());
+	}
+
+	@Test (expected = IllegalStateException.class)
+	public void testPlayTwice() throws InterruptedException {
+		Tournament tournament = new Tournament(monsters(2));
+		tournament.playKnockout();
+		tournament.playRoundRobin();
+	}
+
+	@Test
+	public void testTimeout() throws InterruptedException {
+		TournamentEntrant slow = new TournamentEntrant(){
+			@Override
+			public String getName(){
+				return "Slak";
+			}
+
+			@Override
+			public Creature createCreature(World world){
+				try {
+					Thread.sleep(30);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return new MonsterEntrant("Slak", 97, 7).createCreature(world);
+			}
+		};
+		Tournament tournament = new Tournament(Arrays.asList(slow, monsters(1).get(0)), 1, 1);
+		tournament.setMatchTimeout(5);
+		final List<MatchResult> results = new ArrayList<MatchResult>();
+		List<Standing> standings = tournament.playRoundRobin(new TournamentListener(){
+			@Override
+			public void handle(MatchResult result, List<Standing> standings){
+				results.add(result);
+			}
+		});
+		assertTrue(results.get(0).isTimedOut());
+		assertTrue(results.get(0).isDraw());
+		assertEquals(0, results.get(0).getNumberOfHits());
+		assertEquals(1, standings.get(0).getDraws());
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		final Tournament tournament = new Tournament(monsters(30), 2, 2);
+		final AtomicInteger handled = new AtomicInteger();
+		List<Standing> standings = tournament.playRoundRobin(new TournamentListener(){
+			@Override
+			public void handle(MatchResult result, List<Standing> standings){
+				handled.incrementAndGet();
+				tournament.cancel();
+			}
+		});
+		assertTrue(tournament.isCancelled());
+		assertEquals(435, tournament.getNumberOfMatches());
+		assertTrue(tournament.getNumberOfMatchesPlayed() <= 2);
+		assertEquals(handled.get(), tournament.getNumberOfMatchesPlayed());
+		checkStandings(standings, tournament.getNumberOfMatchesPlayed());
+	}
+
+	@Test
+	public void testFailingEntrant() throws InterruptedException {
+		TournamentEntrant failing = new TournamentEntrant(){
+			@Override
+			public String getName(){
+				return "Kapot";
+			}
+
+			@Override
+			public Creature createCreature(World world){
+				return new MonsterEntrant("Kapot", 97, 7).createCreature(new World());
+			}
+		};
+		List<TournamentEntrant> entrants = monsters(6);
+		entrants.add(failing);
+		Tournament tournament = new Tournament(entrants, 2, 3);
+		try {
+			tournament.playRoundRobin();
+			fail();
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertTrue(tournament.getNumberOfMatchesPlayed() < 21);
+	}
+}
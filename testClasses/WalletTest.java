@@ -0,0 +1,77 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class WalletTest {
+
+	Weapon weapon1, weapon2;
+	Armor armor;
+	Backpack backpack1, backpack2;
+	Purse purse1, purse2;
+	Hero hero;
+	
+	@Before
+	public void setUpFixture(){
+		weapon1 = new Weapon(2, Unit.KG, 14);
+		weapon2 = new Weapon(1, Unit.KG, 21);
+		armor = new Armor(2477, 84, new Ducat(752), 10, Unit.KG);
+		backpack1 = new Backpack(new Ducat(132), 261, 1, Unit.KG);
+		backpack2 = new Backpack(new Ducat(20), 100, 1, Unit.KG);
+		purse1 = new Purse(222, Unit.GRAM, 5000);
+		purse2 = new Purse(222, Unit.GRAM, 5000);
+		purse1.addToStorage(new Ducat(47));
+		purse2.addToStorage(new Ducat(13));
+		backpack2.addToStorage(weapon2);
+		backpack2.addToStorage(purse2);
+		backpack2.addToStorage(new Ducat(5));
+		backpack1.addToStorage(backpack2);
+		backpack1.addToStorage(new Ducat(9));
+		hero = new Hero("Eend", new BigDecimal("264.15"), 237,
+				new ArrayList<Object>(Arrays.asList(weapon1, null, backpack1, armor, purse1)));
+	}
+	
+	@Test
+	public void testWallet(){
+		Wallet wallet = hero.getWallet();
+		assertEquals(14, wallet.getLooseDucats().getValue());
+		assertEquals(60, wallet.getPurseDucats().getValue());
+		assertEquals(74, wallet.getLiquidFunds().getValue());
+		assertEquals(152, wallet.getBackpackValue().getValue());
+		assertEquals(weapon1.getValue().getValue() + weapon2.getValue().getValue() + armor.getValue().getValue(),
+				wallet.getEquipmentValue().getValue());
+	}
+	
+	@Test
+	public void testWallet_SameAsAnchorValues(){
+		long total = 0;
+		for (Object object: hero.getAnchors().values()){
+			if (object instanceof Ownable){
+				total = total + ((Ownable) object).getValue().getValue();
+			}
+			if (object instanceof Ducat){
+				total = total + ((Ducat) object).getValue();
+			}
+		}
+		assertEquals(total, hero.getWallet().getTotal().getValue());
+	}
+	
+	@Test
+	public void testWallet_Equals(){
+		Wallet wallet = hero.getWallet();
+		assertEquals(wallet, hero.getWallet());
+		assertEquals(wallet.hashCode(), hero.getWallet().hashCode());
+		backpack1.addToStorage(new Ducat(1));
+		assertFalse(wallet.equals(hero.getWallet()));
+		assertFalse(wallet.equals(null));
+		assertFalse(wallet.equals(wallet.getTotal()));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testWallet_NullCreature(){
+		new Wallet(null);
+	}
+}
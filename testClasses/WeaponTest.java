@@ -33,6 +33,13 @@ public class WeaponTest {
 		weapon.getCurrentDamage();
 	}
 	
+	@Test
+	public void testTryGetCurrentDamage(){
+		assertEquals(42, weapon.tryGetCurrentDamage().getAsInt());
+		backpack.removeFromStorageAndTerminate(weapon);
+		assertFalse(weapon.tryGetCurrentDamage().isPresent());
+	}
+	
 	@Test (expected = OwnableIsTerminatedException.class)
 	public void testGetMaximumDamageTerminated() throws OwnableIsTerminatedException {
 		backpack.removeFromStorageAndTerminate(weapon);
@@ -73,4 +80,27 @@ public class WeaponTest {
 	public void testInvalidValue(){
 		assertFalse(weapon.isValidValue(new Ducat(201)));
 	}
+	
+	@Test
+	public void testTerminate_ReleasesIdentification(){
+		World world = weapon.getWorld();
+		long identification = weapon.getIdentification();
+		int numberOfWeapons = world.getNumberOfWeapons();
+		backpack.removeFromStorageAndTerminate(weapon);
+		assertTrue(weapon.getTerminated());
+		assertEquals(numberOfWeapons - 1, world.getNumberOfWeapons());
+		assertFalse(world.hasWeapon(identification));
+		assertTrue(Weapon.canHaveAsIdentification(identification));
+	}
+	
+	@Test
+	public void testTerminate_DetachedFromBackpack(){
+		Backpack outer = new Backpack(new Ducat(10), 300, 1, Unit.KG);
+		outer.addToStorage(backpack);
+		assertTrue(outer.ownableInBackpack(weapon));
+		outer.removeFromStorageAndTerminate(backpack);
+		assertTrue(weapon.getTerminated());
+		assertFalse(backpack.getContent().contains(weapon));
+		assertEquals(1, backpack.getTotalWeight(Unit.KG), 0.001);
+	}
 }
@@ -0,0 +1,148 @@
+package testClasses;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+import heroes_and_monsters.*;
+import java.math.BigDecimal;
+import java.util.*;
+
+public class WorldTest {
+
+	World world1;
+	World world2;
+	Hero hero1;
+	Hero hero2;
+	Backpack backpack1;
+	Weapon weapon2;
+
+	@Before
+	public void setUpFixture(){
+		world1 = new World();
+		world2 = new World();
+		hero1 = new Hero(world1, "Hero", 89, new Armor(world1, 2477, 20, new Ducat(100), 1, Unit.KG));
+		hero2 = new Hero(world2, "Heroine", 89, new Armor(world2, 2477, 20, new Ducat(100), 1, Unit.KG));
+		backpack1 = new Backpack(world1, new Ducat(10), 100, 1, Unit.KG);
+		weapon2 = new Weapon(world2, 2, Unit.KG, 14);
+	}
+
+	@Test
+	public void testDefaultWorld(){
+		Weapon weapon = new Weapon(2, Unit.KG, 14);
+		assertSame(World.getDefaultWorld(), weapon.getWorld());
+		assertTrue(World.getDefaultWorld().getWeapons().contains(weapon.getIdentification()));
+		assertFalse(world1.getWeapons().contains(weapon.getIdentification()));
+	}
+
+	@Test
+	public void testGetWorld(){
+		assertSame(world1, hero1.getWorld());
+		assertSame(world2, hero2.getWorld());
+		assertSame(world1, backpack1.getWorld());
+		assertSame(world2, weapon2.getWorld());
+	}
+
+	@Test
+	public void testSeparateRegistries(){
+		assertEquals(1, world1.getArmors().size());
+		assertEquals(1, world1.getBackpacks().size());
+		assertTrue(world1.getWeapons().isEmpty());
+		assertEquals(1, world2.getWeapons().size());
+		assertTrue(world2.getBackpacks().isEmpty());
+		assertEquals(hero1.getAnchors().get("Body").getClass(), Armor.class);
+		assertEquals(((Armor) hero1.getAnchors().get("Body")).getIdentification(),
+				((Armor) hero2.getAnchors().get("Body")).getIdentification());
+	}
+
+	@Test
+	public void testFirstBackpackOfEveryWorld(){
+		Backpack backpack2 = new Backpack(world2, new Ducat(10), 100, 1, Unit.KG);
+		assertEquals(backpack1.getIdentification(), backpack2.getIdentification());
+	}
+
+	@Test
+	public void testMaxDamage(){
+		weapon2.setMaximumDamage(50);
+		assertEquals(50, world2.getWeaponMaxDamage());
+		assertEquals(100, world1.getWeaponMaxDamage());
+		assertEquals(100, new Weapon(world1, 1, Unit.KG, 14).getMaximumDamage());
+		world1.setMonsterMaxDamage(70);
+		assertEquals(100, world2.getMonsterMaxDamage());
+		world1.setMonsterMaxDamage(0);
+		assertEquals(70, world1.getMonsterMaxDamage());
+	}
+
+	@Test
+	public void testHeroCapacities(){
+		Hero strong = new Hero(world1, "Strong", new BigDecimal(15), 89,
+				new ArrayList<Object>(Arrays.asList(null, null, null,
+						new Armor(world1, 2477, 20, new Ducat(100), 1, Unit.KG), null)));
+		assertEquals(200, strong.getMaximumCapacity(Unit.KG), 0.001);
+		world1.setHeroCapacities(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+		assertEquals(5, strong.getMaximumCapacity(Unit.KG), 0.001);
+		assertEquals(175, World.getDefaultWorld().getHeroCapacity(14));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testHeroCapacities_IllegalSize(){
+		world1.setHeroCapacities(Arrays.asList(1, 2, 3));
+	}
+
+	@Test
+	public void testCrossWorldAnchor(){
+		assertFalse(hero1.canAddToAnchor(weapon2, "Left hand"));
+		assertTrue(hero2.canAddToAnchor(weapon2, "Left hand"));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testCrossWorldAnchor_Illegal(){
+		hero1.addToAnchor(weapon2, "Left hand");
+	}
+
+	@Test
+	public void testCrossWorldStorage(){
+		assertFalse(backpack1.canAddToStorage(weapon2));
+		assertTrue(backpack1.canAddToStorage(new Weapon(world1, 2, Unit.KG, 14)));
+		assertFalse(weapon2.canHaveAsHolder(backpack1));
+		assertTrue(weapon2.canHaveAsHolder(hero2));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testCrossWorldHit(){
+		hero1.hit(hero2);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullWorld(){
+		new Weapon(null, 2, Unit.KG, 14);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testNullWorld_Hero(){
+		new Hero(null, "Hero", 89, new Armor(2477, 20, new Ducat(100), 1, Unit.KG));
+	}
+
+	@Test
+	public void testReclaimPolicy_Reuse(){
+		assertEquals(ReclaimPolicy.REUSE, world2.getReclaimPolicy());
+		long identification = weapon2.getIdentification();
+		hero2.addToAnchor(weapon2, "Left hand");
+		hero2.dropFromAnchorAndTerminate(weapon2);
+		assertFalse(world2.hasWeapon(identification));
+		assertEquals(0, world2.getNumberOfWeapons());
+	}
+
+	@Test
+	public void testReclaimPolicy_Retain(){
+		world2.setReclaimPolicy(ReclaimPolicy.RETAIN);
+		long identification = weapon2.getIdentification();
+		hero2.addToAnchor(weapon2, "Left hand");
+		hero2.dropFromAnchorAndTerminate(weapon2);
+		assertTrue(world2.hasWeapon(identification));
+		assertEquals(1, world2.getNumberOfWeapons());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testReclaimPolicy_Null(){
+		world1.setReclaimPolicy(null);
+	}
+}